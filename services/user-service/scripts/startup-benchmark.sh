@@ -0,0 +1,83 @@
+#!/usr/bin/env bash
+#
+# Compares startup of the regular jar with the fast-startup build (Spring AOT + AppCDS).
+#
+#   mvn -Pfast-startup package -DskipTests
+#   scripts/startup-benchmark.sh [runs] [-- extra application arguments]
+#
+# For every mode the service is started <runs> times (default 5). Reported per mode, as median and max:
+#   ttfr  - time from process start to the first HTTP response on /actuator/health
+#   rss   - resident set size right after that first response
+#
+# Needs the database the service connects to; BENCH_PORT (default 18090) selects the HTTP port.
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+shift || true
+[[ "${1:-}" == "--" ]] && shift
+EXTRA_ARGS=("$@")
+
+PORT=${BENCH_PORT:-18090}
+JAR=$(ls target/user-service-*.jar | grep -v -- '-plain' | head -1)
+FAST_DIR=target/fast-startup
+FAST_JAR="$FAST_DIR/$(basename "$JAR")"
+ARCHIVE="$FAST_DIR/user-service.jsa"
+
+if [[ ! -f "$FAST_JAR" || ! -f "$ARCHIVE" ]]; then
+    echo "Missing $FAST_JAR or $ARCHIVE; build with: mvn -Pfast-startup package -DskipTests" >&2
+    exit 1
+fi
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# run <label> <java args...>: prints "<ttfr ms> <rss KiB>"
+run_once() {
+    local start pid ttfr rss
+    start=$(now_ms)
+    java "$@" --server.port="$PORT" "${EXTRA_ARGS[@]}" > /tmp/startup-benchmark.log 2>&1 &
+    pid=$!
+
+    until curl -s -o /dev/null "http://localhost:$PORT/actuator/health"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "Service exited during startup, see /tmp/startup-benchmark.log" >&2
+            exit 1
+        fi
+        sleep 0.01
+    done
+    ttfr=$(( $(now_ms) - start ))
+    rss=$(awk '/^VmRSS/ { print $2 }' "/proc/$pid/status")
+
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo "$ttfr $rss"
+}
+
+# stats <values...>: prints "median max"
+stats() {
+    printf '%s\n' "$@" | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)], v[NR] }'
+}
+
+benchmark() {
+    local label=$1
+    shift
+    local ttfrs=() rsss=() result
+    for ((i = 1; i <= RUNS; i++)); do
+        result=$(run_once "$@")
+        ttfrs+=("${result% *}")
+        rsss+=("${result#* }")
+    done
+    read -r ttfr_median ttfr_max <<< "$(stats "${ttfrs[@]}")"
+    read -r rss_median rss_max <<< "$(stats "${rsss[@]}")"
+    printf '%-14s %10s %10s %12s %12s\n' "$label" "$ttfr_median" "$ttfr_max" \
+        "$(( rss_median / 1024 ))" "$(( rss_max / 1024 ))"
+}
+
+printf '%-14s %10s %10s %12s %12s\n' "mode" "ttfr p50" "ttfr max" "rss p50 MiB" "rss max MiB"
+benchmark "jar" -jar "$JAR"
+benchmark "aot" -Dspring.aot.enabled=true -jar "$FAST_JAR"
+benchmark "aot+appcds" -XX:SharedArchiveFile="$ARCHIVE" -Xlog:cds=off -Dspring.aot.enabled=true -jar "$FAST_JAR"
@@ -0,0 +1,171 @@
+package com.shopflow.user.admission;
+
+import com.shopflow.user.encoding.Encodings;
+import com.shopflow.user.service.exception.GlobalExceptionHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Sheds load before it reaches the controllers. A client over its token-bucket rate gets
+ * {@code 429 TOO_MANY_REQUESTS}; a request whose endpoint class is at its adaptive concurrency limit gets
+ * {@code 503 SERVICE_OVERLOADED}. Both are answered immediately with a {@code Retry-After} header and the
+ * usual {@link GlobalExceptionHandler.ErrorResponse} body, in the encoding the client accepts, so a slow database turns into fast rejections
+ * instead of requests queueing in Tomcat until every endpoint times out.
+ */
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AdmissionProperties properties;
+    private final Encodings encodings;
+    private final ClientRateLimiter rateLimiter;
+    private final Map<EndpointClass, ConcurrencyLimiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> concurrencyRejections = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rateRejections = new EnumMap<>(EndpointClass.class);
+
+    public AdmissionControlFilter(AdmissionProperties properties, Encodings encodings, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.encodings = encodings;
+
+        AdmissionProperties.Rate rate = properties.getRate();
+        this.rateLimiter = rate.isEnabled()
+                ? new ClientRateLimiter(rate.getCapacity(), rate.getRefillPerSecond(), rate.getMaxClients(),
+                        rate.getIdleTimeout().toNanos())
+                : null;
+
+        AdmissionProperties.Concurrency concurrency = properties.getConcurrency();
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            String tag = endpointClass.name().toLowerCase(Locale.ROOT);
+
+            if (concurrency.isEnabled()) {
+                ConcurrencyLimiter limiter = new ConcurrencyLimiter(new GradientLimit(
+                        concurrency.getInitialLimit(), concurrency.getMinLimit(), concurrency.getMaxLimit(),
+                        concurrency.getSmoothing(), concurrency.getTolerance(),
+                        concurrency.getLongWindow(), concurrency.getShortWindow()));
+                limiters.put(endpointClass, limiter);
+
+                Gauge.builder("shopflow.admission.limit", limiter, ConcurrencyLimiter::getLimit)
+                        .description("Current adaptive concurrency limit")
+                        .tag("class", tag)
+                        .register(meterRegistry);
+                Gauge.builder("shopflow.admission.inflight", limiter, ConcurrencyLimiter::getInFlight)
+                        .description("Requests currently admitted")
+                        .tag("class", tag)
+                        .register(meterRegistry);
+            }
+
+            concurrencyRejections.put(endpointClass, Counter.builder("shopflow.admission.rejected")
+                    .description("Requests shed by admission control")
+                    .tags("class", tag, "reason", "concurrency")
+                    .register(meterRegistry));
+            rateRejections.put(endpointClass, Counter.builder("shopflow.admission.rejected")
+                    .description("Requests shed by admission control")
+                    .tags("class", tag, "reason", "rate")
+                    .register(meterRegistry));
+        }
+
+        if (rateLimiter != null) {
+            Gauge.builder("shopflow.admission.clients", rateLimiter, ClientRateLimiter::getTrackedClients)
+                    .description("Clients with a live token bucket")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(properties.getPathPrefix());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+
+        EndpointClass endpointClass = EndpointClass.of(request.getMethod(), request.getRequestURI());
+
+        if (rateLimiter != null) {
+            String client = clientKey(request);
+            long now = System.nanoTime();
+            if (!rateLimiter.tryAcquire(client, now)) {
+                rateRejections.get(endpointClass).increment();
+                reject(request, response, HttpStatus.TOO_MANY_REQUESTS, "TOO_MANY_REQUESTS",
+                        "Rate limit exceeded", rateLimiter.retryAfterSeconds(client, now));
+                return;
+            }
+        }
+
+        ConcurrencyLimiter limiter = limiters.get(endpointClass);
+        if (limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        int inFlight = limiter.tryAcquire();
+        if (inFlight < 0) {
+            concurrencyRejections.get(endpointClass).increment();
+            reject(request, response, HttpStatus.SERVICE_UNAVAILABLE, "SERVICE_OVERLOADED",
+                    "Service is overloaded, retry later", properties.getConcurrency().getRetryAfter().toSeconds());
+            return;
+        }
+
+        long start = System.nanoTime();
+        long rtt = -1;
+        try {
+            filterChain.doFilter(request, response);
+            // an async request (change-feed long poll) is parked, not working; its time says nothing about capacity
+            if (response.getStatus() < 500 && !request.isAsyncStarted()) {
+                rtt = System.nanoTime() - start;
+            }
+        } finally {
+            limiter.release(inFlight, rtt);
+        }
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String header = properties.getRate().getClientIdHeader();
+        if (header != null) {
+            String clientId = request.getHeader(header);
+            if (clientId != null && !clientId.isBlank()) {
+                return clientId;
+            }
+        }
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return principal.getName();
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String code, String message,
+                        long retryAfterSeconds) throws IOException {
+        String correlationId = MDC.get("correlationId");
+        log.debug("[Admission] {} {} | correlationId={}", status.value(), code, correlationId);
+
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, retryAfterSeconds)));
+        MediaType encoding = encodings.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        response.setContentType(encoding.toString());
+        encodings.mapper(encoding).writeValue(response.getOutputStream(), new GlobalExceptionHandler.ErrorResponse(
+                Instant.now(),
+                status.value(),
+                code,
+                message,
+                correlationId
+        ));
+    }
+}
@@ -0,0 +1,77 @@
+package com.shopflow.user.admission;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shopflow.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Only requests under this prefix are subject to admission control; actuator and error pages are not.
+     */
+    private String pathPrefix = "/api/";
+
+    private final Concurrency concurrency = new Concurrency();
+
+    private final Rate rate = new Rate();
+
+    @Getter
+    @Setter
+    public static class Concurrency {
+        private boolean enabled = true;
+        private int initialLimit = 20;
+        private int minLimit = 4;
+        private int maxLimit = 200;
+
+        /**
+         * How far each sample moves the limit towards its new target, between 0 and 1.
+         */
+        private double smoothing = 0.2;
+
+        /**
+         * Current latency may exceed the baseline by this factor before the limit starts shrinking.
+         */
+        private double tolerance = 1.5;
+
+        /**
+         * Samples averaged into the baseline (long) and current (short) latency.
+         */
+        private int longWindow = 600;
+        private int shortWindow = 10;
+
+        /**
+         * {@code Retry-After} sent with 503 responses.
+         */
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Rate {
+        private boolean enabled = true;
+
+        /**
+         * Burst size: requests a client may send at once after being idle.
+         */
+        private int capacity = 100;
+
+        private double refillPerSecond = 50;
+
+        /**
+         * Header set by a trusted gateway to identify the calling client. When absent the authenticated
+         * principal, then the remote address, is used.
+         */
+        private String clientIdHeader;
+
+        private int maxClients = 10_000;
+
+        private Duration idleTimeout = Duration.ofMinutes(10);
+    }
+}
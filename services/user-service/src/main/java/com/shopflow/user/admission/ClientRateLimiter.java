@@ -0,0 +1,58 @@
+package com.shopflow.user.admission;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * One {@link TokenBucket} per client key. The map is bounded: once it holds {@code maxClients} buckets, the
+ * ones idle for longer than {@code idleTimeoutNanos} are dropped, and clients that still do not fit share a
+ * single overflow bucket rather than growing the map without limit.
+ */
+public class ClientRateLimiter {
+
+    private final double capacity;
+    private final double refillPerSecond;
+    private final int maxClients;
+    private final long idleTimeoutNanos;
+
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final TokenBucket overflow;
+
+    public ClientRateLimiter(double capacity, double refillPerSecond, int maxClients, long idleTimeoutNanos) {
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+        this.maxClients = maxClients;
+        this.idleTimeoutNanos = idleTimeoutNanos;
+        this.overflow = new TokenBucket(capacity, refillPerSecond, System.nanoTime());
+    }
+
+    public boolean tryAcquire(String client, long nowNanos) {
+        return bucket(client, nowNanos).tryTake(nowNanos);
+    }
+
+    public long retryAfterSeconds(String client, long nowNanos) {
+        return Math.max(1, bucket(client, nowNanos).secondsUntilNextToken(nowNanos));
+    }
+
+    public int getTrackedClients() {
+        return buckets.size();
+    }
+
+    private TokenBucket bucket(String client, long nowNanos) {
+        TokenBucket bucket = buckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxClients) {
+            evictIdle(nowNanos);
+            if (buckets.size() >= maxClients) {
+                return overflow;
+            }
+        }
+        return buckets.computeIfAbsent(client, key -> new TokenBucket(capacity, refillPerSecond, nowNanos));
+    }
+
+    private void evictIdle(long nowNanos) {
+        buckets.values().removeIf(bucket -> nowNanos - bucket.getLastAccessNanos() > idleTimeoutNanos);
+    }
+}
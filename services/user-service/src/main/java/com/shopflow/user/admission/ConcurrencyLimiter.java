@@ -0,0 +1,49 @@
+package com.shopflow.user.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admits requests while fewer than {@link GradientLimit#getLimit()} are in flight and reports each completed
+ * request's latency back to the limit.
+ */
+public class ConcurrencyLimiter {
+
+    private final GradientLimit limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public ConcurrencyLimiter(GradientLimit limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * @return the in-flight count including this request, or {@code -1} when the request must be shed
+     */
+    public int tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit.getLimit()) {
+                return -1;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return current + 1;
+    }
+
+    /**
+     * @param rttNanos latency of the request, or {@code -1} when it failed and says nothing about capacity
+     */
+    public void release(int inFlightAtStart, long rttNanos) {
+        inFlight.decrementAndGet();
+        if (rttNanos > 0) {
+            limit.onSample(rttNanos, inFlightAtStart);
+        }
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,21 @@
+package com.shopflow.user.admission;
+
+/**
+ * Groups endpoints with similar cost so that each group gets its own adaptive limit: a burst of bcrypt-heavy
+ * signups must not shrink the limit for cheap reads, and slow reads must not starve writes.
+ */
+public enum EndpointClass {
+    READ,
+    WRITE;
+
+    /**
+     * Classifies by method, except for reads that take their input as a POST body, such as {@code /bulk-get}.
+     */
+    public static EndpointClass of(String httpMethod, String path) {
+        return switch (httpMethod) {
+            case "GET", "HEAD", "OPTIONS" -> READ;
+            case "POST" -> path.endsWith("/bulk-get") ? READ : WRITE;
+            default -> WRITE;
+        };
+    }
+}
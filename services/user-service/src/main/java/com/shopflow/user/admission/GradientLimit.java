@@ -0,0 +1,85 @@
+package com.shopflow.user.admission;
+
+/**
+ * Adaptive concurrency limit in the style of Netflix's gradient limiter (itself a variant of TCP Vegas).
+ * <p>
+ * Each completed request contributes a latency sample. A slow exponential average of those samples serves as
+ * the "no queueing" baseline; a fast one tracks current latency. While the two agree the limit keeps growing
+ * by a small queue allowance; once current latency rises above {@code tolerance} times the baseline, the
+ * limit shrinks in proportion to the gap. The limit therefore settles near the concurrency the database can
+ * actually absorb, instead of a hand-tuned constant that is wrong as soon as Postgres slows down.
+ */
+public class GradientLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+    private final double longAlpha;
+    private final double shortAlpha;
+
+    private double estimatedLimit;
+    private double longRttNanos;
+    private double shortRttNanos;
+    private volatile int limit;
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double smoothing, double tolerance,
+                         int longWindow, int shortWindow) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Expected 1 <= minLimit <= maxLimit, got " + minLimit + ", " + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.longAlpha = 2.0 / (longWindow + 1);
+        this.shortAlpha = 2.0 / (shortWindow + 1);
+        this.estimatedLimit = clamp(initialLimit);
+        this.limit = (int) estimatedLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Feeds one completed request.
+     *
+     * @param rttNanos time the request spent in the protected section
+     * @param inFlight concurrent requests when it started, used to ignore samples taken while the limit was
+     *                 not actually the bottleneck
+     */
+    public synchronized void onSample(long rttNanos, int inFlight) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+            shortRttNanos = rttNanos;
+            return;
+        }
+
+        shortRttNanos += shortAlpha * (rttNanos - shortRttNanos);
+        longRttNanos += longAlpha * (shortRttNanos - longRttNanos);
+
+        // after an overload the baseline is polluted with queueing time; let it recover faster
+        if (longRttNanos / shortRttNanos > 2.0) {
+            longRttNanos *= 0.95;
+        }
+
+        // only a limit that is being used tells us anything about whether it is too high
+        if (inFlight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+        double queueSize = Math.sqrt(estimatedLimit);
+        double target = estimatedLimit * gradient + queueSize;
+        estimatedLimit = clamp(estimatedLimit * (1 - smoothing) + target * smoothing);
+        limit = (int) estimatedLimit;
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
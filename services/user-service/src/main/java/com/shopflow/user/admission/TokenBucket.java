@@ -0,0 +1,57 @@
+package com.shopflow.user.admission;
+
+/**
+ * Per-client rate limit: holds up to {@code capacity} tokens, refilled continuously at
+ * {@code refillPerSecond}; each request takes one. Refill is computed lazily on access, so idle buckets cost
+ * nothing.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+
+    private double tokens;
+    private long lastRefillNanos;
+    private volatile long lastAccessNanos;
+
+    public TokenBucket(double capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+        this.lastAccessNanos = nowNanos;
+    }
+
+    public synchronized boolean tryTake(long nowNanos) {
+        lastAccessNanos = nowNanos;
+        refill(nowNanos);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Whole seconds until the next token is available, for the {@code Retry-After} header.
+     */
+    public synchronized long secondsUntilNextToken(long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= 1) {
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / refillPerNano / 1_000_000_000d);
+    }
+
+    public long getLastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
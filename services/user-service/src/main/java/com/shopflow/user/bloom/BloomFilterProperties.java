@@ -0,0 +1,47 @@
+package com.shopflow.user.bloom;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shopflow.bloom")
+public class BloomFilterProperties {
+
+    /**
+     * When disabled the filter is never built and every email is treated as possibly present.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Lower bound for the filter size; a rebuild sizes for twice the current row count if that is larger.
+     */
+    private long expectedInsertions = 1_000_000;
+
+    private double falsePositiveProbability = 0.01;
+
+    /**
+     * Rows fetched per round trip while streaming emails during a rebuild.
+     */
+    private int fetchSize = 10_000;
+
+    /**
+     * Periodic rebuild, which drops deleted emails that stuck in saturated counters and resizes for growth.
+     */
+    private Duration rebuildInterval = Duration.ofHours(6);
+
+    /**
+     * How often emails added by other instances are read from the change feed. Until then a lookup on this
+     * instance can report them absent.
+     */
+    private Duration syncInterval = Duration.ofSeconds(1);
+
+    /**
+     * If the filter has not caught up with the change feed for this long, e.g. because the database is
+     * unreachable, every email counts as possibly present until it has.
+     */
+    private Duration maxStaleness = Duration.ofSeconds(30);
+}
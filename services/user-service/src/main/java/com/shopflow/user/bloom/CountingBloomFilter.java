@@ -0,0 +1,182 @@
+package com.shopflow.user.bloom;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter with 4-bit counters instead of bits, so that keys can be removed again. Sixteen counters are
+ * packed into each {@code long} and updated with CAS, which makes {@link #add}, {@link #remove} and
+ * {@link #mightContain} safe to call from any thread without locking.
+ * <p>
+ * A counter that reaches 15 sticks there and is never decremented: once it has overflowed its true value is
+ * unknown, and decrementing it could turn into a false negative. Removing a key that was never added is the
+ * caller's bug and can cause false negatives too; callers that are unsure should leave the key in and rely on
+ * a periodic rebuild instead.
+ */
+public class CountingBloomFilter {
+
+    private static final int COUNTER_BITS = 4;
+    private static final int COUNTERS_PER_WORD = Long.SIZE / COUNTER_BITS;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    private final AtomicLongArray words;
+    private final long counters;
+    private final int hashFunctions;
+    private final AtomicLong nonZeroCounters = new AtomicLong();
+    private final AtomicLong approximateCount = new AtomicLong();
+
+    public CountingBloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions must be positive: " + expectedInsertions);
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("falsePositiveProbability must be in (0, 1): " + falsePositiveProbability);
+        }
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (ln2 * ln2));
+        long wordCount = (m + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD;
+        if (wordCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Filter for " + expectedInsertions + " keys is too large");
+        }
+        this.words = new AtomicLongArray((int) wordCount);
+        this.counters = wordCount * COUNTERS_PER_WORD;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) counters / expectedInsertions * ln2));
+    }
+
+    public void add(CharSequence key) {
+        long h1 = hash(key);
+        long h2 = secondHash(h1);
+        for (int i = 0; i < hashFunctions; i++) {
+            if (increment(index(h1, h2, i))) {
+                nonZeroCounters.incrementAndGet();
+            }
+        }
+        approximateCount.incrementAndGet();
+    }
+
+    public void remove(CharSequence key) {
+        long h1 = hash(key);
+        long h2 = secondHash(h1);
+        for (int i = 0; i < hashFunctions; i++) {
+            if (decrement(index(h1, h2, i))) {
+                nonZeroCounters.decrementAndGet();
+            }
+        }
+        approximateCount.decrementAndGet();
+    }
+
+    /**
+     * {@code false} means the key was definitely never added (or has been removed); {@code true} means it
+     * probably was.
+     */
+    public boolean mightContain(CharSequence key) {
+        long h1 = hash(key);
+        long h2 = secondHash(h1);
+        for (int i = 0; i < hashFunctions; i++) {
+            if (counter(index(h1, h2, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * False-positive probability implied by the current fill: the chance that all of a fresh key's counters
+     * are non-zero.
+     */
+    public double expectedFalsePositiveProbability() {
+        return Math.pow((double) nonZeroCounters.get() / counters, hashFunctions);
+    }
+
+    public long approximateCount() {
+        return approximateCount.get();
+    }
+
+    public long sizeInBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    private long index(long h1, long h2, int i) {
+        return Math.floorMod(h1 + i * h2, counters);
+    }
+
+    private long counter(long index) {
+        long word = words.get((int) (index / COUNTERS_PER_WORD));
+        return (word >>> shift(index)) & COUNTER_MASK;
+    }
+
+    /**
+     * @return whether the counter went from zero to one
+     */
+    private boolean increment(long index) {
+        int word = (int) (index / COUNTERS_PER_WORD);
+        int shift = shift(index);
+        while (true) {
+            long current = words.get(word);
+            long value = (current >>> shift) & COUNTER_MASK;
+            if (value == COUNTER_MASK) {
+                return false;
+            }
+            if (words.compareAndSet(word, current, current + (1L << shift))) {
+                return value == 0;
+            }
+        }
+    }
+
+    /**
+     * @return whether the counter went from one to zero
+     */
+    private boolean decrement(long index) {
+        int word = (int) (index / COUNTERS_PER_WORD);
+        int shift = shift(index);
+        while (true) {
+            long current = words.get(word);
+            long value = (current >>> shift) & COUNTER_MASK;
+            if (value == 0 || value == COUNTER_MASK) {
+                return false;
+            }
+            if (words.compareAndSet(word, current, current - (1L << shift))) {
+                return value == 1;
+            }
+        }
+    }
+
+    private static int shift(long index) {
+        return (int) (index % COUNTERS_PER_WORD) * COUNTER_BITS;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 code units, followed by the MurmurHash3 finalizer to spread the bits.
+     */
+    static long hash(CharSequence key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            h ^= c & 0xFF;
+            h *= 0x100000001b3L;
+            h ^= c >>> 8;
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    /**
+     * Second hash for Kirsch-Mitzenmacher double hashing; forced odd so it never degenerates to zero.
+     */
+    private static long secondHash(long h1) {
+        return mix(h1 ^ 0x9e3779b97f4a7c15L) | 1;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe1a85ec9L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,313 @@
+package com.shopflow.user.bloom;
+
+import com.shopflow.user.changefeed.ChangeFeedFollower;
+import com.shopflow.user.changefeed.ChangeType;
+import com.shopflow.user.changefeed.UserChange;
+import com.shopflow.user.service.event.UserCreatedEvent;
+import com.shopflow.user.service.event.UserDeletedEvent;
+import com.shopflow.user.service.event.UserUpdatedEvent;
+import com.shopflow.user.service.event.UsersDeletedEvent;
+import com.shopflow.user.service.exception.ChangeFeedExpiredException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers "is there a user with this email?" from memory when the answer is no. Built at startup from a
+ * streaming scan of {@code users} on a background thread, kept current through the user lifecycle events, and
+ * following the change feed for emails added by other instances. Until the first build finishes, and whenever
+ * the filter has not caught up with the feed for {@code max-staleness}, every email counts as possibly present,
+ * so callers just fall through to the database.
+ * <p>
+ * Emails added on this instance are added once their transaction has committed, to the filter being built as
+ * well if a rebuild is running; a duplicate insert racing that short window is still rejected by the unique
+ * constraint. Emails added on other instances arrive with the next {@code sync-interval} tick, and until then a
+ * lookup here can wrongly report them absent. Deleted emails are removed after commit, and only from the filter
+ * that was current when they were deleted: a rebuild may have already scanned the row, and removing a key that
+ * was never added could turn other keys into false negatives. For the same reason deletes read from the feed
+ * are not applied at all; those emails, and the extra count left by adding a local email from both its event
+ * and the feed, stay until the next rebuild and only cost a database lookup.
+ */
+@Slf4j
+public class EmailBloomFilter implements AutoCloseable {
+
+    private static final String SIZE_SQL = "SELECT GREATEST(reltuples, 0)::bigint FROM pg_class WHERE oid = 'users'::regclass";
+    private static final String SCAN_SQL = "SELECT email FROM users";
+
+    private final BloomFilterProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ScheduledExecutorService executor;
+    private final ChangeFeedFollower changeFeed;
+
+    private volatile CountingBloomFilter filter;
+    private volatile CountingBloomFilter building;
+
+    private final AtomicLong definiteNegatives = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+    private final Counter positives;
+    private final Counter rebuilds;
+
+    public EmailBloomFilter(BloomFilterProperties properties, DataSource dataSource,
+                            PlatformTransactionManager transactionManager, ChangeFeedFollower changeFeed,
+                            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.changeFeed = changeFeed;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.getFetchSize());
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "email-bloom-filter");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        FunctionCounter.builder("shopflow.bloom.checks", definiteNegatives, AtomicLong::get)
+                .description("Email existence checks answered by the Bloom filter")
+                .tags("filter", "email", "result", "absent")
+                .register(meterRegistry);
+        this.positives = Counter.builder("shopflow.bloom.checks")
+                .description("Email existence checks answered by the Bloom filter")
+                .tags("filter", "email", "result", "maybe-present")
+                .register(meterRegistry);
+        FunctionCounter.builder("shopflow.bloom.false.positives", falsePositives, AtomicLong::get)
+                .description("Emails the filter reported as possibly present that the database did not have")
+                .tag("filter", "email")
+                .register(meterRegistry);
+        Gauge.builder("shopflow.bloom.false.positive.rate", this, EmailBloomFilter::observedFalsePositiveRate)
+                .description("Share of absent emails that the filter failed to rule out")
+                .tag("filter", "email")
+                .register(meterRegistry);
+        Gauge.builder("shopflow.bloom.expected.false.positive.rate", this, EmailBloomFilter::expectedFalsePositiveRate)
+                .description("False-positive probability implied by the current fill")
+                .tag("filter", "email")
+                .register(meterRegistry);
+        Gauge.builder("shopflow.bloom.size", this, EmailBloomFilter::sizeInBytes)
+                .description("Memory used by the filter counters")
+                .baseUnit("bytes")
+                .tag("filter", "email")
+                .register(meterRegistry);
+        this.rebuilds = Counter.builder("shopflow.bloom.rebuilds")
+                .tag("filter", "email")
+                .register(meterRegistry);
+    }
+
+    /**
+     * {@code false} if no user with this email exists; {@code true} if one might.
+     */
+    public boolean mightContain(String email) {
+        CountingBloomFilter current = filter;
+        if (current == null || email == null || changeFeed.isBehind(properties.getMaxStaleness())) {
+            return true;
+        }
+        if (current.mightContain(normalize(email))) {
+            positives.increment();
+            return true;
+        }
+        definiteNegatives.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Reports that an email the filter let through turned out not to exist.
+     */
+    public void recordFalsePositive() {
+        if (filter != null) {
+            falsePositives.incrementAndGet();
+        }
+    }
+
+    public boolean isReady() {
+        return filter != null && !changeFeed.isBehind(properties.getMaxStaleness());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserCreated(UserCreatedEvent event) {
+        add(normalize(event.email()));
+    }
+
+    /**
+     * Adds a changed email. The previous one is left in place: the event does not carry it, and a stale key
+     * only costs a database lookup until the next rebuild drops it.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserUpdated(UserUpdatedEvent event) {
+        if (event.changedFields().contains("email")) {
+            add(normalize(event.email()));
+        }
+    }
+
+    private void add(String key) {
+        // building before filter: a rebuild publishes filter before clearing building, so this order
+        // cannot miss both
+        CountingBloomFilter next = building;
+        CountingBloomFilter current = filter;
+        if (next != null) {
+            next.add(key);
+        }
+        if (current != null && current != next) {
+            current.add(key);
+        }
+    }
+
+    /**
+     * Runs when the event is published, inside the deleting transaction, to pin the filter that was current
+     * at that point; the removal itself waits for the commit.
+     */
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        evict(List.of(normalize(event.email())));
+    }
+
+    @EventListener
+    public void onUsersDeleted(UsersDeletedEvent event) {
+        List<String> keys = new ArrayList<>(event.users().size());
+        for (UserDeletedEvent user : event.users()) {
+            keys.add(normalize(user.email()));
+        }
+        evict(keys);
+    }
+
+    private void evict(List<String> keys) {
+        CountingBloomFilter target = filter;
+        if (target == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeIfCurrent(target, keys);
+                }
+            });
+        } else {
+            removeIfCurrent(target, keys);
+        }
+    }
+
+    private void removeIfCurrent(CountingBloomFilter target, List<String> keys) {
+        if (filter == target) {
+            keys.forEach(target::remove);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!properties.isEnabled()) {
+            log.info("Email Bloom filter disabled");
+            return;
+        }
+        long interval = properties.getRebuildInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::rebuildQuietly, 0, interval, TimeUnit.MILLISECONDS);
+        long sync = properties.getSyncInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::syncQuietly, sync, sync, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Adds the emails created or changed since the last sync, on any instance. Runs on the caller's thread.
+     *
+     * @throws ChangeFeedExpiredException if the filter fell so far behind that the feed no longer has the
+     *                                    changes; it needs a rebuild
+     */
+    public synchronized void sync() {
+        changeFeed.catchUp(changes -> {
+            for (UserChange change : changes) {
+                if (change.type() != ChangeType.DELETED) {
+                    add(normalize(change.email()));
+                }
+            }
+        });
+    }
+
+    /**
+     * Builds a fresh filter from the table and swaps it in. Runs on the caller's thread.
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        Long estimatedRows = jdbcTemplate.queryForObject(SIZE_SQL, Long.class);
+        long expected = Math.max(properties.getExpectedInsertions(), 2 * (estimatedRows != null ? estimatedRows : 0));
+
+        CountingBloomFilter next = new CountingBloomFilter(expected, properties.getFalsePositiveProbability());
+        building = next;
+        try {
+            ChangeFeedFollower.Mark mark = changeFeed.mark();
+            readOnlyTransaction.executeWithoutResult(status ->
+                    jdbcTemplate.query(SCAN_SQL, (RowCallbackHandler) rs -> next.add(normalize(rs.getString(1)))));
+            filter = next;
+            changeFeed.startAt(mark);
+        } finally {
+            building = null;
+        }
+
+        rebuilds.increment();
+        log.info("Email Bloom filter rebuilt: {} emails, {} KiB, {} hash functions, {} ms",
+                next.approximateCount(), next.sizeInBytes() / 1024, next.hashFunctions(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Email Bloom filter rebuild failed, keeping the previous filter: {}", e.getMessage());
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (ChangeFeedExpiredException e) {
+            log.warn("Email Bloom filter fell behind the change feed, rebuilding: {}", e.getMessage());
+            rebuildQuietly();
+        } catch (RuntimeException e) {
+            log.warn("Email Bloom filter sync failed: {}", e.getMessage());
+        }
+    }
+
+    private double expectedFalsePositiveRate() {
+        CountingBloomFilter current = filter;
+        return current != null ? current.expectedFalsePositiveProbability() : Double.NaN;
+    }
+
+    private double sizeInBytes() {
+        CountingBloomFilter current = filter;
+        return current != null ? current.sizeInBytes() : 0;
+    }
+
+    private double observedFalsePositiveRate() {
+        long fp = falsePositives.get();
+        long total = fp + definiteNegatives.get();
+        return total == 0 ? 0 : (double) fp / total;
+    }
+
+    static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,62 @@
+package com.shopflow.user.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Exposes Hibernate's statistics for second-level cache regions: {@code shopflow.entitycache.requests} by
+ * region and result (hit, miss, put) and {@code shopflow.entitycache.hit.ratio}, hits over lookups since start.
+ */
+public class EntityCacheMetrics {
+
+    private final Statistics statistics;
+
+    public EntityCacheMetrics(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry,
+                              String... regions) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String region : regions) {
+            counter(meterRegistry, region, "hit", CacheRegionStatistics::getHitCount);
+            counter(meterRegistry, region, "miss", CacheRegionStatistics::getMissCount);
+            counter(meterRegistry, region, "put", CacheRegionStatistics::getPutCount);
+            Gauge.builder("shopflow.entitycache.hit.ratio", this, metrics -> metrics.hitRatio(region))
+                    .description("Second-level cache hits over lookups since start")
+                    .tag("region", region)
+                    .register(meterRegistry);
+        }
+    }
+
+    private void counter(MeterRegistry meterRegistry, String region, String result,
+                         ToLongFunction<CacheRegionStatistics> count) {
+        FunctionCounter.builder("shopflow.entitycache.requests", this, metrics -> {
+                    CacheRegionStatistics stats = metrics.region(region);
+                    return stats != null ? count.applyAsLong(stats) : 0;
+                })
+                .description("Second-level cache lookups and puts by region and result")
+                .tags("region", region, "result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Hits over lookups in {@code region}, or NaN before the first lookup.
+     */
+    public double hitRatio(String region) {
+        CacheRegionStatistics stats = region(region);
+        if (stats == null) {
+            return Double.NaN;
+        }
+        long hits = stats.getHitCount();
+        long lookups = hits + stats.getMissCount();
+        return lookups == 0 ? Double.NaN : (double) hits / lookups;
+    }
+
+    private CacheRegionStatistics region(String region) {
+        return statistics.isStatisticsEnabled() ? statistics.getDomainDataRegionStatistics(region) : null;
+    }
+}
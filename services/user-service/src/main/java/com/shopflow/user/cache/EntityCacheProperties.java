@@ -0,0 +1,34 @@
+package com.shopflow.user.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shopflow.entity-cache")
+public class EntityCacheProperties {
+
+    /**
+     * Hibernate's second-level cache for users, by id and by email.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Entries per region; the least recently used are evicted beyond it.
+     */
+    private long maxSize = 100_000;
+
+    /**
+     * How long an entry is kept after it was written.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * How often users changed through other instances are evicted, as read from the change feed. Until then
+     * this instance can still serve them as they were.
+     */
+    private Duration syncInterval = Duration.ofSeconds(1);
+}
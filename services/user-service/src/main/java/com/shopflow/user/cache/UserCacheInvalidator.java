@@ -0,0 +1,171 @@
+package com.shopflow.user.cache;
+
+import com.shopflow.user.changefeed.ChangeFeedFollower;
+import com.shopflow.user.changefeed.ChangeType;
+import com.shopflow.user.changefeed.UserChange;
+import com.shopflow.user.model.User;
+import com.shopflow.user.service.event.UserDeletedEvent;
+import com.shopflow.user.service.event.UserUpdatedEvent;
+import com.shopflow.user.service.event.UsersDeletedEvent;
+import com.shopflow.user.service.exception.ChangeFeedExpiredException;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.cache.spi.access.NaturalIdDataAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evicts changed users from the second-level cache: those changed on this instance by native statements, which
+ * Hibernate does not see, and those changed on other instances, read from the change feed.
+ * <p>
+ * Updates and deletes run as single {@code UPDATE/DELETE ... RETURNING} statements, so the cached entity is
+ * evicted by id when their event is published and again once the transaction has completed, in case a
+ * concurrent read put the old row back in between. A delete also evicts the resolution of its email. Resolutions
+ * by email are evicted as a whole when an email changes here, since the event only carries the new one.
+ * <p>
+ * Updates and deletes made elsewhere are evicted on the next {@code sync-interval} tick: the user by id, and the
+ * resolution of the email the change carries. Creates are skipped, as nothing can be cached for a new id yet, and
+ * a resolution left by the email's previous owner went with that owner's delete. This instance's own updates and
+ * deletes come back through the feed too and are evicted once more, which only costs a read. An update there does not say which email it replaced, so a resolution of the
+ * old one can stay cached; the lookup by email notices that the user it resolves to no longer has that email and
+ * asks the database instead. If the feed has pruned changes this instance has not seen, both regions are cleared.
+ */
+@Slf4j
+public class UserCacheInvalidator implements AutoCloseable {
+
+    private final SessionFactory sessionFactory;
+    private final EntityCacheProperties properties;
+    private final ChangeFeedFollower changeFeed;
+    private final ScheduledExecutorService executor;
+
+    public UserCacheInvalidator(EntityManagerFactory entityManagerFactory, EntityCacheProperties properties,
+                                ChangeFeedFollower changeFeed) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.properties = properties;
+        this.changeFeed = changeFeed;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-cache-invalidator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener
+    public void onUserUpdated(UserUpdatedEvent event) {
+        evict(List.of(event.id()), List.of(), event.changedFields().contains("email"));
+    }
+
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        evict(List.of(event.id()), List.of(event.email()), false);
+    }
+
+    @EventListener
+    public void onUsersDeleted(UsersDeletedEvent event) {
+        evict(event.users().stream().map(UserDeletedEvent::id).toList(),
+                event.users().stream().map(UserDeletedEvent::email).toList(), false);
+    }
+
+    private void evict(List<UUID> ids, List<String> emails, boolean emailChanged) {
+        Runnable eviction = () -> {
+            ids.forEach(id -> sessionFactory.getCache().evictEntityData(User.class, id));
+            if (emailChanged) {
+                sessionFactory.getCache().evictNaturalIdData(User.class);
+            } else {
+                evictResolutions(emails);
+            }
+        };
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        changeFeed.startAt(changeFeed.mark());
+        long sync = properties.getSyncInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::syncQuietly, sync, sync, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Evicts the users changed since the last sync, on any instance. Runs on the caller's thread.
+     *
+     * @throws ChangeFeedExpiredException if changes this instance has not seen were pruned from the feed
+     */
+    public synchronized void sync() {
+        changeFeed.catchUp(changes -> {
+            List<String> emails = new ArrayList<>(changes.size());
+            for (UserChange change : changes) {
+                if (change.type() == ChangeType.CREATED) {
+                    continue;
+                }
+                sessionFactory.getCache().evictEntityData(User.class, change.userId());
+                if (change.email() != null) {
+                    emails.add(change.email());
+                }
+            }
+            evictResolutions(emails);
+        });
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (ChangeFeedExpiredException e) {
+            log.warn("User cache fell behind the change feed, clearing it: {}", e.getMessage());
+            ChangeFeedFollower.Mark mark = changeFeed.mark();
+            sessionFactory.getCache().evictEntityData(User.class);
+            sessionFactory.getCache().evictNaturalIdData(User.class);
+            changeFeed.startAt(mark);
+        } catch (RuntimeException e) {
+            log.warn("User cache sync failed: {}", e.getMessage());
+        }
+    }
+
+    private void evictResolutions(List<String> emails) {
+        if (emails.isEmpty()) {
+            return;
+        }
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            emails.forEach(email -> evictResolution((SharedSessionContractImplementor) session, email));
+        }
+    }
+
+    /**
+     * Evicts the cached resolution of one email to a user id, if there is one.
+     */
+    public static void evictResolution(SharedSessionContractImplementor session, String email) {
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(User.class);
+        NaturalIdDataAccess access = persister.getNaturalIdCacheAccessStrategy();
+        if (access != null) {
+            access.evict(access.generateCacheKey(email, persister, session));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.shopflow.user.changefeed;
+
+import java.util.List;
+
+/**
+ * @param lastSeq the sequence to pass as {@code after} on the next call; equal to the requested one when the
+ *                batch is empty
+ * @param hasMore whether more changes were already available when the batch was read
+ */
+public record ChangeBatch(List<UserChange> changes, long lastSeq, boolean hasMore) {
+
+    public static ChangeBatch empty(long after) {
+        return new ChangeBatch(List.of(), after, false);
+    }
+
+    ChangeBatch limit(int limit) {
+        if (changes.size() <= limit) {
+            return this;
+        }
+        List<UserChange> head = changes.subList(0, limit);
+        return new ChangeBatch(head, head.get(limit - 1).seq(), true);
+    }
+}
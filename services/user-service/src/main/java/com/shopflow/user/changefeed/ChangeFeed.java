@@ -0,0 +1,297 @@
+package com.shopflow.user.changefeed;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.shopflow.user.model.Role;
+import com.shopflow.user.service.exception.ChangeFeedExpiredException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves {@code user_changes} to downstream replicas: batches after a sequence number, long polls that park
+ * until something newer commits, and a consistent snapshot for the initial sync.
+ * <p>
+ * Parked polls hold no servlet thread. They are completed from a single background thread, right after a local
+ * commit or on the next {@code poll-interval} tick for changes made by other instances, and polls waiting on
+ * the same sequence share one query.
+ */
+@Slf4j
+public class ChangeFeed implements AutoCloseable {
+
+    /**
+     * Always returns the sequence row, so that an empty result can still be checked against pruning.
+     */
+    private static final String READ_SQL =
+            "SELECT s.pruned_through, c.seq, c.user_id, c.change_type, c.email, c.full_name, c.role, c.changed_at "
+                    + "FROM user_change_sequence s LEFT JOIN LATERAL ("
+                    + "SELECT * FROM user_changes WHERE seq > ? ORDER BY seq LIMIT ?) c ON true "
+                    + "WHERE s.id = 1 ORDER BY c.seq";
+    private static final String SNAPSHOT_SEQ_SQL = "SELECT last_seq FROM user_change_sequence WHERE id = 1";
+    private static final String SNAPSHOT_SQL = "SELECT id, email, full_name, role FROM users";
+    private static final String PRUNE_CUTOFF_SQL = "SELECT max(seq) FROM user_changes WHERE changed_at < ?";
+    private static final String PRUNE_SQL = "DELETE FROM user_changes WHERE seq <= ?";
+    private static final String PRUNED_THROUGH_SQL =
+            "UPDATE user_change_sequence SET pruned_through = GREATEST(pruned_through, ?) WHERE id = 1";
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final ChangeFeedProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final TransactionTemplate transaction;
+    private final ScheduledExecutorService executor;
+
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicBoolean checkScheduled = new AtomicBoolean();
+
+    private final Counter served;
+    private final Counter snapshots;
+
+    private record Waiter(long after, int limit, DeferredResult<ChangeBatch> result) {}
+
+    public ChangeFeed(ChangeFeedProperties properties, DataSource dataSource,
+                      PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.served = Counter.builder("shopflow.changefeed.changes")
+                .description("Changes returned to feed consumers")
+                .register(meterRegistry);
+        this.snapshots = Counter.builder("shopflow.changefeed.snapshots")
+                .description("Snapshots served for initial syncs")
+                .register(meterRegistry);
+        Gauge.builder("shopflow.changefeed.waiting", waiters, Set::size)
+                .description("Long polls currently parked")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        long poll = properties.getPollInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::checkWaitersQuietly, poll, poll, TimeUnit.MILLISECONDS);
+        long prune = properties.getPruneInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::pruneQuietly, prune, prune, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reads up to {@code limit} changes after {@code after}.
+     *
+     * @throws ChangeFeedExpiredException if changes after {@code after} have already been pruned
+     */
+    public ChangeBatch read(long after, int limit) {
+        long[] prunedThrough = {0};
+        List<UserChange> changes = new ArrayList<>();
+        jdbcTemplate.query(READ_SQL, (RowCallbackHandler) rs -> {
+            prunedThrough[0] = rs.getLong(1);
+            long seq = rs.getLong(2);
+            if (!rs.wasNull()) {
+                String role = rs.getString(7);
+                changes.add(new UserChange(
+                        seq,
+                        rs.getObject(3, UUID.class),
+                        ChangeType.valueOf(rs.getString(4)),
+                        rs.getString(5),
+                        rs.getString(6),
+                        role != null ? Role.valueOf(role) : null,
+                        rs.getObject(8, OffsetDateTime.class)));
+            }
+        }, after, limit + 1);
+
+        if (after < prunedThrough[0]) {
+            throw new ChangeFeedExpiredException(after, prunedThrough[0]);
+        }
+        if (changes.isEmpty()) {
+            return ChangeBatch.empty(after);
+        }
+        boolean hasMore = changes.size() > limit;
+        List<UserChange> batch = hasMore ? changes.subList(0, limit) : changes;
+        served.increment(batch.size());
+        return new ChangeBatch(List.copyOf(batch), batch.get(batch.size() - 1).seq(), hasMore);
+    }
+
+    /**
+     * The sequence of the latest committed change.
+     */
+    public long lastSeq() {
+        Long seq = jdbcTemplate.queryForObject(SNAPSHOT_SEQ_SQL, Long.class);
+        return seq != null ? seq : 0;
+    }
+
+    /**
+     * Like {@link #read}, but if nothing is available yet completes only once a change commits or {@code wait}
+     * runs out, with an empty batch in the latter case.
+     */
+    public DeferredResult<ChangeBatch> poll(long after, int limit, Duration wait) {
+        long commitsBefore = commits.get();
+        ChangeBatch batch = read(after, limit);
+
+        DeferredResult<ChangeBatch> result = new DeferredResult<>(wait.toMillis(), () -> ChangeBatch.empty(after));
+        if (!batch.changes().isEmpty() || wait.isZero()) {
+            result.setResult(batch);
+            return result;
+        }
+
+        Waiter waiter = new Waiter(after, limit, result);
+        waiters.add(waiter);
+        result.onCompletion(() -> waiters.remove(waiter));
+        if (commits.get() != commitsBefore) {
+            // a change committed after the read but before the waiter was registered
+            onCommit();
+        }
+        return result;
+    }
+
+    /**
+     * Called after a local transaction appended changes.
+     */
+    public void onCommit() {
+        commits.incrementAndGet();
+        if (!waiters.isEmpty() && checkScheduled.compareAndSet(false, true)) {
+            executor.execute(this::checkWaitersQuietly);
+        }
+    }
+
+    /**
+     * Writes all users as of one feed sequence, as compact JSON:
+     * {@code {"seq":N,"fields":["id","email","fullName","role"],"users":[[...],...]}}. Consumers load the users
+     * and then follow the feed from {@code seq}.
+     */
+    public void writeSnapshot(OutputStream out) {
+        snapshotTransaction.executeWithoutResult(status -> {
+            try (JsonGenerator json = JSON.createGenerator(out)) {
+                Long seq = jdbcTemplate.queryForObject(SNAPSHOT_SEQ_SQL, Long.class);
+                json.writeStartObject();
+                json.writeNumberField("seq", seq != null ? seq : 0);
+                json.writeArrayFieldStart("fields");
+                json.writeString("id");
+                json.writeString("email");
+                json.writeString("fullName");
+                json.writeString("role");
+                json.writeEndArray();
+                json.writeArrayFieldStart("users");
+
+                JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+                streaming.setFetchSize(properties.getSnapshotFetchSize());
+                streaming.query(SNAPSHOT_SQL, (RowCallbackHandler) rs -> {
+                    try {
+                        json.writeStartArray();
+                        json.writeString(rs.getString(1));
+                        json.writeString(rs.getString(2));
+                        json.writeString(rs.getString(3));
+                        json.writeString(rs.getString(4));
+                        json.writeEndArray();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+
+                json.writeEndArray();
+                json.writeEndObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        snapshots.increment();
+    }
+
+    /**
+     * Deletes changes older than {@code cutoff}. Deletes a contiguous prefix of sequence numbers, so the feed
+     * never has holes.
+     *
+     * @return the highest pruned sequence, or 0 if nothing was old enough
+     */
+    public long prune(Instant cutoff) {
+        Long pruned = transaction.execute(status -> {
+            Long through = jdbcTemplate.queryForObject(PRUNE_CUTOFF_SQL, Long.class, Timestamp.from(cutoff));
+            if (through == null) {
+                return 0L;
+            }
+            jdbcTemplate.update(PRUNE_SQL, through);
+            jdbcTemplate.update(PRUNED_THROUGH_SQL, through);
+            return through;
+        });
+        return pruned != null ? pruned : 0;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        waiters.forEach(waiter -> waiter.result().setResult(ChangeBatch.empty(waiter.after())));
+    }
+
+    private void checkWaitersQuietly() {
+        checkScheduled.set(false);
+        if (waiters.isEmpty()) {
+            return;
+        }
+        Map<Long, List<Waiter>> byAfter = new HashMap<>();
+        for (Waiter waiter : waiters) {
+            byAfter.computeIfAbsent(waiter.after(), after -> new ArrayList<>()).add(waiter);
+        }
+        byAfter.forEach((after, group) -> {
+            int limit = group.stream().mapToInt(Waiter::limit).max().orElse(1);
+            try {
+                ChangeBatch batch = read(after, limit);
+                if (!batch.changes().isEmpty()) {
+                    group.forEach(waiter -> waiter.result().setResult(batch.limit(waiter.limit())));
+                }
+            } catch (ChangeFeedExpiredException e) {
+                group.forEach(waiter -> waiter.result().setErrorResult(e));
+            } catch (RuntimeException e) {
+                log.warn("Change feed check failed, parked polls stay parked: {}", e.getMessage());
+            }
+        });
+    }
+
+    private void pruneQuietly() {
+        try {
+            long through = prune(Instant.now().minus(properties.getRetention()));
+            if (through > 0) {
+                log.info("Change feed pruned through seq {}", through);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Change feed prune failed: {}", e.getMessage());
+        }
+    }
+}
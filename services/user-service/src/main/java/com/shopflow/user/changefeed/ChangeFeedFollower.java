@@ -0,0 +1,80 @@
+package com.shopflow.user.changefeed;
+
+import com.shopflow.user.service.exception.ChangeFeedExpiredException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Keeps an in-memory view of {@code users} in step with changes committed by other instances. The view marks the
+ * feed before it reads its snapshot, starts following from that mark once the snapshot is in place, and then
+ * catches up periodically. Changes committed after the mark may already be in the snapshot, and this instance's
+ * own changes come back through the feed too, so applying a change must be safe to repeat.
+ * <p>
+ * Not thread-safe; callers serialize {@link #startAt} and {@link #catchUp} with their own reloads.
+ */
+public class ChangeFeedFollower {
+
+    /**
+     * A feed sequence and when it was read.
+     */
+    public record Mark(long seq, long nanoTime) {}
+
+    private final ChangeFeed changeFeed;
+    private final int batchSize;
+
+    private volatile Mark position;
+
+    public ChangeFeedFollower(ChangeFeed changeFeed, int batchSize) {
+        this.changeFeed = changeFeed;
+        this.batchSize = batchSize;
+    }
+
+    public Mark mark() {
+        long now = System.nanoTime();
+        return new Mark(changeFeed.lastSeq(), now);
+    }
+
+    public void startAt(Mark mark) {
+        position = mark;
+    }
+
+    /**
+     * Applies every change committed since the last call, in batches.
+     *
+     * @return the number of changes applied
+     * @throws ChangeFeedExpiredException if the changes since the last call have already been pruned; the view
+     *                                    has to reload
+     */
+    public int catchUp(Consumer<List<UserChange>> apply) {
+        Mark current = position;
+        if (current == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        long seq = current.seq();
+        int applied = 0;
+        ChangeBatch batch;
+        do {
+            batch = changeFeed.read(seq, batchSize);
+            if (!batch.changes().isEmpty()) {
+                apply.accept(batch.changes());
+                applied += batch.changes().size();
+                seq = batch.lastSeq();
+                position = new Mark(seq, current.nanoTime());
+            }
+        } while (batch.hasMore());
+        position = new Mark(seq, now);
+        return applied;
+    }
+
+    /**
+     * {@code true} until the view has started following, and whenever it last caught up longer than
+     * {@code maxStaleness} ago.
+     */
+    public boolean isBehind(Duration maxStaleness) {
+        Mark current = position;
+        return current == null || System.nanoTime() - current.nanoTime() > maxStaleness.toNanos();
+    }
+}
@@ -0,0 +1,38 @@
+package com.shopflow.user.changefeed;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shopflow.change-feed")
+public class ChangeFeedProperties {
+
+    /**
+     * Upper bound for the {@code limit} a consumer may ask for.
+     */
+    private int maxBatchSize = 1000;
+
+    /**
+     * Upper bound for how long a long poll may be parked.
+     */
+    private Duration maxWait = Duration.ofSeconds(30);
+
+    /**
+     * How often parked long polls re-check for changes committed by other instances. Changes committed by this
+     * instance complete them right away.
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /**
+     * Changes older than this are deleted; consumers that fall further behind must re-sync from the snapshot.
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    private Duration pruneInterval = Duration.ofHours(1);
+
+    private int snapshotFetchSize = 5000;
+}
@@ -0,0 +1,89 @@
+package com.shopflow.user.changefeed;
+
+import com.shopflow.user.model.Role;
+import com.shopflow.user.service.event.UserCreatedEvent;
+import com.shopflow.user.service.event.UserDeletedEvent;
+import com.shopflow.user.service.event.UserUpdatedEvent;
+import com.shopflow.user.service.event.UsersDeletedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Appends user lifecycle events to {@code user_changes} in the transaction that made the change.
+ * <p>
+ * Sequence numbers come from the single {@code user_change_sequence} row, bumped by the same statement that
+ * inserts the changes. Its row lock is held until commit, so writers commit in sequence order and a reader
+ * never sees seq N+1 before N. Events are published at the end of the service methods, which keeps that
+ * serialized window short.
+ */
+public class ChangeFeedWriter {
+
+    private static final String APPEND_SQL =
+            "WITH s AS (UPDATE user_change_sequence SET last_seq = last_seq + ? WHERE id = 1 RETURNING last_seq) "
+                    + "INSERT INTO user_changes (seq, user_id, change_type, email, full_name, role) "
+                    + "SELECT s.last_seq - ? + c.ord, c.user_id, ?, c.email, c.full_name, c.role "
+                    + "FROM s, unnest(?::uuid[], ?::text[], ?::text[], ?::text[]) "
+                    + "WITH ORDINALITY AS c(user_id, email, full_name, role, ord)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Runnable afterCommit;
+
+    /**
+     * @param afterCommit run after a transaction that appended changes has committed, typically to complete
+     *                    parked long polls
+     */
+    public ChangeFeedWriter(DataSource dataSource, Runnable afterCommit) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.afterCommit = afterCommit;
+    }
+
+    @EventListener
+    public void onUserCreated(UserCreatedEvent event) {
+        Role role = event.role();
+        append(ChangeType.CREATED, new UUID[] {event.id()}, new String[] {event.email()},
+                new String[] {event.fullName()}, new String[] {role != null ? role.name() : null});
+    }
+
+    @EventListener
+    public void onUserUpdated(UserUpdatedEvent event) {
+        Role role = event.role();
+        append(ChangeType.UPDATED, new UUID[] {event.id()}, new String[] {event.email()},
+                new String[] {event.fullName()}, new String[] {role != null ? role.name() : null});
+    }
+
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        append(ChangeType.DELETED, new UUID[] {event.id()}, new String[] {event.email()}, new String[1], new String[1]);
+    }
+
+    @EventListener
+    public void onUsersDeleted(UsersDeletedEvent event) {
+        List<UserDeletedEvent> users = event.users();
+        UUID[] ids = new UUID[users.size()];
+        String[] emails = new String[users.size()];
+        for (int i = 0; i < users.size(); i++) {
+            ids[i] = users.get(i).id();
+            emails[i] = users.get(i).email();
+        }
+        append(ChangeType.DELETED, ids, emails, new String[users.size()], new String[users.size()]);
+    }
+
+    private void append(ChangeType type, UUID[] ids, String[] emails, String[] fullNames, String[] roles) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("User changes must be recorded in the transaction that makes them");
+        }
+        jdbcTemplate.update(APPEND_SQL, ids.length, ids.length, type.name(), ids, emails, fullNames, roles);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                afterCommit.run();
+            }
+        });
+    }
+}
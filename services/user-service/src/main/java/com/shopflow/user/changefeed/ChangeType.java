@@ -0,0 +1,7 @@
+package com.shopflow.user.changefeed;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,21 @@
+package com.shopflow.user.changefeed;
+
+import com.shopflow.user.model.Role;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * One entry of the change feed. {@link ChangeType#CREATED} and {@link ChangeType#UPDATED} entries carry the user's
+ * email, {@code fullName} and {@code role} as of that change; {@link ChangeType#DELETED} entries only the email.
+ */
+public record UserChange(
+        long seq,
+        UUID userId,
+        ChangeType type,
+        String email,
+        String fullName,
+        Role role,
+        OffsetDateTime changedAt
+) {
+}
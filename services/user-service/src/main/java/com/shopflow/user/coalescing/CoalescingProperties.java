@@ -0,0 +1,20 @@
+package com.shopflow.user.coalescing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shopflow.coalescing")
+public class CoalescingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * How long a caller waits for an identical in-flight lookup before querying on its own.
+     */
+    private Duration timeout = Duration.ofSeconds(2);
+}
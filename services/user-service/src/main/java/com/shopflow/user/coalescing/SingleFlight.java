@@ -0,0 +1,103 @@
+package com.shopflow.user.coalescing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one: the first caller (the leader) runs the loader on its
+ * own thread, everyone who arrives while it is running waits for and shares its result. Nothing is cached;
+ * once the leader finishes, the next call for the key loads again, so it can sit in front of a database or a
+ * cache alike.
+ * <p>
+ * A follower waits at most {@code timeout} and then runs the loader itself, so one stuck query cannot hold up
+ * every request for that key. A failure of the leader is rethrown as-is to every follower that was waiting
+ * on it.
+ */
+public class SingleFlight<K, V> {
+
+    private final boolean enabled;
+    private final long timeoutNanos;
+    private final ConcurrentMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+    private final Counter leaders;
+    private final Counter coalesced;
+    private final Counter timeouts;
+
+    public SingleFlight(String name, boolean enabled, Duration timeout, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.timeoutNanos = timeout.toNanos();
+
+        this.leaders = counter(meterRegistry, name, "leader");
+        this.coalesced = counter(meterRegistry, name, "coalesced");
+        this.timeouts = counter(meterRegistry, name, "timeout");
+        Gauge.builder("shopflow.singleflight.inflight", calls, ConcurrentMap::size)
+                .description("Keys with a load in progress")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String outcome) {
+        return Counter.builder("shopflow.singleflight.calls")
+                .description("Calls by outcome: leader loaded, coalesced onto a leader, or timed out waiting")
+                .tags("name", name, "outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = calls.putIfAbsent(key, call);
+        if (existing != null) {
+            return await(existing, loader);
+        }
+
+        leaders.increment();
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, call);
+        }
+    }
+
+    private V await(CompletableFuture<V> leader, Supplier<V> loader) {
+        try {
+            V value = leader.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            coalesced.increment();
+            return value;
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            return loader.get();
+        } catch (ExecutionException e) {
+            coalesced.increment();
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced call", e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.shopflow.user.config;
+
+import com.shopflow.user.admission.AdmissionControlFilter;
+import com.shopflow.user.admission.AdmissionProperties;
+import com.shopflow.user.encoding.Encodings;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionConfig {
+
+    /**
+     * Runs right after {@code CorrelationIdFilter} (order 1), so rejections still carry a correlation id, and
+     * before tracing and SQL accounting, so a shed request costs as little as possible.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "shopflow.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(AdmissionProperties properties,
+                                                                                 Encodings encodings,
+                                                                                 MeterRegistry meterRegistry) {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(
+                new AdmissionControlFilter(properties, encodings, meterRegistry));
+        registration.setOrder(2);
+        return registration;
+    }
+}
@@ -0,0 +1,28 @@
+package com.shopflow.user.config;
+
+import com.shopflow.user.bloom.BloomFilterProperties;
+import com.shopflow.user.bloom.EmailBloomFilter;
+import com.shopflow.user.changefeed.ChangeFeed;
+import com.shopflow.user.changefeed.ChangeFeedFollower;
+import com.shopflow.user.changefeed.ChangeFeedProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(BloomFilterProperties.class)
+public class BloomFilterConfig {
+
+    @Bean(destroyMethod = "close")
+    public EmailBloomFilter emailBloomFilter(BloomFilterProperties properties, DataSource dataSource,
+                                             PlatformTransactionManager transactionManager,
+                                             ChangeFeed changeFeed, ChangeFeedProperties changeFeedProperties,
+                                             MeterRegistry meterRegistry) {
+        return new EmailBloomFilter(properties, dataSource, transactionManager,
+                new ChangeFeedFollower(changeFeed, changeFeedProperties.getMaxBatchSize()), meterRegistry);
+    }
+}
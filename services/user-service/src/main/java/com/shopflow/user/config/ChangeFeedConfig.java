@@ -0,0 +1,28 @@
+package com.shopflow.user.config;
+
+import com.shopflow.user.changefeed.ChangeFeed;
+import com.shopflow.user.changefeed.ChangeFeedProperties;
+import com.shopflow.user.changefeed.ChangeFeedWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(ChangeFeedProperties.class)
+public class ChangeFeedConfig {
+
+    @Bean(destroyMethod = "close")
+    public ChangeFeed changeFeed(ChangeFeedProperties properties, DataSource dataSource,
+                                 PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        return new ChangeFeed(properties, dataSource, transactionManager, meterRegistry);
+    }
+
+    @Bean
+    public ChangeFeedWriter changeFeedWriter(DataSource dataSource, ChangeFeed changeFeed) {
+        return new ChangeFeedWriter(dataSource, changeFeed::onCommit);
+    }
+}
@@ -0,0 +1,43 @@
+package com.shopflow.user.config;
+
+import com.shopflow.user.coalescing.CoalescingProperties;
+import com.shopflow.user.coalescing.SingleFlight;
+import com.shopflow.user.dto.UserFilter;
+import com.shopflow.user.dto.UserResponse;
+import com.shopflow.user.idempotency.IdempotentRequests.RequestKey;
+import com.shopflow.user.idempotency.IdempotentRequests.Result;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Configuration
+@EnableConfigurationProperties(CoalescingProperties.class)
+public class CoalescingConfig {
+
+    @Bean
+    public SingleFlight<UUID, Optional<UserResponse>> userByIdFlight(CoalescingProperties properties,
+                                                                     MeterRegistry meterRegistry) {
+        return new SingleFlight<>("user-by-id", properties.isEnabled(), properties.getTimeout(), meterRegistry);
+    }
+
+    @Bean
+    public SingleFlight<String, Optional<UserResponse>> userByEmailFlight(CoalescingProperties properties,
+                                                                          MeterRegistry meterRegistry) {
+        return new SingleFlight<>("user-by-email", properties.isEnabled(), properties.getTimeout(), meterRegistry);
+    }
+
+    @Bean
+    public SingleFlight<UserFilter, Long> userCountFlight(CoalescingProperties properties, MeterRegistry meterRegistry) {
+        return new SingleFlight<>("user-count", properties.isEnabled(), properties.getTimeout(), meterRegistry);
+    }
+
+    @Bean
+    public SingleFlight<RequestKey, Result<?>> idempotentRequestFlight(CoalescingProperties properties,
+                                                                      MeterRegistry meterRegistry) {
+        return new SingleFlight<>("idempotent-request", properties.isEnabled(), properties.getTimeout(), meterRegistry);
+    }
+}
@@ -0,0 +1,27 @@
+package com.shopflow.user.config;
+
+import com.shopflow.user.changefeed.ChangeFeed;
+import com.shopflow.user.changefeed.ChangeFeedFollower;
+import com.shopflow.user.changefeed.ChangeFeedProperties;
+import com.shopflow.user.directory.DirectoryProperties;
+import com.shopflow.user.directory.UserDirectory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(DirectoryProperties.class)
+public class DirectoryConfig {
+
+    @Bean(destroyMethod = "close")
+    public UserDirectory userDirectory(DirectoryProperties properties, DataSource dataSource,
+                                       PlatformTransactionManager transactionManager, ChangeFeed changeFeed,
+                                       ChangeFeedProperties changeFeedProperties, MeterRegistry meterRegistry) {
+        return new UserDirectory(properties, dataSource, transactionManager,
+                new ChangeFeedFollower(changeFeed, changeFeedProperties.getMaxBatchSize()), meterRegistry);
+    }
+}
@@ -0,0 +1,31 @@
+package com.shopflow.user.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopflow.user.encoding.Encodings;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+@Configuration
+public class EncodingConfig {
+
+    @Bean
+    public Encodings encodings(ObjectMapper objectMapper) {
+        return new Encodings(objectMapper);
+    }
+
+    /**
+     * Picked up by {@code HttpMessageConverters} in place of the default it would build with a bare mapper; it
+     * keeps them after the JSON converter, so JSON is still what {@code *}{@code /*} gets.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Encodings encodings) {
+        return encodings.cborConverter();
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Encodings encodings) {
+        return encodings.smileConverter();
+    }
+}
@@ -0,0 +1,76 @@
+package com.shopflow.user.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.shopflow.user.cache.EntityCacheMetrics;
+import com.shopflow.user.cache.EntityCacheProperties;
+import com.shopflow.user.cache.UserCacheInvalidator;
+import com.shopflow.user.changefeed.ChangeFeed;
+import com.shopflow.user.changefeed.ChangeFeedFollower;
+import com.shopflow.user.changefeed.ChangeFeedProperties;
+import com.shopflow.user.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+@Configuration
+@EnableConfigurationProperties(EntityCacheProperties.class)
+public class EntityCacheConfig {
+
+    /**
+     * Hands Hibernate a cache manager with the user regions already created, bounded and expiring as
+     * configured; any other region is a configuration error. Hibernate closes the manager with the session
+     * factory, so each application context gets its own.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(EntityCacheProperties properties) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, properties.isEnabled());
+            if (!properties.isEnabled()) {
+                return;
+            }
+            CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+            CacheManager cacheManager = provider.getCacheManager(URI.create("shopflow:user-cache:" + UUID.randomUUID()),
+                    provider.getDefaultClassLoader());
+            for (String region : new String[] {User.CACHE_REGION, User.NATURAL_ID_CACHE_REGION}) {
+                CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+                configuration.setMaximumSize(OptionalLong.of(properties.getMaxSize()));
+                configuration.setExpireAfterWrite(OptionalLong.of(properties.getTtl().toNanos()));
+                configuration.setStoreByValue(false);
+                cacheManager.createCache(region, configuration);
+            }
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // statistics feed EntityCacheMetrics; the summary they would log at INFO for every session is noise
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            hibernateProperties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+        };
+    }
+
+    @Bean(destroyMethod = "close")
+    public UserCacheInvalidator userCacheInvalidator(EntityManagerFactory entityManagerFactory,
+                                                     EntityCacheProperties properties, ChangeFeed changeFeed,
+                                                     ChangeFeedProperties changeFeedProperties) {
+        return new UserCacheInvalidator(entityManagerFactory, properties,
+                new ChangeFeedFollower(changeFeed, changeFeedProperties.getMaxBatchSize()));
+    }
+
+    @Bean
+    public EntityCacheMetrics entityCacheMetrics(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        return new EntityCacheMetrics(entityManagerFactory, meterRegistry, User.CACHE_REGION,
+                User.NATURAL_ID_CACHE_REGION);
+    }
+}
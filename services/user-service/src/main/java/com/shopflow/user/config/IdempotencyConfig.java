@@ -0,0 +1,27 @@
+package com.shopflow.user.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopflow.user.coalescing.SingleFlight;
+import com.shopflow.user.idempotency.IdempotencyProperties;
+import com.shopflow.user.idempotency.IdempotentRequests;
+import com.shopflow.user.idempotency.IdempotentRequests.RequestKey;
+import com.shopflow.user.idempotency.IdempotentRequests.Result;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+
+    @Bean(destroyMethod = "close")
+    public IdempotentRequests idempotentRequests(IdempotencyProperties properties, DataSource dataSource,
+                                                 ObjectMapper objectMapper,
+                                                 SingleFlight<RequestKey, Result<?>> idempotentRequestFlight,
+                                                 MeterRegistry meterRegistry) {
+        return new IdempotentRequests(properties, dataSource, objectMapper, idempotentRequestFlight, meterRegistry);
+    }
+}
@@ -0,0 +1,61 @@
+package com.shopflow.user.config;
+
+import com.shopflow.user.jdbc.ObservedDataSource;
+import com.shopflow.user.jdbc.SqlStatementCounter;
+import com.shopflow.user.jdbc.SqlStatsFilter;
+import com.shopflow.user.jdbc.SqlStatsProperties;
+import com.shopflow.user.jdbc.StatementListener;
+import com.shopflow.user.service.logging.LoggingProperties;
+import com.shopflow.user.tracing.Tracer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(SqlStatsProperties.class)
+public class JdbcObservationConfig {
+
+    /**
+     * Static so that the post-processor is registered before the {@link DataSource} bean is created; the
+     * listeners are resolved lazily on the first executed statement.
+     */
+    @Bean
+    public static BeanPostProcessor observedDataSourcePostProcessor(ObjectProvider<StatementListener> listeners) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ObservedDataSource)) {
+                    return new ObservedDataSource(dataSource, listeners);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "shopflow.sql-stats", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    /**
+     * Runs inside {@code TracingFilter} (order 3) so the totals can be attached to the server span.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "shopflow.sql-stats", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<SqlStatsFilter> sqlStatsFilter(SqlStatementCounter counter, SqlStatsProperties properties,
+                                                                 LoggingProperties loggingProperties, Tracer tracer,
+                                                                 MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SqlStatsFilter> registration = new FilterRegistrationBean<>(
+                new SqlStatsFilter(counter, properties, loggingProperties, tracer, meterRegistry));
+        registration.setOrder(4);
+        return registration;
+    }
+}
@@ -0,0 +1,22 @@
+package com.shopflow.user.config;
+
+import com.shopflow.user.jfr.JfrProperties;
+import com.shopflow.user.jfr.JfrRecording;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.text.ParseException;
+
+@Configuration
+@EnableConfigurationProperties(JfrProperties.class)
+public class JfrConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "shopflow.jfr.recording", name = "enabled", havingValue = "true")
+    public JfrRecording jfrRecording(JfrProperties properties) throws IOException, ParseException {
+        return new JfrRecording(properties);
+    }
+}
@@ -0,0 +1,25 @@
+package com.shopflow.user.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopflow.user.coalescing.SingleFlight;
+import com.shopflow.user.dto.UserFilter;
+import com.shopflow.user.listing.ListingProperties;
+import com.shopflow.user.listing.UserCounter;
+import com.shopflow.user.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+@EnableConfigurationProperties(ListingProperties.class)
+public class ListingConfig {
+
+    @Bean
+    public UserCounter userCounter(UserRepository userRepository, JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                   ListingProperties properties, SingleFlight<UserFilter, Long> userCountFlight,
+                                   MeterRegistry meterRegistry) {
+        return new UserCounter(userRepository, jdbcTemplate, objectMapper, properties, userCountFlight, meterRegistry);
+    }
+}
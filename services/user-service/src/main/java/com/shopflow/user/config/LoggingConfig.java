@@ -0,0 +1,76 @@
+package com.shopflow.user.config;
+
+import com.shopflow.user.service.UserService;
+import com.shopflow.user.service.logging.ControllerLoggingInterceptor;
+import com.shopflow.user.service.logging.ControllerRequestLogger;
+import com.shopflow.user.service.logging.LoggingProperties;
+import com.shopflow.user.service.logging.LoggingSanitizer;
+import com.shopflow.user.service.logging.ServiceCallLogger;
+import com.shopflow.user.service.logging.decorator.LoggingPasswordService;
+import com.shopflow.user.service.logging.decorator.LoggingUserService;
+import com.shopflow.user.service.password.PasswordService;
+import com.shopflow.user.tracing.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+@Configuration
+@EnableConfigurationProperties(LoggingProperties.class)
+public class LoggingConfig {
+
+    @Bean
+    public ServiceCallLogger serviceCallLogger(LoggingSanitizer sanitizer, Tracer tracer,
+                                               LoggingProperties loggingProperties) {
+        return new ServiceCallLogger(sanitizer, tracer, loggingProperties);
+    }
+
+    @Bean
+    public ControllerRequestLogger controllerRequestLogger(LoggingSanitizer sanitizer, Tracer tracer,
+                                                           LoggingProperties loggingProperties) {
+        return new ControllerRequestLogger(sanitizer, tracer, loggingProperties);
+    }
+
+    /**
+     * Static so that the post-processor is registered before the services are created. Wraps them in the
+     * logging decorators, and the MVC argument resolvers in recorders for {@link ControllerLoggingInterceptor}.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "shopflow.logging", name = "instrumentation", havingValue = "explicit")
+    public static BeanPostProcessor loggingDecoratorPostProcessor(ObjectProvider<ServiceCallLogger> callLogger) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof UserService userService && !(bean instanceof LoggingUserService)) {
+                    return new LoggingUserService(userService, callLogger.getObject());
+                }
+                if (bean instanceof PasswordService passwordService && !(bean instanceof LoggingPasswordService)) {
+                    return new LoggingPasswordService(passwordService, callLogger.getObject());
+                }
+                if (bean instanceof RequestMappingHandlerAdapter adapter && adapter.getArgumentResolvers() != null) {
+                    adapter.setArgumentResolvers(adapter.getArgumentResolvers().stream()
+                            .map(ControllerLoggingInterceptor::recording)
+                            .toList());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "shopflow.logging", name = "instrumentation", havingValue = "explicit")
+    public WebMvcConfigurer controllerLoggingConfigurer(ControllerRequestLogger requestLogger) {
+        ControllerLoggingInterceptor interceptor = new ControllerLoggingInterceptor(requestLogger);
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor);
+            }
+        };
+    }
+}
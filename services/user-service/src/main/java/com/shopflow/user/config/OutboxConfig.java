@@ -0,0 +1,47 @@
+package com.shopflow.user.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopflow.user.outbox.InMemoryOutboxPublisher;
+import com.shopflow.user.outbox.LoggingOutboxPublisher;
+import com.shopflow.user.outbox.OutboxProperties;
+import com.shopflow.user.outbox.OutboxPublisher;
+import com.shopflow.user.outbox.OutboxRelay;
+import com.shopflow.user.outbox.OutboxWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(OutboxProperties.class)
+@ConditionalOnProperty(prefix = "shopflow.outbox", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxConfig {
+
+    /**
+     * A broker-backed publisher declared elsewhere replaces the configured built-in one.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public OutboxPublisher outboxPublisher(OutboxProperties properties) {
+        return switch (properties.getPublisher()) {
+            case LOGGING -> new LoggingOutboxPublisher();
+            case IN_MEMORY -> new InMemoryOutboxPublisher();
+        };
+    }
+
+    @Bean(destroyMethod = "close")
+    public OutboxRelay outboxRelay(OutboxProperties properties, OutboxPublisher publisher, DataSource dataSource,
+                                   PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        return new OutboxRelay(properties.getRelay(), publisher, dataSource, transactionManager, meterRegistry);
+    }
+
+    @Bean
+    public OutboxWriter outboxWriter(DataSource dataSource, ObjectMapper objectMapper, OutboxRelay relay) {
+        return new OutboxWriter(dataSource, objectMapper, relay::wakeUp);
+    }
+}
@@ -0,0 +1,63 @@
+package com.shopflow.user.config;
+
+import com.shopflow.user.tracing.InMemorySpanExporter;
+import com.shopflow.user.tracing.OtlpFileSpanExporter;
+import com.shopflow.user.tracing.SpanExporter;
+import com.shopflow.user.tracing.SqlSpanListener;
+import com.shopflow.user.tracing.Tracer;
+import com.shopflow.user.tracing.TracesEndpoint;
+import com.shopflow.user.tracing.TracingFilter;
+import com.shopflow.user.tracing.TracingProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+@EnableConfigurationProperties(TracingProperties.class)
+public class TracingConfig {
+
+    @Bean
+    public InMemorySpanExporter inMemorySpanExporter(TracingProperties properties) {
+        return new InMemorySpanExporter(properties.getInMemory().getCapacity());
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "shopflow.tracing.file", name = "enabled", havingValue = "true")
+    public OtlpFileSpanExporter otlpFileSpanExporter(TracingProperties properties) throws IOException {
+        TracingProperties.File file = properties.getFile();
+        return new OtlpFileSpanExporter(Path.of(file.getPath()), properties.getServiceName(),
+                file.getQueueCapacity(), file.getBatchSize());
+    }
+
+    @Bean
+    public Tracer tracer(TracingProperties properties, ObjectProvider<SpanExporter> exporters) {
+        return new Tracer(exporters.orderedStream().toList(), properties.isEnabled(), properties.getSampleRatio());
+    }
+
+    @Bean
+    public SqlSpanListener sqlSpanListener(Tracer tracer) {
+        return new SqlSpanListener(tracer);
+    }
+
+    /**
+     * Runs after {@code CorrelationIdFilter} (order 1) so the server span can carry the correlation id, and
+     * after admission control (order 2) so shed requests do not create spans.
+     */
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(Tracer tracer) {
+        FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(new TracingFilter(tracer));
+        registration.setOrder(3);
+        return registration;
+    }
+
+    @Bean
+    public TracesEndpoint tracesEndpoint(InMemorySpanExporter exporter) {
+        return new TracesEndpoint(exporter);
+    }
+}
@@ -0,0 +1,28 @@
+package com.shopflow.user.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopflow.user.mapper.UserMapper;
+import com.shopflow.user.repository.UserRepository;
+import com.shopflow.user.service.logging.LoggingSanitizer;
+import com.shopflow.user.service.password.PasswordService;
+import com.shopflow.user.warmup.Warmup;
+import com.shopflow.user.warmup.WarmupProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(WarmupProperties.class)
+public class WarmupConfig {
+
+    @Bean
+    public Warmup warmup(WarmupProperties properties, UserMapper userMapper, LoggingSanitizer sanitizer,
+                         ObjectMapper objectMapper, PasswordService passwordService, UserRepository userRepository,
+                         DataSource dataSource, MeterRegistry meterRegistry) {
+        return new Warmup(properties, userMapper, sanitizer, objectMapper, passwordService, userRepository,
+                dataSource, meterRegistry);
+    }
+}
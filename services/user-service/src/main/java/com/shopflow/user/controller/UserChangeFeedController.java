@@ -0,0 +1,52 @@
+package com.shopflow.user.controller;
+
+import com.shopflow.user.changefeed.ChangeBatch;
+import com.shopflow.user.changefeed.ChangeFeed;
+import com.shopflow.user.changefeed.ChangeFeedProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+
+/**
+ * Change feed for services that keep a local replica of users: load {@code /snapshot} once, then follow
+ * {@code /changes?after=<seq>} from the snapshot's {@code seq}.
+ */
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+public class UserChangeFeedController {
+
+    private final ChangeFeed changeFeed;
+    private final ChangeFeedProperties properties;
+
+    /**
+     * Returns changes after {@code after}. With {@code wait} (seconds) set and nothing new yet, the request is
+     * held until a change commits or the wait runs out.
+     */
+    @GetMapping("/changes")
+    public DeferredResult<ChangeBatch> changes(@RequestParam(defaultValue = "0") long after,
+                                               @RequestParam(defaultValue = "500") int limit,
+                                               @RequestParam(name = "wait", defaultValue = "0") long waitSeconds) {
+        int boundedLimit = Math.max(1, Math.min(limit, properties.getMaxBatchSize()));
+        Duration wait = Duration.ofSeconds(Math.max(0, waitSeconds));
+        if (wait.compareTo(properties.getMaxWait()) > 0) {
+            wait = properties.getMaxWait();
+        }
+        return changeFeed.poll(after, boundedLimit, wait);
+    }
+
+    @GetMapping("/snapshot")
+    public ResponseEntity<StreamingResponseBody> snapshot() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(changeFeed::writeSnapshot);
+    }
+}
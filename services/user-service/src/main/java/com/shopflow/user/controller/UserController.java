@@ -1,16 +1,30 @@
 package com.shopflow.user.controller;
 
+import com.shopflow.user.dto.BulkDeleteRequest;
+import com.shopflow.user.dto.BulkDeleteResponse;
+import com.shopflow.user.dto.BulkGetRequest;
+import com.shopflow.user.dto.BulkGetResponse;
+import com.shopflow.user.dto.UserFilter;
+import com.shopflow.user.dto.UserPatchRequest;
 import com.shopflow.user.dto.UserRequest;
 import com.shopflow.user.dto.UserResponse;
+import com.shopflow.user.idempotency.IdempotentRequests;
+import com.shopflow.user.listing.CountStrategy;
+import com.shopflow.user.model.Role;
+import com.shopflow.user.projection.UserFields;
 import com.shopflow.user.service.UserService;
+import com.shopflow.user.service.exception.UserVersionMismatchException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @RestController
@@ -18,31 +32,99 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class UserController {
 
+    private static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final UserService userService;
+    private final IdempotentRequests idempotentRequests;
 
+    /**
+     * Lists all users, or with {@code role}, {@code createdAfter} (inclusive) or {@code createdBefore} (exclusive)
+     * only the matching ones, sortable by {@code createdAt} (the default, newest first) or {@code email}.
+     * {@code count} picks how the total is obtained, by any {@link CountStrategy} name in any case; with
+     * {@code none} the response has no total at all.
+     * {@code fields} (say {@code id,email}) trims every user to those fields, and only their columns are read.
+     */
     @GetMapping
-    public ResponseEntity<Page<UserResponse>> getAll(Pageable pageable) {
-        Page<UserResponse> users = userService.getAllUsers(pageable);
+    public ResponseEntity<Slice<?>> getAll(
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime createdAfter,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime createdBefore,
+            @RequestParam(required = false) CountStrategy count,
+            @RequestParam(required = false) String fields,
+            Pageable pageable) {
+        UserFilter filter = new UserFilter(role, createdAfter, createdBefore);
+        if (fields != null) {
+            return ResponseEntity.ok(userService.listUsers(filter, pageable, count, UserFields.parse(fields)));
+        }
+        Slice<UserResponse> users = filter.isEmpty()
+                ? userService.getAllUsers(pageable, count)
+                : userService.searchUsers(filter, pageable, count);
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * With {@code Idempotency-Key}, a retry of a signup that went through gets the same response back, marked
+     * with {@code Idempotent-Replayed: true}, without the user being created or the password hashed again. The
+     * key identifies the email, name and role it was first sent with; the password is not part of it.
+     */
     @PostMapping
-    public ResponseEntity<UserResponse> createUser(@Valid @RequestBody UserRequest userRequest) {
-        UserResponse createdUser =  userService.createUser(userRequest);
+    public ResponseEntity<UserResponse> createUser(@Valid @RequestBody UserRequest userRequest,
+                                                   @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            UserResponse createdUser = userService.createUser(userRequest);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
+        }
+        byte[] fingerprint = IdempotentRequests.fingerprint(userRequest.email(), userRequest.fullName(),
+                userRequest.role() != null ? userRequest.role().name() : null);
+        IdempotentRequests.Result<UserResponse> result = idempotentRequests.execute(idempotencyKey, fingerprint,
+                UserResponse.class, () -> userService.createUser(userRequest));
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.CREATED);
+        if (result.replayed()) {
+            response.header(REPLAYED_HEADER, "true");
+        }
+        return response.body(result.body());
     }
 
+    /**
+     * With {@code fields}, only those fields are returned. Unlike the listing, the whole user is still read: it is
+     * usually served from memory, where a narrower query would cost a round trip.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<UserResponse> getUser(@PathVariable("id") UUID id) {
+    public ResponseEntity<?> getUser(@PathVariable("id") UUID id,
+                                     @RequestParam(required = false) String fields) {
         UserResponse user = userService.getUserById(id);
-        return ResponseEntity.ok(user);
+        return ResponseEntity.ok().eTag(eTag(user)).body(trim(user, fields));
+    }
+
+    /**
+     * Changes only the fields present in the body. With {@code If-Match} the update applies only if the user is
+     * still at the version of that ETag, and fails with 412 otherwise.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<UserResponse> updateUser(@PathVariable("id") UUID id,
+                                                   @Valid @RequestBody UserPatchRequest patch,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        UserResponse user = userService.updateUser(id, patch, expectedVersion(id, ifMatch));
+        return ResponseEntity.ok().eTag(eTag(user)).body(user);
     }
 
     @GetMapping("/by-email")
-    public ResponseEntity<UserResponse> getUserByEmail(@RequestParam String email) {
+    public ResponseEntity<?> getUserByEmail(@RequestParam String email,
+                                            @RequestParam(required = false) String fields) {
         UserResponse user = userService.getUserByEmail(email);
-        return ResponseEntity.ok(user);
+        return ResponseEntity.ok(trim(user, fields));
+    }
+
+    /**
+     * The users with the given ids, in that order, reading only the columns of {@code fields} if it is given;
+     * ids without a user are listed in {@code notFound}.
+     */
+    @PostMapping("/bulk-get")
+    public ResponseEntity<BulkGetResponse> getUsers(@Valid @RequestBody BulkGetRequest request,
+                                                    @RequestParam(required = false) String fields) {
+        UserFields selected = fields != null ? UserFields.parse(fields) : UserFields.all();
+        return ResponseEntity.ok(userService.getUsers(request.ids(), selected));
     }
 
     @DeleteMapping("/{id}")
@@ -50,4 +132,37 @@ public class UserController {
     public void deleteUser(@PathVariable("id") UUID id) {
         userService.deleteUser(id);
     }
+
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<BulkDeleteResponse> deleteUsers(@Valid @RequestBody BulkDeleteRequest request) {
+        BulkDeleteResponse result = userService.deleteUsers(request.ids());
+        return ResponseEntity.ok(result);
+    }
+
+    private static Object trim(UserResponse user, String fields) {
+        return fields != null ? UserFields.parse(fields).view(user) : user;
+    }
+
+    private static String eTag(UserResponse user) {
+        return "\"" + user.version() + "\"";
+    }
+
+    /**
+     * The version named by a strong ETag of ours, or null for no header or {@code *}. Anything else, weak tags
+     * and lists included, cannot match.
+     */
+    private static Long expectedVersion(UUID id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // not one of ours
+            }
+        }
+        throw new UserVersionMismatchException(id, ifMatch);
+    }
 }
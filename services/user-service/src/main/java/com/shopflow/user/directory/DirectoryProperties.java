@@ -0,0 +1,54 @@
+package com.shopflow.user.directory;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shopflow.directory")
+public class DirectoryProperties {
+
+    /**
+     * When enabled every user is loaded into an off-heap directory at startup and id and email lookups are
+     * served from it. Meant for tenants large enough that the database round trip dominates; needs direct
+     * memory for roughly twice the table.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Size of each direct buffer records are appended to.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Lower bound for the initial index size; a load sizes for the current row count if that is larger.
+     */
+    private int expectedUsers = 1_000_000;
+
+    /**
+     * Rows fetched per round trip while streaming users during a load.
+     */
+    private int fetchSize = 10_000;
+
+    /**
+     * Share of record bytes taken by deleted or replaced users at which the directory is reloaded to reclaim
+     * them. Reloads only happen once the garbage exceeds one segment.
+     */
+    private double compactionThreshold = 0.5;
+
+    /**
+     * How often users changed by other instances are re-read. Until then the directory returns them as they
+     * were.
+     */
+    private Duration syncInterval = Duration.ofSeconds(1);
+
+    /**
+     * If the directory has not caught up with the change feed for this long, e.g. because the database is
+     * unreachable, lookups fall through to the database until it has.
+     */
+    private Duration maxStaleness = Duration.ofSeconds(30);
+}
@@ -0,0 +1,527 @@
+package com.shopflow.user.directory;
+
+import com.shopflow.user.dto.UserResponse;
+import com.shopflow.user.model.Role;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * {@link UserResponse}s encoded into direct buffers, with two open-addressing indexes that live off-heap as well:
+ * one keyed on the two {@code long} halves of the id, one on a 64-bit hash of the email. The heap only holds a
+ * few dozen objects however many users are stored, so the collector never traces or copies them.
+ * <p>
+ * Each record carries the user's version, and a put never replaces a newer record with an older one, so events
+ * applied out of order, or a load racing them, settle on the latest state.
+ * <p>
+ * Records are appended to fixed-size segments and never moved. A removed or replaced record stays in its segment
+ * as garbage until the store is rebuilt; {@link #garbageBytes()} tells the owner when that is worth doing. Both
+ * indexes use linear probing with tombstones and grow by rehashing into a buffer twice the size. A single buffer
+ * caps each index at {@value #MAX_SLOTS} slots, so one store holds up to about 50 million users.
+ * <p>
+ * Reads share a read lock and writes take the write lock. Direct memory is returned when the buffers are
+ * collected after {@link #close()}, so size {@code -XX:MaxDirectMemorySize} for two stores during a rebuild.
+ *
+ * <pre>
+ * record:      msb(8) lsb(8) version(8) role(1) createdAt(16) updatedAt(16) emailLength(2) email fullNameLength(2) fullName
+ * timestamp:   epochSecond(8) nano(4) offsetSeconds(4), offsetSeconds = Integer.MIN_VALUE for null
+ * id slot:     msb(8) lsb(8) ref(8)
+ * email slot:  emailHash(8) ref(8)
+ * ref:         (segment + 1) << 32 | offset, 0 = empty slot, -1 = tombstone
+ * </pre>
+ */
+public class OffHeapUserStore implements AutoCloseable {
+
+    static final int MAX_SLOTS = 1 << 26;
+    private static final int MIN_SEGMENT_SIZE = 64 * 1024;
+    private static final double MAX_LOAD = 0.75;
+
+    private static final int ID_SLOT = 24;
+    private static final int EMAIL_SLOT = 16;
+    private static final long EMPTY = 0;
+    private static final long TOMBSTONE = -1;
+
+    private static final int VERSION_OFFSET = 16;
+    private static final int ROLE_OFFSET = 24;
+    private static final int CREATED_OFFSET = 25;
+    private static final int UPDATED_OFFSET = 41;
+    private static final int EMAIL_OFFSET = 57;
+    private static final int FIXED_SIZE = EMAIL_OFFSET + 2 + 2;
+    private static final int NULL_OFFSET = Integer.MIN_VALUE;
+
+    private static final Role[] ROLES = Role.values();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int segmentSize;
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private ByteBuffer tail;
+
+    private ByteBuffer idIndex;
+    private ByteBuffer emailIndex;
+    private int slots;
+    private int idSlotsUsed;
+    private int emailSlotsUsed;
+
+    private int size;
+    private long usedBytes;
+    private long garbageBytes;
+    private boolean closed;
+
+    public OffHeapUserStore(int segmentSize, int expectedUsers) {
+        if (segmentSize < MIN_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("segmentSize must be at least " + MIN_SEGMENT_SIZE + " bytes");
+        }
+        this.segmentSize = segmentSize;
+        this.slots = slotsFor(expectedUsers);
+        this.idIndex = allocate((long) slots * ID_SLOT);
+        this.emailIndex = allocate((long) slots * EMAIL_SLOT);
+    }
+
+    /**
+     * Adds the user, or replaces the stored one with the same id if that is at an older version. Users removed
+     * from this store are not added again, so an update applied after the delete cannot bring one back.
+     *
+     * @return {@code false} if the store already held this or a newer version, or the user was removed
+     * @throws IllegalStateException if the indexes cannot grow any further
+     */
+    public boolean put(UserResponse user) {
+        byte[] email = user.email().getBytes(StandardCharsets.UTF_8);
+        byte[] fullName = user.fullName() != null ? user.fullName().getBytes(StandardCharsets.UTF_8) : null;
+        long msb = user.id().getMostSignificantBits();
+        long lsb = user.id().getLeastSignificantBits();
+
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            int idSlot = findIdSlot(msb, lsb);
+            if (idSlot >= 0
+                    ? version(idIndex.getLong(idSlot * ID_SLOT + 16)) >= user.version()
+                    : wasRemoved(msb, lsb)) {
+                return false;
+            }
+            if (ensureIndexCapacity()) {
+                idSlot = findIdSlot(msb, lsb);
+            }
+            long ref = append(user, msb, lsb, email, fullName);
+
+            if (idSlot >= 0) {
+                long previous = idIndex.getLong(idSlot * ID_SLOT + 16);
+                removeEmailEntry(previous);
+                garbageBytes += recordSize(previous);
+                idIndex.putLong(idSlot * ID_SLOT + 16, ref);
+            } else {
+                insertId(msb, lsb, ref);
+                size++;
+            }
+            insertEmail(hash(email), ref);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return {@code true} if a user with this id was stored
+     */
+    public boolean remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            int idSlot = findIdSlot(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            if (idSlot < 0) {
+                return false;
+            }
+            long ref = idIndex.getLong(idSlot * ID_SLOT + 16);
+            idIndex.putLong(idSlot * ID_SLOT + 16, TOMBSTONE);
+            removeEmailEntry(ref);
+            garbageBytes += recordSize(ref);
+            size--;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public UserResponse get(UUID id) {
+        lock.readLock().lock();
+        try {
+            if (closed) {
+                return null;
+            }
+            int idSlot = findIdSlot(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            return idSlot >= 0 ? decode(idIndex.getLong(idSlot * ID_SLOT + 16)) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public UserResponse getByEmail(String email) {
+        byte[] key = email.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(key);
+
+        lock.readLock().lock();
+        try {
+            if (closed) {
+                return null;
+            }
+            int mask = slots - 1;
+            for (int slot = (int) (hash & mask); ; slot = (slot + 1) & mask) {
+                long ref = emailIndex.getLong(slot * EMAIL_SLOT + 8);
+                if (ref == EMPTY) {
+                    return null;
+                }
+                if (ref != TOMBSTONE && emailIndex.getLong(slot * EMAIL_SLOT) == hash && emailEquals(ref, key)) {
+                    return decode(ref);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bytes taken by records, live or not.
+     */
+    public long usedBytes() {
+        lock.readLock().lock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bytes taken by removed and replaced records.
+     */
+    public long garbageBytes() {
+        lock.readLock().lock();
+        try {
+            return garbageBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Direct memory reserved by the segments.
+     */
+    public long segmentBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) segments.size() * segmentSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Direct memory reserved by the two indexes.
+     */
+    public long indexBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) slots * (ID_SLOT + EMAIL_SLOT);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the buffers; later calls see an empty store and writes are ignored.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            closed = true;
+            segments.clear();
+            tail = null;
+            idIndex = null;
+            emailIndex = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long append(UserResponse user, long msb, long lsb, byte[] email, byte[] fullName) {
+        int length = FIXED_SIZE + email.length + (fullName != null ? fullName.length : 0);
+        if (tail == null || tail.capacity() - tail.position() < length) {
+            tail = allocate(segmentSize);
+            segments.add(tail);
+        }
+        int offset = tail.position();
+        tail.putLong(offset, msb);
+        tail.putLong(offset + 8, lsb);
+        tail.putLong(offset + VERSION_OFFSET, user.version());
+        tail.put(offset + ROLE_OFFSET, user.role() != null ? (byte) user.role().ordinal() : -1);
+        putTimestamp(tail, offset + CREATED_OFFSET, user.createdAt());
+        putTimestamp(tail, offset + UPDATED_OFFSET, user.updatedAt());
+        int position = offset + EMAIL_OFFSET;
+        tail.putShort(position, (short) email.length);
+        tail.put(position + 2, email);
+        position += 2 + email.length;
+        tail.putShort(position, (short) (fullName != null ? fullName.length : -1));
+        if (fullName != null) {
+            tail.put(position + 2, fullName);
+        }
+        tail.position(offset + length);
+        usedBytes += length;
+        return ((long) segments.size() << 32) | offset;
+    }
+
+    private UserResponse decode(long ref) {
+        ByteBuffer segment = segment(ref);
+        int offset = offset(ref);
+        UUID id = new UUID(segment.getLong(offset), segment.getLong(offset + 8));
+        byte role = segment.get(offset + ROLE_OFFSET);
+        OffsetDateTime createdAt = getTimestamp(segment, offset + CREATED_OFFSET);
+        OffsetDateTime updatedAt = getTimestamp(segment, offset + UPDATED_OFFSET);
+        int position = offset + EMAIL_OFFSET;
+        int emailLength = segment.getShort(position);
+        String email = getString(segment, position + 2, emailLength);
+        position += 2 + emailLength;
+        int fullNameLength = segment.getShort(position);
+        String fullName = fullNameLength >= 0 ? getString(segment, position + 2, fullNameLength) : null;
+        return new UserResponse(id, email, fullName, role >= 0 ? ROLES[role] : null, createdAt, updatedAt,
+                segment.getLong(offset + VERSION_OFFSET));
+    }
+
+    private long version(long ref) {
+        return segment(ref).getLong(offset(ref) + VERSION_OFFSET);
+    }
+
+    private int recordSize(long ref) {
+        ByteBuffer segment = segment(ref);
+        int position = offset(ref) + EMAIL_OFFSET;
+        int emailLength = segment.getShort(position);
+        int fullNameLength = segment.getShort(position + 2 + emailLength);
+        return FIXED_SIZE + emailLength + Math.max(fullNameLength, 0);
+    }
+
+    private boolean emailEquals(long ref, byte[] key) {
+        ByteBuffer segment = segment(ref);
+        int position = offset(ref) + EMAIL_OFFSET;
+        if (segment.getShort(position) != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (segment.get(position + 2 + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long emailHash(long ref) {
+        ByteBuffer segment = segment(ref);
+        int position = offset(ref) + EMAIL_OFFSET;
+        byte[] email = new byte[segment.getShort(position)];
+        segment.get(position + 2, email);
+        return hash(email);
+    }
+
+    private int findIdSlot(long msb, long lsb) {
+        int mask = slots - 1;
+        for (int slot = (int) (mix(msb ^ Long.rotateLeft(lsb, 32)) & mask); ; slot = (slot + 1) & mask) {
+            int base = slot * ID_SLOT;
+            long ref = idIndex.getLong(base + 16);
+            if (ref == EMPTY) {
+                return -1;
+            }
+            if (ref != TOMBSTONE && idIndex.getLong(base) == msb && idIndex.getLong(base + 8) == lsb) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Whether a tombstone still carries this id. Tombstones keep their key until the slot is reused or the index
+     * is rehashed, which covers the short window in which late events for a removed user can arrive.
+     */
+    private boolean wasRemoved(long msb, long lsb) {
+        int mask = slots - 1;
+        for (int slot = (int) (mix(msb ^ Long.rotateLeft(lsb, 32)) & mask); ; slot = (slot + 1) & mask) {
+            int base = slot * ID_SLOT;
+            long ref = idIndex.getLong(base + 16);
+            if (ref == EMPTY) {
+                return false;
+            }
+            if (ref == TOMBSTONE && idIndex.getLong(base) == msb && idIndex.getLong(base + 8) == lsb) {
+                return true;
+            }
+        }
+    }
+
+    private void insertId(long msb, long lsb, long ref) {
+        int mask = slots - 1;
+        int slot = (int) (mix(msb ^ Long.rotateLeft(lsb, 32)) & mask);
+        while (true) {
+            long existing = idIndex.getLong(slot * ID_SLOT + 16);
+            if (existing == EMPTY || existing == TOMBSTONE) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (idIndex.getLong(slot * ID_SLOT + 16) == EMPTY) {
+            idSlotsUsed++;
+        }
+        idIndex.putLong(slot * ID_SLOT, msb);
+        idIndex.putLong(slot * ID_SLOT + 8, lsb);
+        idIndex.putLong(slot * ID_SLOT + 16, ref);
+    }
+
+    private void insertEmail(long hash, long ref) {
+        int mask = slots - 1;
+        int slot = (int) (hash & mask);
+        while (true) {
+            long existing = emailIndex.getLong(slot * EMAIL_SLOT + 8);
+            if (existing == EMPTY || existing == TOMBSTONE) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (emailIndex.getLong(slot * EMAIL_SLOT + 8) == EMPTY) {
+            emailSlotsUsed++;
+        }
+        emailIndex.putLong(slot * EMAIL_SLOT, hash);
+        emailIndex.putLong(slot * EMAIL_SLOT + 8, ref);
+    }
+
+    private void removeEmailEntry(long ref) {
+        int mask = slots - 1;
+        for (int slot = (int) (emailHash(ref) & mask); ; slot = (slot + 1) & mask) {
+            long existing = emailIndex.getLong(slot * EMAIL_SLOT + 8);
+            if (existing == EMPTY) {
+                return;
+            }
+            if (existing == ref) {
+                emailIndex.putLong(slot * EMAIL_SLOT + 8, TOMBSTONE);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Keeps room for one more entry in both indexes: doubles them when live entries alone pass half the load
+     * limit, otherwise rehashes at the same size to clear tombstones.
+     *
+     * @return whether the indexes were rehashed
+     */
+    private boolean ensureIndexCapacity() {
+        int limit = (int) (slots * MAX_LOAD);
+        if (idSlotsUsed + 1 <= limit && emailSlotsUsed + 1 <= limit) {
+            return false;
+        }
+        int target = size + 1 > limit / 2 ? slots * 2 : slots;
+        if (target > MAX_SLOTS) {
+            throw new IllegalStateException("Off-heap user store is full at " + size + " users");
+        }
+        rehash(target);
+        return true;
+    }
+
+    private void rehash(int newSlots) {
+        ByteBuffer oldIds = idIndex;
+        int oldSlots = slots;
+
+        slots = newSlots;
+        idIndex = allocate((long) newSlots * ID_SLOT);
+        emailIndex = allocate((long) newSlots * EMAIL_SLOT);
+        idSlotsUsed = 0;
+        emailSlotsUsed = 0;
+
+        for (int slot = 0; slot < oldSlots; slot++) {
+            long ref = oldIds.getLong(slot * ID_SLOT + 16);
+            if (ref != EMPTY && ref != TOMBSTONE) {
+                insertId(oldIds.getLong(slot * ID_SLOT), oldIds.getLong(slot * ID_SLOT + 8), ref);
+                insertEmail(emailHash(ref), ref);
+            }
+        }
+    }
+
+    private ByteBuffer segment(long ref) {
+        return segments.get((int) (ref >>> 32) - 1);
+    }
+
+    private static int offset(long ref) {
+        return (int) ref;
+    }
+
+    private static void putTimestamp(ByteBuffer buffer, int position, OffsetDateTime timestamp) {
+        if (timestamp == null) {
+            buffer.putInt(position + 12, NULL_OFFSET);
+            return;
+        }
+        buffer.putLong(position, timestamp.toEpochSecond());
+        buffer.putInt(position + 8, timestamp.getNano());
+        buffer.putInt(position + 12, timestamp.getOffset().getTotalSeconds());
+    }
+
+    private static OffsetDateTime getTimestamp(ByteBuffer buffer, int position) {
+        int offsetSeconds = buffer.getInt(position + 12);
+        if (offsetSeconds == NULL_OFFSET) {
+            return null;
+        }
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(buffer.getLong(position), buffer.getInt(position + 8)),
+                ZoneOffset.ofTotalSeconds(offsetSeconds));
+    }
+
+    private static String getString(ByteBuffer buffer, int position, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int slotsFor(int expectedUsers) {
+        long needed = (long) Math.ceil(Math.max(expectedUsers, 16) / MAX_LOAD);
+        long slots = Long.highestOneBit(needed - 1) << 1;
+        return (int) Math.min(slots, MAX_SLOTS);
+    }
+
+    private static ByteBuffer allocate(long bytes) {
+        return ByteBuffer.allocateDirect(Math.toIntExact(bytes)).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes, finished with {@link #mix(long)} so the low bits used for the slot are spread.
+     */
+    static long hash(byte[] bytes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
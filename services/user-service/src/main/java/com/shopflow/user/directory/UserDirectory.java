@@ -0,0 +1,341 @@
+package com.shopflow.user.directory;
+
+import com.shopflow.user.changefeed.ChangeFeedFollower;
+import com.shopflow.user.changefeed.UserChange;
+import com.shopflow.user.dto.UserResponse;
+import com.shopflow.user.model.Role;
+import com.shopflow.user.service.event.UserCreatedEvent;
+import com.shopflow.user.service.event.UserDeletedEvent;
+import com.shopflow.user.service.event.UserUpdatedEvent;
+import com.shopflow.user.service.event.UsersDeletedEvent;
+import com.shopflow.user.service.exception.ChangeFeedExpiredException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Serves id and email lookups from an {@link OffHeapUserStore} holding every user. Loaded at startup from a
+ * streaming scan of {@code users} on a background thread, kept current through the user lifecycle events, and
+ * following the change feed for users changed by other instances. Until the first load finishes, whenever the
+ * directory has not caught up with the feed for {@code max-staleness}, and whenever it reports a miss, callers
+ * fall through to the database, so a user committed a moment ago is still found.
+ * <p>
+ * A load reads a repeatable-read snapshot. Users created or updated while it runs are added to the store being
+ * built as well as to the current one; the store keeps whichever version of a user is newest, so it does not
+ * matter whether the scan or the event gets there first. Users deleted while it runs are remembered and dropped again if the scan, reading the
+ * older snapshot, adds them after the delete: the scan adds before it checks, the delete records before it
+ * removes, so one of the two always sees the other.
+ * <p>
+ * Changes made on this instance reach the directory right after their transaction commits. Changes made on other
+ * instances are picked up on the next {@code sync-interval} tick by re-reading the changed rows, as the feed does
+ * not carry versions or timestamps; until then a user updated or deleted elsewhere is still returned in its
+ * previous state. The store never re-adds a removed user, so a re-read racing a delete cannot resurrect it.
+ */
+@Slf4j
+public class UserDirectory implements AutoCloseable {
+
+    private static final String SIZE_SQL = "SELECT GREATEST(reltuples, 0)::bigint FROM pg_class WHERE oid = 'users'::regclass";
+    private static final String SCAN_SQL = "SELECT id, email, full_name, role, created_at, updated_at, version FROM users";
+    private static final String REFRESH_SQL = SCAN_SQL + " WHERE id = ANY(?::uuid[])";
+
+    private final DirectoryProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final ScheduledExecutorService executor;
+    private final ChangeFeedFollower changeFeed;
+    private final AtomicBoolean reloadScheduled = new AtomicBoolean();
+
+    private volatile OffHeapUserStore store;
+    private volatile OffHeapUserStore building;
+    private volatile Set<UUID> deletedWhileBuilding;
+
+    private final Counter idHits;
+    private final Counter idMisses;
+    private final Counter emailHits;
+    private final Counter emailMisses;
+    private final Counter loads;
+
+    public UserDirectory(DirectoryProperties properties, DataSource dataSource,
+                         PlatformTransactionManager transactionManager, ChangeFeedFollower changeFeed,
+                         MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.changeFeed = changeFeed;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.getFetchSize());
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-directory");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.idHits = lookupCounter("id", "hit", meterRegistry);
+        this.idMisses = lookupCounter("id", "miss", meterRegistry);
+        this.emailHits = lookupCounter("email", "hit", meterRegistry);
+        this.emailMisses = lookupCounter("email", "miss", meterRegistry);
+        Gauge.builder("shopflow.directory.users", this, directory -> measure(OffHeapUserStore::size))
+                .description("Users held by the off-heap directory")
+                .register(meterRegistry);
+        memoryGauge("records", OffHeapUserStore::segmentBytes, meterRegistry);
+        memoryGauge("index", OffHeapUserStore::indexBytes, meterRegistry);
+        memoryGauge("garbage", OffHeapUserStore::garbageBytes, meterRegistry);
+        this.loads = Counter.builder("shopflow.directory.loads")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The user with this id if the directory holds it; empty if it does not, is not loaded yet, or has fallen
+     * behind the change feed.
+     */
+    public Optional<UserResponse> findById(UUID id) {
+        OffHeapUserStore current = store;
+        if (current == null || changeFeed.isBehind(properties.getMaxStaleness())) {
+            return Optional.empty();
+        }
+        UserResponse user = current.get(id);
+        (user != null ? idHits : idMisses).increment();
+        return Optional.ofNullable(user);
+    }
+
+    public Optional<UserResponse> findByEmail(String email) {
+        OffHeapUserStore current = store;
+        if (current == null || email == null || changeFeed.isBehind(properties.getMaxStaleness())) {
+            return Optional.empty();
+        }
+        UserResponse user = current.getByEmail(email);
+        (user != null ? emailHits : emailMisses).increment();
+        return Optional.ofNullable(user);
+    }
+
+    public boolean isReady() {
+        return store != null && !changeFeed.isBehind(properties.getMaxStaleness());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserCreated(UserCreatedEvent event) {
+        // new rows start at version 0
+        put(new UserResponse(event.id(), event.email(), event.fullName(), event.role(),
+                event.createdAt(), event.updatedAt(), 0));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserUpdated(UserUpdatedEvent event) {
+        put(new UserResponse(event.id(), event.email(), event.fullName(), event.role(),
+                event.createdAt(), event.updatedAt(), event.version()));
+    }
+
+    private void put(UserResponse user) {
+        // building before store: a load publishes store before clearing building, so this order cannot miss both
+        OffHeapUserStore next = building;
+        OffHeapUserStore current = store;
+        try {
+            if (next != null) {
+                next.put(user);
+            }
+            if (current != null && current != next) {
+                current.put(user);
+            }
+        } catch (IllegalStateException e) {
+            log.warn("User {} not added to the directory: {}", user.id(), e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        remove(List.of(event.id()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUsersDeleted(UsersDeletedEvent event) {
+        remove(event.users().stream().map(UserDeletedEvent::id).toList());
+    }
+
+    private void remove(List<UUID> ids) {
+        OffHeapUserStore next = building;
+        Set<UUID> deleted = deletedWhileBuilding;
+        OffHeapUserStore current = store;
+        if (deleted != null) {
+            deleted.addAll(ids);
+        }
+        if (next != null) {
+            ids.forEach(next::remove);
+        }
+        if (current != null && current != next) {
+            ids.forEach(current::remove);
+            scheduleReloadIfFragmented(current);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!properties.isEnabled()) {
+            log.info("Off-heap user directory disabled");
+            return;
+        }
+        reloadScheduled.set(true);
+        executor.execute(this::reloadQuietly);
+        long sync = properties.getSyncInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::syncQuietly, sync, sync, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Re-reads the users changed since the last sync, on any instance, and stores or removes them. Runs on the
+     * caller's thread.
+     *
+     * @throws ChangeFeedExpiredException if the directory fell so far behind that the feed no longer has the
+     *                                    changes; it needs a reload
+     */
+    public synchronized void sync() {
+        changeFeed.catchUp(changes -> {
+            Set<UUID> ids = new HashSet<>();
+            for (UserChange change : changes) {
+                ids.add(change.userId());
+            }
+            Set<UUID> missing = new HashSet<>(ids);
+            jdbcTemplate.query(REFRESH_SQL, (RowCallbackHandler) rs -> {
+                UserResponse user = toUser(rs);
+                missing.remove(user.id());
+                put(user);
+            }, (Object) ids.toArray(new UUID[0]));
+            if (!missing.isEmpty()) {
+                remove(List.copyOf(missing));
+            }
+        });
+    }
+
+    /**
+     * Loads every user into a fresh store and swaps it in. Runs on the caller's thread.
+     */
+    public synchronized void reload() {
+        long start = System.nanoTime();
+        Long estimatedRows = jdbcTemplate.queryForObject(SIZE_SQL, Long.class);
+        int expected = (int) Math.min(Integer.MAX_VALUE,
+                Math.max(properties.getExpectedUsers(), estimatedRows != null ? estimatedRows : 0));
+
+        OffHeapUserStore next = new OffHeapUserStore((int) properties.getSegmentSize().toBytes(), expected);
+        Set<UUID> deleted = ConcurrentHashMap.newKeySet();
+        deletedWhileBuilding = deleted;
+        building = next;
+        try {
+            ChangeFeedFollower.Mark mark = changeFeed.mark();
+            snapshotTransaction.executeWithoutResult(status ->
+                    jdbcTemplate.query(SCAN_SQL, (RowCallbackHandler) rs -> {
+                        UserResponse user = toUser(rs);
+                        next.put(user);
+                        if (deleted.contains(user.id())) {
+                            next.remove(user.id());
+                        }
+                    }));
+            OffHeapUserStore previous = store;
+            store = next;
+            changeFeed.startAt(mark);
+            if (previous != null) {
+                previous.close();
+            }
+        } catch (RuntimeException e) {
+            next.close();
+            throw e;
+        } finally {
+            building = null;
+            deletedWhileBuilding = null;
+        }
+
+        loads.increment();
+        log.info("Off-heap user directory loaded: {} users, {} MiB of records, {} MiB of index, {} ms",
+                next.size(), next.usedBytes() / (1024 * 1024), next.indexBytes() / (1024 * 1024),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        OffHeapUserStore current = store;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private void scheduleReloadIfFragmented(OffHeapUserStore current) {
+        long garbage = current.garbageBytes();
+        if (garbage > properties.getSegmentSize().toBytes()
+                && garbage > properties.getCompactionThreshold() * current.usedBytes()
+                && reloadScheduled.compareAndSet(false, true)) {
+            executor.execute(this::reloadQuietly);
+        }
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("Off-heap user directory load failed, keeping the previous one: {}", e.getMessage());
+        } finally {
+            reloadScheduled.set(false);
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (ChangeFeedExpiredException e) {
+            log.warn("Off-heap user directory fell behind the change feed, reloading: {}", e.getMessage());
+            reloadQuietly();
+        } catch (RuntimeException e) {
+            log.warn("Off-heap user directory sync failed: {}", e.getMessage());
+        }
+    }
+
+    private static UserResponse toUser(ResultSet rs) throws SQLException {
+        return new UserResponse(rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3),
+                Role.valueOf(rs.getString(4)), rs.getObject(5, OffsetDateTime.class),
+                rs.getObject(6, OffsetDateTime.class), rs.getLong(7));
+    }
+
+    private double measure(ToDoubleFunction<OffHeapUserStore> metric) {
+        OffHeapUserStore current = store;
+        return current != null ? metric.applyAsDouble(current) : 0;
+    }
+
+    private void memoryGauge(String area, ToDoubleFunction<OffHeapUserStore> metric, MeterRegistry meterRegistry) {
+        Gauge.builder("shopflow.directory.memory", this, directory -> measure(metric))
+                .description("Direct memory held by the off-heap directory")
+                .baseUnit("bytes")
+                .tag("area", area)
+                .register(meterRegistry);
+    }
+
+    private static Counter lookupCounter(String index, String result, MeterRegistry meterRegistry) {
+        return Counter.builder("shopflow.directory.lookups")
+                .description("Lookups answered by the off-heap directory")
+                .tags("index", index, "result", result)
+                .register(meterRegistry);
+    }
+}
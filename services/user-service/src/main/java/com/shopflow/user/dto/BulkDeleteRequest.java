@@ -0,0 +1,12 @@
+package com.shopflow.user.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BulkDeleteRequest(
+        @NotEmpty @Size(max = 10_000) List<@NotNull UUID> ids
+) {}
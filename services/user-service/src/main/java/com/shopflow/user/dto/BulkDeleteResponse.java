@@ -0,0 +1,10 @@
+package com.shopflow.user.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BulkDeleteResponse(
+        List<UUID> deleted,
+        List<UUID> notFound
+) {
+}
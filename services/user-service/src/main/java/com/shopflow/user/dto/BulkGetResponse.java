@@ -0,0 +1,12 @@
+package com.shopflow.user.dto;
+
+import com.shopflow.user.projection.UserView;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BulkGetResponse(
+        List<UserView> users,
+        List<UUID> notFound
+) {
+}
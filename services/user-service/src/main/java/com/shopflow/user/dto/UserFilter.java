@@ -0,0 +1,22 @@
+package com.shopflow.user.dto;
+
+import com.shopflow.user.model.Role;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Filters for the user listing; a null field does not filter. {@code createdAfter} is inclusive and
+ * {@code createdBefore} exclusive, so adjacent windows neither overlap nor leave gaps.
+ */
+public record UserFilter(
+        Role role,
+        OffsetDateTime createdAfter,
+        OffsetDateTime createdBefore
+) {
+
+    public static final UserFilter NONE = new UserFilter(null, null, null);
+
+    public boolean isEmpty() {
+        return role == null && createdAfter == null && createdBefore == null;
+    }
+}
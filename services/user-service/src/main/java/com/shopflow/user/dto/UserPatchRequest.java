@@ -0,0 +1,17 @@
+package com.shopflow.user.dto;
+
+import com.shopflow.user.model.Role;
+import com.shopflow.user.service.logging.annotation.Sensitive;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Fields to change; a field that is absent or null keeps its current value.
+ */
+public record UserPatchRequest(
+        @Email @Pattern(regexp = ".*\\S.*", message = "must not be blank") @Size(max = 255) String email,
+        @Pattern(regexp = ".*\\S.*", message = "must not be blank") @Size(max = 255) String fullName,
+        @Pattern(regexp = ".*\\S.*", message = "must not be blank") @Sensitive String password,
+        Role role
+) {}
@@ -11,6 +11,7 @@ public record UserResponse(
         String fullName,
         Role role,
         OffsetDateTime createdAt,
-        OffsetDateTime updatedAt
+        OffsetDateTime updatedAt,
+        long version
 ) {
 }
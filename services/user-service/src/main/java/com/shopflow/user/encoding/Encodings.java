@@ -0,0 +1,88 @@
+package com.shopflow.user.encoding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.util.List;
+
+/**
+ * The encodings the API speaks: JSON, and the binary CBOR and Smile for clients that ask for them with
+ * {@code Accept} (or send them with {@code Content-Type}). The binary mappers are copies of the JSON one, so
+ * every DTO, module and setting applies to all three and a body decodes to the same object whichever was used.
+ * JSON stays the default for {@code *}{@code /*} and for clients that accept none of them.
+ */
+public class Encodings {
+
+    public static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    private static final List<MediaType> SUPPORTED = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR,
+            SMILE);
+
+    private final ObjectMapper json;
+    private final ObjectMapper cbor;
+    private final ObjectMapper smile;
+
+    public Encodings(ObjectMapper json) {
+        this.json = json;
+        this.cbor = json.copyWith(new CBORFactory());
+        this.smile = json.copyWith(new SmileFactory());
+    }
+
+    public MappingJackson2CborHttpMessageConverter cborConverter() {
+        return new MappingJackson2CborHttpMessageConverter(cbor);
+    }
+
+    public MappingJackson2SmileHttpMessageConverter smileConverter() {
+        return new MappingJackson2SmileHttpMessageConverter(smile);
+    }
+
+    /**
+     * The supported encoding the {@code Accept} header ranks highest, the earlier one on a tie; JSON if the header
+     * is missing, malformed or names none of them.
+     */
+    public MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MediaType best = MediaType.APPLICATION_JSON;
+        double bestQuality = 0;
+        for (MediaType type : accepted) {
+            double quality = type.getQualityValue();
+            if (quality <= bestQuality) {
+                continue;
+            }
+            for (MediaType supported : SUPPORTED) {
+                if (type.includes(supported)) {
+                    best = supported;
+                    bestQuality = quality;
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * The mapper for one of the {@link #negotiate negotiated} encodings.
+     */
+    public ObjectMapper mapper(MediaType encoding) {
+        if (MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(encoding)) {
+            return cbor;
+        }
+        if (SMILE.equalsTypeAndSubtype(encoding)) {
+            return smile;
+        }
+        return json;
+    }
+}
@@ -1,5 +1,6 @@
 package com.shopflow.user.filter;
 
+import com.shopflow.user.tracing.TraceIds;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,7 +12,6 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.UUID;
 
 @Order(1)
 @Component
@@ -28,7 +28,7 @@ public class CorrelationIdFilter extends OncePerRequestFilter {
 
         try {
             if (correlationId == null || correlationId.isBlank()) {
-                correlationId = UUID.randomUUID().toString();
+                correlationId = TraceIds.randomUuid().toString();
                 log.debug("Generated new correlationId: {}", correlationId);
             } else {
                 log.debug("Using existing correlationId: {}", correlationId);
@@ -0,0 +1,42 @@
+package com.shopflow.user.idempotency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shopflow.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Without it, {@code Idempotency-Key} is ignored and every request runs.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long a response is replayed for its key.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * How long a request may hold its key without completing before another request with the key may take it
+     * over; covers instances that die mid-request.
+     */
+    private Duration lease = Duration.ofSeconds(30);
+
+    /**
+     * How long a duplicate waits for the request in progress before giving up with 409.
+     */
+    private Duration wait = Duration.ofSeconds(10);
+
+    /**
+     * How often a duplicate re-checks a key held by another instance. Duplicates on the instance running the
+     * request wait on it directly.
+     */
+    private Duration pollInterval = Duration.ofMillis(50);
+
+    private Duration purgeInterval = Duration.ofHours(1);
+}
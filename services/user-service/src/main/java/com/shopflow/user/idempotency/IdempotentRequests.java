@@ -0,0 +1,295 @@
+package com.shopflow.user.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopflow.user.coalescing.SingleFlight;
+import com.shopflow.user.service.exception.IdempotencyKeyInUseException;
+import com.shopflow.user.service.exception.IdempotencyKeyMismatchException;
+import com.shopflow.user.service.exception.InvalidIdempotencyKeyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per {@code Idempotency-Key} and replays its response to retries, keeping both in
+ * {@code idempotency_keys} so that a retry landing on another instance is answered the same way.
+ * <p>
+ * The first request claims the key with an insert, runs, and stores its response; if it fails, it releases the
+ * key so the retry runs again. A retry finds the stored response and gets it back without running anything.
+ * A duplicate that arrives while the first is still running waits for it: on this instance through a
+ * {@link SingleFlight}, on another by re-reading the row until the response is there or {@code wait} runs out,
+ * and either way gets the response as a replay.
+ * Each key is bound to a fingerprint of the request it was first used with, and reusing it for a different one
+ * is rejected.
+ * <p>
+ * The response is stored after the request's own transaction has committed. An instance that dies in between
+ * leaves a claim without a response, which another request may take over once its lease has run out.
+ */
+@Slf4j
+public class IdempotentRequests implements AutoCloseable {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final int MAX_KEY_LENGTH = 255;
+
+    /**
+     * Takes a new key, or one whose response has expired or whose request has outlived its lease.
+     */
+    private static final String CLAIM_SQL =
+            "INSERT INTO idempotency_keys (idempotency_key, fingerprint, leased_until, expires_at) "
+                    + "VALUES (?, ?, now() + ? * interval '1 millisecond', now() + ? * interval '1 millisecond') "
+                    + "ON CONFLICT (idempotency_key) DO UPDATE SET fingerprint = EXCLUDED.fingerprint, "
+                    + "response = NULL, leased_until = EXCLUDED.leased_until, expires_at = EXCLUDED.expires_at "
+                    + "WHERE idempotency_keys.expires_at < now() "
+                    + "OR (idempotency_keys.response IS NULL AND idempotency_keys.leased_until < now())";
+    private static final String READ_SQL =
+            "SELECT fingerprint, response FROM idempotency_keys WHERE idempotency_key = ? AND expires_at >= now()";
+    private static final String COMPLETE_SQL =
+            "UPDATE idempotency_keys SET response = ?::jsonb WHERE idempotency_key = ? AND fingerprint = ?";
+    private static final String RELEASE_SQL =
+            "DELETE FROM idempotency_keys WHERE idempotency_key = ? AND fingerprint = ? AND response IS NULL";
+    private static final String PURGE_SQL = "DELETE FROM idempotency_keys WHERE expires_at < now()";
+
+    private final IdempotencyProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final SingleFlight<RequestKey, Result<?>> flight;
+    private final ScheduledExecutorService executor;
+
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter rejected;
+
+    /**
+     * The response, and whether it was replayed rather than produced by this request.
+     */
+    public record Result<T>(T body, boolean replayed) {}
+
+    /**
+     * What duplicates on this instance coalesce on: the same key for the same request.
+     */
+    public record RequestKey(String key, byte[] fingerprint) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof RequestKey other && key.equals(other.key)
+                    && Arrays.equals(fingerprint, other.fingerprint);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * key.hashCode() + Arrays.hashCode(fingerprint);
+        }
+    }
+
+    private record Stored(byte[] fingerprint, String response) {}
+
+    public IdempotentRequests(IdempotencyProperties properties, DataSource dataSource, ObjectMapper objectMapper,
+                              SingleFlight<RequestKey, Result<?>> flight, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.objectMapper = objectMapper;
+        this.flight = flight;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "idempotency-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.executed = counter(meterRegistry, "executed");
+        this.replayed = counter(meterRegistry, "replayed");
+        this.rejected = counter(meterRegistry, "rejected");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("shopflow.idempotency.requests")
+                .description("Requests with an idempotency key: executed, replayed, or rejected as a mismatch")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        long purge = properties.getPurgeInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::purgeQuietly, purge, purge, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * A digest of the parts that identify a request, for {@link #execute}. Secrets such as passwords should be
+     * left out: the digest is stored for as long as the response.
+     */
+    public static byte[] fingerprint(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                if (part == null) {
+                    digest.update((byte) 0);
+                } else {
+                    byte[] bytes = part.getBytes(StandardCharsets.UTF_8);
+                    digest.update((byte) 1);
+                    digest.update(new byte[] {(byte) (bytes.length >>> 24), (byte) (bytes.length >>> 16),
+                            (byte) (bytes.length >>> 8), (byte) bytes.length});
+                    digest.update(bytes);
+                }
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Runs {@code action} unless a response for {@code key} is already stored, in which case that is returned.
+     *
+     * @param fingerprint identifies the request, see {@link #fingerprint}
+     * @throws IdempotencyKeyMismatchException if the key was used for a request with another fingerprint
+     * @throws IdempotencyKeyInUseException    if the request holding the key did not finish within {@code wait}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Result<T> execute(String key, byte[] fingerprint, Class<T> type, Supplier<T> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(MAX_KEY_LENGTH);
+        }
+        if (!properties.isEnabled()) {
+            return new Result<>(action.get(), false);
+        }
+        boolean[] ran = {false};
+        Result<T> result = (Result<T>) flight.execute(new RequestKey(key, fingerprint), () -> {
+            ran[0] = true;
+            return run(key, fingerprint, type, action);
+        });
+        if (!ran[0]) {
+            // coalesced onto a duplicate running on this instance
+            replayed.increment();
+            return new Result<>(result.body(), true);
+        }
+        return result;
+    }
+
+    private <T> Result<T> run(String key, byte[] fingerprint, Class<T> type, Supplier<T> action) {
+        long deadline = System.nanoTime() + properties.getWait().toNanos();
+        while (true) {
+            if (claim(key, fingerprint)) {
+                executed.increment();
+                return new Result<>(runClaimed(key, fingerprint, action), false);
+            }
+            Stored stored = read(key);
+            if (stored == null) {
+                // expired or released since the claim, try again
+                continue;
+            }
+            if (!Arrays.equals(stored.fingerprint(), fingerprint)) {
+                rejected.increment();
+                throw new IdempotencyKeyMismatchException(key);
+            }
+            if (stored.response() != null) {
+                replayed.increment();
+                return new Result<>(fromJson(stored.response(), type), true);
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                throw new IdempotencyKeyInUseException(key);
+            }
+            sleep(properties.getPollInterval().toMillis());
+        }
+    }
+
+    private <T> T runClaimed(String key, byte[] fingerprint, Supplier<T> action) {
+        T response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error e) {
+            releaseQuietly(key, fingerprint);
+            throw e;
+        }
+        try {
+            jdbcTemplate.update(COMPLETE_SQL, toJson(response), key, fingerprint);
+        } catch (RuntimeException e) {
+            // the request itself succeeded; a retry will find the claim and, once its lease is over, run again
+            log.warn("Could not store the response for idempotency key {}: {}", key, e.getMessage());
+        }
+        return response;
+    }
+
+    private boolean claim(String key, byte[] fingerprint) {
+        return jdbcTemplate.update(CLAIM_SQL, key, fingerprint, properties.getLease().toMillis(),
+                properties.getTtl().toMillis()) == 1;
+    }
+
+    private Stored read(String key) {
+        List<Stored> rows = jdbcTemplate.query(READ_SQL,
+                (rs, i) -> new Stored(rs.getBytes(1), rs.getString(2)), key);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private void releaseQuietly(String key, byte[] fingerprint) {
+        try {
+            jdbcTemplate.update(RELEASE_SQL, key, fingerprint);
+        } catch (RuntimeException e) {
+            log.warn("Could not release idempotency key {}, it stays taken until its lease runs out: {}",
+                    key, e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes expired keys.
+     *
+     * @return how many were deleted
+     */
+    public int purge() {
+        return jdbcTemplate.update(PURGE_SQL);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void purgeQuietly() {
+        try {
+            int purged = purge();
+            if (purged > 0) {
+                log.info("Purged {} expired idempotency keys", purged);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Idempotency key purge failed: {}", e.getMessage());
+        }
+    }
+
+    private String toJson(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize response of type " + response.getClass(), e);
+        }
+    }
+
+    private <T> T fromJson(String response, Class<T> type) {
+        try {
+            return objectMapper.readValue(response, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read stored response as " + type, e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an idempotent request", e);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.shopflow.user.jdbc;
+
+import com.shopflow.user.jfr.RepositoryQueryEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Wraps the pooled {@link DataSource} so that every statement execution is timed and reported to the
+ * registered {@link StatementListener}s. Connections and statements are JDK dynamic proxies; only the
+ * {@code execute*} methods do extra work, everything else is passed straight through. Statements over the
+ * JFR threshold are also recorded as {@link RepositoryQueryEvent}s.
+ * <p>
+ * Extends {@link DelegatingDataSource} so that {@code unwrap} and Spring Boot's pool metadata still reach the
+ * underlying Hikari pool.
+ */
+@Slf4j
+public class ObservedDataSource extends DelegatingDataSource {
+
+    private final ObjectProvider<StatementListener> listenerProvider;
+    private volatile List<StatementListener> listeners;
+
+    public ObservedDataSource(DataSource target, ObjectProvider<StatementListener> listenerProvider) {
+        super(target);
+        this.listenerProvider = listenerProvider;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                ObservedDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection)
+        );
+    }
+
+    private List<StatementListener> listeners() {
+        List<StatementListener> resolved = listeners;
+        if (resolved == null) {
+            resolved = listenerProvider.orderedStream().toList();
+            listeners = resolved;
+        }
+        return resolved;
+    }
+
+    private void notifyListeners(StatementExecution execution) {
+        for (StatementListener listener : listeners()) {
+            try {
+                listener.afterExecute(execution);
+            } catch (RuntimeException e) {
+                log.debug("Statement listener {} failed", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    private boolean rowCountsWanted() {
+        for (StatementListener listener : listeners()) {
+            if (listener.wantsRowCounts()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void notifyRowsRead(String sql, long rows) {
+        for (StatementListener listener : listeners()) {
+            try {
+                listener.afterRowsRead(sql, rows);
+            } catch (RuntimeException e) {
+                log.debug("Statement listener {} failed", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(proxy) ? proxy : target.unwrap((Class<?>) args[0]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || target.isWrapperFor((Class<?>) args[0]);
+                default:
+                    break;
+            }
+
+            Object result = ObservedDataSource.invoke(target, method, args);
+
+            return switch (method.getName()) {
+                case "prepareStatement" -> statement(result, PreparedStatement.class, (String) args[0], proxy);
+                case "prepareCall" -> statement(result, CallableStatement.class, (String) args[0], proxy);
+                case "createStatement" -> statement(result, Statement.class, null, proxy);
+                default -> result;
+            };
+        }
+
+        private Object statement(Object statement, Class<?> type, String sql, Object connectionProxy) {
+            return Proxy.newProxyInstance(
+                    ObservedDataSource.class.getClassLoader(),
+                    new Class<?>[]{type},
+                    new StatementHandler((Statement) statement, sql, connectionProxy)
+            );
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+        private final Object connectionProxy;
+        private String lastSql;
+
+        private StatementHandler(Statement target, String preparedSql, Object connectionProxy) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.connectionProxy = connectionProxy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                return switch (name) {
+                    case "getConnection" -> connectionProxy;
+                    case "getResultSet" -> resultSet(ObservedDataSource.invoke(target, method, args), lastSql, proxy);
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> ObservedDataSource.invoke(target, method, args);
+                };
+            }
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+            lastSql = sql;
+            boolean batch = name.startsWith("executeBatch") || name.startsWith("executeLargeBatch");
+
+            RepositoryQueryEvent event = new RepositoryQueryEvent();
+            event.begin();
+            long start = System.nanoTime();
+            try {
+                Object result = ObservedDataSource.invoke(target, method, args);
+                long updateCount = updateCount(result);
+                event.end();
+                notifyListeners(new StatementExecution(sql, start, System.nanoTime() - start, updateCount, batch, null));
+                commit(event, sql, updateCount, batch, null);
+                return name.equals("executeQuery") ? resultSet(result, sql, proxy) : result;
+            } catch (Throwable e) {
+                event.end();
+                notifyListeners(new StatementExecution(sql, start, System.nanoTime() - start, -1, batch, e));
+                commit(event, sql, -1, batch, e);
+                throw e;
+            }
+        }
+
+        private Object resultSet(Object resultSet, String sql, Object statementProxy) {
+            if (resultSet == null || !rowCountsWanted()) {
+                return resultSet;
+            }
+            return Proxy.newProxyInstance(
+                    ObservedDataSource.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class},
+                    new ResultSetHandler((ResultSet) resultSet, sql, statementProxy)
+            );
+        }
+
+        private void commit(RepositoryQueryEvent event, String sql, long updateCount, boolean batch, Throwable error) {
+            if (event.shouldCommit()) {
+                event.sql = RepositoryQueryEvent.truncate(sql);
+                event.rowsAffected = updateCount;
+                event.batch = batch;
+                event.error = error != null ? error.getClass().getName() : null;
+                event.commit();
+            }
+        }
+
+        private long updateCount(Object result) {
+            if (result instanceof Integer count) {
+                return count;
+            }
+            if (result instanceof Long count) {
+                return count;
+            }
+            if (result instanceof int[] counts) {
+                long total = 0;
+                for (int count : counts) {
+                    total += Math.max(count, 0);
+                }
+                return total;
+            }
+            if (result instanceof long[] counts) {
+                long total = 0;
+                for (long count : counts) {
+                    total += Math.max(count, 0);
+                }
+                return total;
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Counts the rows the caller advances over and reports them once the result set is closed.
+     */
+    private final class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet target;
+        private final String sql;
+        private final Object statementProxy;
+        private long rows;
+        private boolean reported;
+
+        private ResultSetHandler(ResultSet target, String sql, Object statementProxy) {
+            this.target = target;
+            this.sql = sql;
+            this.statementProxy = statementProxy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next":
+                    boolean hasRow = target.next();
+                    if (hasRow) {
+                        rows++;
+                    }
+                    return hasRow;
+                case "close":
+                    try {
+                        target.close();
+                    } finally {
+                        report();
+                    }
+                    return null;
+                case "getStatement":
+                    return statementProxy;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return ObservedDataSource.invoke(target, method, args);
+            }
+        }
+
+        private void report() {
+            if (!reported) {
+                reported = true;
+                notifyRowsRead(sql, rows);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.shopflow.user.jdbc;
+
+/**
+ * Accumulates {@link SqlStats} for the unit of work open on the current thread. Statements executed outside
+ * of {@link #begin()}/{@link #end(SqlStats)} are ignored, so background jobs cost nothing.
+ */
+public class SqlStatementCounter implements StatementListener {
+
+    private final ThreadLocal<SqlStats> current = new ThreadLocal<>();
+
+    /**
+     * Starts counting on the current thread and returns the previous scope, which must be handed back to
+     * {@link #end(SqlStats)} so that nested scopes restore it.
+     */
+    public SqlStats begin() {
+        SqlStats previous = current.get();
+        current.set(new SqlStats());
+        return previous;
+    }
+
+    /**
+     * Stops counting, restores {@code previous} and returns what was counted since the matching
+     * {@link #begin()}.
+     */
+    public SqlStats end(SqlStats previous) {
+        SqlStats stats = current.get();
+        if (previous == null) {
+            current.remove();
+        } else {
+            current.set(previous);
+        }
+        return stats;
+    }
+
+    public SqlStats current() {
+        return current.get();
+    }
+
+    @Override
+    public void afterExecute(StatementExecution execution) {
+        SqlStats stats = current.get();
+        if (stats != null) {
+            stats.record(execution);
+        }
+    }
+
+    @Override
+    public boolean wantsRowCounts() {
+        return current.get() != null;
+    }
+
+    @Override
+    public void afterRowsRead(String sql, long rows) {
+        SqlStats stats = current.get();
+        if (stats != null) {
+            stats.addRowsRead(rows);
+        }
+    }
+}
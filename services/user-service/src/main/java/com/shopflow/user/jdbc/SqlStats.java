@@ -0,0 +1,116 @@
+package com.shopflow.user.jdbc;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Statements, rows and JDBC time accumulated over one unit of work, usually one HTTP request. Only ever
+ * touched by the thread that owns the scope, so nothing here is synchronized.
+ */
+public final class SqlStats {
+
+    private int statements;
+    private int selects;
+    private int inserts;
+    private int updates;
+    private int deletes;
+    private int failed;
+    private long rowsRead;
+    private long rowsAffected;
+    private long nanos;
+
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+    private String mostRepeatedSql;
+    private int mostRepeatedCount;
+
+    void record(StatementExecution execution) {
+        statements++;
+        nanos += execution.durationNanos();
+        if (execution.error() != null) {
+            failed++;
+        }
+        if (execution.updateCount() > 0) {
+            rowsAffected += execution.updateCount();
+        }
+
+        String operation = execution.operation();
+        if (operation != null) {
+            switch (operation) {
+                case "SELECT", "WITH" -> selects++;
+                case "INSERT" -> inserts++;
+                case "UPDATE" -> updates++;
+                case "DELETE" -> deletes++;
+                default -> {
+                }
+            }
+        }
+
+        if (execution.sql() != null) {
+            int count = executionsBySql.merge(execution.sql(), 1, Integer::sum);
+            if (count > mostRepeatedCount) {
+                mostRepeatedCount = count;
+                mostRepeatedSql = execution.sql();
+            }
+        }
+    }
+
+    void addRowsRead(long rows) {
+        rowsRead += rows;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public int selects() {
+        return selects;
+    }
+
+    public int inserts() {
+        return inserts;
+    }
+
+    public int updates() {
+        return updates;
+    }
+
+    public int deletes() {
+        return deletes;
+    }
+
+    public int failed() {
+        return failed;
+    }
+
+    public long rowsRead() {
+        return rowsRead;
+    }
+
+    public long rowsAffected() {
+        return rowsAffected;
+    }
+
+    public long nanos() {
+        return nanos;
+    }
+
+    /**
+     * The statement text executed most often, the usual signature of an N+1 access pattern.
+     */
+    public String mostRepeatedSql() {
+        return mostRepeatedSql;
+    }
+
+    public int mostRepeatedCount() {
+        return mostRepeatedCount;
+    }
+
+    @Override
+    public String toString() {
+        return "statements=" + statements
+                + " (select=" + selects + ", insert=" + inserts + ", update=" + updates + ", delete=" + deletes + ")"
+                + " | rowsRead=" + rowsRead
+                + " | rowsAffected=" + rowsAffected
+                + " | sqlTime=" + nanos / 1_000_000 + "ms";
+    }
+}
@@ -0,0 +1,134 @@
+package com.shopflow.user.jdbc;
+
+import com.shopflow.user.service.logging.LoggingProperties;
+import com.shopflow.user.tracing.Span;
+import com.shopflow.user.tracing.Tracer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements, rows and JDBC time of every request. The totals are published as per-route
+ * metrics, added to the request's server span and logged with the correlation id when the request goes over
+ * the statement budget or repeats the same statement often enough to look like an N+1.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SqlStatsFilter extends OncePerRequestFilter {
+
+    private final SqlStatementCounter counter;
+    private final SqlStatsProperties properties;
+    private final LoggingProperties loggingProperties;
+    private final Tracer tracer;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+
+        SqlStats previous = counter.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStats stats = counter.end(previous);
+            if (stats != null) {
+                report(request, stats);
+            }
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStats stats) {
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = route != null ? route.toString() : "UNKNOWN";
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+
+        DistributionSummary.builder("shopflow.sql.statements")
+                .description("SQL statements executed per request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.statements());
+        DistributionSummary.builder("shopflow.sql.rows")
+                .description("Rows read from result sets per request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.rowsRead());
+        Timer.builder("shopflow.sql.time")
+                .description("Time spent executing SQL per request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.nanos(), TimeUnit.NANOSECONDS);
+
+        Span span = tracer.currentSpan();
+        if (span != null) {
+            span.setAttribute("db.statement_count", stats.statements())
+                    .setAttribute("db.rows_read", stats.rowsRead());
+        }
+
+        boolean overBudget = stats.statements() > properties.getStatementBudget();
+        boolean repeated = stats.mostRepeatedCount() >= properties.getRepeatedStatementThreshold();
+
+        if (overBudget) {
+            meterRegistry.counter("shopflow.sql.budget.exceeded", tags).increment();
+        }
+        if (repeated) {
+            meterRegistry.counter("shopflow.sql.repeated.statements", tags).increment();
+        }
+
+        if (overBudget) {
+            logSummary(request, uri, stats, "[SQL][BUDGET] request over statement budget", true);
+        } else if (repeated) {
+            logSummary(request, uri, stats, "[SQL][N+1] statement repeated within request", true);
+        } else if (properties.isLogEveryRequest() && log.isDebugEnabled()) {
+            logSummary(request, uri, stats, "[SQL] request statements", false);
+        }
+    }
+
+    private void logSummary(HttpServletRequest request, String uri, SqlStats stats, String message, boolean warn) {
+        String correlationId = MDC.get("correlationId");
+        String repeatedSql = stats.mostRepeatedCount() >= properties.getRepeatedStatementThreshold()
+                ? stats.mostRepeatedSql()
+                : null;
+
+        if (loggingProperties.isStructured()) {
+            (warn ? log.atWarn() : log.atDebug())
+                    .setMessage(message)
+                    .addKeyValue("method", request.getMethod())
+                    .addKeyValue("uri", uri)
+                    .addKeyValue("statements", stats.statements())
+                    .addKeyValue("budget", properties.getStatementBudget())
+                    .addKeyValue("selects", stats.selects())
+                    .addKeyValue("inserts", stats.inserts())
+                    .addKeyValue("updates", stats.updates())
+                    .addKeyValue("deletes", stats.deletes())
+                    .addKeyValue("rowsRead", stats.rowsRead())
+                    .addKeyValue("sqlTimeMs", stats.nanos() / 1_000_000)
+                    .addKeyValue("correlationId", correlationId)
+                    .addKeyValue("repeatedCount", stats.mostRepeatedCount())
+                    .addKeyValue("repeatedSql", repeatedSql)
+                    .log();
+        } else if (warn) {
+            log.warn(
+                    "{} | {} {} | {} | budget={} | correlationId={} | repeated={}x {}",
+                    message, request.getMethod(), uri, stats, properties.getStatementBudget(), correlationId,
+                    stats.mostRepeatedCount(), repeatedSql
+            );
+        } else {
+            log.debug(
+                    "[SQL] {} {} | {} | correlationId={}",
+                    request.getMethod(), uri, stats, correlationId
+            );
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.shopflow.user.jdbc;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shopflow.sql-stats")
+public class SqlStatsProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Requests that execute more statements than this are logged as a warning.
+     */
+    private int statementBudget = 10;
+
+    /**
+     * Requests that execute the same statement text at least this many times are logged as a possible N+1.
+     */
+    private int repeatedStatementThreshold = 5;
+
+    /**
+     * Log the statement summary of every request at DEBUG, not only the ones over budget.
+     */
+    private boolean logEveryRequest = false;
+}
@@ -0,0 +1,42 @@
+package com.shopflow.user.jdbc;
+
+import java.util.Locale;
+
+/**
+ * One executed JDBC statement as seen by {@link ObservedDataSource}.
+ *
+ * @param updateCount affected rows for updates and batches, {@code -1} for queries
+ * @param error       the exception thrown by the driver, or {@code null}
+ */
+public record StatementExecution(
+        String sql,
+        long startNanoTime,
+        long durationNanos,
+        long updateCount,
+        boolean batch,
+        Throwable error
+) {
+
+    /**
+     * Leading SQL keyword in upper case ({@code SELECT}, {@code INSERT}, ...), or {@code null} when there is
+     * none. Kept to the keyword so that it can be used as a low-cardinality name or tag.
+     */
+    public String operation() {
+        return operation(sql);
+    }
+
+    public static String operation(String sql) {
+        if (sql == null) {
+            return null;
+        }
+        int start = 0;
+        while (start < sql.length() && Character.isWhitespace(sql.charAt(start))) {
+            start++;
+        }
+        int end = start;
+        while (end < sql.length() && Character.isLetter(sql.charAt(end))) {
+            end++;
+        }
+        return end > start ? sql.substring(start, end).toUpperCase(Locale.ROOT) : null;
+    }
+}
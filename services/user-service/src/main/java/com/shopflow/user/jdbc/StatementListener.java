@@ -0,0 +1,23 @@
+package com.shopflow.user.jdbc;
+
+/**
+ * Notified on the executing thread after every JDBC statement that goes through {@link ObservedDataSource}.
+ * Implementations run inline with the query, so they must be cheap and must not throw.
+ */
+public interface StatementListener {
+    void afterExecute(StatementExecution execution);
+
+    /**
+     * Whether result sets produced on the current thread should be wrapped to count the rows read. Counting
+     * adds a proxy call to every {@code ResultSet} access, so it is only done while someone is listening.
+     */
+    default boolean wantsRowCounts() {
+        return false;
+    }
+
+    /**
+     * Called when a counted result set is closed, with the number of rows the caller advanced over.
+     */
+    default void afterRowsRead(String sql, long rows) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.shopflow.user.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One handled {@code UserController} request, emitted by {@code ControllerLoggingAspect}.
+ */
+@Name(ControllerRequestEvent.NAME)
+@Label("Controller Request")
+@Description("HTTP request handled by a user-service controller method")
+@Category({"ShopFlow", "User Service"})
+@Threshold("20 ms")
+@StackTrace(false)
+public class ControllerRequestEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.shopflow.user.ControllerRequest";
+
+    @Label("HTTP Method")
+    public String httpMethod;
+
+    @Label("URI")
+    public String uri;
+
+    @Label("Handler")
+    public String handler;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Correlation Id")
+    public String correlationId;
+
+    @Label("Error")
+    public String error;
+}
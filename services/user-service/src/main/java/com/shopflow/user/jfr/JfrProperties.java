@@ -0,0 +1,58 @@
+package com.shopflow.user.jfr;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shopflow.jfr")
+public class JfrProperties {
+
+    /**
+     * Event thresholds for the recording started by the service itself. Recordings started from the command
+     * line or {@code jcmd} take theirs from {@code user-service.jfc} or fall back to the event annotations.
+     */
+    private final Thresholds thresholds = new Thresholds();
+
+    private final Recording recording = new Recording();
+
+    @Getter
+    @Setter
+    public static class Thresholds {
+        private Duration controllerRequest = Duration.ofMillis(20);
+        private Duration serviceCall = Duration.ofMillis(10);
+        private Duration passwordHash = Duration.ofMillis(100);
+        private Duration repositoryQuery = Duration.ofMillis(10);
+    }
+
+    @Getter
+    @Setter
+    public static class Recording {
+
+        /**
+         * Starts a continuous recording at startup, equivalent to {@code -XX:StartFlightRecording} with the
+         * JDK {@code default} settings plus {@code user-service.jfc}.
+         */
+        private boolean enabled = false;
+
+        private String name = "user-service";
+
+        /**
+         * Merge the JDK {@code default} profile (GC, JIT, locks, sampling) underneath the service events.
+         */
+        private boolean includeJdkDefaults = true;
+
+        private Duration maxAge = Duration.ofHours(6);
+
+        private DataSize maxSize = DataSize.ofMegabytes(256);
+
+        /**
+         * File the recording is written to when it is stopped or the JVM exits.
+         */
+        private String destination = "logs/user-service.jfr";
+    }
+}
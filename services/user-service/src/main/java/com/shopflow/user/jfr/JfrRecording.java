@@ -0,0 +1,101 @@
+package com.shopflow.user.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Always-on flight recording owned by the application: a bounded on-disk ring of the last
+ * {@code max-age}/{@code max-size} that is written to {@code destination} on shutdown, so a recording is
+ * available after an incident without anyone having to attach {@code jcmd} in time.
+ */
+@Slf4j
+public class JfrRecording implements AutoCloseable {
+
+    /**
+     * Classpath location of the settings profile; the same file can be passed to
+     * {@code -XX:StartFlightRecording:settings=default,settings=user-service.jfc}.
+     */
+    public static final String SETTINGS_RESOURCE = "jfr/user-service.jfc";
+
+    private final Recording recording;
+    private final Path destination;
+
+    public JfrRecording(JfrProperties properties) throws IOException, ParseException {
+        JfrProperties.Recording config = properties.getRecording();
+
+        Map<String, String> settings = new HashMap<>();
+        if (config.isIncludeJdkDefaults()) {
+            settings.putAll(Configuration.getConfiguration("default").getSettings());
+        }
+        settings.putAll(loadSettings().getSettings());
+
+        this.recording = new Recording(settings);
+        applyThresholds(recording, properties.getThresholds());
+
+        this.destination = Path.of(config.getDestination());
+        Path parent = destination.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        recording.setName(config.getName());
+        recording.setToDisk(true);
+        recording.setMaxAge(config.getMaxAge());
+        recording.setMaxSize(config.getMaxSize().toBytes());
+        recording.setDumpOnExit(true);
+        recording.setDestination(destination);
+    }
+
+    public static Configuration loadSettings() throws IOException, ParseException {
+        try (InputStream in = JfrRecording.class.getClassLoader().getResourceAsStream(SETTINGS_RESOURCE)) {
+            if (in == null) {
+                throw new IOException("JFR settings " + SETTINGS_RESOURCE + " not found on classpath");
+            }
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                return Configuration.create(reader);
+            }
+        }
+    }
+
+    static void applyThresholds(Recording recording, JfrProperties.Thresholds thresholds) {
+        recording.enable(ControllerRequestEvent.NAME).withThreshold(thresholds.getControllerRequest());
+        recording.enable(ServiceCallEvent.NAME).withThreshold(thresholds.getServiceCall());
+        recording.enable(PasswordHashEvent.NAME).withThreshold(thresholds.getPasswordHash());
+        recording.enable(RepositoryQueryEvent.NAME).withThreshold(thresholds.getRepositoryQuery());
+    }
+
+    public void start() {
+        recording.start();
+        log.info("Started JFR recording '{}' (maxAge={}, maxSize={} bytes, destination={})",
+                recording.getName(), recording.getMaxAge(), recording.getMaxSize(), destination);
+    }
+
+    public Recording getRecording() {
+        return recording;
+    }
+
+    /**
+     * Stopping writes the retained chunks to {@code destination}; closing alone would discard them.
+     */
+    @Override
+    public void close() {
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("JFR recording '{}' written to {}", recording.getName(), destination);
+        }
+        recording.close();
+    }
+}
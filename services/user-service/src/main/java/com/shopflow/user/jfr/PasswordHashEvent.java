@@ -0,0 +1,35 @@
+package com.shopflow.user.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One bcrypt hash or verification, emitted by {@code BcryptPasswordService}. A single bcrypt round costs tens
+ * of milliseconds by design, so the default threshold only catches calls that were slowed down further,
+ * typically by CPU starvation.
+ */
+@Name(PasswordHashEvent.NAME)
+@Label("Password Hash")
+@Description("bcrypt password hashing or verification")
+@Category({"ShopFlow", "User Service"})
+@Threshold("100 ms")
+@StackTrace(false)
+public class PasswordHashEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.shopflow.user.PasswordHash";
+
+    public static final String ENCODE = "ENCODE";
+    public static final String VERIFY = "VERIFY";
+
+    @Label("Operation")
+    @Description("ENCODE or VERIFY")
+    public String operation;
+
+    @Label("Matched")
+    @Description("Result of a VERIFY operation; always false for ENCODE")
+    public boolean matched;
+}
@@ -0,0 +1,45 @@
+package com.shopflow.user.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One JDBC statement issued by a repository, emitted by {@code ObservedDataSource}. The stack trace is kept
+ * so that a slow query in a recording can be traced back to the repository method that issued it.
+ */
+@Name(RepositoryQueryEvent.NAME)
+@Label("Repository Query")
+@Description("SQL statement executed through the user-service data source")
+@Category({"ShopFlow", "User Service"})
+@Threshold("10 ms")
+@StackTrace(true)
+public class RepositoryQueryEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.shopflow.user.RepositoryQuery";
+
+    private static final int MAX_STATEMENT_LENGTH = 1000;
+
+    @Label("SQL")
+    public String sql;
+
+    @Label("Rows Affected")
+    @Description("Update count for updates and batches, -1 for queries")
+    public long rowsAffected;
+
+    @Label("Batch")
+    public boolean batch;
+
+    @Label("Error")
+    public String error;
+
+    public static String truncate(String sql) {
+        if (sql == null || sql.length() <= MAX_STATEMENT_LENGTH) {
+            return sql;
+        }
+        return sql.substring(0, MAX_STATEMENT_LENGTH) + "...";
+    }
+}
@@ -0,0 +1,35 @@
+package com.shopflow.user.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One service method invocation, emitted by {@code ServiceLoggingAspect}.
+ */
+@Name(ServiceCallEvent.NAME)
+@Label("Service Call")
+@Description("Invocation of a user-service service method with its outcome")
+@Category({"ShopFlow", "User Service"})
+@Threshold("10 ms")
+@StackTrace(false)
+public class ServiceCallEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.shopflow.user.ServiceCall";
+
+    @Label("Method")
+    public String method;
+
+    @Label("Outcome")
+    @Description("SUCCESS or FAILED")
+    public String outcome;
+
+    @Label("Error Type")
+    public String errorType;
+
+    @Label("Correlation Id")
+    public String correlationId;
+}
@@ -0,0 +1,33 @@
+package com.shopflow.user.listing;
+
+/**
+ * How the total of a paged user listing is obtained; chosen per request with {@code count=}.
+ */
+public enum CountStrategy {
+
+    /**
+     * {@link #EXACT} while the table is smaller than {@code shopflow.listing.large-table-rows}, {@link #ESTIMATED}
+     * from then on.
+     */
+    AUTO,
+
+    /**
+     * A {@code COUNT} query over the matching rows, whose cost grows with them.
+     */
+    EXACT,
+
+    /**
+     * The planner's row estimate for the filter, from the table statistics; no rows are read.
+     */
+    ESTIMATED,
+
+    /**
+     * An exact count, reused for the same filter until {@code shopflow.listing.cache-refresh} has passed.
+     */
+    CACHED,
+
+    /**
+     * No total: the response is a slice that only tells whether there is a next page.
+     */
+    NONE
+}
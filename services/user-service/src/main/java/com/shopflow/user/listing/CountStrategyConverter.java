@@ -0,0 +1,19 @@
+package com.shopflow.user.listing;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Reads {@code count=} in any case, as {@code shopflow.listing.default-count} already is.
+ */
+@Component
+public class CountStrategyConverter implements Converter<String, CountStrategy> {
+
+    @Override
+    public CountStrategy convert(String source) {
+        String name = source.trim();
+        return name.isEmpty() ? null : CountStrategy.valueOf(name.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,33 @@
+package com.shopflow.user.listing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shopflow.listing")
+public class ListingProperties {
+
+    /**
+     * Count strategy of listings that do not ask for one.
+     */
+    private CountStrategy defaultCount = CountStrategy.AUTO;
+
+    /**
+     * Estimated table size from which {@code auto} stops counting exactly.
+     */
+    private long largeTableRows = 100_000;
+
+    /**
+     * How long a {@code cached} count is reused, and how often {@code auto} re-reads the table size estimate.
+     */
+    private Duration cacheRefresh = Duration.ofSeconds(30);
+
+    /**
+     * Distinct filters whose counts are cached at once; the cache starts over when it is full.
+     */
+    private int cacheSize = 1024;
+}
@@ -0,0 +1,136 @@
+package com.shopflow.user.listing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopflow.user.coalescing.SingleFlight;
+import com.shopflow.user.dto.UserFilter;
+import com.shopflow.user.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Totals for paged user listings by {@link CountStrategy}.
+ * <p>
+ * Estimates are the row count the planner expects for {@code SELECT 1 FROM users WHERE <filter>}: table size
+ * from {@code pg_class} scaled to the current number of pages, times the selectivity of the filter from the
+ * column statistics. They cost one planning round trip, however large the table, and are as fresh as the last
+ * {@code ANALYZE}. Cached counts are exact counts reused per filter; concurrent misses for the same filter
+ * share one query.
+ */
+public class UserCounter {
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ListingProperties properties;
+    private final SingleFlight<UserFilter, Long> countFlight;
+    private final ConcurrentMap<UserFilter, CachedCount> cache = new ConcurrentHashMap<>();
+    private final Map<CountStrategy, Timer> timers = new EnumMap<>(CountStrategy.class);
+
+    private volatile CachedCount tableSize;
+
+    public UserCounter(UserRepository userRepository, JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                       ListingProperties properties, SingleFlight<UserFilter, Long> countFlight,
+                       MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.countFlight = countFlight;
+        for (CountStrategy strategy : List.of(CountStrategy.EXACT, CountStrategy.ESTIMATED, CountStrategy.CACHED)) {
+            timers.put(strategy, Timer.builder("shopflow.listing.count")
+                    .description("Time spent obtaining listing totals, by count strategy")
+                    .tag("strategy", strategy.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * The strategy to use for {@code requested}: the configured default for null, and {@link CountStrategy#EXACT}
+     * or {@link CountStrategy#ESTIMATED} by table size for {@link CountStrategy#AUTO}.
+     */
+    public CountStrategy resolve(CountStrategy requested) {
+        CountStrategy strategy = requested != null ? requested : properties.getDefaultCount();
+        if (strategy != CountStrategy.AUTO) {
+            return strategy;
+        }
+        CachedCount size = tableSize;
+        if (size == null || size.isStale(properties.getCacheRefresh().toNanos())) {
+            size = new CachedCount(estimate(UserFilter.NONE), System.nanoTime());
+            tableSize = size;
+        }
+        return size.count() >= properties.getLargeTableRows() ? CountStrategy.ESTIMATED : CountStrategy.EXACT;
+    }
+
+    /**
+     * @param strategy a resolved strategy, neither {@link CountStrategy#AUTO} nor {@link CountStrategy#NONE}
+     */
+    public long count(UserFilter filter, CountStrategy strategy) {
+        Timer timer = timers.get(strategy);
+        if (timer == null) {
+            throw new IllegalArgumentException("No count for strategy " + strategy);
+        }
+        return timer.record(() -> switch (strategy) {
+            case ESTIMATED -> estimate(filter);
+            case CACHED -> cached(filter);
+            default -> userRepository.countMatching(filter);
+        });
+    }
+
+    private long cached(UserFilter filter) {
+        long refreshNanos = properties.getCacheRefresh().toNanos();
+        CachedCount cachedCount = cache.get(filter);
+        if (cachedCount != null && !cachedCount.isStale(refreshNanos)) {
+            return cachedCount.count();
+        }
+        long count = countFlight.execute(filter, () -> userRepository.countMatching(filter));
+        if (cache.size() >= properties.getCacheSize()) {
+            cache.clear();
+        }
+        cache.put(filter, new CachedCount(count, System.nanoTime()));
+        return count;
+    }
+
+    long estimate(UserFilter filter) {
+        StringBuilder sql = new StringBuilder("EXPLAIN (FORMAT JSON) SELECT 1 FROM users");
+        List<String> conditions = new ArrayList<>(3);
+        List<Object> args = new ArrayList<>(3);
+        if (filter.role() != null) {
+            conditions.add("role = ?");
+            args.add(filter.role().name());
+        }
+        if (filter.createdAfter() != null) {
+            conditions.add("created_at >= ?");
+            args.add(filter.createdAfter());
+        }
+        if (filter.createdBefore() != null) {
+            conditions.add("created_at < ?");
+            args.add(filter.createdBefore());
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        String plan = jdbcTemplate.queryForObject(sql.toString(), String.class, args.toArray());
+        try {
+            return objectMapper.readTree(plan).get(0).get("Plan").get("Plan Rows").asLong();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable plan: " + plan, e);
+        }
+    }
+
+    private record CachedCount(long count, long loadedAt) {
+
+        boolean isStale(long refreshNanos) {
+            return System.nanoTime() - loadedAt >= refreshNanos;
+        }
+    }
+}
@@ -12,6 +12,7 @@ public interface UserMapper {
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "passwordHash", ignore = true)
+    @Mapping(target = "version", ignore = true)
     User toEntity(UserRequest userRequest);
     UserResponse toResponse(User user);
 }
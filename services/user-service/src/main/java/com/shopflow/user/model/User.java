@@ -5,25 +5,41 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.annotations.UuidGenerator;
 
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
+/**
+ * Cached in the second-level cache by id, and by email as the natural id, so a lookup by email after the first
+ * resolves the id and the entity from memory. Email is a mutable natural id because users may change it.
+ */
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.NATURAL_ID_CACHE_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
+
+    public static final String CACHE_REGION = "users";
+    public static final String NATURAL_ID_CACHE_REGION = "users-by-email";
+
     @Id
     @UuidGenerator
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
+    @NaturalId(mutable = true)
     @Column(name = "email", nullable = false, unique = true)
     String email;
 
@@ -45,4 +61,8 @@ public class User {
     @Column(name="updated_at")
     OffsetDateTime updatedAt;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    Long version;
+
 }
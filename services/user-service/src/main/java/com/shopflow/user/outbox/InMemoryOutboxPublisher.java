@@ -0,0 +1,25 @@
+package com.shopflow.user.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps published events in memory, for tests and local runs.
+ */
+public class InMemoryOutboxPublisher implements OutboxPublisher {
+
+    private final List<OutboxEvent> published = new ArrayList<>();
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) {
+        published.addAll(events);
+    }
+
+    public synchronized List<OutboxEvent> events() {
+        return List.copyOf(published);
+    }
+
+    public synchronized void clear() {
+        published.clear();
+    }
+}
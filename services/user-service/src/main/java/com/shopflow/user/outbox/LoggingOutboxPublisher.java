@@ -0,0 +1,19 @@
+package com.shopflow.user.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * Default publisher until a broker is wired in: writes each event to the log.
+ */
+@Slf4j
+public class LoggingOutboxPublisher implements OutboxPublisher {
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            log.info("[Outbox] {} #{} user={} payload={}", event.type(), event.id(), event.aggregateId(), event.payload());
+        }
+    }
+}
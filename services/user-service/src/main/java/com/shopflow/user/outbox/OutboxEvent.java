@@ -0,0 +1,15 @@
+package com.shopflow.user.outbox;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A row of {@code outbox_events}. {@code id} increases in commit order for any single user, so consumers can
+ * use it both to order events per {@code aggregateId} and to drop redeliveries.
+ */
+public record OutboxEvent(long id, UUID aggregateId, String type, String payload, Instant createdAt) {
+
+    public static final String USER_CREATED = "UserCreated";
+    public static final String USER_UPDATED = "UserUpdated";
+    public static final String USER_DELETED = "UserDeleted";
+}
@@ -0,0 +1,52 @@
+package com.shopflow.user.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shopflow.outbox")
+public class OutboxProperties {
+
+    private boolean enabled = true;
+
+    private Publisher publisher = Publisher.LOGGING;
+
+    private final Relay relay = new Relay();
+
+    public enum Publisher {
+        LOGGING,
+        IN_MEMORY
+    }
+
+    @Getter
+    @Setter
+    public static class Relay {
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of events fetched, published and deleted per transaction.
+         */
+        private int batchSize = 100;
+
+        /**
+         * How often the relay looks for events written by other instances. Events written by this instance
+         * wake it up as soon as their transaction commits.
+         */
+        private Duration pollInterval = Duration.ofSeconds(1);
+
+        /**
+         * Pause after a failed batch before it is retried.
+         */
+        private Duration retryBackoff = Duration.ofSeconds(5);
+
+        /**
+         * Postgres advisory lock that keeps a single relay active across all instances; only the holder
+         * publishes, which is what keeps events in order.
+         */
+        private long lockId = 0x5F0_0B0CL;
+    }
+}
@@ -0,0 +1,18 @@
+package com.shopflow.user.outbox;
+
+import java.util.List;
+
+/**
+ * Hands outbox events to the message broker.
+ * <p>
+ * Delivery is at least once: the relay deletes a batch only after {@link #publish} returns, so a crash or an
+ * exception in between publishes the whole batch again. Implementations must keep the order of the list.
+ */
+public interface OutboxPublisher {
+
+    /**
+     * Publishes the events in list order and returns once all of them have been accepted; throws to have the
+     * relay retry the batch.
+     */
+    void publish(List<OutboxEvent> events);
+}
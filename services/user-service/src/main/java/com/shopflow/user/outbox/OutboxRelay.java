@@ -0,0 +1,178 @@
+package com.shopflow.user.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves events from {@code outbox_events} to the {@link OutboxPublisher}.
+ * <p>
+ * Each batch runs in one transaction: take the advisory lock, read the oldest events, publish them, delete
+ * them. The lock makes the relay a single writer across instances, and batches are read in {@code id} order,
+ * so events of one user reach the publisher in the order their transactions committed (changes to the same
+ * user serialize on its row lock, so their ids are in commit order too). A failed batch rolls back and is
+ * retried as a whole after {@code retry-backoff}.
+ */
+@Slf4j
+public class OutboxRelay implements AutoCloseable {
+
+    private static final String LOCK_SQL = "SELECT pg_try_advisory_xact_lock(?)";
+    private static final String FETCH_SQL =
+            "SELECT id, aggregate_id, event_type, payload::text, created_at FROM outbox_events ORDER BY id LIMIT ?";
+    private static final String DELETE_SQL = "DELETE FROM outbox_events WHERE id = ANY(?)";
+
+    private final OutboxProperties.Relay properties;
+    private final OutboxPublisher publisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final Thread worker;
+    private volatile boolean running;
+
+    private final Counter published;
+    private final Counter failures;
+    private final Timer lag;
+    private final Timer publishTime;
+    private final DistributionSummary batchSize;
+
+    public OutboxRelay(OutboxProperties.Relay properties, OutboxPublisher publisher, DataSource dataSource,
+                       PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.publisher = publisher;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.worker = new Thread(this::run, "outbox-relay");
+        this.worker.setDaemon(true);
+
+        this.published = Counter.builder("shopflow.outbox.published")
+                .description("Outbox events handed to the publisher")
+                .register(meterRegistry);
+        this.failures = Counter.builder("shopflow.outbox.failures")
+                .description("Outbox batches that failed and will be retried")
+                .register(meterRegistry);
+        this.lag = Timer.builder("shopflow.outbox.lag")
+                .description("Time from writing an outbox event to publishing it")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.publishTime = Timer.builder("shopflow.outbox.publish")
+                .description("Time the publisher takes for one batch")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("shopflow.outbox.batch.size")
+                .description("Events per published batch")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!properties.isEnabled()) {
+            log.info("Outbox relay disabled");
+            return;
+        }
+        running = true;
+        worker.start();
+    }
+
+    /**
+     * Asks the relay to look for new events now instead of at the next poll.
+     */
+    public void wakeUp() {
+        wakeUps.release();
+    }
+
+    /**
+     * Publishes and deletes one batch on the caller's thread.
+     *
+     * @return the number of events published; 0 if there were none or another instance holds the lock
+     */
+    public int relayBatch() {
+        List<OutboxEvent> events = transaction.execute(status -> {
+            Boolean locked = jdbcTemplate.queryForObject(LOCK_SQL, Boolean.class, properties.getLockId());
+            if (!Boolean.TRUE.equals(locked)) {
+                return List.of();
+            }
+            List<OutboxEvent> batch = jdbcTemplate.query(FETCH_SQL, (rs, rowNum) -> new OutboxEvent(
+                    rs.getLong(1),
+                    rs.getObject(2, UUID.class),
+                    rs.getString(3),
+                    rs.getString(4),
+                    rs.getTimestamp(5).toInstant()), properties.getBatchSize());
+            if (batch.isEmpty()) {
+                return batch;
+            }
+
+            publishTime.record(() -> publisher.publish(batch));
+
+            Long[] ids = batch.stream().map(OutboxEvent::id).toArray(Long[]::new);
+            jdbcTemplate.update(DELETE_SQL, (Object) ids);
+            return batch;
+        });
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+
+        // recorded once the delete has committed, so a retried batch is not counted twice
+        Instant now = Instant.now();
+        for (OutboxEvent event : events) {
+            lag.record(Duration.between(event.createdAt(), now));
+        }
+        published.increment(events.size());
+        batchSize.record(events.size());
+        return events.size();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                int relayed = relayBatch();
+                if (relayed < properties.getBatchSize()) {
+                    await(properties.getPollInterval());
+                }
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.warn("Outbox batch failed, retrying in {}: {}", properties.getRetryBackoff(), e.getMessage());
+                sleep(properties.getRetryBackoff());
+            }
+        }
+    }
+
+    private void await(Duration timeout) {
+        try {
+            if (wakeUps.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                wakeUps.drainPermits();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.shopflow.user.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopflow.user.service.event.UserCreatedEvent;
+import com.shopflow.user.service.event.UserDeletedEvent;
+import com.shopflow.user.service.event.UserUpdatedEvent;
+import com.shopflow.user.service.event.UsersDeletedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Turns user lifecycle events into {@code outbox_events} rows. The listeners run synchronously while the event
+ * is published, on the connection of the transaction that changed the user, so the row commits or rolls back
+ * together with the change.
+ */
+public class OutboxWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox_events (aggregate_id, event_type, payload) VALUES (?, ?, ?::jsonb)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Runnable afterCommit;
+
+    /**
+     * @param afterCommit run after a transaction that wrote events has committed, typically to wake the relay
+     */
+    public OutboxWriter(DataSource dataSource, ObjectMapper objectMapper, Runnable afterCommit) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.objectMapper = objectMapper;
+        this.afterCommit = afterCommit;
+    }
+
+    @EventListener
+    public void onUserCreated(UserCreatedEvent event) {
+        write(Collections.singletonList(row(event.id(), OutboxEvent.USER_CREATED, event)));
+    }
+
+    @EventListener
+    public void onUserUpdated(UserUpdatedEvent event) {
+        write(Collections.singletonList(row(event.id(), OutboxEvent.USER_UPDATED, event)));
+    }
+
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        write(Collections.singletonList(row(event.id(), OutboxEvent.USER_DELETED, event)));
+    }
+
+    @EventListener
+    public void onUsersDeleted(UsersDeletedEvent event) {
+        List<Object[]> rows = new ArrayList<>(event.users().size());
+        for (UserDeletedEvent user : event.users()) {
+            rows.add(row(user.id(), OutboxEvent.USER_DELETED, user));
+        }
+        write(rows);
+    }
+
+    private void write(List<Object[]> rows) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Outbox events must be written in the transaction that changes the user");
+        }
+        if (rows.size() == 1) {
+            jdbcTemplate.update(INSERT_SQL, rows.get(0));
+        } else {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                afterCommit.run();
+            }
+        });
+    }
+
+    private Object[] row(UUID aggregateId, String type, Object payload) {
+        try {
+            return new Object[] {aggregateId, type, objectMapper.writeValueAsString(payload)};
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + type + " event", e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.shopflow.user.projection;
+
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.shopflow.user.dto.UserResponse;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * A field of {@link UserResponse} that {@code fields=} can ask for. Its property is both the name in the response
+ * and the {@code User} attribute it is selected from; the name is kept encoded, so writing it costs a copy.
+ */
+public enum UserField {
+
+    ID("id", UserResponse::id),
+    EMAIL("email", UserResponse::email),
+    FULL_NAME("fullName", UserResponse::fullName),
+    ROLE("role", UserResponse::role),
+    CREATED_AT("createdAt", UserResponse::createdAt),
+    UPDATED_AT("updatedAt", UserResponse::updatedAt),
+    VERSION("version", UserResponse::version);
+
+    private static final UserField[] VALUES = values();
+
+    private final String property;
+    private final SerializedString name;
+    private final Function<UserResponse, Object> accessor;
+
+    UserField(String property, Function<UserResponse, Object> accessor) {
+        this.property = property;
+        this.name = new SerializedString(property);
+        this.accessor = accessor;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    SerializedString serializedName() {
+        return name;
+    }
+
+    Object get(UserResponse user) {
+        return accessor.apply(user);
+    }
+
+    public static Optional<UserField> byProperty(String property) {
+        for (UserField field : VALUES) {
+            if (field.property.equals(property)) {
+                return Optional.of(field);
+            }
+        }
+        return Optional.empty();
+    }
+}
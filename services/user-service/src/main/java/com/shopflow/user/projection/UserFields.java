@@ -0,0 +1,132 @@
+package com.shopflow.user.projection;
+
+import com.shopflow.user.dto.UserResponse;
+import com.shopflow.user.service.exception.UnsupportedFieldException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+
+/**
+ * A sparse fieldset: the fields of a user a client asked for with {@code fields=}. The id is always one of them,
+ * and always the first, so every user returned can still be told apart. A set is built once per combination of
+ * fields, on first use, together with the select clause its queries start with; any later request for the same
+ * fields, in whatever order, gets that instance back.
+ */
+public final class UserFields {
+
+    private final int mask;
+    private final UserField[] fields;
+    private final String select;
+
+    private UserFields(int mask) {
+        this.mask = mask;
+        this.fields = Arrays.stream(UserField.values())
+                .filter(field -> (mask & bit(field)) != 0)
+                .toArray(UserField[]::new);
+        this.select = Arrays.stream(fields)
+                .map(field -> "u." + field.property())
+                .collect(Collectors.joining(", ", "select ", " from User u"));
+    }
+
+    /**
+     * Every field, which is what a response without {@code fields=} has.
+     */
+    public static UserFields all() {
+        return of(UserField.values());
+    }
+
+    public static UserFields of(UserField... fields) {
+        int mask = bit(UserField.ID);
+        for (UserField field : fields) {
+            mask |= bit(field);
+        }
+        return Interned.get(mask);
+    }
+
+    /**
+     * The fields named in a comma-separated list of response properties; blank names are skipped, so an empty
+     * list leaves the id only.
+     *
+     * @throws UnsupportedFieldException for a name that is not a property of the response
+     */
+    public static UserFields parse(String fields) {
+        List<UserField> parsed = new ArrayList<>();
+        for (String name : fields.split(",")) {
+            String property = name.trim();
+            if (!property.isEmpty()) {
+                parsed.add(UserField.byProperty(property)
+                        .orElseThrow(() -> new UnsupportedFieldException(property)));
+            }
+        }
+        return of(parsed.toArray(UserField[]::new));
+    }
+
+    public List<UserField> fields() {
+        return List.of(fields);
+    }
+
+    /**
+     * {@code select u.id, ... from User u} over just these fields, to be completed with a where and an order by
+     * clause. Reusing it keeps the query strings of a fieldset the same from one request to the next, so Hibernate
+     * translates each to SQL once and serves it from its query plan cache afterwards.
+     */
+    public String select() {
+        return select;
+    }
+
+    /**
+     * A user trimmed to these fields.
+     */
+    public UserView view(UserResponse user) {
+        Object[] values = new Object[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            values[i] = fields[i].get(user);
+        }
+        return new UserView(this, values);
+    }
+
+    /**
+     * A row selected with {@link #select()}, its values in the order of {@link #fields()}.
+     */
+    public UserView view(Object[] row) {
+        return new UserView(this, row);
+    }
+
+    UserField field(int index) {
+        return fields[index];
+    }
+
+    int size() {
+        return fields.length;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.stream(fields).map(UserField::property).collect(Collectors.joining(","));
+    }
+
+    private static int bit(UserField field) {
+        return 1 << field.ordinal();
+    }
+
+    /**
+     * One set per combination of fields; there are few enough of them to keep each that was ever used.
+     */
+    private static final class Interned {
+
+        private static final AtomicReferenceArray<UserFields> SETS =
+                new AtomicReferenceArray<>(1 << UserField.values().length);
+
+        static UserFields get(int mask) {
+            UserFields set = SETS.get(mask);
+            if (set == null) {
+                SETS.compareAndSet(mask, null, new UserFields(mask));
+                set = SETS.get(mask);
+            }
+            return set;
+        }
+    }
+}
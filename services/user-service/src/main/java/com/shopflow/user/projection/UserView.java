@@ -0,0 +1,44 @@
+package com.shopflow.user.projection;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * A user with only the fields of a {@link UserFields}, written as an object with just those properties and
+ * named and formatted as in {@code UserResponse}.
+ */
+@JsonSerialize(using = UserView.Serializer.class)
+public record UserView(UserFields fields, Object[] values) {
+
+    public UUID id() {
+        return (UUID) values[0];
+    }
+
+    /**
+     * Writes the pre-encoded names of the fieldset and leaves each value to the serializer Jackson keeps for its
+     * type, so nothing about a user's shape is worked out per response.
+     */
+    public static class Serializer extends StdSerializer<UserView> {
+
+        public Serializer() {
+            super(UserView.class);
+        }
+
+        @Override
+        public void serialize(UserView view, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            UserFields fields = view.fields();
+            Object[] values = view.values();
+            gen.writeStartObject(view, fields.size());
+            for (int i = 0; i < fields.size(); i++) {
+                gen.writeFieldName(fields.field(i).serializedName());
+                provider.defaultSerializeValue(values[i], gen);
+            }
+            gen.writeEndObject();
+        }
+    }
+}
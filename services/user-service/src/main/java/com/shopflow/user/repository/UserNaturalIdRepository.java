@@ -0,0 +1,14 @@
+package com.shopflow.user.repository;
+
+import com.shopflow.user.model.User;
+
+import java.util.Optional;
+
+public interface UserNaturalIdRepository {
+
+    /**
+     * Resolves the user by its natural id: from the persistence context or the second-level cache when the email
+     * has been seen before, with a single select otherwise.
+     */
+    Optional<User> findByEmail(String email);
+}
@@ -0,0 +1,34 @@
+package com.shopflow.user.repository;
+
+import com.shopflow.user.cache.UserCacheInvalidator;
+import com.shopflow.user.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByEmail(String email) {
+        Optional<User> user = entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(email);
+        if (user.isPresent() && !email.equals(user.get().getEmail())) {
+            // a cached resolution that outlived an email change made through another instance
+            UserCacheInvalidator.evictResolution(entityManager.unwrap(SharedSessionContractImplementor.class), email);
+            return entityManager.createQuery("select u from User u where u.email = :email", User.class)
+                    .setParameter("email", email)
+                    .getResultStream()
+                    .findFirst();
+        }
+        return user;
+    }
+}
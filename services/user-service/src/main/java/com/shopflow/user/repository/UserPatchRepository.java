@@ -0,0 +1,51 @@
+package com.shopflow.user.repository;
+
+import com.shopflow.user.model.Role;
+import com.shopflow.user.model.User;
+
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+public interface UserPatchRepository {
+
+    /**
+     * Updates only the columns set in {@code changes} with a single {@code UPDATE ... RETURNING}, without loading
+     * the entity first, and bumps the version.
+     *
+     * @param expectedVersion if not null, the update only applies while the row is still at this version
+     * @return the updated user, or empty if no user had this id (and version)
+     */
+    Optional<User> patch(UUID id, UserChanges changes, Long expectedVersion);
+
+    /**
+     * New column values; null leaves a column as it is.
+     */
+    record UserChanges(String email, String fullName, String passwordHash, Role role) {
+
+        public boolean isEmpty() {
+            return email == null && fullName == null && passwordHash == null && role == null;
+        }
+
+        /**
+         * Request field names of the columns that change, {@code password} for the hash.
+         */
+        public Set<String> fields() {
+            Set<String> fields = new LinkedHashSet<>();
+            if (email != null) {
+                fields.add("email");
+            }
+            if (fullName != null) {
+                fields.add("fullName");
+            }
+            if (passwordHash != null) {
+                fields.add("password");
+            }
+            if (role != null) {
+                fields.add("role");
+            }
+            return fields;
+        }
+    }
+}
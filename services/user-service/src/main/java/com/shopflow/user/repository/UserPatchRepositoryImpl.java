@@ -0,0 +1,61 @@
+package com.shopflow.user.repository;
+
+import com.shopflow.user.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+class UserPatchRepositoryImpl implements UserPatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public Optional<User> patch(UUID id, UserChanges changes, Long expectedVersion) {
+        List<String> assignments = new ArrayList<>(6);
+        List<Object> values = new ArrayList<>(6);
+        if (changes.email() != null) {
+            assignments.add("email = ?");
+            values.add(changes.email());
+        }
+        if (changes.fullName() != null) {
+            assignments.add("full_name = ?");
+            values.add(changes.fullName());
+        }
+        if (changes.passwordHash() != null) {
+            assignments.add("password_hash = ?");
+            values.add(changes.passwordHash());
+        }
+        if (changes.role() != null) {
+            assignments.add("role = ?");
+            values.add(changes.role().name());
+        }
+        assignments.add("updated_at = now()");
+        assignments.add("version = version + 1");
+
+        StringBuilder sql = new StringBuilder("UPDATE users SET ")
+                .append(String.join(", ", assignments))
+                .append(" WHERE id = ?");
+        values.add(id);
+        if (expectedVersion != null) {
+            sql.append(" AND version = ?");
+            values.add(expectedVersion);
+        }
+        sql.append(" RETURNING *");
+
+        Query query = entityManager.createNativeQuery(sql.toString(), User.class);
+        for (int i = 0; i < values.size(); i++) {
+            query.setParameter(i + 1, values.get(i));
+        }
+        List<User> updated = query.getResultList();
+        return updated.stream().findFirst();
+    }
+}
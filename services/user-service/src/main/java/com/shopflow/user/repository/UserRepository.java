@@ -1,13 +1,48 @@
 package com.shopflow.user.repository;
 
 import com.shopflow.user.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
-    Optional<User> findByEmail(String email);
+public interface UserRepository extends JpaRepository<User, UUID>, UserNaturalIdRepository, UserPatchRepository,
+        UserSearchRepository, UserViewRepository {
+
+    /**
+     * A page of users without the count query {@code findAll(Pageable)} runs; one extra row is read to tell
+     * whether there is a next page.
+     */
+    Slice<User> findAllBy(Pageable pageable);
+
+    /**
+     * Deletes the user in one statement, without loading the entity first. Hibernate does not see the delete, so
+     * the second-level cache is evicted by {@link com.shopflow.user.cache.UserCacheInvalidator}.
+     *
+     * @return the deleted user's email, or empty if no user had this id
+     */
+    @Transactional
+    @Query(value = "DELETE FROM users WHERE id = :id RETURNING email", nativeQuery = true)
+    Optional<String> deleteReturningEmail(@Param("id") UUID id);
+
+    /**
+     * Deletes all users with the given ids in one statement and returns the rows that actually existed.
+     */
+    @Transactional
+    @Query(value = "DELETE FROM users WHERE id IN (:ids) RETURNING id, email", nativeQuery = true)
+    List<DeletedUser> deleteAllReturning(@Param("ids") Collection<UUID> ids);
+
+    interface DeletedUser {
+        UUID getId();
+        String getEmail();
+    }
 }
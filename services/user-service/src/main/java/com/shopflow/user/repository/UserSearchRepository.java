@@ -0,0 +1,31 @@
+package com.shopflow.user.repository;
+
+import com.shopflow.user.dto.UserFilter;
+import com.shopflow.user.dto.UserResponse;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Set;
+
+public interface UserSearchRepository {
+
+    /**
+     * Properties the filtered listing can be sorted by; each is backed by an index.
+     */
+    Set<String> SORTABLE = Set.of("createdAt", "email");
+
+    /**
+     * Users matching {@code filter}, selected straight into responses so that the password hash is never read
+     * and the covering indexes of {@code V5} serve the page with an index-only scan. Ordered by
+     * {@code createdAt} descending unless {@code pageable} says otherwise, with the id as tie-breaker so pages
+     * stay stable. No count is run; one extra row is read to tell whether there is a next page.
+     *
+     * @param pageable sorted by {@link #SORTABLE} properties only
+     */
+    Slice<UserResponse> search(UserFilter filter, Pageable pageable);
+
+    /**
+     * Exact number of users matching {@code filter}, also read from the covering indexes.
+     */
+    long countMatching(UserFilter filter);
+}
@@ -0,0 +1,97 @@
+package com.shopflow.user.repository;
+
+import com.shopflow.user.dto.UserFilter;
+import com.shopflow.user.dto.UserResponse;
+import com.shopflow.user.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+class UserSearchRepositoryImpl implements UserSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<UserResponse> search(UserFilter filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<UserResponse> select = cb.createQuery(UserResponse.class);
+        Root<User> user = select.from(User.class);
+        select.select(cb.construct(UserResponse.class,
+                        user.get("id"),
+                        user.get("email"),
+                        user.get("fullName"),
+                        user.get("role"),
+                        user.get("createdAt"),
+                        user.get("updatedAt"),
+                        user.get("version")))
+                .where(predicates(cb, user, filter))
+                .orderBy(orders(cb, user, pageable.getSort()));
+
+        TypedQuery<UserResponse> query = entityManager.createQuery(select);
+        if (!pageable.isPaged()) {
+            return new SliceImpl<>(query.getResultList(), pageable, false);
+        }
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize() + 1);
+        List<UserResponse> content = query.getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countMatching(UserFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> count = cb.createQuery(Long.class);
+        Root<User> user = count.from(User.class);
+        count.select(cb.count(user)).where(predicates(cb, user, filter));
+        return entityManager.createQuery(count).getSingleResult();
+    }
+
+    private static Predicate[] predicates(CriteriaBuilder cb, Root<User> user, UserFilter filter) {
+        List<Predicate> predicates = new ArrayList<>(3);
+        if (filter.role() != null) {
+            predicates.add(cb.equal(user.get("role"), filter.role()));
+        }
+        if (filter.createdAfter() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(user.<OffsetDateTime>get("createdAt"), filter.createdAfter()));
+        }
+        if (filter.createdBefore() != null) {
+            predicates.add(cb.lessThan(user.<OffsetDateTime>get("createdAt"), filter.createdBefore()));
+        }
+        return predicates.toArray(Predicate[]::new);
+    }
+
+    private static List<Order> orders(CriteriaBuilder cb, Root<User> user, Sort sort) {
+        if (sort.isUnsorted()) {
+            return List.of(cb.desc(user.get("createdAt")), cb.desc(user.get("id")));
+        }
+        List<Order> orders = new ArrayList<>();
+        Sort.Direction last = Sort.Direction.ASC;
+        for (Sort.Order order : sort) {
+            orders.add(order.isAscending() ? cb.asc(user.get(order.getProperty())) : cb.desc(user.get(order.getProperty())));
+            last = order.getDirection();
+        }
+        // same direction as the last key, so (created_at, id) can still be scanned in one direction
+        orders.add(last.isAscending() ? cb.asc(user.get("id")) : cb.desc(user.get("id")));
+        return orders;
+    }
+}
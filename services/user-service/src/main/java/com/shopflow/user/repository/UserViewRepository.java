@@ -0,0 +1,30 @@
+package com.shopflow.user.repository;
+
+import com.shopflow.user.dto.UserFilter;
+import com.shopflow.user.projection.UserFields;
+import com.shopflow.user.projection.UserView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads users as {@link UserView}s, selecting the columns of their {@link UserFields} and nothing else. Rows are
+ * read as values, so no entity is loaded and the second-level cache is neither consulted nor filled.
+ */
+public interface UserViewRepository {
+
+    /**
+     * The users among {@code ids} that exist, in no particular order.
+     */
+    List<UserView> findViewsById(Collection<UUID> ids, UserFields fields);
+
+    /**
+     * Like {@link UserSearchRepository#search}, but sortable by any field of the response.
+     *
+     * @throws com.shopflow.user.service.exception.UnsupportedSortException for any other sort property
+     */
+    Slice<UserView> searchViews(UserFilter filter, Pageable pageable, UserFields fields);
+}
@@ -0,0 +1,110 @@
+package com.shopflow.user.repository;
+
+import com.shopflow.user.dto.UserFilter;
+import com.shopflow.user.projection.UserField;
+import com.shopflow.user.projection.UserFields;
+import com.shopflow.user.projection.UserView;
+import com.shopflow.user.service.exception.UnsupportedSortException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Builds its queries as strings from the select clause of the fieldset and a where and order by clause that only
+ * depend on which filters are set and how the listing is sorted, never on their values. The same request shape
+ * always produces the same string, which Hibernate's query plan cache keeps translated to SQL.
+ */
+class UserViewRepositoryImpl implements UserViewRepository {
+
+    private static final Set<String> SORTABLE = Arrays.stream(UserField.values())
+            .map(UserField::property)
+            .collect(Collectors.toUnmodifiableSet());
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserView> findViewsById(Collection<UUID> ids, UserFields fields) {
+        return views(entityManager.createQuery(fields.select() + " where u.id in :ids", Object[].class)
+                .setParameter("ids", ids)
+                .getResultList(), fields);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<UserView> searchViews(UserFilter filter, Pageable pageable, UserFields fields) {
+        StringBuilder hql = new StringBuilder(fields.select());
+        String separator = " where ";
+        if (filter.role() != null) {
+            hql.append(separator).append("u.role = :role");
+            separator = " and ";
+        }
+        if (filter.createdAfter() != null) {
+            hql.append(separator).append("u.createdAt >= :createdAfter");
+            separator = " and ";
+        }
+        if (filter.createdBefore() != null) {
+            hql.append(separator).append("u.createdAt < :createdBefore");
+        }
+        appendOrder(hql, pageable.getSort());
+
+        TypedQuery<Object[]> query = entityManager.createQuery(hql.toString(), Object[].class);
+        if (filter.role() != null) {
+            query.setParameter("role", filter.role());
+        }
+        if (filter.createdAfter() != null) {
+            query.setParameter("createdAfter", filter.createdAfter());
+        }
+        if (filter.createdBefore() != null) {
+            query.setParameter("createdBefore", filter.createdBefore());
+        }
+
+        if (!pageable.isPaged()) {
+            return new SliceImpl<>(views(query.getResultList(), fields), pageable, false);
+        }
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize() + 1);
+        List<UserView> content = views(query.getResultList(), fields);
+        boolean hasNext = content.size() > pageable.getPageSize();
+
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    /**
+     * The order of {@code UserSearchRepositoryImpl}: newest first by default, and the id as tie-breaker in the
+     * direction of the last key. Properties are checked against the fields, as they go into the query as is.
+     */
+    private static void appendOrder(StringBuilder hql, Sort sort) {
+        if (sort.isUnsorted()) {
+            hql.append(" order by u.createdAt desc, u.id desc");
+            return;
+        }
+        hql.append(" order by ");
+        Sort.Direction last = Sort.Direction.ASC;
+        for (Sort.Order order : sort) {
+            if (!SORTABLE.contains(order.getProperty())) {
+                throw new UnsupportedSortException(order.getProperty(), SORTABLE);
+            }
+            hql.append("u.").append(order.getProperty()).append(order.isAscending() ? " asc, " : " desc, ");
+            last = order.getDirection();
+        }
+        hql.append(last.isAscending() ? "u.id asc" : "u.id desc");
+    }
+
+    private static List<UserView> views(List<Object[]> rows, UserFields fields) {
+        return rows.stream().map(fields::view).toList();
+    }
+}
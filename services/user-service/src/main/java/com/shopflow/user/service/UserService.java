@@ -1,9 +1,16 @@
 package com.shopflow.user.service;
 
+import com.shopflow.user.dto.BulkDeleteResponse;
+import com.shopflow.user.dto.BulkGetResponse;
+import com.shopflow.user.dto.UserFilter;
+import com.shopflow.user.dto.UserPatchRequest;
 import com.shopflow.user.dto.UserRequest;
 import com.shopflow.user.dto.UserResponse;
-import org.springframework.data.domain.Page;
+import com.shopflow.user.listing.CountStrategy;
+import com.shopflow.user.projection.UserFields;
+import com.shopflow.user.projection.UserView;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.UUID;
@@ -12,6 +19,11 @@ public interface UserService {
     UserResponse createUser(UserRequest userRequest);
     UserResponse getUserById(UUID id);
     UserResponse getUserByEmail(String email);
-    Page<UserResponse> getAllUsers(Pageable pageable);
+    Slice<UserResponse> getAllUsers(Pageable pageable, CountStrategy count);
+    Slice<UserResponse> searchUsers(UserFilter filter, Pageable pageable, CountStrategy count);
+    Slice<UserView> listUsers(UserFilter filter, Pageable pageable, CountStrategy count, UserFields fields);
+    BulkGetResponse getUsers(List<UUID> ids, UserFields fields);
+    UserResponse updateUser(UUID id, UserPatchRequest patch, Long expectedVersion);
     void deleteUser(UUID id);
+    BulkDeleteResponse deleteUsers(List<UUID> ids);
 }
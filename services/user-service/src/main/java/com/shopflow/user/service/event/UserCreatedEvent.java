@@ -0,0 +1,13 @@
+package com.shopflow.user.service.event;
+
+import com.shopflow.user.model.Role;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Published inside the transaction that inserted the user.
+ */
+public record UserCreatedEvent(UUID id, String email, String fullName, Role role,
+                               OffsetDateTime createdAt, OffsetDateTime updatedAt) {
+}
@@ -0,0 +1,9 @@
+package com.shopflow.user.service.event;
+
+import java.util.UUID;
+
+/**
+ * Published inside the transaction that deleted the user.
+ */
+public record UserDeletedEvent(UUID id, String email) {
+}
@@ -0,0 +1,16 @@
+package com.shopflow.user.service.event;
+
+import com.shopflow.user.model.Role;
+
+import java.time.OffsetDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published inside the transaction that updated the user, with the user as it is after the update.
+ * {@code changedFields} names the request fields that were set, {@code password} included; the hash never
+ * leaves the service.
+ */
+public record UserUpdatedEvent(UUID id, String email, String fullName, Role role, OffsetDateTime createdAt,
+                               OffsetDateTime updatedAt, long version, Set<String> changedFields) {
+}
@@ -0,0 +1,10 @@
+package com.shopflow.user.service.event;
+
+import java.util.List;
+
+/**
+ * Published once per bulk-delete batch, after the batch has been committed, so that listeners can evict all
+ * of its users in one go instead of handling one {@link UserDeletedEvent} per row.
+ */
+public record UsersDeletedEvent(List<UserDeletedEvent> users) {
+}
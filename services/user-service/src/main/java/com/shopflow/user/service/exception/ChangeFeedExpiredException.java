@@ -0,0 +1,19 @@
+package com.shopflow.user.service.exception;
+
+public class ChangeFeedExpiredException extends DomainException {
+
+    private final long after;
+    private final long prunedThrough;
+
+    public ChangeFeedExpiredException(long after, long prunedThrough) {
+        super(ErrorCode.CHANGE_FEED_EXPIRED);
+        this.after = after;
+        this.prunedThrough = prunedThrough;
+    }
+
+    @Override
+    protected String buildMessage() {
+        return "Changes after seq " + after + " are no longer available (pruned through " + prunedThrough
+                + "), re-sync from the snapshot";
+    }
+}
@@ -0,0 +1,36 @@
+package com.shopflow.user.service.exception;
+
+/**
+ * Base class for expected business failures that end up as 4xx responses.
+ * <p>
+ * These are thrown for every unknown id or duplicate email a client sends, and their stack trace is never
+ * printed, so none is captured: construction costs a field copy instead of a stack walk. The message names the
+ * id or email the client sent and is part of every error response, so it is still built for each of them.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    private final ErrorCode errorCode;
+    private String message;
+
+    protected DomainException(ErrorCode errorCode) {
+        super(null, null, false, false);
+        this.errorCode = errorCode;
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+
+    @Override
+    public String getMessage() {
+        String result = message;
+        if (result == null) {
+            // racy but idempotent: at worst two threads build the same string
+            result = buildMessage();
+            message = result;
+        }
+        return result;
+    }
+
+    protected abstract String buildMessage();
+}
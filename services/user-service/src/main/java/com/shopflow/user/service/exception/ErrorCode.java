@@ -0,0 +1,27 @@
+package com.shopflow.user.service.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Error codes returned in {@code ErrorResponse.errorCode}, with the HTTP status each one maps to.
+ */
+public enum ErrorCode {
+    USER_NOT_FOUND(HttpStatus.NOT_FOUND),
+    USER_ALREADY_EXISTS(HttpStatus.CONFLICT),
+    CHANGE_FEED_EXPIRED(HttpStatus.GONE),
+    PRECONDITION_FAILED(HttpStatus.PRECONDITION_FAILED),
+    IDEMPOTENCY_KEY_IN_USE(HttpStatus.CONFLICT),
+    IDEMPOTENCY_KEY_MISMATCH(HttpStatus.UNPROCESSABLE_ENTITY),
+    METHOD_ARGUMENT_NOT_VALID(HttpStatus.BAD_REQUEST),
+    INTERNAL_SERVER_ERROR(HttpStatus.INTERNAL_SERVER_ERROR);
+
+    private final HttpStatus status;
+
+    ErrorCode(HttpStatus status) {
+        this.status = status;
+    }
+
+    public HttpStatus status() {
+        return status;
+    }
+}
@@ -1,28 +1,43 @@
 package com.shopflow.user.service.exception;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
-import java.time.OffsetDateTime;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
 
 @Slf4j
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
-    @ExceptionHandler(UserNotFoundException.class)
-    public ResponseEntity<ErrorResponse> handleUserNotFound(UserNotFoundException e) {
-        return buildErrorResponse(HttpStatus.NOT_FOUND, "USER_NOT_FOUND", e.getMessage());
+    private final Map<ErrorCode, Counter> errorCounters = new EnumMap<>(ErrorCode.class);
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        for (ErrorCode code : ErrorCode.values()) {
+            errorCounters.put(code, Counter.builder("shopflow.errors")
+                    .description("Error responses by error code")
+                    .tag("code", code.name())
+                    .tag("status", String.valueOf(code.status().value()))
+                    .register(meterRegistry));
+        }
     }
 
-    @ExceptionHandler(UserAlreadyExistsException.class)
-    public ResponseEntity<ErrorResponse> handleUserAlreadyExists(UserAlreadyExistsException e) {
-        return buildErrorResponse(HttpStatus.CONFLICT, "USER_ALREADY_EXISTS", e.getMessage());
+    /**
+     * Covers the expected 4xx failures: one handler, no per-type branching, and the exception's message is the
+     * only string built on the way.
+     */
+    @ExceptionHandler(DomainException.class)
+    public ResponseEntity<ErrorResponse> handleDomainException(DomainException e) {
+        return buildErrorResponse(e.getErrorCode(), e.getMessage());
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -30,31 +45,44 @@ public class GlobalExceptionHandler {
         String errorMsg = e.getBindingResult().getFieldErrors().stream()
                 .map(fieldError -> fieldError.getField() + ": " + fieldError.getDefaultMessage())
                 .findFirst().orElse("Invalid request data");
-        return buildErrorResponse(HttpStatus.BAD_REQUEST, "METHOD_ARGUMENT_NOT_VALID", errorMsg);
+        return buildErrorResponse(ErrorCode.METHOD_ARGUMENT_NOT_VALID, errorMsg);
+    }
+
+    /**
+     * A query parameter or path variable that does not convert to its declared type, such as an unknown enum
+     * constant or a malformed date.
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleMethodArgumentTypeMismatch(MethodArgumentTypeMismatchException e) {
+        Class<?> type = e.getRequiredType();
+        String expected = type == null ? "a valid value"
+                : type.isEnum() ? "one of " + Arrays.toString(type.getEnumConstants())
+                : "a valid " + type.getSimpleName();
+        return buildErrorResponse(ErrorCode.METHOD_ARGUMENT_NOT_VALID, e.getName() + ": must be " + expected);
     }
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleException(Exception e) {
         log.error("[{}] Unhandled exception: {}", MDC.get("correlationId"), e.getMessage());
-        return buildErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "INTERNAL_SERVER_ERROR", e.getMessage());
+        return buildErrorResponse(ErrorCode.INTERNAL_SERVER_ERROR, e.getMessage());
     }
 
-    private ResponseEntity<ErrorResponse> buildErrorResponse(HttpStatus status, String code, String message) {
-        String correlationId = MDC.get("correlationId");
+    private ResponseEntity<ErrorResponse> buildErrorResponse(ErrorCode code, String message) {
+        errorCounters.get(code).increment();
 
         ErrorResponse errorResponse = new ErrorResponse(
-                OffsetDateTime.now(),
-                status.value(),
-                code,
+                Instant.now(),
+                code.status().value(),
+                code.name(),
                 message,
-                correlationId
+                MDC.get("correlationId")
         );
 
-        return ResponseEntity.status(status).body(errorResponse);
+        return ResponseEntity.status(code.status()).body(errorResponse);
     }
 
     public record ErrorResponse(
-            OffsetDateTime timestamp,
+            Instant timestamp,
             int status,
             String errorCode,
             String message,
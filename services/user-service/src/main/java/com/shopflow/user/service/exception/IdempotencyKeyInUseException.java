@@ -0,0 +1,16 @@
+package com.shopflow.user.service.exception;
+
+public class IdempotencyKeyInUseException extends DomainException {
+
+    private final String key;
+
+    public IdempotencyKeyInUseException(String key) {
+        super(ErrorCode.IDEMPOTENCY_KEY_IN_USE);
+        this.key = key;
+    }
+
+    @Override
+    protected String buildMessage() {
+        return "A request with idempotency key " + key + " is still in progress, retry later";
+    }
+}
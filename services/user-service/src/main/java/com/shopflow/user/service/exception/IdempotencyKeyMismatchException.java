@@ -0,0 +1,16 @@
+package com.shopflow.user.service.exception;
+
+public class IdempotencyKeyMismatchException extends DomainException {
+
+    private final String key;
+
+    public IdempotencyKeyMismatchException(String key) {
+        super(ErrorCode.IDEMPOTENCY_KEY_MISMATCH);
+        this.key = key;
+    }
+
+    @Override
+    protected String buildMessage() {
+        return "Idempotency key " + key + " was already used for a different request";
+    }
+}
@@ -0,0 +1,16 @@
+package com.shopflow.user.service.exception;
+
+public class InvalidIdempotencyKeyException extends DomainException {
+
+    private final int maxLength;
+
+    public InvalidIdempotencyKeyException(int maxLength) {
+        super(ErrorCode.METHOD_ARGUMENT_NOT_VALID);
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    protected String buildMessage() {
+        return "Idempotency-Key must be 1 to " + maxLength + " characters";
+    }
+}
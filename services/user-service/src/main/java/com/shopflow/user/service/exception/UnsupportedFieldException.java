@@ -0,0 +1,23 @@
+package com.shopflow.user.service.exception;
+
+import com.shopflow.user.projection.UserField;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+public class UnsupportedFieldException extends DomainException {
+
+    private final String field;
+
+    public UnsupportedFieldException(String field) {
+        super(ErrorCode.METHOD_ARGUMENT_NOT_VALID);
+        this.field = field;
+    }
+
+    @Override
+    protected String buildMessage() {
+        return "Unknown field " + field + ", supported: " + Arrays.stream(UserField.values())
+                .map(UserField::property)
+                .collect(Collectors.joining(", "));
+    }
+}
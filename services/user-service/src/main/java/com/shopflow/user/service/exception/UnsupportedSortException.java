@@ -0,0 +1,21 @@
+package com.shopflow.user.service.exception;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+public class UnsupportedSortException extends DomainException {
+
+    private final String property;
+    private final Set<String> supported;
+
+    public UnsupportedSortException(String property, Set<String> supported) {
+        super(ErrorCode.METHOD_ARGUMENT_NOT_VALID);
+        this.property = property;
+        this.supported = supported;
+    }
+
+    @Override
+    protected String buildMessage() {
+        return "Cannot sort by " + property + ", supported: " + String.join(", ", new TreeSet<>(supported));
+    }
+}
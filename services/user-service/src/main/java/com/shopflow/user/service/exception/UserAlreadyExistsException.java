@@ -1,8 +1,17 @@
 package com.shopflow.user.service.exception;
 
-public class UserAlreadyExistsException extends RuntimeException {
+public class UserAlreadyExistsException extends DomainException {
+
+    private final String email;
+
     public UserAlreadyExistsException(String email)
     {
-        super("User with this email already exists: " + email);
+        super(ErrorCode.USER_ALREADY_EXISTS);
+        this.email = email;
+    }
+
+    @Override
+    protected String buildMessage() {
+        return "User with this email already exists: " + email;
     }
 }
@@ -2,14 +2,23 @@ package com.shopflow.user.service.exception;
 
 import java.util.UUID;
 
-public class UserNotFoundException extends RuntimeException {
+public class UserNotFoundException extends DomainException {
+
+    private final Object key;
 
     public UserNotFoundException(UUID uuid) {
-        super("User not found: " + uuid);
+        super(ErrorCode.USER_NOT_FOUND);
+        this.key = uuid;
     }
 
     public UserNotFoundException(String email)
     {
-        super("User not found: " + email);
+        super(ErrorCode.USER_NOT_FOUND);
+        this.key = email;
+    }
+
+    @Override
+    protected String buildMessage() {
+        return "User not found: " + key;
     }
 }
@@ -0,0 +1,24 @@
+package com.shopflow.user.service.exception;
+
+import java.util.UUID;
+
+public class UserVersionMismatchException extends DomainException {
+
+    private final UUID id;
+    private final Object expected;
+
+    /**
+     * @param expected the version the client expected, or the raw {@code If-Match} value if it was not one of
+     *                 ours
+     */
+    public UserVersionMismatchException(UUID id, Object expected) {
+        super(ErrorCode.PRECONDITION_FAILED);
+        this.id = id;
+        this.expected = expected;
+    }
+
+    @Override
+    protected String buildMessage() {
+        return "User " + id + " is not at version " + expected + ", fetch it again and retry";
+    }
+}
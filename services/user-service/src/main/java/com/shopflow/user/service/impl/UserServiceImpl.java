@@ -1,83 +1,292 @@
 package com.shopflow.user.service.impl;
 
+import com.shopflow.user.bloom.EmailBloomFilter;
+import com.shopflow.user.coalescing.SingleFlight;
+import com.shopflow.user.directory.UserDirectory;
+import com.shopflow.user.dto.BulkDeleteResponse;
+import com.shopflow.user.dto.BulkGetResponse;
+import com.shopflow.user.dto.UserFilter;
+import com.shopflow.user.dto.UserPatchRequest;
 import com.shopflow.user.dto.UserRequest;
 import com.shopflow.user.dto.UserResponse;
+import com.shopflow.user.listing.CountStrategy;
+import com.shopflow.user.listing.UserCounter;
 import com.shopflow.user.mapper.UserMapper;
 import com.shopflow.user.model.User;
+import com.shopflow.user.projection.UserFields;
+import com.shopflow.user.projection.UserView;
 import com.shopflow.user.repository.UserRepository;
+import com.shopflow.user.repository.UserSearchRepository;
+import com.shopflow.user.repository.UserPatchRepository.UserChanges;
+import com.shopflow.user.repository.UserRepository.DeletedUser;
 import com.shopflow.user.service.UserService;
+import com.shopflow.user.service.event.UserCreatedEvent;
+import com.shopflow.user.service.event.UserDeletedEvent;
+import com.shopflow.user.service.event.UserUpdatedEvent;
+import com.shopflow.user.service.event.UsersDeletedEvent;
 import com.shopflow.user.service.exception.UserAlreadyExistsException;
+import com.shopflow.user.service.exception.UnsupportedSortException;
 import com.shopflow.user.service.exception.UserNotFoundException;
+import com.shopflow.user.service.exception.UserVersionMismatchException;
 import com.shopflow.user.service.password.PasswordService;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
+    private static final int DELETE_BATCH_SIZE = 500;
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final PasswordService passwordService;
+    private final SingleFlight<UUID, Optional<UserResponse>> userByIdFlight;
+    private final SingleFlight<String, Optional<UserResponse>> userByEmailFlight;
+    private final EmailBloomFilter emailFilter;
+    private final UserDirectory directory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionOperations transactions;
+    private final UserCounter userCounter;
 
     @Override
     @Transactional
     public UserResponse createUser(UserRequest userRequest) {
 
-        if (userRepository.findByEmail(userRequest.email()).isPresent()) {
-            throw new UserAlreadyExistsException(userRequest.email());
+        if (emailFilter.mightContain(userRequest.email())) {
+            if (userRepository.findByEmail(userRequest.email()).isPresent()) {
+                throw new UserAlreadyExistsException(userRequest.email());
+            }
+            emailFilter.recordFalsePositive();
         }
         User user = userMapper.toEntity(userRequest);
 
         String hashedPassword = passwordService.encrypt(userRequest.password());
         user.setPasswordHash(hashedPassword);
 
-        User saved = userRepository.save(user);
+        User saved;
+        try {
+            // flushed here so that a concurrent signup for the same email surfaces as a conflict
+            saved = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new UserAlreadyExistsException(userRequest.email());
+        }
+        eventPublisher.publishEvent(new UserCreatedEvent(saved.getId(), saved.getEmail(), saved.getFullName(),
+                saved.getRole(), saved.getCreatedAt(), saved.getUpdatedAt()));
 
         return userMapper.toResponse(saved);
     }
 
+    /**
+     * The lookups are not {@code @Transactional}: a surrounding transaction takes a connection before the call
+     * reaches the single-flight, so coalesced callers would each hold one while waiting. The repository call
+     * runs in its own read-only transaction. Users held by the off-heap directory are returned without either.
+     */
     @Override
-    @Transactional(readOnly = true)
     public UserResponse getUserById(UUID id) {
 
-        return userRepository.findById(id)
-                .map(userMapper::toResponse)
+        Optional<UserResponse> cached = directory.findById(id);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        return userByIdFlight.execute(id, () -> userRepository.findById(id).map(userMapper::toResponse))
                 .orElseThrow(() -> new UserNotFoundException(id));
     }
 
     @Override
-    @Transactional(readOnly = true)
     public UserResponse getUserByEmail(String email) {
 
-        return userRepository.findByEmail(email)
-                .map(userMapper::toResponse)
-                .orElseThrow(() -> new UserNotFoundException(email));
+        if (!emailFilter.mightContain(email)) {
+            throw new UserNotFoundException(email);
+        }
+        Optional<UserResponse> cached = directory.findByEmail(email);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        Optional<UserResponse> user = userByEmailFlight.execute(email,
+                () -> userRepository.findByEmail(email).map(userMapper::toResponse));
+        if (user.isEmpty()) {
+            emailFilter.recordFalsePositive();
+            throw new UserNotFoundException(email);
+        }
+        return user.get();
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<UserResponse> getAllUsers(Pageable pageable) {
+    public Slice<UserResponse> getAllUsers(Pageable pageable, CountStrategy count) {
 
-        return userRepository.findAll(pageable)
+        Slice<UserResponse> users = userRepository.findAllBy(pageable)
                 .map(userMapper::toResponse);
+        return withTotal(users, UserFilter.NONE, count);
+    }
+
+    /**
+     * Only sorts the listing indexes can serve are accepted, so a filter never ends in a sort of the whole table.
+     */
+    @Override
+    public Slice<UserResponse> searchUsers(UserFilter filter, Pageable pageable, CountStrategy count) {
+        checkSortable(pageable);
+        return withTotal(userRepository.search(filter, pageable), filter, count);
+    }
+
+    /**
+     * Filtered or not, the listing reads only the columns of {@code fields}. A filter limits the sort the same
+     * way {@link #searchUsers} does; without one, any field can be sorted by, as with {@link #getAllUsers}.
+     */
+    @Override
+    public Slice<UserView> listUsers(UserFilter filter, Pageable pageable, CountStrategy count, UserFields fields) {
+        if (!filter.isEmpty()) {
+            checkSortable(pageable);
+        }
+        return withTotal(userRepository.searchViews(filter, pageable, fields), filter, count);
+    }
+
+    /**
+     * Reads the users in one statement, selecting only the columns of {@code fields}, and returns them in the
+     * order they were asked for, each once.
+     */
+    @Override
+    public BulkGetResponse getUsers(List<UUID> ids, UserFields fields) {
+
+        List<UUID> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<UUID, UserView> found = userRepository.findViewsById(distinct, fields).stream()
+                .collect(Collectors.toMap(UserView::id, Function.identity()));
+
+        List<UserView> users = new ArrayList<>(found.size());
+        List<UUID> notFound = new ArrayList<>();
+        for (UUID id : distinct) {
+            UserView user = found.get(id);
+            if (user != null) {
+                users.add(user);
+            } else {
+                notFound.add(id);
+            }
+        }
+        return new BulkGetResponse(users, notFound);
+    }
+
+    private static void checkSortable(Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!UserSearchRepository.SORTABLE.contains(order.getProperty())) {
+                throw new UnsupportedSortException(order.getProperty(), UserSearchRepository.SORTABLE);
+            }
+        }
+    }
+
+    /**
+     * Turns a slice into a page with a total from the requested strategy, or leaves it a slice for
+     * {@code NONE}. No count is needed when the slice already shows where the listing ends, and an estimated or
+     * cached total is never let fall below what this slice has seen.
+     */
+    private <T> Slice<T> withTotal(Slice<T> slice, UserFilter filter, CountStrategy count) {
+        CountStrategy strategy = userCounter.resolve(count);
+        if (strategy == CountStrategy.NONE) {
+            return slice;
+        }
+        Pageable pageable = slice.getPageable();
+        long seen = (pageable.isPaged() ? pageable.getOffset() : 0)
+                + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+        return PageableExecutionUtils.getPage(slice.getContent(), pageable,
+                () -> Math.max(seen, userCounter.count(filter, strategy)));
+    }
+
+    /**
+     * Hashes a new password before the transaction starts, so no connection is held while it runs. The update
+     * itself is one statement; telling a missing user from a stale {@code expectedVersion} takes a second one, on
+     * the failure path only.
+     */
+    @Override
+    public UserResponse updateUser(UUID id, UserPatchRequest patch, Long expectedVersion) {
+
+        String passwordHash = patch.password() != null ? passwordService.encrypt(patch.password()) : null;
+        UserChanges changes = new UserChanges(patch.email(), patch.fullName(), passwordHash, patch.role());
+
+        return transactions.execute(status -> {
+            if (changes.isEmpty()) {
+                User user = userRepository.findById(id).orElseThrow(() -> new UserNotFoundException(id));
+                if (expectedVersion != null && expectedVersion != user.getVersion().longValue()) {
+                    throw new UserVersionMismatchException(id, expectedVersion);
+                }
+                return userMapper.toResponse(user);
+            }
+
+            User updated;
+            try {
+                updated = userRepository.patch(id, changes, expectedVersion)
+                        .orElseThrow(() -> expectedVersion != null && userRepository.existsById(id)
+                                ? new UserVersionMismatchException(id, expectedVersion)
+                                : new UserNotFoundException(id));
+            } catch (DataIntegrityViolationException e) {
+                throw new UserAlreadyExistsException(patch.email());
+            }
+            eventPublisher.publishEvent(new UserUpdatedEvent(updated.getId(), updated.getEmail(),
+                    updated.getFullName(), updated.getRole(), updated.getCreatedAt(), updated.getUpdatedAt(),
+                    updated.getVersion(), changes.fields()));
+            return userMapper.toResponse(updated);
+        });
     }
 
     @Override
     @Transactional
     public void deleteUser(UUID id) {
 
-        if (!userRepository.existsById(id)) {
-            throw new UserNotFoundException(id);
+        String email = userRepository.deleteReturningEmail(id)
+                .orElseThrow(() -> new UserNotFoundException(id));
+
+        eventPublisher.publishEvent(new UserDeletedEvent(id, email));
+    }
+
+    /**
+     * Deletes in batches of {@value #DELETE_BATCH_SIZE} ids, one statement and one transaction per batch, so a
+     * large erasure job neither holds row locks for its whole duration nor loses finished batches when a later
+     * one fails. Not {@code @Transactional} for the same reason; the batch event is published inside the batch
+     * transaction so that its outbox rows commit with the delete.
+     */
+    @Override
+    public BulkDeleteResponse deleteUsers(List<UUID> ids) {
+
+        List<UUID> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<UUID> deleted = new ArrayList<>(distinct.size());
+
+        for (int from = 0; from < distinct.size(); from += DELETE_BATCH_SIZE) {
+            List<UUID> batch = distinct.subList(from, Math.min(from + DELETE_BATCH_SIZE, distinct.size()));
+            List<DeletedUser> rows = transactions.execute(status -> {
+                List<DeletedUser> batchRows = userRepository.deleteAllReturning(batch);
+                if (!batchRows.isEmpty()) {
+                    eventPublisher.publishEvent(new UsersDeletedEvent(batchRows.stream()
+                            .map(row -> new UserDeletedEvent(row.getId(), row.getEmail()))
+                            .toList()));
+                }
+                return batchRows;
+            });
+            rows.forEach(row -> deleted.add(row.getId()));
         }
 
-        userRepository.deleteById(id);
+        Set<UUID> deletedSet = Set.copyOf(deleted);
+        List<UUID> notFound = distinct.stream()
+                .filter(id -> !deletedSet.contains(id))
+                .toList();
+        return new BulkDeleteResponse(deleted, notFound);
     }
 }
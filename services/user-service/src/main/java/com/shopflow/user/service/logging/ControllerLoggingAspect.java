@@ -3,69 +3,51 @@ package com.shopflow.user.service.logging;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
-import org.slf4j.MDC;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Aspect
 @Component
-@Slf4j
 @Order(2)
 @RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "shopflow.logging", name = "instrumentation", havingValue = "aop", matchIfMissing = true)
 public class ControllerLoggingAspect {
 
-    private final LoggingSanitizer sanitizer;
+    private final ControllerRequestLogger requestLogger;
+    private final Map<Method, String> handlers = new ConcurrentHashMap<>();
 
     @Pointcut("execution(* com.shopflow.user.controller..*(..))")
     public void controllerMethods() {}
 
     @Around("controllerMethods()")
     public Object logController(ProceedingJoinPoint joinPoint) throws Throwable {
-        long start = System.currentTimeMillis();
-
         HttpServletRequest request = getCurrentRequest();
         HttpServletResponse response = getCurrentResponse();
 
-        String method = request.getMethod();
-        String uri = request.getRequestURI();
-        String query = request.getQueryString() != null
-                ? "?" + request.getQueryString()
-                : "";
-
-
-        String correlationId = MDC.get("correlationId");
-        String handler = joinPoint.getSignature().toShortString();
-
-        Object[] args = joinPoint.getArgs();
-        String sanitizedArgs = sanitizer.sanitize(args);
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        String handler = handlers.computeIfAbsent(method,
+                m -> ControllerRequestLogger.handler(m.getDeclaringClass(), m.getName()));
 
+        ControllerRequestLogger.Call call = requestLogger.start(handler);
         try {
             Object result = joinPoint.proceed();
-            long duration = System.currentTimeMillis() - start;
-            int status = response.getStatus();
-
-            log.info(
-                    "[Controller] {} {}{} | status={} | duration={}ms | correlationId={} | handler={} | args={}",
-                    method, uri, query, status, duration, correlationId, handler, sanitizedArgs
-            );
-
+            requestLogger.finish(call, request, response.getStatus(), null, joinPoint.getArgs());
             return result;
         } catch (Exception e) {
-            long duration = System.currentTimeMillis() - start;
-            int status = HttpStatus.INTERNAL_SERVER_ERROR.value();
-
-            log.error(
-                    "[Controller][ERROR] {} {}{} | status={} | duration={}ms | correlationId={} | handler={} | error={} | args={}",
-                    method, uri, query, status, duration, correlationId, handler, e.getMessage(), sanitizedArgs
-            );
+            requestLogger.finish(call, request, HttpStatus.INTERNAL_SERVER_ERROR.value(), e, joinPoint.getArgs());
             throw e;
         }
     }
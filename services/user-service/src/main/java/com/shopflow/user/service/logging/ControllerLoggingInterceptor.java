@@ -0,0 +1,108 @@
+package com.shopflow.user.service.logging;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Explicit replacement for {@link ControllerLoggingAspect}: logs requests handled by controllers in
+ * {@code com.shopflow.user.controller} without proxying them. The handler name is computed once per method,
+ * and the arguments are the values Spring MVC resolved, collected by wrapping its argument resolvers with
+ * {@link #recording(HandlerMethodArgumentResolver)}.
+ * <p>
+ * Unlike the aspect, the logged status is the one actually sent, including for exceptions turned into
+ * responses by {@code GlobalExceptionHandler}, and the duration includes writing the response body. A handler that
+ * starts async processing, such as the change feed long poll, is logged once when it returns, as the aspect
+ * does; the async dispatch that writes its result is not logged again.
+ */
+public class ControllerLoggingInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String CONTROLLER_PACKAGE = "com.shopflow.user.controller";
+    private static final String CALL_ATTRIBUTE = ControllerLoggingInterceptor.class.getName() + ".CALL";
+    private static final String ARGS_ATTRIBUTE = ControllerLoggingInterceptor.class.getName() + ".ARGS";
+    private static final String NOT_LOGGED = "";
+
+    private final ControllerRequestLogger requestLogger;
+    private final Map<Method, String> handlers = new ConcurrentHashMap<>();
+
+    public ControllerLoggingInterceptor(ControllerRequestLogger requestLogger) {
+        this.requestLogger = requestLogger;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.ASYNC && handler instanceof HandlerMethod handlerMethod) {
+            String name = handlers.computeIfAbsent(handlerMethod.getMethod(), method ->
+                    handlerMethod.getBeanType().getPackageName().startsWith(CONTROLLER_PACKAGE)
+                            ? ControllerRequestLogger.handler(handlerMethod.getBeanType(), method.getName())
+                            : NOT_LOGGED);
+            if (name != NOT_LOGGED) {
+                request.setAttribute(ARGS_ATTRIBUTE, new Object[handlerMethod.getMethod().getParameterCount()]);
+                request.setAttribute(CALL_ATTRIBUTE, requestLogger.start(name));
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        finish(request, response, null);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        finish(request, response, ex);
+    }
+
+    private void finish(HttpServletRequest request, HttpServletResponse response, Exception ex) {
+        if (!(request.getAttribute(CALL_ATTRIBUTE) instanceof ControllerRequestLogger.Call call)) {
+            return;
+        }
+        request.removeAttribute(CALL_ATTRIBUTE);
+        Throwable error = ex != null ? ex : (Throwable) request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE);
+        int status = ex != null && response.getStatus() < 400
+                ? HttpStatus.INTERNAL_SERVER_ERROR.value()
+                : response.getStatus();
+        requestLogger.finish(call, request, status, error, (Object[]) request.getAttribute(ARGS_ATTRIBUTE));
+    }
+
+    /**
+     * Wraps a handler argument resolver so that the values it resolves are recorded for the log line.
+     */
+    public static HandlerMethodArgumentResolver recording(HandlerMethodArgumentResolver resolver) {
+        return new HandlerMethodArgumentResolver() {
+            @Override
+            public boolean supportsParameter(MethodParameter parameter) {
+                return resolver.supportsParameter(parameter);
+            }
+
+            @Override
+            public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                          NativeWebRequest webRequest, WebDataBinderFactory binderFactory)
+                    throws Exception {
+                Object value = resolver.resolveArgument(parameter, mavContainer, webRequest, binderFactory);
+                if (webRequest.getAttribute(ARGS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Object[] args
+                        && parameter.getParameterIndex() < args.length) {
+                    args[parameter.getParameterIndex()] = value;
+                }
+                return value;
+            }
+        };
+    }
+}
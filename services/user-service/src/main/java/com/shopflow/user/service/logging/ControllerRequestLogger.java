@@ -0,0 +1,139 @@
+package com.shopflow.user.service.logging;
+
+import com.shopflow.user.jfr.ControllerRequestEvent;
+import com.shopflow.user.tracing.Span;
+import com.shopflow.user.tracing.Tracer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+/**
+ * Logs, traces and records a {@link ControllerRequestEvent} for one handled request; used by
+ * {@link ControllerLoggingAspect} and by {@link ControllerLoggingInterceptor} alike, under the aspect's log
+ * category.
+ */
+public class ControllerRequestLogger {
+
+    private static final Logger log = LoggerFactory.getLogger(ControllerLoggingAspect.class);
+
+    private final LoggingSanitizer sanitizer;
+    private final Tracer tracer;
+    private final LoggingProperties loggingProperties;
+
+    public ControllerRequestLogger(LoggingSanitizer sanitizer, Tracer tracer, LoggingProperties loggingProperties) {
+        this.sanitizer = sanitizer;
+        this.tracer = tracer;
+        this.loggingProperties = loggingProperties;
+    }
+
+    /**
+     * A request being handled, from {@link #start(String)} to {@link #finish}.
+     */
+    public static final class Call {
+        private final String handler;
+        private final long start;
+        private final ControllerRequestEvent event;
+        private final Span span;
+
+        private Call(String handler, long start, ControllerRequestEvent event, Span span) {
+            this.handler = handler;
+            this.start = start;
+            this.event = event;
+            this.span = span;
+        }
+    }
+
+    /**
+     * The name requests are logged and traced under; callers compute it once per handler method.
+     */
+    public static String handler(Class<?> type, String methodName) {
+        return type.getSimpleName() + "." + methodName + "(..)";
+    }
+
+    public Call start(String handler) {
+        long start = System.currentTimeMillis();
+        ControllerRequestEvent event = new ControllerRequestEvent();
+        event.begin();
+        return new Call(handler, start, event, tracer.startSpan(handler, Span.Kind.INTERNAL));
+    }
+
+    /**
+     * @param error what the handler threw, or null if it returned
+     * @param args  the handler's arguments, or null if they are not known
+     */
+    public void finish(Call call, HttpServletRequest request, int status, Throwable error, Object[] args) {
+        call.event.end();
+        long duration = System.currentTimeMillis() - call.start;
+        String method = request.getMethod();
+        String uri = request.getRequestURI();
+        String correlationId = MDC.get("correlationId");
+        String handler = call.handler;
+        call.event.status = status;
+        try {
+            if (error == null) {
+                if (!log.isInfoEnabled()) {
+                    return;
+                }
+                String sanitizedArgs = sanitizer.sanitize(args);
+                if (loggingProperties.isStructured()) {
+                    log.atInfo()
+                            .setMessage("[Controller] request handled")
+                            .addKeyValue("method", method)
+                            .addKeyValue("uri", uri)
+                            .addKeyValue("query", request.getQueryString())
+                            .addKeyValue("status", status)
+                            .addKeyValue("durationMs", duration)
+                            .addKeyValue("correlationId", correlationId)
+                            .addKeyValue("handler", handler)
+                            .addKeyValue("args", new RawJson(sanitizedArgs))
+                            .log();
+                } else {
+                    log.info(
+                            "[Controller] {} {}{} | status={} | duration={}ms | correlationId={} | handler={} | args={}",
+                            method, uri, query(request), status, duration, correlationId, handler, sanitizedArgs
+                    );
+                }
+                return;
+            }
+
+            call.event.error = error.getClass().getName();
+            String sanitizedArgs = sanitizer.sanitize(args);
+            if (loggingProperties.isStructured()) {
+                log.atError()
+                        .setMessage("[Controller][ERROR] request failed")
+                        .addKeyValue("method", method)
+                        .addKeyValue("uri", uri)
+                        .addKeyValue("query", request.getQueryString())
+                        .addKeyValue("status", status)
+                        .addKeyValue("durationMs", duration)
+                        .addKeyValue("correlationId", correlationId)
+                        .addKeyValue("handler", handler)
+                        .addKeyValue("error", error.getMessage())
+                        .addKeyValue("args", new RawJson(sanitizedArgs))
+                        .log();
+            } else {
+                log.error(
+                        "[Controller][ERROR] {} {}{} | status={} | duration={}ms | correlationId={} | handler={} | error={} | args={}",
+                        method, uri, query(request), status, duration, correlationId, handler, error.getMessage(), sanitizedArgs
+                );
+            }
+            call.span.recordError(error);
+        } finally {
+            tracer.end(call.span);
+            if (call.event.shouldCommit()) {
+                call.event.httpMethod = method;
+                call.event.uri = uri;
+                call.event.handler = handler;
+                call.event.correlationId = correlationId;
+                call.event.commit();
+            }
+        }
+    }
+
+    private static String query(HttpServletRequest request) {
+        return request.getQueryString() != null
+                ? "?" + request.getQueryString()
+                : "";
+    }
+}
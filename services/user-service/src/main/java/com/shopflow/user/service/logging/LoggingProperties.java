@@ -0,0 +1,35 @@
+package com.shopflow.user.service.logging;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shopflow.logging")
+public class LoggingProperties {
+
+    /**
+     * When enabled the logging aspects emit a short message and pass duration, status, handler and
+     * correlation id as SLF4J key/value pairs instead of formatting them into the message. Turned on by
+     * the {@code json-logs} profile together with the JSON encoder.
+     */
+    private boolean structured = false;
+
+    /**
+     * How controller and service calls are intercepted: {@code aop} applies the logging aspects through Spring
+     * AOP proxies; {@code explicit} uses a handler interceptor and hand-written service decorators instead, which
+     * avoid the proxy dispatch and join point of every call.
+     */
+    private Instrumentation instrumentation = Instrumentation.AOP;
+
+    /**
+     * Capacity of each async appender queue; read by {@code logback-spring.xml}.
+     */
+    private int asyncQueueSize = 8192;
+
+    public enum Instrumentation {
+        AOP,
+        EXPLICIT
+    }
+}
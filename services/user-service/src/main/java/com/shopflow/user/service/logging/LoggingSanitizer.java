@@ -2,12 +2,18 @@ package com.shopflow.user.service.logging;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopflow.user.service.logging.annotation.Sensitive;
+import com.shopflow.user.service.logging.summary.CollectionSummarizer;
+import com.shopflow.user.service.logging.summary.PageSummarizer;
+import com.shopflow.user.service.logging.summary.ResultSummarizer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.*;
 
 @Component
@@ -18,6 +24,40 @@ public class LoggingSanitizer {
     private static final int MAX_STRING_LENGTH = 200;
     private static final String MASK = "***";
 
+    /**
+     * Result summarizers in lookup order: registered beans first, then the built-in page and collection ones.
+     */
+    private final List<ResultSummarizer<?>> summarizers;
+
+    private final ClassValue<Optional<ResultSummarizer<Object>>> summarizerByType = new ClassValue<>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected Optional<ResultSummarizer<Object>> computeValue(Class<?> type) {
+            for (ResultSummarizer<?> summarizer : summarizers) {
+                if (summarizer.type().isAssignableFrom(type)) {
+                    return Optional.of((ResultSummarizer<Object>) summarizer);
+                }
+            }
+            return Optional.empty();
+        }
+    };
+
+    public LoggingSanitizer() {
+        this(List.of());
+    }
+
+    @Autowired
+    public LoggingSanitizer(ObjectProvider<ResultSummarizer<?>> summarizers) {
+        this(summarizers.orderedStream().toList());
+    }
+
+    public LoggingSanitizer(List<? extends ResultSummarizer<?>> summarizers) {
+        List<ResultSummarizer<?>> all = new ArrayList<>(summarizers);
+        all.add(new PageSummarizer());
+        all.add(new CollectionSummarizer());
+        this.summarizers = List.copyOf(all);
+    }
+
     public String sanitize(Object[] args) {
         if (args == null || args.length == 0) {
             return "[]";
@@ -27,18 +67,32 @@ public class LoggingSanitizer {
         Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
 
         for (int i = 0; i < args.length; i++) {
-            sanitized.put("arg" + i, sanitizeValue(args[i], visited));
+            sanitized.put("arg" + i, sanitizeValue(args[i], visited, false));
         }
 
+        return toJson(sanitized);
+    }
+
+    /**
+     * Sanitizes a method result. Unlike arguments, any value with a registered {@link ResultSummarizer}, at the top
+     * level or nested inside the result, is replaced by its summary before it is traversed, so a page of users
+     * costs a handful of fields instead of a reflective walk over every element.
+     */
+    public String sanitizeResult(Object result) {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        return toJson(sanitizeValue(result, visited, true));
+    }
+
+    private String toJson(Object sanitized) {
         try {
             return MAPPER.writeValueAsString(sanitized);
         } catch (Exception e) {
-            log.debug("Failed to serialize sanitized args", e);
-            return sanitized.toString();
+            log.debug("Failed to serialize sanitized value", e);
+            return String.valueOf(sanitized);
         }
     }
 
-    private Object sanitizeValue(Object value, Set<Object> visited) {
+    private Object sanitizeValue(Object value, Set<Object> visited, boolean summarize) {
         if (value == null) {
             return "<null>";
         }
@@ -63,17 +117,23 @@ public class LoggingSanitizer {
             return ((Enum<?>) value).name();
         }
 
+        if (summarize) {
+            Optional<ResultSummarizer<Object>> summarizer = summarizerByType.get(value.getClass());
+            if (summarizer.isPresent()) {
+                return summarizer.get().summarize(value);
+            }
+        }
 
         if (value.getClass().isArray()) {
-            return sanitizeArray(value, visited);
+            return sanitizeArray(value, visited, summarize);
         }
 
         if (value instanceof Collection<?> col) {
-            return sanitizeCollection(col, visited);
+            return sanitizeCollection(col, visited, summarize);
         }
 
         if (value instanceof Map<?, ?> map) {
-            return sanitizeMap(map, visited);
+            return sanitizeMap(map, visited, summarize);
         }
 
         // TODO test it
@@ -89,43 +149,43 @@ public class LoggingSanitizer {
             return value.toString();
         }
 
-        return sanitizeObject(value, visited);
+        return sanitizeObject(value, visited, summarize);
     }
 
-    private List<Object> sanitizeArray(Object array, Set<Object> visited) {
+    private List<Object> sanitizeArray(Object array, Set<Object> visited, boolean summarize) {
         int length = java.lang.reflect.Array.getLength(array);
         List<Object> result = new ArrayList<>();
         for (int i = 0; i < length; i++) {
             Object element = java.lang.reflect.Array.get(array, i);
-            result.add(sanitizeValue(element, visited));
+            result.add(sanitizeValue(element, visited, summarize));
         }
 
         return result;
     }
 
-    private List<Object> sanitizeCollection(Collection<?> collection, Set<Object> visited) {
+    private List<Object> sanitizeCollection(Collection<?> collection, Set<Object> visited, boolean summarize) {
         List<Object> result = new ArrayList<>();
         for (Object item : collection) {
-            result.add(sanitizeValue(item, visited));
+            result.add(sanitizeValue(item, visited, summarize));
         }
         return result;
     }
 
-    private Map<Object, Object> sanitizeMap(Map<?, ?> map, Set<Object> visited) {
+    private Map<Object, Object> sanitizeMap(Map<?, ?> map, Set<Object> visited, boolean summarize) {
         Map<Object, Object> result = new LinkedHashMap<>();
         for (Map.Entry<?, ?> entry : map.entrySet()) {
-            result.put(entry.getKey(), sanitizeValue(entry.getValue(), visited));
+            result.put(entry.getKey(), sanitizeValue(entry.getValue(), visited, summarize));
         }
         return result;
     }
 
-    private Map<String, Object> sanitizeObject(Object obj, Set<Object> visited) {
+    private Map<String, Object> sanitizeObject(Object obj, Set<Object> visited, boolean summarize) {
         Map<String, Object> sanitized = new LinkedHashMap<>();
         Class<?> clazz = obj.getClass();
 
         for (Field field : clazz.getDeclaredFields()) {
 
-            if (field.isSynthetic() || field.getName().startsWith("this$") || field.getName().equals("serialVersionUID")) {
+            if (field.isSynthetic() || field.getName().startsWith("this$") || Modifier.isStatic(field.getModifiers())) {
                 continue;
             }
 
@@ -135,7 +195,7 @@ public class LoggingSanitizer {
                 if (field.isAnnotationPresent(Sensitive.class)) {
                     sanitized.put(field.getName(), MASK);
                 } else {
-                    sanitized.put(field.getName(), sanitizeValue(value, visited));
+                    sanitized.put(field.getName(), sanitizeValue(value, visited, summarize));
                 }
             } catch (Exception e) {
                 sanitized.put(field.getName(), "<error>");
@@ -0,0 +1,13 @@
+package com.shopflow.user.service.logging;
+
+/**
+ * Key/value argument that already holds serialized JSON, such as the output of {@link LoggingSanitizer}.
+ * The JSON encoder embeds it as-is instead of quoting it as a string.
+ */
+public record RawJson(String json) {
+
+    @Override
+    public String toString() {
+        return json;
+    }
+}
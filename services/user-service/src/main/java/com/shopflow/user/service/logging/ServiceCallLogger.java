@@ -0,0 +1,273 @@
+package com.shopflow.user.service.logging;
+
+import com.shopflow.user.jfr.ServiceCallEvent;
+import com.shopflow.user.tracing.Span;
+import com.shopflow.user.tracing.Tracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.slf4j.spi.LoggingEventBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs, traces and records a {@link ServiceCallEvent} for one service method call; used by
+ * {@link ServiceLoggingAspect} and by the explicit decorators alike. Logs under the aspect's category, so log
+ * configuration does not depend on which of the two is active.
+ * <p>
+ * Each thread builds a call tree under its outermost logged call. Calls made while another is running, such as
+ * the password hashing inside {@code createUser}, still get their span and event but no line of their own: they
+ * only record their name, duration and outcome, and the outermost call's line lists them under {@code calls},
+ * so one operation is one record and a slow step is visible in it. Consecutive calls to the same leaf method
+ * are folded into one entry with a count, and at most {@value Frame#MAX_CHILDREN} entries are kept per call.
+ * Arguments and results are only sanitized when the line is actually written, and not at all for calls made
+ * with {@code null} arguments, which is how {@link com.shopflow.user.service.logging.annotation.Sensitive}
+ * services are called.
+ */
+public class ServiceCallLogger {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceLoggingAspect.class);
+    private static final String WITHHELD = "\"***\"";
+
+    private final LoggingSanitizer sanitizer;
+    private final Tracer tracer;
+    private final LoggingProperties loggingProperties;
+    private final ThreadLocal<Frame> current = new ThreadLocal<>();
+
+    public ServiceCallLogger(LoggingSanitizer sanitizer, Tracer tracer, LoggingProperties loggingProperties) {
+        this.sanitizer = sanitizer;
+        this.tracer = tracer;
+        this.loggingProperties = loggingProperties;
+    }
+
+    /**
+     * The name calls are logged and traced under; callers compute it once per method.
+     */
+    public static String signature(Class<?> type, String methodName) {
+        return type.getSimpleName() + "." + methodName + "(..)";
+    }
+
+    @FunctionalInterface
+    public interface Invocation<T, E extends Throwable> {
+        T proceed() throws E;
+    }
+
+    /**
+     * @param args the call's arguments, or null to leave both arguments and result out of the log
+     */
+    public <T, E extends Throwable> T call(String methodSignature, Object[] args, Invocation<T, E> invocation) throws E {
+
+        String correlationId = MDC.get("correlationId");
+        if (correlationId == null || correlationId.isBlank()) {
+            correlationId = "no-cid";
+        }
+
+        Frame parent = current.get();
+        Frame frame = new Frame(methodSignature);
+        current.set(frame);
+
+        ServiceCallEvent event = new ServiceCallEvent();
+        event.begin();
+
+        Span span = tracer.startSpan(methodSignature, Span.Kind.INTERNAL);
+        String outcome = "FAILED";
+        String errorType = null;
+        try {
+            T result = invocation.proceed();
+            event.end();
+            frame.stop(false);
+            long duration = TimeUnit.NANOSECONDS.toMillis(frame.nanos);
+            outcome = "SUCCESS";
+
+            if (parent == null && log.isInfoEnabled()) {
+                String sanitizedArgs = args != null ? sanitizer.sanitize(args) : WITHHELD;
+                String sanitizedResult = args != null ? sanitizer.sanitizeResult(result) : WITHHELD;
+                if (loggingProperties.isStructured()) {
+                    LoggingEventBuilder line = log.atInfo()
+                            .setMessage("[Service] call succeeded")
+                            .addKeyValue("method", methodSignature)
+                            .addKeyValue("correlationId", correlationId)
+                            .addKeyValue("status", "SUCCESS")
+                            .addKeyValue("durationMs", duration)
+                            .addKeyValue("args", new RawJson(sanitizedArgs))
+                            .addKeyValue("result", new RawJson(sanitizedResult));
+                    if (frame.children != null) {
+                        line.addKeyValue("calls", new RawJson(frame.childrenJson()));
+                    }
+                    line.log();
+                } else {
+                    log.info(
+                            "[Service] {} | correlationId={} | status=SUCCESS | duration={}ms | args={} | result={}{}",
+                            methodSignature, correlationId, duration, sanitizedArgs, sanitizedResult, frame.childrenText()
+                    );
+                }
+            }
+
+            return result;
+
+        } catch (Exception e) {
+            event.end();
+            frame.stop(true);
+            long duration = TimeUnit.NANOSECONDS.toMillis(frame.nanos);
+            errorType = e.getClass().getName();
+
+            if (parent == null && loggingProperties.isStructured()) {
+                LoggingEventBuilder line = log.atError()
+                        .setMessage("[Service][ERROR] call failed")
+                        .addKeyValue("method", methodSignature)
+                        .addKeyValue("correlationId", correlationId)
+                        .addKeyValue("status", "FAILED")
+                        .addKeyValue("durationMs", duration)
+                        .addKeyValue("error", e.getMessage())
+                        .addKeyValue("args", new RawJson(args != null ? sanitizer.sanitize(args) : WITHHELD));
+                if (frame.children != null) {
+                    line.addKeyValue("calls", new RawJson(frame.childrenJson()));
+                }
+                line.log();
+            } else if (parent == null) {
+                log.error(
+                        "[Service][ERROR] {} | correlationId={} | status=FAILED | duration={}ms | error={} | args={}{}",
+                        methodSignature, correlationId, duration, e.getMessage(),
+                        args != null ? sanitizer.sanitize(args) : WITHHELD, frame.childrenText()
+                );
+            }
+
+            span.recordError(e);
+            throw e;
+        } finally {
+            if (parent != null) {
+                parent.add(frame);
+                current.set(parent);
+            } else {
+                current.remove();
+            }
+            tracer.end(span);
+            if (event.shouldCommit()) {
+                event.method = methodSignature;
+                event.outcome = outcome;
+                event.errorType = errorType;
+                event.correlationId = correlationId;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * One call in a thread's call tree. Only its owner thread touches it.
+     */
+    static final class Frame {
+
+        static final int MAX_CHILDREN = 32;
+
+        private final String signature;
+        private final long start = System.nanoTime();
+        private long nanos;
+        private boolean failed;
+        private int count = 1;
+        private List<Frame> children;
+        private int omitted;
+
+        Frame(String signature) {
+            this.signature = signature;
+        }
+
+        void stop(boolean failed) {
+            this.nanos = System.nanoTime() - start;
+            this.failed = failed;
+        }
+
+        void add(Frame child) {
+            if (children == null) {
+                children = new ArrayList<>(4);
+            } else {
+                Frame last = children.get(children.size() - 1);
+                if (last.children == null && child.children == null && last.failed == child.failed
+                        && last.signature.equals(child.signature)) {
+                    last.count++;
+                    last.nanos += child.nanos;
+                    return;
+                }
+            }
+            if (children.size() < MAX_CHILDREN) {
+                children.add(child);
+            } else {
+                omitted++;
+            }
+        }
+
+        /**
+         * {@code " | calls=[A(..) 1.2ms [B(..) x3 0.4ms], C(..) 0.1ms FAILED]"}, or nothing without children.
+         */
+        String childrenText() {
+            if (children == null) {
+                return "";
+            }
+            StringBuilder text = new StringBuilder(" | calls=");
+            appendText(text);
+            return text.toString();
+        }
+
+        private void appendText(StringBuilder text) {
+            text.append('[');
+            for (int i = 0; i < children.size(); i++) {
+                Frame child = children.get(i);
+                if (i > 0) {
+                    text.append(", ");
+                }
+                text.append(child.signature).append(' ');
+                if (child.count > 1) {
+                    text.append('x').append(child.count).append(' ');
+                }
+                appendMillis(text, child.nanos).append("ms");
+                if (child.failed) {
+                    text.append(" FAILED");
+                }
+                if (child.children != null) {
+                    text.append(' ');
+                    child.appendText(text);
+                }
+            }
+            if (omitted > 0) {
+                text.append(", +").append(omitted).append(" more");
+            }
+            text.append(']');
+        }
+
+        String childrenJson() {
+            StringBuilder json = new StringBuilder();
+            appendJson(json);
+            return json.toString();
+        }
+
+        private void appendJson(StringBuilder json) {
+            json.append('[');
+            for (int i = 0; i < children.size(); i++) {
+                Frame child = children.get(i);
+                if (i > 0) {
+                    json.append(',');
+                }
+                json.append("{\"method\":\"").append(child.signature)
+                        .append("\",\"count\":").append(child.count)
+                        .append(",\"durationMs\":");
+                appendMillis(json, child.nanos)
+                        .append(",\"status\":\"").append(child.failed ? "FAILED" : "SUCCESS").append('"');
+                if (child.children != null) {
+                    json.append(",\"calls\":");
+                    child.appendJson(json);
+                }
+                json.append('}');
+            }
+            if (omitted > 0) {
+                json.append(",{\"omitted\":").append(omitted).append('}');
+            }
+            json.append(']');
+        }
+
+        private static StringBuilder appendMillis(StringBuilder out, long nanos) {
+            long tenths = (nanos + 50_000) / 100_000;
+            return out.append(tenths / 10).append('.').append(tenths % 10);
+        }
+    }
+}
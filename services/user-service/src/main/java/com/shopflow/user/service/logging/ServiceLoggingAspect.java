@@ -1,59 +1,38 @@
 package com.shopflow.user.service.logging;
 
+import com.shopflow.user.service.logging.annotation.Sensitive;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.slf4j.MDC;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Aspect
 @Component
-@Slf4j
 @Order(3)
 @RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "shopflow.logging", name = "instrumentation", havingValue = "aop", matchIfMissing = true)
 public class ServiceLoggingAspect {
 
-    private final LoggingSanitizer sanitizer;
+    private final ServiceCallLogger callLogger;
+    private final Map<Method, CallSite> callSites = new ConcurrentHashMap<>();
 
     @Around("execution(* com.shopflow.user.service..*(..)) && !within(com.shopflow.user.service.logging..*)")
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        CallSite site = callSites.computeIfAbsent(((MethodSignature) joinPoint.getSignature()).getMethod(),
+                method -> new CallSite(ServiceCallLogger.signature(method.getDeclaringClass(), method.getName()),
+                        AnnotationUtils.findAnnotation(method.getDeclaringClass(), Sensitive.class) != null));
+        return callLogger.call(site.signature(), site.sensitive() ? null : joinPoint.getArgs(), joinPoint::proceed);
+    }
 
-        String correlationId = MDC.get("correlationId");
-        if (correlationId == null || correlationId.isBlank()) {
-            correlationId = "no-cid";
-        }
-
-        String className = joinPoint.getSignature().getDeclaringType().getSimpleName();
-        String methodName = joinPoint.getSignature().getName();
-        String methodSignature = className + "." + methodName + "(..)";
-
-        String sanitizedArgs = sanitizer.sanitize(joinPoint.getArgs());
-
-        long start = System.currentTimeMillis();
-        try {
-            Object result = joinPoint.proceed();
-            long duration = System.currentTimeMillis() - start;
-            String sanitizedResult = sanitizer.sanitize(new Object[]{result});
-
-            log.info(
-                    "[Service] {} | correlationId={} | status=SUCCESS | duration={}ms | args={} | result={}",
-                    methodSignature, correlationId, duration, sanitizedArgs, sanitizedResult
-            );
-
-            return result;
-
-        } catch (Exception e) {
-            long duration = System.currentTimeMillis() - start;
-
-            log.error(
-                    "[Service][ERROR] {} | correlationId={} | status=FAILED | duration={}ms | error={} | args={}",
-                    methodSignature, correlationId, duration, e.getMessage(), sanitizedArgs
-            );
-
-            throw e;
-        }
+    private record CallSite(String signature, boolean sensitive) {
     }
 }
@@ -0,0 +1,36 @@
+package com.shopflow.user.service.logging.decorator;
+
+import com.shopflow.user.service.logging.ServiceCallLogger;
+import com.shopflow.user.service.password.PasswordService;
+import org.springframework.aop.support.AopUtils;
+
+/**
+ * Logs calls to a {@link PasswordService} like {@link LoggingUserService} does. Passwords and hashes are never
+ * handed to the logger, so these calls log without arguments or result even when they are not nested.
+ */
+public class LoggingPasswordService implements PasswordService {
+
+    private final PasswordService delegate;
+    private final ServiceCallLogger callLogger;
+
+    private final String encryptSignature;
+    private final String verifySignature;
+
+    public LoggingPasswordService(PasswordService delegate, ServiceCallLogger callLogger) {
+        this.delegate = delegate;
+        this.callLogger = callLogger;
+        Class<?> type = AopUtils.getTargetClass(delegate);
+        this.encryptSignature = ServiceCallLogger.signature(type, "encrypt");
+        this.verifySignature = ServiceCallLogger.signature(type, "verify");
+    }
+
+    @Override
+    public String encrypt(String password) {
+        return callLogger.call(encryptSignature, null, () -> delegate.encrypt(password));
+    }
+
+    @Override
+    public boolean verify(String password, String encryptedPassword) {
+        return callLogger.call(verifySignature, null, () -> delegate.verify(password, encryptedPassword));
+    }
+}
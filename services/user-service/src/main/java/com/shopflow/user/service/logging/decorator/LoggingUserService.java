@@ -0,0 +1,115 @@
+package com.shopflow.user.service.logging.decorator;
+
+import com.shopflow.user.dto.BulkDeleteResponse;
+import com.shopflow.user.dto.BulkGetResponse;
+import com.shopflow.user.dto.UserFilter;
+import com.shopflow.user.dto.UserPatchRequest;
+import com.shopflow.user.dto.UserRequest;
+import com.shopflow.user.dto.UserResponse;
+import com.shopflow.user.listing.CountStrategy;
+import com.shopflow.user.projection.UserFields;
+import com.shopflow.user.projection.UserView;
+import com.shopflow.user.service.UserService;
+import com.shopflow.user.service.logging.ServiceCallLogger;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Logs calls to a {@link UserService} the way {@code ServiceLoggingAspect} does, by plain delegation: the logged
+ * names are computed once, and no proxy or join point is involved. Installed instead of the aspect when
+ * {@code shopflow.logging.instrumentation} is {@code explicit}; new service methods must be added here too.
+ */
+public class LoggingUserService implements UserService {
+
+    private final UserService delegate;
+    private final ServiceCallLogger callLogger;
+
+    private final String createUserSignature;
+    private final String getUserByIdSignature;
+    private final String getUserByEmailSignature;
+    private final String getAllUsersSignature;
+    private final String searchUsersSignature;
+    private final String listUsersSignature;
+    private final String getUsersSignature;
+    private final String updateUserSignature;
+    private final String deleteUserSignature;
+    private final String deleteUsersSignature;
+
+    public LoggingUserService(UserService delegate, ServiceCallLogger callLogger) {
+        this.delegate = delegate;
+        this.callLogger = callLogger;
+        Class<?> type = AopUtils.getTargetClass(delegate);
+        this.createUserSignature = ServiceCallLogger.signature(type, "createUser");
+        this.getUserByIdSignature = ServiceCallLogger.signature(type, "getUserById");
+        this.getUserByEmailSignature = ServiceCallLogger.signature(type, "getUserByEmail");
+        this.getAllUsersSignature = ServiceCallLogger.signature(type, "getAllUsers");
+        this.searchUsersSignature = ServiceCallLogger.signature(type, "searchUsers");
+        this.listUsersSignature = ServiceCallLogger.signature(type, "listUsers");
+        this.getUsersSignature = ServiceCallLogger.signature(type, "getUsers");
+        this.updateUserSignature = ServiceCallLogger.signature(type, "updateUser");
+        this.deleteUserSignature = ServiceCallLogger.signature(type, "deleteUser");
+        this.deleteUsersSignature = ServiceCallLogger.signature(type, "deleteUsers");
+    }
+
+    @Override
+    public UserResponse createUser(UserRequest userRequest) {
+        return callLogger.call(createUserSignature, new Object[]{userRequest},
+                () -> delegate.createUser(userRequest));
+    }
+
+    @Override
+    public UserResponse getUserById(UUID id) {
+        return callLogger.call(getUserByIdSignature, new Object[]{id}, () -> delegate.getUserById(id));
+    }
+
+    @Override
+    public UserResponse getUserByEmail(String email) {
+        return callLogger.call(getUserByEmailSignature, new Object[]{email}, () -> delegate.getUserByEmail(email));
+    }
+
+    @Override
+    public Slice<UserResponse> getAllUsers(Pageable pageable, CountStrategy count) {
+        return callLogger.call(getAllUsersSignature, new Object[]{pageable, count},
+                () -> delegate.getAllUsers(pageable, count));
+    }
+
+    @Override
+    public Slice<UserResponse> searchUsers(UserFilter filter, Pageable pageable, CountStrategy count) {
+        return callLogger.call(searchUsersSignature, new Object[]{filter, pageable, count},
+                () -> delegate.searchUsers(filter, pageable, count));
+    }
+
+    @Override
+    public Slice<UserView> listUsers(UserFilter filter, Pageable pageable, CountStrategy count, UserFields fields) {
+        return callLogger.call(listUsersSignature, new Object[]{filter, pageable, count, fields},
+                () -> delegate.listUsers(filter, pageable, count, fields));
+    }
+
+    @Override
+    public BulkGetResponse getUsers(List<UUID> ids, UserFields fields) {
+        return callLogger.call(getUsersSignature, new Object[]{ids, fields}, () -> delegate.getUsers(ids, fields));
+    }
+
+    @Override
+    public UserResponse updateUser(UUID id, UserPatchRequest patch, Long expectedVersion) {
+        return callLogger.call(updateUserSignature, new Object[]{id, patch, expectedVersion},
+                () -> delegate.updateUser(id, patch, expectedVersion));
+    }
+
+    @Override
+    public void deleteUser(UUID id) {
+        callLogger.call(deleteUserSignature, new Object[]{id}, () -> {
+            delegate.deleteUser(id);
+            return null;
+        });
+    }
+
+    @Override
+    public BulkDeleteResponse deleteUsers(List<UUID> ids) {
+        return callLogger.call(deleteUsersSignature, new Object[]{ids}, () -> delegate.deleteUsers(ids));
+    }
+}
@@ -0,0 +1,141 @@
+package com.shopflow.user.service.logging.encoder;
+
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer that is reset and reused between log events, with just enough helpers to write JSON
+ * as UTF-8 without going through intermediate {@code String}s or {@code StringBuilder}s.
+ */
+final class ByteSink {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes();
+
+    private byte[] buffer;
+    private int size;
+
+    ByteSink(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    void reset() {
+        size = 0;
+    }
+
+    int capacity() {
+        return buffer.length;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    void write(byte b) {
+        ensureCapacity(1);
+        buffer[size++] = b;
+    }
+
+    void write(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    /**
+     * Writes characters that are known to be plain ASCII (field names, level names) without escaping.
+     */
+    void writeAscii(String value) {
+        int length = value.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            buffer[size++] = (byte) value.charAt(i);
+        }
+    }
+
+    void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            write(MIN_LONG);
+            return;
+        }
+        if (value < 0) {
+            write((byte) '-');
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        ensureCapacity(digits);
+        for (int i = size + digits - 1; i >= size; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size += digits;
+    }
+
+    /**
+     * Writes {@code value} as a quoted, escaped JSON string encoded as UTF-8.
+     */
+    void writeJsonString(CharSequence value) {
+        write((byte) '"');
+        writeUtf8(value, true);
+        write((byte) '"');
+    }
+
+    /**
+     * Writes {@code value} encoded as UTF-8, escaping JSON control characters when {@code escape} is set.
+     */
+    void writeUtf8(CharSequence value, boolean escape) {
+        int length = value.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (escape && (c < 0x20 || c == '"' || c == '\\')) {
+                    writeEscaped(c);
+                } else {
+                    write((byte) c);
+                }
+            } else if (c < 0x800) {
+                ensureCapacity(2);
+                buffer[size++] = (byte) (0xC0 | (c >> 6));
+                buffer[size++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                ensureCapacity(4);
+                buffer[size++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[size++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                write((byte) '?');
+            } else {
+                ensureCapacity(3);
+                buffer[size++] = (byte) (0xE0 | (c >> 12));
+                buffer[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[size++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private void writeEscaped(char c) {
+        switch (c) {
+            case '"' -> writeAscii("\\\"");
+            case '\\' -> writeAscii("\\\\");
+            case '\n' -> writeAscii("\\n");
+            case '\r' -> writeAscii("\\r");
+            case '\t' -> writeAscii("\\t");
+            default -> {
+                writeAscii("\\u00");
+                write(HEX[c >> 4]);
+                write(HEX[c & 0xF]);
+            }
+        }
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
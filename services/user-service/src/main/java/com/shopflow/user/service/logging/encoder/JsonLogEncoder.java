@@ -0,0 +1,165 @@
+package com.shopflow.user.service.logging.encoder;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+import com.shopflow.user.service.logging.RawJson;
+import org.slf4j.event.KeyValuePair;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Logback encoder that renders each event as one line of JSON.
+ * <p>
+ * Output is written straight into a per-thread reusable byte buffer, so an event costs one exact-size copy
+ * for the returned array instead of a pattern layout's {@code StringBuilder}, {@code String} and
+ * {@code getBytes()} round trip. Behind an {@code AsyncAppender} only the appender's worker thread encodes,
+ * so in practice a single buffer is reused for the whole process.
+ * <p>
+ * SLF4J key/value pairs become top-level fields; numbers and booleans stay unquoted and {@link RawJson}
+ * values are embedded verbatim. An MDC entry whose key is also given as a key/value pair is left out, so
+ * every field appears once.
+ */
+public class JsonLogEncoder extends EncoderBase<ILoggingEvent> {
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter SECOND_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.").withZone(ZoneOffset.UTC);
+
+    private final ThreadLocal<ByteSink> buffers = ThreadLocal.withInitial(() -> new ByteSink(INITIAL_BUFFER_SIZE));
+
+    private volatile CachedSecond cachedSecond = new CachedSecond(Long.MIN_VALUE, new byte[0]);
+
+    private boolean includeMdc = true;
+    private boolean includeThreadName = true;
+
+    private record CachedSecond(long epochSecond, byte[] prefix) {}
+
+    public void setIncludeMdc(boolean includeMdc) {
+        this.includeMdc = includeMdc;
+    }
+
+    public void setIncludeThreadName(boolean includeThreadName) {
+        this.includeThreadName = includeThreadName;
+    }
+
+    @Override
+    public byte[] headerBytes() {
+        return null;
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return null;
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent event) {
+        ByteSink out = buffers.get();
+        out.reset();
+
+        out.writeAscii("{\"@timestamp\":\"");
+        writeTimestamp(out, event.getTimeStamp());
+        out.writeAscii("\",\"level\":\"");
+        out.writeAscii(event.getLevel().levelStr);
+        out.writeAscii("\",\"logger\":");
+        out.writeJsonString(event.getLoggerName());
+        if (includeThreadName) {
+            out.writeAscii(",\"thread\":");
+            out.writeJsonString(event.getThreadName());
+        }
+        out.writeAscii(",\"message\":");
+        out.writeJsonString(event.getFormattedMessage());
+
+        List<KeyValuePair> keyValuePairs = event.getKeyValuePairs();
+        if (includeMdc) {
+            Map<String, String> mdc = event.getMDCPropertyMap();
+            if (mdc != null) {
+                for (Map.Entry<String, String> entry : mdc.entrySet()) {
+                    if (!hasKey(keyValuePairs, entry.getKey())) {
+                        writeField(out, entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+        }
+
+        if (keyValuePairs != null) {
+            for (KeyValuePair pair : keyValuePairs) {
+                writeField(out, pair.key, pair.value);
+            }
+        }
+
+        IThrowableProxy throwable = event.getThrowableProxy();
+        if (throwable != null) {
+            writeField(out, "stack_trace", ThrowableProxyUtil.asString(throwable));
+        }
+
+        out.writeAscii("}\n");
+
+        byte[] encoded = out.toByteArray();
+        if (out.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+            // one huge stack trace should not pin a large buffer forever
+            buffers.remove();
+        }
+        return encoded;
+    }
+
+    private static boolean hasKey(List<KeyValuePair> keyValuePairs, String key) {
+        if (keyValuePairs != null) {
+            for (KeyValuePair pair : keyValuePairs) {
+                if (key.equals(pair.key)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void writeField(ByteSink out, String key, Object value) {
+        out.write((byte) ',');
+        out.writeJsonString(key);
+        out.write((byte) ':');
+
+        if (value == null) {
+            out.writeAscii("null");
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            out.writeLong(((Number) value).longValue());
+        } else if (value instanceof Boolean bool) {
+            out.writeAscii(bool ? "true" : "false");
+        } else if (value instanceof Number number && Double.isFinite(number.doubleValue())) {
+            out.writeAscii(number.toString());
+        } else if (value instanceof RawJson raw) {
+            out.writeUtf8(raw.json(), false);
+        } else {
+            out.writeJsonString(value instanceof CharSequence chars ? chars : String.valueOf(value));
+        }
+    }
+
+    /**
+     * ISO-8601 UTC with milliseconds. The {@code yyyy-MM-ddTHH:mm:ss.} prefix only changes once per second,
+     * so it is formatted once and reused.
+     */
+    private void writeTimestamp(ByteSink out, long epochMillis) {
+        long epochSecond = Math.floorDiv(epochMillis, 1000L);
+        CachedSecond cached = cachedSecond;
+        if (cached.epochSecond() != epochSecond) {
+            byte[] prefix = SECOND_FORMAT.format(Instant.ofEpochSecond(epochSecond)).getBytes(StandardCharsets.US_ASCII);
+            cached = new CachedSecond(epochSecond, prefix);
+            cachedSecond = cached;
+        }
+        out.write(cached.prefix());
+
+        int millis = (int) Math.floorMod(epochMillis, 1000L);
+        out.write((byte) ('0' + millis / 100));
+        out.write((byte) ('0' + millis / 10 % 10));
+        out.write((byte) ('0' + millis % 10));
+        out.write((byte) 'Z');
+    }
+}
@@ -0,0 +1,21 @@
+package com.shopflow.user.service.logging.summary;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Logs a collection as its element count.
+ */
+public class CollectionSummarizer implements ResultSummarizer<Collection<?>> {
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Class<Collection<?>> type() {
+        return (Class) Collection.class;
+    }
+
+    @Override
+    public Object summarize(Collection<?> value) {
+        return Map.of("count", value.size());
+    }
+}
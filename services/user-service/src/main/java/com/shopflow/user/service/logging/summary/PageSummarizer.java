@@ -0,0 +1,99 @@
+package com.shopflow.user.service.logging.summary;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Logs a page or slice as its position and size plus the ids of its first few elements, with the total for a
+ * {@link Page} and whether there is a next one for a bare {@link Slice}. Ids are read through an {@code id()} or
+ * {@code getId()} accessor when the element type has one; other elements are only counted.
+ */
+public class PageSummarizer implements ResultSummarizer<Slice<?>> {
+
+    public static final int DEFAULT_ID_LIMIT = 5;
+
+    private static final ClassValue<Optional<MethodHandle>> ID_ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Optional<MethodHandle> computeValue(Class<?> type) {
+            for (String name : new String[]{"id", "getId"}) {
+                try {
+                    Method method = type.getMethod(name);
+                    if (method.getReturnType() != void.class) {
+                        return Optional.of(MethodHandles.publicLookup().unreflect(method)
+                                .asType(MethodType.methodType(Object.class, Object.class)));
+                    }
+                } catch (NoSuchMethodException | IllegalAccessException e) {
+                    // try the next accessor name
+                }
+            }
+            return Optional.empty();
+        }
+    };
+
+    private final int idLimit;
+
+    public PageSummarizer() {
+        this(DEFAULT_ID_LIMIT);
+    }
+
+    public PageSummarizer(int idLimit) {
+        this.idLimit = idLimit;
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Class<Slice<?>> type() {
+        return (Class) Slice.class;
+    }
+
+    @Override
+    public Object summarize(Slice<?> slice) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("page", slice.getNumber());
+        summary.put("size", slice.getSize());
+        summary.put("elements", slice.getNumberOfElements());
+        if (slice instanceof Page<?> page) {
+            summary.put("totalElements", page.getTotalElements());
+        } else {
+            summary.put("hasNext", slice.hasNext());
+        }
+
+        List<?> content = slice.getContent();
+        List<Object> ids = new ArrayList<>(Math.min(idLimit, content.size()));
+        for (int i = 0; i < content.size() && ids.size() < idLimit; i++) {
+            Object id = idOf(content.get(i));
+            if (id != null) {
+                ids.add(id.toString());
+            }
+        }
+        if (!ids.isEmpty()) {
+            summary.put("firstIds", ids);
+        }
+        return summary;
+    }
+
+    private static Object idOf(Object element) {
+        if (element == null) {
+            return null;
+        }
+        Optional<MethodHandle> accessor = ID_ACCESSORS.get(element.getClass());
+        if (accessor.isEmpty()) {
+            return null;
+        }
+        try {
+            return accessor.get().invoke(element);
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+}
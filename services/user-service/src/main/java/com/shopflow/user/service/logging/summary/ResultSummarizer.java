@@ -0,0 +1,16 @@
+package com.shopflow.user.service.logging.summary;
+
+/**
+ * Replaces a logged service result of a given type with a short summary, so large results are never walked field by
+ * field. Beans of this type are picked up by {@code LoggingSanitizer} and take precedence over the built-in
+ * {@link PageSummarizer} and {@link CollectionSummarizer}.
+ * <p>
+ * The summary is serialized as-is: return only maps, lists, strings, numbers and values Jackson can write without
+ * help, and nothing that needs masking.
+ */
+public interface ResultSummarizer<T> {
+
+    Class<T> type();
+
+    Object summarize(T value);
+}
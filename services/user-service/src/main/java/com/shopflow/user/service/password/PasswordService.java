@@ -1,5 +1,8 @@
 package com.shopflow.user.service.password;
 
+import com.shopflow.user.service.logging.annotation.Sensitive;
+
+@Sensitive
 public interface PasswordService {
     String encrypt(String password);
     boolean verify(String password, String encryptedPassword);
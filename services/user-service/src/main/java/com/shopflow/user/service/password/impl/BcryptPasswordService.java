@@ -1,5 +1,6 @@
 package com.shopflow.user.service.password.impl;
 
+import com.shopflow.user.jfr.PasswordHashEvent;
 import com.shopflow.user.service.password.PasswordService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -13,11 +14,34 @@ public class BcryptPasswordService implements PasswordService {
 
     @Override
     public String encrypt(String password) {
-        return passwordEncoder.encode(password);
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        try {
+            return passwordEncoder.encode(password);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = PasswordHashEvent.ENCODE;
+                event.commit();
+            }
+        }
     }
 
     @Override
     public boolean verify(String password, String encryptedPassword) {
-        return passwordEncoder.matches(password, encryptedPassword);
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        boolean matched = false;
+        try {
+            matched = passwordEncoder.matches(password, encryptedPassword);
+            return matched;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = PasswordHashEvent.VERIFY;
+                event.matched = matched;
+                event.commit();
+            }
+        }
     }
 }
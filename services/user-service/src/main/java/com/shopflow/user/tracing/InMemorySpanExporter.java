@@ -0,0 +1,51 @@
+package com.shopflow.user.tracing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the most recent spans in a fixed-size lock-free ring buffer. Exporting is one atomic increment and
+ * one array store; older spans are simply overwritten.
+ */
+public class InMemorySpanExporter implements SpanExporter {
+
+    private final AtomicReferenceArray<Span> buffer;
+    private final AtomicLong writeIndex = new AtomicLong();
+
+    public InMemorySpanExporter(int capacity) {
+        this.buffer = new AtomicReferenceArray<>(capacity);
+    }
+
+    @Override
+    public void export(Span span) {
+        int slot = (int) (writeIndex.getAndIncrement() % buffer.length());
+        buffer.set(slot, span);
+    }
+
+    public List<Span> snapshot() {
+        List<Span> spans = new ArrayList<>(buffer.length());
+        for (int i = 0; i < buffer.length(); i++) {
+            Span span = buffer.get(i);
+            if (span != null) {
+                spans.add(span);
+            }
+        }
+        spans.sort(Comparator.comparingLong(Span::startEpochNanos));
+        return spans;
+    }
+
+    public List<Span> trace(String traceIdHex) {
+        return snapshot().stream()
+                .filter(span -> span.context().traceIdHex().equals(traceIdHex))
+                .toList();
+    }
+
+    public void clear() {
+        for (int i = 0; i < buffer.length(); i++) {
+            buffer.set(i, null);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.shopflow.user.tracing;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Appends spans to a file in the OTLP/JSON encoding, one {@code ExportTraceServiceRequest} per line, which is
+ * the format the OpenTelemetry Collector {@code file} receiver and exporter use.
+ * <p>
+ * Request threads only offer spans to a bounded queue; a single background thread batches and writes them.
+ * When the queue is full the span is dropped and counted instead of blocking the request.
+ */
+@Slf4j
+public class OtlpFileSpanExporter implements SpanExporter, AutoCloseable {
+
+    private final BlockingQueue<Span> queue;
+    private final int batchSize;
+    private final String resourceJson;
+    private final BufferedWriter writer;
+    private final Thread worker;
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile boolean running = true;
+
+    public OtlpFileSpanExporter(Path file, String serviceName, int queueCapacity, int batchSize) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.resourceJson = "{\"attributes\":[{\"key\":\"service.name\",\"value\":{\"stringValue\":\""
+                + escape(serviceName) + "\"}}]}";
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        this.worker = new Thread(this::drainLoop, "otlp-file-exporter");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @Override
+    public void export(Span span) {
+        if (!queue.offer(span)) {
+            dropped.increment();
+        }
+    }
+
+    public long droppedSpans() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void drainLoop() {
+        List<Span> batch = new ArrayList<>(batchSize);
+        StringBuilder json = new StringBuilder(batchSize * 256);
+        try {
+            while (running || !queue.isEmpty()) {
+                Span first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch, json);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            queue.drainTo(batch);
+            write(batch, json);
+        } finally {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                log.warn("Failed to close span file", e);
+            }
+        }
+    }
+
+    private void write(List<Span> batch, StringBuilder json) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        json.setLength(0);
+        json.append("{\"resourceSpans\":[{\"resource\":").append(resourceJson)
+                .append(",\"scopeSpans\":[{\"scope\":{\"name\":\"com.shopflow.user\"},\"spans\":[");
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendSpan(json, batch.get(i));
+        }
+        json.append("]}]}]}\n");
+
+        try {
+            writer.append(json);
+            writer.flush();
+        } catch (IOException e) {
+            log.warn("Failed to write {} spans", batch.size(), e);
+        }
+    }
+
+    private static void appendSpan(StringBuilder json, Span span) {
+        json.append("{\"traceId\":\"").append(span.context().traceIdHex())
+                .append("\",\"spanId\":\"").append(span.context().spanIdHex()).append('"');
+        if (span.parentSpanId() != 0) {
+            json.append(",\"parentSpanId\":\"").append(TraceIds.toHex(span.parentSpanId())).append('"');
+        }
+        json.append(",\"name\":\"").append(escape(span.name()))
+                .append("\",\"kind\":").append(span.kind().otlpValue())
+                .append(",\"startTimeUnixNano\":\"").append(span.startEpochNanos())
+                .append("\",\"endTimeUnixNano\":\"").append(span.endEpochNanos())
+                .append("\",\"attributes\":[");
+        for (int i = 0; i < span.attributeCount(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"key\":\"").append(escape(span.attributeKey(i)))
+                    .append("\",\"value\":{\"stringValue\":\"").append(escape(span.attributeValue(i))).append("\"}}");
+        }
+        json.append("],\"status\":{\"code\":").append(statusCode(span.status()));
+        if (span.statusMessage() != null) {
+            json.append(",\"message\":\"").append(escape(span.statusMessage())).append('"');
+        }
+        json.append("}}");
+    }
+
+    private static int statusCode(Span.Status status) {
+        return switch (status) {
+            case UNSET -> 0;
+            case OK -> 1;
+            case ERROR -> 2;
+        };
+    }
+
+    static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder escaped = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement = switch (c) {
+                case '"' -> "\\\"";
+                case '\\' -> "\\\\";
+                case '\n' -> "\\n";
+                case '\r' -> "\\r";
+                case '\t' -> "\\t";
+                default -> c < 0x20 ? String.format("\\u%04x", (int) c) : null;
+            };
+            if (replacement != null && escaped == null) {
+                escaped = new StringBuilder(value.length() + 16).append(value, 0, i);
+            }
+            if (escaped != null) {
+                if (replacement != null) {
+                    escaped.append(replacement);
+                } else {
+                    escaped.append(c);
+                }
+            }
+        }
+        return escaped == null ? value : escaped.toString();
+    }
+}
@@ -0,0 +1,162 @@
+package com.shopflow.user.tracing;
+
+import java.util.Arrays;
+
+/**
+ * A timed operation inside a trace. Spans are created by {@link Tracer} and are not thread-safe: a span is
+ * started, annotated and ended on the thread that owns it.
+ */
+public final class Span {
+
+    public enum Kind {
+        INTERNAL(1), SERVER(2), CLIENT(3);
+
+        private final int otlpValue;
+
+        Kind(int otlpValue) {
+            this.otlpValue = otlpValue;
+        }
+
+        public int otlpValue() {
+            return otlpValue;
+        }
+    }
+
+    public enum Status {
+        UNSET, OK, ERROR
+    }
+
+    /**
+     * Shared span for calls that are not sampled; every mutator is a no-op.
+     */
+    static final Span NOOP = new Span(null, "noop", Kind.INTERNAL, new TraceContext(0, 0, 0, false), 0, 0, 0, false);
+
+    private final Span parent;
+    private final Kind kind;
+    private final TraceContext context;
+    private final long parentSpanId;
+    private final long startEpochNanos;
+    private final long startNanoTime;
+    private final boolean recording;
+
+    private String name;
+    private long durationNanos = -1;
+    private Status status = Status.UNSET;
+    private String statusMessage;
+    private String[] attributes;
+    private int attributeCount;
+
+    Span(Span parent, String name, Kind kind, TraceContext context, long parentSpanId,
+         long startEpochNanos, long startNanoTime, boolean recording) {
+        this.parent = parent;
+        this.name = name;
+        this.kind = kind;
+        this.context = context;
+        this.parentSpanId = parentSpanId;
+        this.startEpochNanos = startEpochNanos;
+        this.startNanoTime = startNanoTime;
+        this.recording = recording;
+    }
+
+    public Span setAttribute(String key, Object value) {
+        if (!recording || value == null) {
+            return this;
+        }
+        if (attributes == null) {
+            attributes = new String[8];
+        } else if (attributeCount * 2 == attributes.length) {
+            attributes = Arrays.copyOf(attributes, attributes.length * 2);
+        }
+        attributes[attributeCount * 2] = key;
+        attributes[attributeCount * 2 + 1] = String.valueOf(value);
+        attributeCount++;
+        return this;
+    }
+
+    /**
+     * Replaces the name once a better one is known, e.g. the matched route template of a request.
+     */
+    public void updateName(String name) {
+        if (recording) {
+            this.name = name;
+        }
+    }
+
+    public void recordError(Throwable error) {
+        if (!recording) {
+            return;
+        }
+        status = Status.ERROR;
+        statusMessage = error.getClass().getSimpleName() + ": " + error.getMessage();
+    }
+
+    public void setStatus(Status status) {
+        if (recording) {
+            this.status = status;
+        }
+    }
+
+    void finish(long endNanoTime) {
+        durationNanos = endNanoTime - startNanoTime;
+    }
+
+    void finishWithDuration(long durationNanos) {
+        this.durationNanos = durationNanos;
+    }
+
+    Span parent() {
+        return parent;
+    }
+
+    public boolean isRecording() {
+        return recording;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Kind kind() {
+        return kind;
+    }
+
+    public TraceContext context() {
+        return context;
+    }
+
+    public long parentSpanId() {
+        return parentSpanId;
+    }
+
+    public long startEpochNanos() {
+        return startEpochNanos;
+    }
+
+    public long durationNanos() {
+        return durationNanos;
+    }
+
+    public long endEpochNanos() {
+        return startEpochNanos + durationNanos;
+    }
+
+    public Status status() {
+        return status;
+    }
+
+    public String statusMessage() {
+        return statusMessage;
+    }
+
+    public int attributeCount() {
+        return attributeCount;
+    }
+
+    public String attributeKey(int index) {
+        return attributes[index * 2];
+    }
+
+    public String attributeValue(int index) {
+        return attributes[index * 2 + 1];
+    }
+}
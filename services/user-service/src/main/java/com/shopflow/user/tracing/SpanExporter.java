@@ -0,0 +1,9 @@
+package com.shopflow.user.tracing;
+
+/**
+ * Receives every recorded span once it has ended. Called on the request thread, so implementations must
+ * not block.
+ */
+public interface SpanExporter {
+    void export(Span span);
+}
@@ -0,0 +1,53 @@
+package com.shopflow.user.tracing;
+
+import com.shopflow.user.jdbc.StatementExecution;
+import com.shopflow.user.jdbc.StatementListener;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Turns every executed SQL statement into a {@link Span.Kind#CLIENT} span under the current span.
+ */
+@RequiredArgsConstructor
+public class SqlSpanListener implements StatementListener {
+
+    private static final int MAX_STATEMENT_LENGTH = 500;
+
+    private final Tracer tracer;
+
+    @Override
+    public void afterExecute(StatementExecution execution) {
+        Span span = tracer.startDetachedSpan(operation(execution.sql()), Span.Kind.CLIENT, execution.startNanoTime());
+        if (!span.isRecording()) {
+            return;
+        }
+
+        span.setAttribute("db.system", "postgresql")
+                .setAttribute("db.statement", truncate(execution.sql()));
+        if (execution.updateCount() >= 0) {
+            span.setAttribute("db.rows_affected", execution.updateCount());
+        }
+        if (execution.batch()) {
+            span.setAttribute("db.batch", true);
+        }
+        if (execution.error() != null) {
+            span.recordError(execution.error());
+        }
+
+        tracer.endDetached(span, execution.durationNanos());
+    }
+
+    /**
+     * Span name is the leading SQL keyword ({@code SELECT}, {@code INSERT}, ...) to keep cardinality low.
+     */
+    static String operation(String sql) {
+        String keyword = StatementExecution.operation(sql);
+        return keyword != null ? "SQL " + keyword : "SQL";
+    }
+
+    private static String truncate(String sql) {
+        if (sql == null || sql.length() <= MAX_STATEMENT_LENGTH) {
+            return sql;
+        }
+        return sql.substring(0, MAX_STATEMENT_LENGTH) + "...";
+    }
+}
@@ -0,0 +1,15 @@
+package com.shopflow.user.tracing;
+
+/**
+ * Identity of a span as it travels between services: 128-bit trace id, 64-bit span id and the sampled flag.
+ */
+public record TraceContext(long traceIdHigh, long traceIdLow, long spanId, boolean sampled) {
+
+    public String traceIdHex() {
+        return TraceIds.toHex(traceIdHigh, traceIdLow);
+    }
+
+    public String spanIdHex() {
+        return TraceIds.toHex(spanId);
+    }
+}
@@ -0,0 +1,80 @@
+package com.shopflow.user.tracing;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fast, non-cryptographic id generation for traces, spans and correlation ids.
+ * <p>
+ * {@link UUID#randomUUID()} goes through a shared {@code SecureRandom}, which is both slow and contended
+ * under load. These ids only need to be unique, not unpredictable, so a per-thread
+ * {@link ThreadLocalRandom} is enough.
+ */
+public final class TraceIds {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private TraceIds() {
+    }
+
+    public static long nonZeroLong() {
+        long value;
+        do {
+            value = ThreadLocalRandom.current().nextLong();
+        } while (value == 0);
+        return value;
+    }
+
+    /**
+     * Version 4 (random) UUID, built from a thread-local generator.
+     */
+    public static UUID randomUuid() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long msb = (random.nextLong() & 0xffffffffffff0fffL) | 0x0000000000004000L;
+        long lsb = (random.nextLong() & 0x3fffffffffffffffL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    public static String toHex(long value) {
+        char[] chars = new char[16];
+        writeHex(value, chars, 0);
+        return new String(chars);
+    }
+
+    public static String toHex(long high, long low) {
+        char[] chars = new char[32];
+        writeHex(high, chars, 0);
+        writeHex(low, chars, 16);
+        return new String(chars);
+    }
+
+    static void writeHex(long value, char[] target, int offset) {
+        for (int i = 15; i >= 0; i--) {
+            target[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+    /**
+     * Parses 16 lower-case hex characters starting at {@code offset}.
+     *
+     * @throws IllegalArgumentException if a character is not lower-case hex
+     */
+    static long parseHex(CharSequence value, int offset) {
+        long result = 0;
+        for (int i = offset; i < offset + 16; i++) {
+            result = (result << 4) | hexDigit(value.charAt(i));
+        }
+        return result;
+    }
+
+    static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        throw new IllegalArgumentException("Not a lower-case hex character: " + c);
+    }
+}
@@ -0,0 +1,68 @@
+package com.shopflow.user.tracing;
+
+/**
+ * Parsing and formatting of the W3C Trace Context {@code traceparent} header:
+ * {@code 00-<32 hex trace id>-<16 hex parent id>-<2 hex flags>}.
+ */
+public final class TraceParent {
+
+    public static final String HEADER = "traceparent";
+
+    private static final int LENGTH = 55;
+    private static final int SAMPLED_FLAG = 0x01;
+
+    private TraceParent() {
+    }
+
+    /**
+     * @return the remote parent context, or {@code null} if the header is missing or malformed
+     */
+    public static TraceContext parse(String header) {
+        if (header == null) {
+            return null;
+        }
+        String value = header.trim();
+        // future versions may append fields, version 00 must be exactly 55 characters
+        if (value.length() < LENGTH || (value.startsWith("00") && value.length() != LENGTH)) {
+            return null;
+        }
+        if (value.charAt(2) != '-' || value.charAt(35) != '-' || value.charAt(52) != '-'
+                || (value.length() > LENGTH && value.charAt(LENGTH) != '-')) {
+            return null;
+        }
+        if (value.startsWith("ff")) {
+            return null;
+        }
+
+        try {
+            TraceIds.hexDigit(value.charAt(0));
+            TraceIds.hexDigit(value.charAt(1));
+            long traceIdHigh = TraceIds.parseHex(value, 3);
+            long traceIdLow = TraceIds.parseHex(value, 19);
+            long spanId = TraceIds.parseHex(value, 36);
+            int flags = TraceIds.hexDigit(value.charAt(53)) << 4 | TraceIds.hexDigit(value.charAt(54));
+
+            if ((traceIdHigh == 0 && traceIdLow == 0) || spanId == 0) {
+                return null;
+            }
+            return new TraceContext(traceIdHigh, traceIdLow, spanId, (flags & SAMPLED_FLAG) != 0);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public static String format(TraceContext context) {
+        char[] chars = new char[LENGTH];
+        chars[0] = '0';
+        chars[1] = '0';
+        chars[2] = '-';
+        TraceIds.writeHex(context.traceIdHigh(), chars, 3);
+        TraceIds.writeHex(context.traceIdLow(), chars, 19);
+        chars[35] = '-';
+        TraceIds.writeHex(context.spanId(), chars, 36);
+        chars[52] = '-';
+        chars[53] = '0';
+        chars[54] = context.sampled() ? '1' : '0';
+        return new String(chars);
+    }
+}
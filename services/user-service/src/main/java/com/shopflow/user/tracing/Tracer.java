@@ -0,0 +1,125 @@
+package com.shopflow.user.tracing;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Minimal in-process tracer. A trace is rooted at the server span opened by {@link TracingFilter}; every
+ * span started on the same thread afterwards becomes a child of the innermost open span. Outside of a
+ * request, or when the request is not sampled, {@link #startSpan} returns a shared no-op span so that
+ * instrumented code pays almost nothing.
+ */
+public class Tracer {
+
+    private final ThreadLocal<Span> current = new ThreadLocal<>();
+    private final List<SpanExporter> exporters;
+    private final boolean enabled;
+    private final double sampleRatio;
+    private final long epochOffsetNanos;
+
+    public Tracer(List<SpanExporter> exporters, boolean enabled, double sampleRatio) {
+        this.exporters = List.copyOf(exporters);
+        this.enabled = enabled;
+        this.sampleRatio = sampleRatio;
+        this.epochOffsetNanos = System.currentTimeMillis() * 1_000_000L - System.nanoTime();
+    }
+
+    /**
+     * Opens the root span of a request and makes it current.
+     *
+     * @param remoteParent context from an incoming {@code traceparent} header, or {@code null} to start a new trace
+     */
+    public Span startServerSpan(String name, TraceContext remoteParent) {
+        long traceIdHigh;
+        long traceIdLow;
+        long parentSpanId;
+        boolean sampled;
+
+        if (remoteParent != null) {
+            traceIdHigh = remoteParent.traceIdHigh();
+            traceIdLow = remoteParent.traceIdLow();
+            parentSpanId = remoteParent.spanId();
+            sampled = remoteParent.sampled();
+        } else {
+            traceIdHigh = TraceIds.nonZeroLong();
+            traceIdLow = TraceIds.nonZeroLong();
+            parentSpanId = 0;
+            sampled = sampleRatio >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRatio;
+        }
+
+        long now = System.nanoTime();
+        TraceContext context = new TraceContext(traceIdHigh, traceIdLow, TraceIds.nonZeroLong(), sampled);
+        Span span = new Span(current.get(), name, Span.Kind.SERVER, context, parentSpanId,
+                now + epochOffsetNanos, now, enabled && sampled);
+        current.set(span);
+        return span;
+    }
+
+    /**
+     * Opens a child of the current span and makes it current. Must be paired with {@link #end(Span)}.
+     */
+    public Span startSpan(String name, Span.Kind kind) {
+        Span parent = current.get();
+        if (parent == null || !parent.isRecording()) {
+            return Span.NOOP;
+        }
+        Span span = child(parent, name, kind, System.nanoTime());
+        current.set(span);
+        return span;
+    }
+
+    public void end(Span span) {
+        if (span == Span.NOOP) {
+            return;
+        }
+        span.finish(System.nanoTime());
+        current.set(span.parent());
+        export(span);
+    }
+
+    /**
+     * Records an already finished child of the current span without making it current, e.g. for a SQL
+     * statement whose timing is measured by the JDBC layer.
+     *
+     * @return the span so attributes can be added before it is handed to {@link #endDetached}
+     */
+    public Span startDetachedSpan(String name, Span.Kind kind, long startNanoTime) {
+        Span parent = current.get();
+        if (parent == null || !parent.isRecording()) {
+            return Span.NOOP;
+        }
+        return child(parent, name, kind, startNanoTime);
+    }
+
+    public void endDetached(Span span, long durationNanos) {
+        if (span == Span.NOOP) {
+            return;
+        }
+        span.finishWithDuration(durationNanos);
+        export(span);
+    }
+
+    /**
+     * @return the innermost open span, or {@code null} outside of a traced request
+     */
+    public Span currentSpan() {
+        return current.get();
+    }
+
+    private Span child(Span parent, String name, Span.Kind kind, long startNanoTime) {
+        TraceContext parentContext = parent.context();
+        TraceContext context = new TraceContext(parentContext.traceIdHigh(), parentContext.traceIdLow(),
+                TraceIds.nonZeroLong(), true);
+        return new Span(parent, name, kind, context, parentContext.spanId(),
+                startNanoTime + epochOffsetNanos, startNanoTime, true);
+    }
+
+    private void export(Span span) {
+        if (!span.isRecording()) {
+            return;
+        }
+        for (SpanExporter exporter : exporters) {
+            exporter.export(span);
+        }
+    }
+}
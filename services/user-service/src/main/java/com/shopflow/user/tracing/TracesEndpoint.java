@@ -0,0 +1,92 @@
+package com.shopflow.user.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * {@code /actuator/traces}: the slowest recent requests from the {@link InMemorySpanExporter}, each with the
+ * breakdown of its controller, service and SQL spans.
+ */
+@Endpoint(id = "traces")
+@RequiredArgsConstructor
+public class TracesEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final InMemorySpanExporter exporter;
+
+    public record SpanView(
+            String spanId,
+            String parentSpanId,
+            String name,
+            String kind,
+            double offsetMs,
+            double durationMs,
+            String status,
+            Map<String, String> attributes
+    ) {}
+
+    public record TraceView(String traceId, String name, double durationMs, List<SpanView> spans) {}
+
+    @ReadOperation
+    public List<TraceView> slowest(@Nullable Double minDurationMs, @Nullable Integer limit) {
+        long minNanos = minDurationMs == null ? 0 : (long) (minDurationMs * 1_000_000);
+        Map<String, List<Span>> byTrace = exporter.snapshot().stream()
+                .collect(Collectors.groupingBy(span -> span.context().traceIdHex(), LinkedHashMap::new, Collectors.toList()));
+
+        return byTrace.entrySet().stream()
+                .map(entry -> toView(entry.getKey(), entry.getValue()))
+                .filter(trace -> trace.durationMs() * 1_000_000 >= minNanos)
+                .sorted(Comparator.comparingDouble(TraceView::durationMs).reversed())
+                .limit(limit == null ? DEFAULT_LIMIT : limit)
+                .toList();
+    }
+
+    @ReadOperation
+    public TraceView trace(@Selector String traceId) {
+        List<Span> spans = exporter.trace(traceId);
+        return spans.isEmpty() ? null : toView(traceId, spans);
+    }
+
+    private TraceView toView(String traceId, List<Span> spans) {
+        Span root = spans.stream()
+                .filter(span -> span.kind() == Span.Kind.SERVER)
+                .findFirst()
+                .orElse(spans.get(0));
+
+        List<SpanView> views = spans.stream()
+                .map(span -> new SpanView(
+                        span.context().spanIdHex(),
+                        span.parentSpanId() == 0 ? null : TraceIds.toHex(span.parentSpanId()),
+                        span.name(),
+                        span.kind().name(),
+                        millis(span.startEpochNanos() - root.startEpochNanos()),
+                        millis(span.durationNanos()),
+                        span.status().name(),
+                        attributes(span)))
+                .toList();
+
+        return new TraceView(traceId, root.name(), millis(root.durationNanos()), views);
+    }
+
+    private static Map<String, String> attributes(Span span) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        for (int i = 0; i < span.attributeCount(); i++) {
+            attributes.put(span.attributeKey(i), span.attributeValue(i));
+        }
+        return attributes;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
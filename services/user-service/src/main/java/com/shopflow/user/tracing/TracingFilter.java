@@ -0,0 +1,58 @@
+package com.shopflow.user.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Opens the server span of every request, continuing the caller's trace when a valid {@code traceparent}
+ * header is present, and returns this service's span as {@code traceparent} on the response.
+ */
+@RequiredArgsConstructor
+public class TracingFilter extends OncePerRequestFilter {
+
+    private static final String TRACE_ID_KEY = "traceId";
+
+    private final Tracer tracer;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+
+        TraceContext remoteParent = TraceParent.parse(request.getHeader(TraceParent.HEADER));
+        Span span = tracer.startServerSpan(request.getMethod() + " " + request.getRequestURI(), remoteParent);
+
+        try {
+            response.setHeader(TraceParent.HEADER, TraceParent.format(span.context()));
+            MDC.put(TRACE_ID_KEY, span.context().traceIdHex());
+
+            span.setAttribute("http.method", request.getMethod())
+                    .setAttribute("http.target", request.getRequestURI())
+                    .setAttribute("correlation.id", MDC.get("correlationId"));
+
+            filterChain.doFilter(request, response);
+
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (route != null) {
+                span.updateName(request.getMethod() + " " + route);
+                span.setAttribute("http.route", route);
+            }
+            span.setAttribute("http.status_code", response.getStatus());
+            if (response.getStatus() >= 500) {
+                span.setStatus(Span.Status.ERROR);
+            }
+        } catch (IOException | ServletException | RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            tracer.end(span);
+            MDC.remove(TRACE_ID_KEY);
+        }
+    }
+}
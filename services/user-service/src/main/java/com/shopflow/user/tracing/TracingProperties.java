@@ -0,0 +1,39 @@
+package com.shopflow.user.tracing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shopflow.tracing")
+public class TracingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Share of new traces (requests without an incoming {@code traceparent}) that are recorded.
+     */
+    private double sampleRatio = 1.0;
+
+    private String serviceName = "user-service";
+
+    private final InMemory inMemory = new InMemory();
+
+    private final File file = new File();
+
+    @Getter
+    @Setter
+    public static class InMemory {
+        private int capacity = 4096;
+    }
+
+    @Getter
+    @Setter
+    public static class File {
+        private boolean enabled = false;
+        private String path = "logs/user-service-traces.otlp.jsonl";
+        private int queueCapacity = 8192;
+        private int batchSize = 256;
+    }
+}
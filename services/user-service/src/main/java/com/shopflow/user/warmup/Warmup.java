@@ -0,0 +1,219 @@
+package com.shopflow.user.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopflow.user.dto.UserFilter;
+import com.shopflow.user.dto.UserRequest;
+import com.shopflow.user.dto.UserResponse;
+import com.shopflow.user.mapper.UserMapper;
+import com.shopflow.user.model.Role;
+import com.shopflow.user.model.User;
+import com.shopflow.user.repository.UserRepository;
+import com.shopflow.user.service.logging.LoggingSanitizer;
+import com.shopflow.user.service.password.PasswordService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the hot paths of the service with synthetic data so that a fresh instance does not serve its first
+ * requests interpreted, with an empty pool and cold Hibernate caches. Spring Boot calls application runners
+ * after the context has started but before it publishes {@code ReadinessState.ACCEPTING_TRAFFIC}, so the
+ * readiness probe keeps the instance out of rotation until this returns.
+ * <p>
+ * Nothing is written: queries look up ids and emails that do not exist, and the hashing stage only hashes.
+ * Each stage reports its duration, and how much faster its last tenth of calls ran than its first, under
+ * {@code shopflow.warmup.*}. A failing stage is logged and skipped; warm-up never fails startup.
+ */
+@Slf4j
+public class Warmup implements ApplicationRunner {
+
+    private final WarmupProperties properties;
+    private final UserMapper userMapper;
+    private final LoggingSanitizer sanitizer;
+    private final ObjectMapper objectMapper;
+    private final PasswordService passwordService;
+    private final UserRepository userRepository;
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+
+    // gauges only hold weak references
+    private final List<StageResult> results = new ArrayList<>();
+    private volatile int sink;
+
+    public Warmup(WarmupProperties properties, UserMapper userMapper, LoggingSanitizer sanitizer,
+                  ObjectMapper objectMapper, PasswordService passwordService, UserRepository userRepository,
+                  DataSource dataSource, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.userMapper = userMapper;
+        this.sanitizer = sanitizer;
+        this.objectMapper = objectMapper;
+        this.passwordService = passwordService;
+        this.userRepository = userRepository;
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            log.info("Warm-up disabled");
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + properties.getTimeout().toNanos();
+
+        if (properties.isPrefillPool()) {
+            prefillPool();
+        }
+
+        User user = syntheticUser();
+        UserRequest request = new UserRequest("warmup@shopflow.com", "Warm Up", "warm-up-secret", Role.USER);
+        UserResponse response = new UserResponse(user.getId(), user.getEmail(), user.getFullName(), user.getRole(),
+                user.getCreatedAt(), user.getUpdatedAt(), user.getVersion());
+        List<UserResponse> page = List.of(response, response, response);
+        Page<UserResponse> pageResult = new PageImpl<>(page, PageRequest.of(0, 20), page.size());
+        Object[] arguments = {user.getId(), request};
+        String password = request.password();
+
+        int iterations = properties.getIterations();
+        stage("mapper", iterations, deadline, () -> {
+            userMapper.toEntity(request);
+            return userMapper.toResponse(user);
+        });
+        stage("sanitizer", iterations, deadline, () ->
+                sanitizer.sanitize(arguments).length() + sanitizer.sanitizeResult(pageResult).length());
+        stage("serialization", iterations, deadline, () -> {
+            byte[] json = objectMapper.writeValueAsBytes(request);
+            return objectMapper.writeValueAsBytes(page).length + objectMapper.readValue(json, UserRequest.class).hashCode();
+        });
+        stage("hashing", properties.getHashIterations(), deadline, () ->
+                passwordService.verify(password, passwordService.encrypt(password)));
+        stage("repository", properties.getQueryIterations(), deadline, () -> {
+            UUID id = UUID.randomUUID();
+            int found = userRepository.findById(id).map(userMapper::toResponse).isPresent() ? 1 : 0;
+            found += userRepository.findByEmail("warmup-" + id + "@shopflow.com").isPresent() ? 1 : 0;
+            found += userRepository.existsById(id) ? 1 : 0;
+            found += userRepository.search(new UserFilter(Role.ADMIN, null, null), PageRequest.of(0, 20)).getNumberOfElements();
+            return found + userRepository.findAllBy(PageRequest.of(0, 20)).map(userMapper::toResponse).getNumberOfElements();
+        });
+
+        StringJoiner summary = new StringJoiner(", ");
+        results.forEach(result -> summary.add(result.describe()));
+        log.info("Warm-up finished in {} ms: {}", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), summary);
+    }
+
+    /**
+     * Holds the pool's minimum idle number of connections at once, which makes Hikari open all of them now.
+     */
+    private void prefillPool() {
+        long start = System.nanoTime();
+        try {
+            if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                return;
+            }
+            HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+            List<Connection> connections = new ArrayList<>();
+            try {
+                for (int i = 0; i < pool.getMinimumIdle(); i++) {
+                    Connection connection = dataSource.getConnection();
+                    connections.add(connection);
+                    connection.isValid(1);
+                }
+            } finally {
+                for (Connection connection : connections) {
+                    connection.close();
+                }
+            }
+            record(new StageResult("pool", connections.size(), System.nanoTime() - start, Double.NaN));
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Warm-up stage pool failed: {}", e.getMessage());
+        }
+    }
+
+    private void stage(String name, int iterations, long deadline, Step step) {
+        int sample = Math.max(1, iterations / 10);
+        long start = System.nanoTime();
+        long firstNanos = 0;
+        long lastNanos = 0;
+        int done = 0;
+        try {
+            for (; done < iterations && System.nanoTime() < deadline; done++) {
+                long callStart = System.nanoTime();
+                sink ^= Objects.hashCode(step.run());
+                long elapsed = System.nanoTime() - callStart;
+                if (done < sample) {
+                    firstNanos += elapsed;
+                } else if (done >= iterations - sample) {
+                    lastNanos += elapsed;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Warm-up stage {} failed after {} calls: {}", name, done, e.getMessage());
+        }
+        double speedup = done == iterations && lastNanos > 0 ? (double) firstNanos / lastNanos : Double.NaN;
+        record(new StageResult(name, done, System.nanoTime() - start, speedup));
+    }
+
+    private void record(StageResult result) {
+        results.add(result);
+        Timer.builder("shopflow.warmup.duration")
+                .description("Time spent in each warm-up stage before the application reported ready")
+                .tag("stage", result.stage())
+                .register(meterRegistry)
+                .record(result.nanos(), TimeUnit.NANOSECONDS);
+        Gauge.builder("shopflow.warmup.calls", result, StageResult::calls)
+                .description("Calls made by each warm-up stage; connections opened for the pool")
+                .tag("stage", result.stage())
+                .register(meterRegistry);
+        if (!Double.isNaN(result.speedup())) {
+            Gauge.builder("shopflow.warmup.speedup", result, StageResult::speedup)
+                    .description("Mean time of a stage's first tenth of calls over that of its last tenth")
+                    .tag("stage", result.stage())
+                    .register(meterRegistry);
+        }
+    }
+
+    private static User syntheticUser() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setEmail("warmup@shopflow.com");
+        user.setPasswordHash("not-a-hash");
+        user.setFullName("Warm Up");
+        user.setRole(Role.USER);
+        user.setCreatedAt(OffsetDateTime.now());
+        user.setUpdatedAt(OffsetDateTime.now());
+        user.setVersion(0L);
+        return user;
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        Object run() throws Exception;
+    }
+
+    private record StageResult(String stage, int calls, long nanos, double speedup) {
+
+        String describe() {
+            String text = stage + " " + calls + " in " + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms";
+            return Double.isNaN(speedup) ? text : text + String.format(" (%.1fx faster by the end)", speedup);
+        }
+    }
+}
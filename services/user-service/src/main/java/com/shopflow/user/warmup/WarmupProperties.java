@@ -0,0 +1,47 @@
+package com.shopflow.user.warmup;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shopflow.warmup")
+public class WarmupProperties {
+
+    /**
+     * When enabled the hot paths are exercised with synthetic data before the application reports ready.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Calls per in-memory stage (mapping, log sanitizing, JSON). Around 10k calls get the hot methods through
+     * the C2 compiler.
+     */
+    private int iterations = 10_000;
+
+    /**
+     * Rounds of the repository queries. Each round runs every query once, against ids and emails that do not
+     * exist.
+     */
+    private int queryIterations = 100;
+
+    /**
+     * Password hashes (each followed by a verify). Every hash runs the key schedule thousands of times, so a
+     * few are enough to compile it; each one costs as much as a sign-up.
+     */
+    private int hashIterations = 5;
+
+    /**
+     * Opens the pool's minimum idle connections up front instead of on the first requests.
+     */
+    private boolean prefillPool = true;
+
+    /**
+     * Upper bound for the whole warm-up; stages still running when it passes stop early, so a slow database
+     * delays readiness by at most this much.
+     */
+    private Duration timeout = Duration.ofSeconds(30);
+}
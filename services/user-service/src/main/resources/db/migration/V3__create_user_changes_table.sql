@@ -0,0 +1,21 @@
+-- Change feed for downstream replicas. seq is gapless and in commit order: writers take it from the single
+-- user_change_sequence row, whose row lock they hold until commit.
+CREATE TABLE user_change_sequence (
+    id SMALLINT PRIMARY KEY,
+    last_seq BIGINT NOT NULL,
+    pruned_through BIGINT NOT NULL
+);
+
+INSERT INTO user_change_sequence (id, last_seq, pruned_through) VALUES (1, 0, 0);
+
+CREATE TABLE user_changes (
+    seq BIGINT PRIMARY KEY,
+    user_id UUID NOT NULL,
+    change_type VARCHAR(16) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    full_name VARCHAR(255),
+    role VARCHAR(20),
+    changed_at TIMESTAMPTZ DEFAULT NOW() NOT NULL
+);
+
+CREATE INDEX idx_user_changes_changed_at ON user_changes (changed_at);
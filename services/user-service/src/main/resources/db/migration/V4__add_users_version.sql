@@ -0,0 +1,3 @@
+-- Optimistic concurrency for partial updates: every UPDATE bumps version, and PATCH with If-Match only applies
+-- when it still matches. Existing rows start at 0 like new ones.
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
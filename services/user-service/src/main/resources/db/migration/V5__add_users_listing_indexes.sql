@@ -0,0 +1,8 @@
+-- Filtered listing (role and created_at window, newest first). Each index carries every column of a listed user
+-- except the password hash, so a page is read with an index-only scan once the visibility map is set; id is a
+-- key column because it is the sort tie-breaker.
+CREATE INDEX users_role_created_at_idx ON users (role, created_at, id)
+    INCLUDE (email, full_name, updated_at, version);
+
+CREATE INDEX users_created_at_idx ON users (created_at, id)
+    INCLUDE (email, full_name, role, updated_at, version);
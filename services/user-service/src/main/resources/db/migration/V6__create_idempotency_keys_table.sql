@@ -0,0 +1,11 @@
+-- Responses to POST /api/users by Idempotency-Key. A row without a response belongs to a request still in
+-- progress, until its lease runs out; rows are deleted once they expire.
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    fingerprint BYTEA NOT NULL,
+    response JSONB,
+    leased_until TIMESTAMPTZ NOT NULL,
+    expires_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
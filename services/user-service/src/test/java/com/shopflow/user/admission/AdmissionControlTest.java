@@ -0,0 +1,254 @@
+package com.shopflow.user.admission;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.shopflow.user.encoding.Encodings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlTest {
+
+    private static final long MS = 1_000_000L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final Encodings encodings = new Encodings(objectMapper);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    @DisplayName("Limit grows while latency stays at the baseline")
+    void limitGrowsWithStableLatency() {
+        GradientLimit limit = new GradientLimit(10, 1, 100, 0.2, 1.5, 100, 5);
+
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(10 * MS, limit.getLimit());
+        }
+
+        assertThat(limit.getLimit()).isGreaterThan(10);
+    }
+
+    @Test
+    @DisplayName("Limit shrinks towards the minimum when latency climbs")
+    void limitShrinksWhenLatencyRises() {
+        GradientLimit limit = new GradientLimit(50, 4, 100, 0.2, 1.5, 600, 5);
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(10 * MS, limit.getLimit());
+        }
+        int before = limit.getLimit();
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(200 * MS, limit.getLimit());
+        }
+
+        assertThat(limit.getLimit()).isLessThan(before / 2);
+    }
+
+    @Test
+    @DisplayName("Samples taken far below the limit do not change it")
+    void ignoresAppLimitedSamples() {
+        GradientLimit limit = new GradientLimit(40, 4, 100, 0.2, 1.5, 600, 5);
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(10 * MS, 1);
+        }
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(500 * MS, 1);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(40);
+    }
+
+    @Test
+    @DisplayName("Token bucket allows a burst, then refills over time")
+    void tokenBucketRefills() {
+        TokenBucket bucket = new TokenBucket(3, 1, 0);
+
+        assertThat(bucket.tryTake(0)).isTrue();
+        assertThat(bucket.tryTake(0)).isTrue();
+        assertThat(bucket.tryTake(0)).isTrue();
+        assertThat(bucket.tryTake(0)).isFalse();
+        assertThat(bucket.secondsUntilNextToken(0)).isEqualTo(1);
+        assertThat(bucket.tryTake(1_000 * MS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Rate limiter keeps separate buckets per client")
+    void rateLimiterIsPerClient() {
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 1, 100, 60_000 * MS);
+
+        assertThat(limiter.tryAcquire("a", 0)).isTrue();
+        assertThat(limiter.tryAcquire("a", 0)).isFalse();
+        assertThat(limiter.tryAcquire("b", 0)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Client over its rate gets 429 in the error envelope")
+    void rejectsClientOverRate() throws Exception {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.getRate().setCapacity(1);
+        properties.getRate().setRefillPerSecond(0.001);
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, encodings, meterRegistry);
+        MDC.put("correlationId", "cid-429");
+
+        filter.doFilter(request("GET", "/api/users"), new MockHttpServletResponse(), new MockFilterChain());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/users"), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isNotNull();
+        JsonNode body = objectMapper.readTree(response.getContentAsString());
+        assertThat(body.get("status").asInt()).isEqualTo(429);
+        assertThat(body.get("errorCode").asText()).isEqualTo("TOO_MANY_REQUESTS");
+        assertThat(body.get("correlationId").asText()).isEqualTo("cid-429");
+        assertThat(body.get("timestamp")).isNotNull();
+        assertThat(meterRegistry.counter("shopflow.admission.rejected", "class", "read", "reason", "rate").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Requests over the concurrency limit get 503 while others are in flight")
+    void shedsOverConcurrencyLimit() throws Exception {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.getRate().setEnabled(false);
+        properties.getConcurrency().setInitialLimit(1);
+        properties.getConcurrency().setMinLimit(1);
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, encodings, meterRegistry);
+
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain blocking = (req, res) -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> {
+                filter.doFilter(request("POST", "/api/users"), new MockHttpServletResponse(), blocking);
+                return null;
+            });
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+            MockHttpServletResponse shedWrite = new MockHttpServletResponse();
+            filter.doFilter(request("DELETE", "/api/users/1"), shedWrite, new MockFilterChain());
+            MockHttpServletResponse read = new MockHttpServletResponse();
+            filter.doFilter(request("GET", "/api/users"), read, new MockFilterChain());
+
+            assertThat(shedWrite.getStatus()).isEqualTo(503);
+            assertThat(objectMapper.readTree(shedWrite.getContentAsString()).get("errorCode").asText())
+                    .isEqualTo("SERVICE_OVERLOADED");
+            assertThat(read.getStatus()).isEqualTo(200);
+            assertThat(meterRegistry.get("shopflow.admission.limit").tag("class", "write").gauge().value())
+                    .isEqualTo(1.0);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Bulk reads sent as POST count against the read limit, not the write one")
+    void bulkGetIsARead() throws Exception {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.getRate().setEnabled(false);
+        properties.getConcurrency().setInitialLimit(1);
+        properties.getConcurrency().setMinLimit(1);
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, encodings, meterRegistry);
+
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain blocking = (req, res) -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> {
+                filter.doFilter(request("POST", "/api/users"), new MockHttpServletResponse(), blocking);
+                return null;
+            });
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+            MockHttpServletResponse bulkGet = new MockHttpServletResponse();
+            filter.doFilter(request("POST", "/api/users/bulk-get"), bulkGet, new MockFilterChain());
+            MockHttpServletResponse bulkDelete = new MockHttpServletResponse();
+            filter.doFilter(request("POST", "/api/users/bulk-delete"), bulkDelete, new MockFilterChain());
+
+            assertThat(bulkGet.getStatus()).isEqualTo(200);
+            assertThat(bulkDelete.getStatus()).isEqualTo(503);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Paths outside the prefix are never limited")
+    void ignoresNonApiPaths() throws Exception {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.getRate().setCapacity(1);
+        properties.getRate().setRefillPerSecond(0.001);
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, encodings, meterRegistry);
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request("GET", "/actuator/health"), response, new MockFilterChain());
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    @DisplayName("Rejections are encoded the way the client accepts")
+    void rejectsInAcceptedEncoding() throws Exception {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.getRate().setCapacity(1);
+        properties.getRate().setRefillPerSecond(0.001);
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, encodings, meterRegistry);
+
+        filter.doFilter(request("GET", "/api/users"), new MockHttpServletResponse(), new MockFilterChain());
+        MockHttpServletRequest request = request("GET", "/api/users");
+        request.addHeader("Accept", "application/json;q=0.5, application/cbor");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getContentType()).isEqualTo("application/cbor");
+        JsonNode body = encodings.mapper(MediaType.APPLICATION_CBOR).readTree(response.getContentAsByteArray());
+        assertThat(body.get("errorCode").asText()).isEqualTo("TOO_MANY_REQUESTS");
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+}
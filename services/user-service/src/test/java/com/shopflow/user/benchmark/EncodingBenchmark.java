@@ -0,0 +1,91 @@
+package com.shopflow.user.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopflow.user.dto.UserResponse;
+import com.shopflow.user.encoding.Encodings;
+import com.shopflow.user.model.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of encoding and decoding a page of {@code users} users, the body of {@code GET /api/users}, in each of the
+ * encodings the API negotiates. One user stands in for the single-user endpoints. The payload size of each
+ * combination is printed at setup, since a smaller body is most of what a binary encoding buys over the network.
+ * <pre>
+ * mvn -Pbenchmark -pl services/user-service test-compile exec:exec -Djmh.args="EncodingBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncodingBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"1", "20", "100"})
+    public int users;
+
+    private ObjectMapper mapper;
+    private SliceImpl<UserResponse> page;
+    private byte[] encoded;
+
+    /**
+     * What a client reads from a page.
+     */
+    public record PageBody(List<UserResponse> content) {
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        Encodings encodings = new Encodings(Jackson2ObjectMapperBuilder.json().build());
+        mapper = encodings.mapper(switch (format) {
+            case "cbor" -> MediaType.APPLICATION_CBOR;
+            case "smile" -> Encodings.SMILE;
+            default -> MediaType.APPLICATION_JSON;
+        });
+
+        OffsetDateTime now = OffsetDateTime.now();
+        List<UserResponse> content = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            content.add(new UserResponse(UUID.randomUUID(), "user-" + i + "@shopflow.com", "Benchmark User " + i,
+                    i % 50 == 0 ? Role.ADMIN : Role.USER, now.minusMinutes(i), now, i % 3));
+        }
+        page = new SliceImpl<>(content, PageRequest.of(0, users), true);
+        encoded = mapper.writeValueAsBytes(page);
+        System.out.printf("%n%s, %d users: %d bytes%n", format, users, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public PageBody decode() throws IOException {
+        return mapper.readValue(encoded, PageBody.class);
+    }
+}
@@ -0,0 +1,95 @@
+package com.shopflow.user.benchmark;
+
+import com.shopflow.user.service.exception.GlobalExceptionHandler;
+import com.shopflow.user.service.exception.UserNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning an unknown id into a 404 body, from the throw inside the service to the response entity.
+ * {@code legacy} reproduces the previous path: a stack-capturing exception with an eagerly concatenated message and
+ * an {@link OffsetDateTime} per response. {@code current} throws the real {@link UserNotFoundException} through
+ * {@link GlobalExceptionHandler}. Both throw from {@code depth} frames down, since stack capture cost grows with it;
+ * a request thread inside Tomcat, Spring MVC and the service proxies sits well over 100 frames deep.
+ * <p>
+ * Run with {@code -prof gc} to see the allocation per 404 as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    @Param({"20", "150"})
+    public int depth;
+
+    private final UUID id = UUID.randomUUID();
+    private GlobalExceptionHandler handler;
+
+    @Setup
+    public void setUp() {
+        handler = new GlobalExceptionHandler(new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public Object legacy() {
+        try {
+            throwLegacy(depth);
+            return null;
+        } catch (LegacyUserNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new LegacyErrorResponse(
+                    OffsetDateTime.now(), HttpStatus.NOT_FOUND.value(), "USER_NOT_FOUND", e.getMessage(), null));
+        }
+    }
+
+    @Benchmark
+    public Object current() {
+        try {
+            throwCurrent(depth);
+            return null;
+        } catch (UserNotFoundException e) {
+            return handler.handleDomainException(e);
+        }
+    }
+
+    private void throwLegacy(int remaining) {
+        if (remaining == 0) {
+            throw new LegacyUserNotFoundException(id);
+        }
+        throwLegacy(remaining - 1);
+    }
+
+    private void throwCurrent(int remaining) {
+        if (remaining == 0) {
+            throw new UserNotFoundException(id);
+        }
+        throwCurrent(remaining - 1);
+    }
+
+    static class LegacyUserNotFoundException extends RuntimeException {
+        LegacyUserNotFoundException(UUID id) {
+            super("User not found: " + id);
+        }
+    }
+
+    record LegacyErrorResponse(OffsetDateTime timestamp, int status, String errorCode, String message,
+                               String correlationId) { }
+}
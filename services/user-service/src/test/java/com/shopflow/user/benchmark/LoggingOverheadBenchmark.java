@@ -0,0 +1,172 @@
+package com.shopflow.user.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import com.shopflow.user.dto.BulkDeleteResponse;
+import com.shopflow.user.dto.BulkGetResponse;
+import com.shopflow.user.dto.UserFilter;
+import com.shopflow.user.dto.UserPatchRequest;
+import com.shopflow.user.dto.UserRequest;
+import com.shopflow.user.dto.UserResponse;
+import com.shopflow.user.listing.CountStrategy;
+import com.shopflow.user.model.Role;
+import com.shopflow.user.projection.UserFields;
+import com.shopflow.user.projection.UserView;
+import com.shopflow.user.service.UserService;
+import com.shopflow.user.service.logging.LoggingProperties;
+import com.shopflow.user.service.logging.LoggingSanitizer;
+import com.shopflow.user.service.logging.ServiceCallLogger;
+import com.shopflow.user.service.logging.ServiceLoggingAspect;
+import com.shopflow.user.service.logging.decorator.LoggingUserService;
+import com.shopflow.user.tracing.Tracer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of service logging around a service that does nothing: {@code direct} calls it as is,
+ * {@code aop} through a CGLIB proxy advised by {@link ServiceLoggingAspect}, as {@code shopflow.logging.instrumentation=aop}
+ * wires it, and {@code explicit} through {@link LoggingUserService}. With {@code level=INFO} every call is
+ * formatted into a discarding appender; with {@code WARN} the success line is disabled and only the interception
+ * itself, the span and the JFR event remain.
+ * <pre>
+ * mvn -Pbenchmark -pl services/user-service test-compile exec:exec -Djmh.args="LoggingOverheadBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingOverheadBenchmark {
+
+    @Param({"INFO", "WARN"})
+    public String level;
+
+    private final UUID id = UUID.randomUUID();
+    private UserService direct;
+    private UserService aop;
+    private UserService explicit;
+
+    @Setup
+    public void setUp() {
+        Logger root = (Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        DiscardingAppender appender = new DiscardingAppender();
+        appender.setContext(root.getLoggerContext());
+        appender.start();
+        root.addAppender(appender);
+        root.setLevel(Level.toLevel(level));
+
+        ServiceCallLogger callLogger = new ServiceCallLogger(new LoggingSanitizer(),
+                new Tracer(List.of(), false, 1.0), new LoggingProperties());
+
+        direct = new StubUserService();
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(new StubUserService());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ServiceLoggingAspect(callLogger));
+        aop = factory.getProxy();
+
+        explicit = new LoggingUserService(new StubUserService(), callLogger);
+    }
+
+    @Benchmark
+    public UserResponse direct() {
+        return direct.getUserById(id);
+    }
+
+    @Benchmark
+    public UserResponse aop() {
+        return aop.getUserById(id);
+    }
+
+    @Benchmark
+    public UserResponse explicit() {
+        return explicit.getUserById(id);
+    }
+
+    static class DiscardingAppender extends AppenderBase<ILoggingEvent> {
+        @Override
+        protected void append(ILoggingEvent event) {
+            event.getFormattedMessage();
+        }
+    }
+
+    public static class StubUserService implements UserService {
+
+        private final UserResponse user = new UserResponse(UUID.randomUUID(), "stub@shopflow.com", "Stub User",
+                Role.USER, OffsetDateTime.now(), OffsetDateTime.now(), 0);
+
+        @Override
+        public UserResponse createUser(UserRequest userRequest) {
+            return user;
+        }
+
+        @Override
+        public UserResponse getUserById(UUID id) {
+            return user;
+        }
+
+        @Override
+        public UserResponse getUserByEmail(String email) {
+            return user;
+        }
+
+        @Override
+        public Slice<UserResponse> getAllUsers(Pageable pageable, CountStrategy count) {
+            return Page.empty(pageable);
+        }
+
+        @Override
+        public Slice<UserResponse> searchUsers(UserFilter filter, Pageable pageable, CountStrategy count) {
+            return Page.empty(pageable);
+        }
+
+        @Override
+        public Slice<UserView> listUsers(UserFilter filter, Pageable pageable, CountStrategy count,
+                                         UserFields fields) {
+            return Page.empty(pageable);
+        }
+
+        @Override
+        public BulkGetResponse getUsers(List<UUID> ids, UserFields fields) {
+            return null;
+        }
+
+        @Override
+        public UserResponse updateUser(UUID id, UserPatchRequest patch, Long expectedVersion) {
+            return user;
+        }
+
+        @Override
+        public void deleteUser(UUID id) {
+        }
+
+        @Override
+        public BulkDeleteResponse deleteUsers(List<UUID> ids) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.shopflow.user.benchmark;
+
+import com.shopflow.user.directory.OffHeapUserStore;
+import com.shopflow.user.dto.UserResponse;
+import com.shopflow.user.model.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups against a resident population held either in heap maps, as a plain cache would, or in
+ * {@link OffHeapUserStore}. Each fork holds only one of the two. The {@code *Request} benchmarks add the short-lived
+ * garbage of a request to every lookup, so young collections run while the population is live; compare
+ * {@code gc.time} and the pauses printed by
+ * <pre>
+ * mvn -Pbenchmark -pl services/user-service test-compile exec:exec \
+ *     -Djmh.args="OffHeapDirectoryBenchmark -prof gc -jvmArgsAppend -Xlog:gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "-XX:MaxDirectMemorySize=2g"})
+public class OffHeapDirectoryBenchmark {
+
+    private static final int REQUEST_GARBAGE_BYTES = 4096;
+
+    @State(Scope.Benchmark)
+    public static class Population {
+
+        @Param({"1000000"})
+        public int users;
+
+        UUID[] ids;
+        String[] emails;
+
+        void generate() {
+            ids = new UUID[users];
+            emails = new String[users];
+            for (int i = 0; i < users; i++) {
+                ids[i] = UUID.randomUUID();
+                emails[i] = "user-" + i + "@shopflow.com";
+            }
+        }
+
+        UserResponse user(int i) {
+            OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+            return new UserResponse(ids[i], emails[i], "User " + i, Role.USER, now, now, 0);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class HeapDirectory extends Population {
+
+        Map<UUID, UserResponse> byId;
+        Map<String, UserResponse> byEmail;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            generate();
+            byId = new HashMap<>(users * 2);
+            byEmail = new HashMap<>(users * 2);
+            for (int i = 0; i < users; i++) {
+                UserResponse user = user(i);
+                byId.put(user.id(), user);
+                byEmail.put(user.email(), user);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class OffHeapDirectory extends Population {
+
+        OffHeapUserStore store;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            generate();
+            store = new OffHeapUserStore(64 * 1024 * 1024, users);
+            for (int i = 0; i < users; i++) {
+                store.put(user(i));
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            store.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private final SplittableRandom random = new SplittableRandom(42);
+
+        int next(int bound) {
+            return random.nextInt(bound);
+        }
+    }
+
+    @Benchmark
+    public UserResponse heapById(HeapDirectory directory, Cursor cursor) {
+        return directory.byId.get(directory.ids[cursor.next(directory.users)]);
+    }
+
+    @Benchmark
+    public UserResponse offHeapById(OffHeapDirectory directory, Cursor cursor) {
+        return directory.store.get(directory.ids[cursor.next(directory.users)]);
+    }
+
+    @Benchmark
+    public UserResponse heapByEmail(HeapDirectory directory, Cursor cursor) {
+        return directory.byEmail.get(directory.emails[cursor.next(directory.users)]);
+    }
+
+    @Benchmark
+    public UserResponse offHeapByEmail(OffHeapDirectory directory, Cursor cursor) {
+        return directory.store.getByEmail(directory.emails[cursor.next(directory.users)]);
+    }
+
+    @Benchmark
+    public Object heapRequest(HeapDirectory directory, Cursor cursor) {
+        byte[] garbage = new byte[REQUEST_GARBAGE_BYTES];
+        garbage[0] = 1;
+        return new Object[]{garbage, directory.byId.get(directory.ids[cursor.next(directory.users)])};
+    }
+
+    @Benchmark
+    public Object offHeapRequest(OffHeapDirectory directory, Cursor cursor) {
+        byte[] garbage = new byte[REQUEST_GARBAGE_BYTES];
+        garbage[0] = 1;
+        return new Object[]{garbage, directory.store.get(directory.ids[cursor.next(directory.users)])};
+    }
+}
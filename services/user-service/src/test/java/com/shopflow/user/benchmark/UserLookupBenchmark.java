@@ -0,0 +1,103 @@
+package com.shopflow.user.benchmark;
+
+import com.shopflow.user.UserServiceApplication;
+import com.shopflow.user.directory.UserDirectory;
+import com.shopflow.user.dto.UserResponse;
+import com.shopflow.user.mapper.UserMapper;
+import com.shopflow.user.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup by id through the JPA path the service falls back to (read-only repository call and mapping) and through
+ * the off-heap directory, against the database configured in {@code application.yml}. Seeds {@code users} rows
+ * tagged with a per-run email prefix and deletes them afterwards.
+ * <pre>
+ * mvn -Pbenchmark -pl services/user-service test-compile exec:exec -Djmh.args="UserLookupBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserLookupBenchmark {
+
+    @Param({"100000"})
+    public int users;
+
+    private final String prefix = "bench-" + UUID.randomUUID() + "-";
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private UserMapper userMapper;
+    private UserDirectory directory;
+    private UUID[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SpringApplication application = new SpringApplication(UserServiceApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        context = application.run(
+                "--shopflow.directory.enabled=true",
+                "--shopflow.bloom.enabled=false",
+                "--shopflow.outbox.relay.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.com.shopflow=WARN");
+        userRepository = context.getBean(UserRepository.class);
+        userMapper = context.getBean(UserMapper.class);
+        directory = context.getBean(UserDirectory.class);
+
+        ids = new UUID[users];
+        List<Object[]> rows = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            ids[i] = UUID.randomUUID();
+            rows.add(new Object[]{ids[i], prefix + i + "@shopflow.com", "x", "User " + i, "USER"});
+        }
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (id, email, password_hash, full_name, role) VALUES (?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.update("ANALYZE users");
+        directory.reload();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.getBean(JdbcTemplate.class).update("DELETE FROM users WHERE email LIKE ?", prefix + "%");
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<UserResponse> jpa() {
+        return userRepository.findById(ids[random.nextInt(users)]).map(userMapper::toResponse);
+    }
+
+    @Benchmark
+    public Optional<UserResponse> directory() {
+        return directory.findById(ids[random.nextInt(users)]);
+    }
+}
@@ -0,0 +1,70 @@
+package com.shopflow.user.bloom;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountingBloomFilterTest {
+
+    @Test
+    @DisplayName("Never reports an added key as absent")
+    void noFalseNegatives() {
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user-" + i + "@shopflow.com");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("user-" + i + "@shopflow.com")).isTrue();
+        }
+        assertThat(filter.approximateCount()).isEqualTo(10_000);
+    }
+
+    @Test
+    @DisplayName("Keeps the false positive rate close to the configured probability")
+    void falsePositiveRateWithinBounds() {
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user-" + i + "@shopflow.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other-" + i + "@shopflow.com")) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(filter.expectedFalsePositiveProbability()).isBetween(0.005, 0.02);
+    }
+
+    @Test
+    @DisplayName("Removed keys are reported absent while other keys stay present")
+    void removeClearsKey() {
+        CountingBloomFilter filter = new CountingBloomFilter(1_000, 0.001);
+        filter.add("a@shopflow.com");
+        filter.add("b@shopflow.com");
+
+        filter.remove("a@shopflow.com");
+
+        assertThat(filter.mightContain("a@shopflow.com")).isFalse();
+        assertThat(filter.mightContain("b@shopflow.com")).isTrue();
+        assertThat(filter.approximateCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Saturated counters are never decremented")
+    void saturatedCountersStick() {
+        CountingBloomFilter filter = new CountingBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 20; i++) {
+            filter.add("hot@shopflow.com");
+        }
+        for (int i = 0; i < 20; i++) {
+            filter.remove("hot@shopflow.com");
+        }
+
+        assertThat(filter.mightContain("hot@shopflow.com")).isTrue();
+    }
+}
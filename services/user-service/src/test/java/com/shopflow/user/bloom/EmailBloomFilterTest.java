@@ -0,0 +1,61 @@
+package com.shopflow.user.bloom;
+
+import com.shopflow.user.changefeed.ChangeFeedWriter;
+import com.shopflow.user.model.Role;
+import com.shopflow.user.service.UserService;
+import com.shopflow.user.service.event.UserCreatedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class EmailBloomFilterTest {
+
+    @Autowired
+    private EmailBloomFilter emailFilter;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ChangeFeedWriter changeFeedWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Learns emails added by other instances from the change feed")
+    void followsChangeFeed() {
+        emailFilter.rebuild();
+        String email = "remote-" + UUID.randomUUID() + "@shopflow.com";
+        insertOnAnotherInstance(email);
+
+        emailFilter.sync();
+
+        assertThat(emailFilter.mightContain(email)).isTrue();
+        assertThat(userService.getUserByEmail(email).fullName()).isEqualTo("Remote");
+    }
+
+    /**
+     * Writes the row and its change the way another instance would, without publishing events here.
+     */
+    private void insertOnAnotherInstance(String email) {
+        UUID id = UUID.randomUUID();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO users (id, email, password_hash, full_name, role) VALUES (?, ?, 'x', ?, ?)",
+                    id, email, "Remote", Role.USER.name());
+            changeFeedWriter.onUserCreated(new UserCreatedEvent(id, email, "Remote", Role.USER, null, null));
+        });
+    }
+}
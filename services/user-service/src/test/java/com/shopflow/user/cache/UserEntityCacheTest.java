@@ -0,0 +1,191 @@
+package com.shopflow.user.cache;
+
+import com.shopflow.user.bloom.EmailBloomFilter;
+import com.shopflow.user.changefeed.ChangeFeedWriter;
+import com.shopflow.user.dto.UserPatchRequest;
+import com.shopflow.user.dto.UserRequest;
+import com.shopflow.user.dto.UserResponse;
+import com.shopflow.user.jdbc.SqlStatementCounter;
+import com.shopflow.user.model.Role;
+import com.shopflow.user.model.User;
+import com.shopflow.user.repository.UserRepository;
+import com.shopflow.user.service.UserService;
+import com.shopflow.user.service.event.UserDeletedEvent;
+import com.shopflow.user.service.event.UserUpdatedEvent;
+import com.shopflow.user.service.exception.UserNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.shopflow.user.jdbc.QueryCountAssert.assertQueries;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class UserEntityCacheTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SqlStatementCounter counter;
+
+    @Autowired
+    private EmailBloomFilter emailFilter;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserCacheInvalidator invalidator;
+
+    @Autowired
+    private ChangeFeedWriter changeFeedWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<UUID> created = new ArrayList<>();
+    private UserResponse user;
+
+    @BeforeEach
+    void setUp() {
+        user = userService.createUser(new UserRequest("cache-" + UUID.randomUUID() + "@shopflow.com", "Cached",
+                "secret123", Role.USER));
+        created.add(user.id());
+        emailFilter.rebuild();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        created.forEach(id -> userRepository.findById(id).ifPresent(userRepository::delete));
+    }
+
+    @Test
+    @DisplayName("Resolves a repeated lookup by email from memory and counts the hits")
+    void repeatedLookupByEmailIsCached() {
+        double before = hits(User.NATURAL_ID_CACHE_REGION);
+
+        assertQueries(counter, () -> userService.getUserByEmail(user.email()))
+                .succeeded()
+                .hasStatements(1);
+        assertQueries(counter, () -> userService.getUserByEmail(user.email()))
+                .succeeded()
+                .hasStatements(0);
+
+        assertThat(hits(User.NATURAL_ID_CACHE_REGION)).isGreaterThan(before);
+        assertThat(meterRegistry.get("shopflow.entitycache.hit.ratio").tag("region", User.CACHE_REGION).gauge()
+                .value()).isBetween(0.0, 1.0);
+    }
+
+    @Test
+    @DisplayName("Evicts a deleted user, by id and by email")
+    void deleteEvicts() {
+        userService.getUserByEmail(user.email());
+        assertThat(entityManagerFactory.getCache().contains(User.class, user.id())).isTrue();
+
+        userService.deleteUser(user.id());
+
+        assertThat(entityManagerFactory.getCache().contains(User.class, user.id())).isFalse();
+        assertThatThrownBy(() -> userService.getUserById(user.id())).isInstanceOf(UserNotFoundException.class);
+        assertThatThrownBy(() -> userService.getUserByEmail(user.email())).isInstanceOf(UserNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Evicts users deleted in bulk")
+    void bulkDeleteEvicts() {
+        userService.getUserById(user.id());
+        assertThat(entityManagerFactory.getCache().contains(User.class, user.id())).isTrue();
+
+        userService.deleteUsers(List.of(user.id()));
+
+        assertThat(entityManagerFactory.getCache().contains(User.class, user.id())).isFalse();
+        assertThatThrownBy(() -> userService.getUserByEmail(user.email())).isInstanceOf(UserNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Serves an updated user, and resolves a changed email to its new owner only")
+    void updateEvicts() {
+        userService.getUserByEmail(user.email());
+        String email = "cache-" + UUID.randomUUID() + "@shopflow.com";
+
+        userService.updateUser(user.id(), new UserPatchRequest(email, "Renamed", null, null), null);
+
+        assertThat(userService.getUserById(user.id()).fullName()).isEqualTo("Renamed");
+        assertThat(userService.getUserByEmail(email).id()).isEqualTo(user.id());
+        assertThat(userRepository.findByEmail(user.email())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Evicts a user updated through another instance, and stops resolving its old email")
+    void remoteUpdateEvicts() {
+        userService.getUserByEmail(user.email());
+        String email = "cache-" + UUID.randomUUID() + "@shopflow.com";
+
+        onAnotherInstance(() -> {
+            jdbcTemplate.update("UPDATE users SET email = ?, full_name = 'Renamed', version = version + 1 WHERE id = ?",
+                    email, user.id());
+            changeFeedWriter.onUserUpdated(new UserUpdatedEvent(user.id(), email, "Renamed", Role.USER, null, null,
+                    1, Set.of("email", "fullName")));
+        });
+        invalidator.sync();
+        emailFilter.sync();
+
+        assertThat(userService.getUserById(user.id()).fullName()).isEqualTo("Renamed");
+        assertThat(userService.getUserByEmail(email).id()).isEqualTo(user.id());
+        assertThatThrownBy(() -> userService.getUserByEmail(user.email())).isInstanceOf(UserNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Evicts a user deleted through another instance, by id and by email")
+    void remoteDeleteEvicts() {
+        userService.getUserByEmail(user.email());
+
+        onAnotherInstance(() -> {
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.id());
+            changeFeedWriter.onUserDeleted(new UserDeletedEvent(user.id(), user.email()));
+        });
+        invalidator.sync();
+
+        assertThat(entityManagerFactory.getCache().contains(User.class, user.id())).isFalse();
+        assertThatThrownBy(() -> userService.getUserById(user.id())).isInstanceOf(UserNotFoundException.class);
+        UserResponse again = userService.createUser(new UserRequest(user.email(), "Again", "secret123", Role.USER));
+        created.add(again.id());
+        assertThat(userService.getUserByEmail(user.email()).id()).isEqualTo(again.id());
+    }
+
+    /**
+     * Writes a change and its feed entry the way another instance would, without publishing events here.
+     */
+    private void onAnotherInstance(Runnable change) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> change.run());
+    }
+
+    private double hits(String region) {
+        return meterRegistry.get("shopflow.entitycache.requests").tags("region", region, "result", "hit")
+                .functionCounter().count();
+    }
+}
@@ -0,0 +1,148 @@
+package com.shopflow.user.changefeed;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopflow.user.dto.UserRequest;
+import com.shopflow.user.dto.UserResponse;
+import com.shopflow.user.model.Role;
+import com.shopflow.user.service.UserService;
+import com.shopflow.user.service.exception.ChangeFeedExpiredException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class ChangeFeedTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long start;
+
+    @BeforeEach
+    void setUp() {
+        start = currentSeq();
+    }
+
+    @Test
+    @DisplayName("Records creates and deletes with gapless, increasing sequence numbers")
+    void recordsChangesInOrder() {
+        UserResponse first = userService.createUser(request());
+        UserResponse second = userService.createUser(request());
+        userService.deleteUsers(List.of(first.id(), second.id()));
+
+        ChangeBatch batch = changeFeed.read(start, 100);
+
+        assertThat(batch.changes()).extracting(UserChange::seq)
+                .containsExactly(start + 1, start + 2, start + 3, start + 4);
+        assertThat(batch.changes()).extracting(UserChange::type)
+                .containsExactly(ChangeType.CREATED, ChangeType.CREATED, ChangeType.DELETED, ChangeType.DELETED);
+        assertThat(batch.changes().get(0).email()).isEqualTo(first.email());
+        assertThat(batch.changes().get(0).role()).isEqualTo(Role.USER);
+        assertThat(batch.lastSeq()).isEqualTo(start + 4);
+        assertThat(batch.hasMore()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Splits changes into batches and reports that more are available")
+    void pagesThroughChanges() {
+        createAndForget();
+        createAndForget();
+
+        ChangeBatch first = changeFeed.read(start, 1);
+        ChangeBatch second = changeFeed.read(first.lastSeq(), 1);
+
+        assertThat(first.changes()).hasSize(1);
+        assertThat(first.hasMore()).isTrue();
+        assertThat(second.changes()).hasSize(1);
+        assertThat(second.lastSeq()).isEqualTo(start + 2);
+        assertThat(changeFeed.read(second.lastSeq(), 1).changes()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A parked long poll completes as soon as a change commits")
+    void longPollCompletesOnCommit() throws Exception {
+        DeferredResult<ChangeBatch> result = changeFeed.poll(start, 10, Duration.ofSeconds(10));
+        assertThat(result.hasResult()).isFalse();
+
+        UserResponse user = createAndForget();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!result.hasResult() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        ChangeBatch batch = (ChangeBatch) result.getResult();
+        assertThat(batch).isNotNull();
+        assertThat(batch.changes()).extracting(UserChange::userId).containsExactly(user.id());
+    }
+
+    @Test
+    @DisplayName("The snapshot carries the sequence it is consistent with")
+    void snapshotIsConsistentWithSequence() throws Exception {
+        UserResponse user = userService.createUser(request());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        changeFeed.writeSnapshot(out);
+        JsonNode snapshot = MAPPER.readTree(out.toByteArray());
+        userService.deleteUser(user.id());
+
+        assertThat(snapshot.get("seq").asLong()).isGreaterThanOrEqualTo(start + 1);
+        assertThat(snapshot.get("fields").toString()).isEqualTo("[\"id\",\"email\",\"fullName\",\"role\"]");
+        boolean found = false;
+        for (JsonNode row : snapshot.get("users")) {
+            if (row.get(0).asText().equals(user.id().toString())) {
+                found = true;
+                assertThat(row.get(1).asText()).isEqualTo(user.email());
+                assertThat(row.get(3).asText()).isEqualTo("USER");
+            }
+        }
+        assertThat(found).isTrue();
+    }
+
+    @Test
+    @DisplayName("Reading from before the pruned range asks the consumer to re-sync")
+    void prunedRangeExpires() {
+        createAndForget();
+        long pruned = changeFeed.prune(Instant.now().plusSeconds(60));
+
+        assertThat(pruned).isGreaterThan(start);
+        assertThatThrownBy(() -> changeFeed.read(start, 10)).isInstanceOf(ChangeFeedExpiredException.class);
+        assertThat(changeFeed.read(pruned, 10).changes()).isEmpty();
+    }
+
+    private UserResponse createAndForget() {
+        UserResponse user = userService.createUser(request());
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.id());
+        return user;
+    }
+
+    private long currentSeq() {
+        Long seq = jdbcTemplate.queryForObject("SELECT last_seq FROM user_change_sequence WHERE id = 1", Long.class);
+        return seq != null ? seq : 0;
+    }
+
+    private static UserRequest request() {
+        return new UserRequest("feed-" + UUID.randomUUID() + "@shopflow.com", "Change Feed", "secret", Role.USER);
+    }
+}
@@ -0,0 +1,142 @@
+package com.shopflow.user.coalescing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Concurrent calls for one key share a single load")
+    void coalescesConcurrentCalls() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>("test", true, Duration.ofSeconds(5), meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> flight.execute("k", () -> {
+            loads.incrementAndGet();
+            leaderStarted.countDown();
+            await(release);
+            return "value";
+        }));
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(executor.submit(() -> flight.execute("k", () -> {
+                loads.incrementAndGet();
+                return "other";
+            })));
+        }
+        Thread.sleep(200); // let the followers find the leader's call
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        for (Future<String> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(count("leader")).isEqualTo(1);
+        assertThat(count("coalesced")).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Waiting callers receive the leader's exception")
+    void propagatesLeaderFailure() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>("test", true, Duration.ofSeconds(5), meterRegistry);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("db down");
+
+        Future<String> leader = executor.submit(() -> flight.execute("k", () -> {
+            leaderStarted.countDown();
+            await(release);
+            throw failure;
+        }));
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<String> follower = executor.submit(() -> flight.execute("k", () -> "unused"));
+        Thread.sleep(200);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCause(failure);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCause(failure);
+    }
+
+    @Test
+    @DisplayName("A caller stops waiting after the timeout and loads on its own")
+    void fallsBackAfterTimeout() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>("test", true, Duration.ofMillis(50), meterRegistry);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        executor.submit(() -> flight.execute("k", () -> {
+            leaderStarted.countDown();
+            await(release);
+            return "slow";
+        }));
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        try {
+            assertThat(flight.execute("k", () -> "own")).isEqualTo("own");
+            assertThat(count("timeout")).isEqualTo(1);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Calls after the leader finished load again")
+    void doesNotCacheResults() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>("test", true, Duration.ofSeconds(1), meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+
+        flight.execute("k", loads::incrementAndGet);
+        flight.execute("k", loads::incrementAndGet);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Disabled single-flight calls the loader directly")
+    void disabledPassesThrough() {
+        SingleFlight<String, String> flight = new SingleFlight<>("test", false, Duration.ofSeconds(1), meterRegistry);
+
+        assertThat(flight.execute("k", () -> "v")).isEqualTo("v");
+        assertThat(count("leader")).isZero();
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.counter("shopflow.singleflight.calls", "name", "test", "outcome", outcome).count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.shopflow.user.directory;
+
+import com.shopflow.user.dto.UserResponse;
+import com.shopflow.user.model.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapUserStoreTest {
+
+    private final OffHeapUserStore store = new OffHeapUserStore(64 * 1024, 16);
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    @DisplayName("Round-trips every field, including nulls and non-ASCII text")
+    void roundTripsUsers() {
+        UserResponse user = new UserResponse(UUID.randomUUID(), "почта@shopflow.com",
+                "José 😀", Role.ADMIN,
+                OffsetDateTime.of(2024, 5, 1, 10, 15, 30, 123_456_789, ZoneOffset.ofHours(3)),
+                OffsetDateTime.of(2024, 5, 2, 8, 0, 0, 0, ZoneOffset.UTC), 7);
+        UserResponse sparse = new UserResponse(UUID.randomUUID(), "sparse@shopflow.com", null, Role.USER, null, null, 0);
+
+        store.put(user);
+        store.put(sparse);
+
+        assertThat(store.get(user.id())).isEqualTo(user);
+        assertThat(store.getByEmail(user.email())).isEqualTo(user);
+        assertThat(store.get(sparse.id())).isEqualTo(sparse);
+        assertThat(store.get(UUID.randomUUID())).isNull();
+        assertThat(store.getByEmail("SPARSE@shopflow.com")).isNull();
+    }
+
+    @Test
+    @DisplayName("Grows past its initial capacity and across segments")
+    void growsIndexesAndSegments() {
+        List<UserResponse> users = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            UserResponse user = user("user-" + i + "@shopflow.com");
+            users.add(user);
+            store.put(user);
+        }
+
+        assertThat(store.size()).isEqualTo(5_000);
+        assertThat(store.segmentBytes()).isGreaterThan(64 * 1024);
+        for (UserResponse user : users) {
+            assertThat(store.get(user.id())).isEqualTo(user);
+            assertThat(store.getByEmail(user.email())).isEqualTo(user);
+        }
+    }
+
+    @Test
+    @DisplayName("Removed users disappear from both indexes and count as garbage")
+    void removesUsers() {
+        UserResponse kept = user("kept@shopflow.com");
+        UserResponse removed = user("removed@shopflow.com");
+        store.put(kept);
+        store.put(removed);
+
+        assertThat(store.remove(removed.id())).isTrue();
+        assertThat(store.remove(removed.id())).isFalse();
+
+        assertThat(store.get(removed.id())).isNull();
+        assertThat(store.getByEmail(removed.email())).isNull();
+        assertThat(store.get(kept.id())).isEqualTo(kept);
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.garbageBytes()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Putting an existing id replaces the user and its email entry")
+    void replacesUsers() {
+        UserResponse original = user("old@shopflow.com");
+        UserResponse renamed = new UserResponse(original.id(), "new@shopflow.com", "Renamed", Role.USER,
+                original.createdAt(), OffsetDateTime.now(), 1);
+
+        store.put(original);
+        store.put(renamed);
+
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.get(original.id())).isEqualTo(renamed);
+        assertThat(store.getByEmail("old@shopflow.com")).isNull();
+        assertThat(store.getByEmail("new@shopflow.com")).isEqualTo(renamed);
+    }
+
+    @Test
+    @DisplayName("Never replaces a user with an older version, nor brings back a removed one")
+    void ignoresStaleWrites() {
+        UserResponse original = user("stale@shopflow.com");
+        UserResponse updated = new UserResponse(original.id(), "fresh@shopflow.com", "Updated", Role.USER,
+                original.createdAt(), OffsetDateTime.now(), 2);
+
+        assertThat(store.put(updated)).isTrue();
+        assertThat(store.put(original)).isFalse();
+        assertThat(store.put(updated)).isFalse();
+        assertThat(store.get(original.id())).isEqualTo(updated);
+        assertThat(store.getByEmail("stale@shopflow.com")).isNull();
+
+        store.remove(original.id());
+
+        assertThat(store.put(updated)).isFalse();
+        assertThat(store.get(original.id())).isNull();
+    }
+
+    @Test
+    @DisplayName("Keeps working through heavy churn that leaves tombstones behind")
+    void survivesChurn() {
+        for (int i = 0; i < 20_000; i++) {
+            UserResponse user = user("churn-" + i + "@shopflow.com");
+            store.put(user);
+            assertThat(store.remove(user.id())).isTrue();
+        }
+        UserResponse last = user("last@shopflow.com");
+        store.put(last);
+
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.getByEmail(last.email())).isEqualTo(last);
+        assertThat(store.indexBytes()).isLessThan(64 * 40);
+    }
+
+    @Test
+    @DisplayName("Answers nothing once closed")
+    void closedStoreIsEmpty() {
+        UserResponse user = user("closed@shopflow.com");
+        store.put(user);
+
+        store.close();
+        store.put(user("late@shopflow.com"));
+
+        assertThat(store.get(user.id())).isNull();
+        assertThat(store.getByEmail(user.email())).isNull();
+    }
+
+    private static UserResponse user(String email) {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        return new UserResponse(UUID.randomUUID(), email, "Full Name", Role.USER, now, now, 0);
+    }
+}
@@ -0,0 +1,158 @@
+package com.shopflow.user.directory;
+
+import com.shopflow.user.bloom.EmailBloomFilter;
+import com.shopflow.user.changefeed.ChangeFeedWriter;
+import com.shopflow.user.dto.UserPatchRequest;
+import com.shopflow.user.dto.UserRequest;
+import com.shopflow.user.dto.UserResponse;
+import com.shopflow.user.model.Role;
+import com.shopflow.user.service.UserService;
+import com.shopflow.user.service.event.UserCreatedEvent;
+import com.shopflow.user.service.event.UserDeletedEvent;
+import com.shopflow.user.service.event.UserUpdatedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "shopflow.directory.enabled=true")
+class UserDirectoryTest {
+
+    @Autowired
+    private UserDirectory directory;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EmailBloomFilter emailFilter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ChangeFeedWriter changeFeedWriter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Loads the users already in the table")
+    void loadsExistingUsers() {
+        UUID id = insertDirectly("loaded-" + UUID.randomUUID() + "@shopflow.com");
+
+        directory.reload();
+
+        UserResponse user = directory.findById(id).orElseThrow();
+        assertThat(user.fullName()).isEqualTo("Loaded Directly");
+        assertThat(user.role()).isEqualTo(Role.ADMIN);
+        assertThat(user.createdAt()).isNotNull();
+        assertThat(directory.findByEmail(user.email())).contains(user);
+    }
+
+    @Test
+    @DisplayName("Follows creates and deletes once they commit")
+    void followsWrites() {
+        directory.reload();
+        UserResponse first = userService.createUser(request());
+        UserResponse second = userService.createUser(request());
+        UserResponse third = userService.createUser(request());
+
+        assertThat(directory.findById(first.id())).contains(first);
+        assertThat(directory.findByEmail(second.email())).contains(second);
+
+        userService.deleteUser(first.id());
+        userService.deleteUsers(List.of(second.id(), third.id()));
+
+        assertThat(directory.findById(first.id())).isEmpty();
+        assertThat(directory.findById(second.id())).isEmpty();
+        assertThat(directory.findByEmail(third.email())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Follows updates, keyed by the new email")
+    void followsUpdates() {
+        directory.reload();
+        UserResponse user = userService.createUser(request());
+        String email = "renamed-" + UUID.randomUUID() + "@shopflow.com";
+
+        UserResponse updated = userService.updateUser(user.id(),
+                new UserPatchRequest(email, "Renamed", null, null), user.version());
+
+        assertThat(updated.version()).isEqualTo(user.version() + 1);
+        assertThat(directory.findById(user.id())).contains(updated);
+        assertThat(directory.findByEmail(email)).contains(updated);
+        assertThat(directory.findByEmail(user.email())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("The service answers lookups from the directory")
+    void serviceUsesDirectory() {
+        String email = "fast-path-" + UUID.randomUUID() + "@shopflow.com";
+        UUID id = insertDirectly(email);
+        directory.reload();
+        emailFilter.rebuild();
+        // changed behind the directory's back, so only a database read would see the new name
+        jdbcTemplate.update("UPDATE users SET full_name = 'Changed' WHERE id = ?", id);
+
+        assertThat(userService.getUserById(id).fullName()).isEqualTo("Loaded Directly");
+        assertThat(userService.getUserByEmail(email).fullName()).isEqualTo("Loaded Directly");
+    }
+
+    @Test
+    @DisplayName("Follows changes made by other instances through the change feed")
+    void followsChangeFeed() {
+        directory.reload();
+        String email = "remote-" + UUID.randomUUID() + "@shopflow.com";
+        UUID id = UUID.randomUUID();
+        TransactionTemplate otherInstance = new TransactionTemplate(transactionManager);
+
+        otherInstance.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO users (id, email, password_hash, full_name, role) VALUES (?, ?, 'x', ?, ?)",
+                    id, email, "Remote", Role.USER.name());
+            changeFeedWriter.onUserCreated(new UserCreatedEvent(id, email, "Remote", Role.USER, null, null));
+        });
+        directory.sync();
+        assertThat(directory.findById(id)).hasValueSatisfying(user -> assertThat(user.fullName()).isEqualTo("Remote"));
+
+        otherInstance.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE users SET full_name = 'Renamed', version = version + 1, updated_at = now() "
+                    + "WHERE id = ?", id);
+            changeFeedWriter.onUserUpdated(new UserUpdatedEvent(id, email, "Renamed", Role.USER, null, null, 1,
+                    Set.of("fullName")));
+        });
+        directory.sync();
+        assertThat(directory.findByEmail(email)).hasValueSatisfying(user -> {
+            assertThat(user.fullName()).isEqualTo("Renamed");
+            assertThat(user.version()).isEqualTo(1);
+        });
+
+        otherInstance.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", id);
+            changeFeedWriter.onUserDeleted(new UserDeletedEvent(id, email));
+        });
+        directory.sync();
+        assertThat(directory.findById(id)).isEmpty();
+        assertThat(directory.findByEmail(email)).isEmpty();
+    }
+
+    private UUID insertDirectly(String email) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, email, password_hash, full_name, role) VALUES (?, ?, 'x', ?, ?)",
+                id, email, "Loaded Directly", Role.ADMIN.name());
+        return id;
+    }
+
+    private static UserRequest request() {
+        return new UserRequest("directory-" + UUID.randomUUID() + "@shopflow.com", "Directory", "secret", Role.USER);
+    }
+}
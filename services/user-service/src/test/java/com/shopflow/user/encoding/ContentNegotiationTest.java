@@ -0,0 +1,171 @@
+package com.shopflow.user.encoding;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopflow.user.config.TestSecurityConfig;
+import com.shopflow.user.dto.UserRequest;
+import com.shopflow.user.dto.UserResponse;
+import com.shopflow.user.model.Role;
+import com.shopflow.user.service.UserService;
+import com.shopflow.user.service.exception.GlobalExceptionHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestSecurityConfig.class)
+class ContentNegotiationTest {
+
+    private static final int USERS = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private Encodings encodings;
+
+    @Autowired
+    private UserService userService;
+
+    private final List<UUID> created = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < USERS; i++) {
+            created.add(userService.createUser(new UserRequest(email(), "Encoded User " + i, "secret123",
+                    Role.USER)).id());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        created.forEach(userService::deleteUser);
+    }
+
+    @Test
+    @DisplayName("Returns a user as CBOR or Smile, decoding to the same user as JSON")
+    void userInBinaryEncodings() throws Exception {
+        UUID id = created.get(0);
+        UserResponse json = user(get("/api/users/" + id), MediaType.APPLICATION_JSON);
+
+        assertThat(user(get("/api/users/" + id), MediaType.APPLICATION_CBOR)).isEqualTo(json);
+        assertThat(user(get("/api/users/" + id), Encodings.SMILE)).isEqualTo(json);
+    }
+
+    @Test
+    @DisplayName("Returns a page of users as CBOR or Smile, smaller than the JSON one")
+    void pageInBinaryEncodings() throws Exception {
+        MvcResult json = page(MediaType.APPLICATION_JSON);
+        MvcResult cbor = page(MediaType.APPLICATION_CBOR);
+        MvcResult smile = page(Encodings.SMILE);
+
+        List<UserResponse> expected = users(json, MediaType.APPLICATION_JSON);
+        assertThat(expected).hasSize(USERS);
+        assertThat(users(cbor, MediaType.APPLICATION_CBOR)).isEqualTo(expected);
+        assertThat(users(smile, Encodings.SMILE)).isEqualTo(expected);
+
+        int jsonSize = json.getResponse().getContentAsByteArray().length;
+        assertThat(cbor.getResponse().getContentAsByteArray().length).isLessThan(jsonSize);
+        assertThat(smile.getResponse().getContentAsByteArray().length).isLessThan(jsonSize);
+    }
+
+    @Test
+    @DisplayName("Accepts a CBOR request body")
+    void cborRequestBody() throws Exception {
+        String email = email();
+        byte[] body = encodings.mapper(MediaType.APPLICATION_CBOR).writeValueAsBytes(Map.of(
+                "email", email, "fullName", "Binary Signup", "password", "secret123", "role", "USER"));
+
+        UserResponse user = user(post("/api/users").contentType(MediaType.APPLICATION_CBOR).content(body),
+                Encodings.SMILE, 201);
+        created.add(user.id());
+
+        assertThat(user.email()).isEqualTo(email);
+        assertThat(user.fullName()).isEqualTo("Binary Signup");
+    }
+
+    @Test
+    @DisplayName("Encodes errors the way the client accepts")
+    void errorInBinaryEncoding() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/users/" + UUID.randomUUID())
+                        .header(HttpHeaders.ACCEPT, Encodings.SMILE.toString()))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(Encodings.SMILE))
+                .andReturn();
+
+        GlobalExceptionHandler.ErrorResponse error = encodings.mapper(Encodings.SMILE)
+                .readValue(result.getResponse().getContentAsByteArray(), GlobalExceptionHandler.ErrorResponse.class);
+        assertThat(error.status()).isEqualTo(404);
+        assertThat(error.errorCode()).isEqualTo("USER_NOT_FOUND");
+    }
+
+    @Test
+    @DisplayName("Stays on JSON for clients that accept anything, or none of the encodings")
+    void defaultsToJson() throws Exception {
+        mockMvc.perform(get("/api/users/" + created.get(0)).header(HttpHeaders.ACCEPT, "*/*"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+
+        assertThat(encodings.negotiate(null)).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(encodings.negotiate("text/html, */*;q=0.1")).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(encodings.negotiate("text/html")).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(encodings.negotiate("not a media type")).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(encodings.negotiate("application/json;q=0.8, application/x-jackson-smile"))
+                .isEqualTo(Encodings.SMILE);
+    }
+
+    private UserResponse user(MockHttpServletRequestBuilder request,
+                              MediaType encoding) throws Exception {
+        return user(request, encoding, 200);
+    }
+
+    private UserResponse user(MockHttpServletRequestBuilder request,
+                              MediaType encoding, int status) throws Exception {
+        MvcResult result = mockMvc.perform(request.header(HttpHeaders.ACCEPT, encoding.toString()))
+                .andExpect(status().is(status))
+                .andExpect(content().contentTypeCompatibleWith(encoding))
+                .andReturn();
+        return encodings.mapper(encoding).readValue(result.getResponse().getContentAsByteArray(),
+                UserResponse.class);
+    }
+
+    private MvcResult page(MediaType encoding) throws Exception {
+        return mockMvc.perform(get("/api/users").param("size", String.valueOf(USERS)).param("count", "NONE")
+                        .header(HttpHeaders.ACCEPT, encoding.toString()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(encoding))
+                .andReturn();
+    }
+
+    private List<UserResponse> users(MvcResult result, MediaType encoding) throws Exception {
+        ObjectMapper mapper = encodings.mapper(encoding);
+        JsonNode page = mapper.readTree(result.getResponse().getContentAsByteArray());
+        return mapper.readerForListOf(UserResponse.class).readValue(page.get("content"));
+    }
+
+    private static String email() {
+        return "encoding-" + UUID.randomUUID() + "@shopflow.com";
+    }
+}
@@ -3,9 +3,12 @@ package com.shopflow.user.exception;
 import com.shopflow.user.config.TestSecurityConfig;
 import com.shopflow.user.controller.UserController;
 import com.shopflow.user.dto.UserResponse;
+import com.shopflow.user.idempotency.IdempotentRequests;
+import com.shopflow.user.listing.CountStrategy;
 import com.shopflow.user.service.UserService;
 import com.shopflow.user.service.exception.GlobalExceptionHandler;
 import com.shopflow.user.service.exception.UserNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -15,19 +18,24 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserController.class)
-@Import({GlobalExceptionHandler.class, TestSecurityConfig.class})
+@Import({GlobalExceptionHandler.class, TestSecurityConfig.class, SimpleMeterRegistry.class})
 @AutoConfigureMockMvc
 public class GlobalExceptionHandlerTest {
 
@@ -40,6 +48,9 @@ public class GlobalExceptionHandlerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private IdempotentRequests idempotentRequests;
+
     @Test
     public void shouldReturnUserNotFoundExceptionWithUUID() throws Exception {
 
@@ -89,6 +100,75 @@ public class GlobalExceptionHandlerTest {
                 .andExpect(jsonPath("$.status").value(400));
     }
 
+    @Test
+    public void shouldRejectBlankEmailInPatch() throws Exception {
+
+        mockMvc.perform(patch("/api/users/" + userUUID)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"email\": \"\" }")
+                        .header("X-Correlation-Id", "abc-123"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("METHOD_ARGUMENT_NOT_VALID"))
+                .andExpect(jsonPath("$.message").value("email: must not be blank"))
+                .andExpect(jsonPath("$.status").value(400));
+    }
+
+    @Test
+    public void shouldRejectBlankFullNameInPatch() throws Exception {
+
+        mockMvc.perform(patch("/api/users/" + userUUID)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"fullName\": \"  \" }")
+                        .header("X-Correlation-Id", "abc-123"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("METHOD_ARGUMENT_NOT_VALID"))
+                .andExpect(jsonPath("$.message").value("fullName: must not be blank"))
+                .andExpect(jsonPath("$.status").value(400));
+    }
+
+    @Test
+    public void shouldReturnMethodArgumentNotValidForUnknownRole() throws Exception {
+
+        mockMvc.perform(get("/api/users?role=SUPERUSER")
+                        .header("X-Correlation-Id", "abc-123"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("METHOD_ARGUMENT_NOT_VALID"))
+                .andExpect(jsonPath("$.message").value("role: must be one of [USER, ADMIN]"))
+                .andExpect(jsonPath("$.correlationId").value("abc-123"))
+                .andExpect(jsonPath("$.status").value(400));
+    }
+
+    @Test
+    public void shouldReturnMethodArgumentNotValidForMalformedDate() throws Exception {
+
+        mockMvc.perform(get("/api/users?createdAfter=yesterday")
+                        .header("X-Correlation-Id", "abc-123"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("METHOD_ARGUMENT_NOT_VALID"))
+                .andExpect(jsonPath("$.message").value("createdAfter: must be a valid OffsetDateTime"))
+                .andExpect(jsonPath("$.status").value(400));
+    }
+
+    @Test
+    public void shouldAcceptCountStrategyInAnyCase() throws Exception {
+
+        when(userService.getAllUsers(any(), eq(CountStrategy.NONE))).thenReturn(new SliceImpl<>(List.of()));
+
+        mockMvc.perform(get("/api/users?count=none"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void shouldReturnMethodArgumentNotValidForUnknownCountStrategy() throws Exception {
+
+        mockMvc.perform(get("/api/users?count=sometimes")
+                        .header("X-Correlation-Id", "abc-123"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("METHOD_ARGUMENT_NOT_VALID"))
+                .andExpect(jsonPath("$.message").value("count: must be one of [AUTO, EXACT, ESTIMATED, CACHED, NONE]"))
+                .andExpect(jsonPath("$.status").value(400));
+    }
+
     @Test
     public void shouldReturnInternatlErrorWithInformation() throws Exception {
 
@@ -0,0 +1,241 @@
+package com.shopflow.user.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopflow.user.config.TestSecurityConfig;
+import com.shopflow.user.dto.UserResponse;
+import com.shopflow.user.service.UserService;
+import com.shopflow.user.service.password.PasswordService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestSecurityConfig.class)
+class IdempotentRequestsTest {
+
+    private static final String EMAIL_PATTERN = "idem-%@shopflow.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IdempotentRequests idempotentRequests;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @SpyBean
+    private PasswordService passwordService;
+
+    private final List<String> keys = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // the warmup hashes too
+        clearInvocations(passwordService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        keys.forEach(key -> jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ?", key));
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE ?", EMAIL_PATTERN);
+    }
+
+    @Test
+    @DisplayName("Replays the stored response to a retry without creating or hashing again")
+    void replaysRetry() throws Exception {
+        String key = key();
+        String email = email();
+
+        UserResponse first = body(mockMvc.perform(signup(key, email, "John Doe"))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andReturn());
+        UserResponse retry = body(mockMvc.perform(signup(key, email, "John Doe"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andReturn());
+
+        assertThat(retry).isEqualTo(first);
+        verify(passwordService, times(1)).encrypt(anyString());
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE email = ?", Long.class, email))
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Rejects a key reused for a different request")
+    void rejectsReuseForOtherRequest() throws Exception {
+        String key = key();
+        mockMvc.perform(signup(key, email(), "John Doe")).andExpect(status().isCreated());
+
+        mockMvc.perform(signup(key, email(), "John Doe"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.errorCode").value("IDEMPOTENCY_KEY_MISMATCH"));
+    }
+
+    @Test
+    @DisplayName("Releases the key of a failed request, so its retry runs again")
+    void failedRequestReleasesKey() throws Exception {
+        String email = email();
+        UserResponse taken = body(mockMvc.perform(signup(key(), email, "Taken"))
+                .andExpect(status().isCreated())
+                .andReturn());
+
+        String key = key();
+        mockMvc.perform(signup(key, email, "John Doe"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errorCode").value("USER_ALREADY_EXISTS"));
+        userService.deleteUser(taken.id());
+
+        mockMvc.perform(signup(key, email, "John Doe"))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+    }
+
+    @Test
+    @DisplayName("Concurrent duplicates wait for the request in progress and share its response")
+    void concurrentDuplicatesShareOneRequest() throws Exception {
+        String key = key();
+        String email = email();
+        int clients = 8;
+        double replayedBefore = replayedCount();
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<MvcResult>> results = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(signup(key, email, "John Doe")).andReturn();
+                }));
+            }
+            start.countDown();
+
+            List<UUID> ids = new ArrayList<>();
+            int replays = 0;
+            for (Future<MvcResult> result : results) {
+                MvcResult response = result.get(30, TimeUnit.SECONDS);
+                assertThat(response.getResponse().getStatus()).isEqualTo(201);
+                ids.add(body(response).id());
+                if ("true".equals(response.getResponse().getHeader("Idempotent-Replayed"))) {
+                    replays++;
+                }
+            }
+            assertThat(ids).hasSize(clients).containsOnly(ids.get(0));
+            assertThat(replays).isEqualTo(clients - 1);
+            assertThat(replayedCount() - replayedBefore).isEqualTo(clients - 1);
+            verify(passwordService, times(1)).encrypt(anyString());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Stops replaying once the key has expired")
+    void expiredKeyRunsAgain() throws Exception {
+        String key = key();
+        String email = email();
+        mockMvc.perform(signup(key, email, "John Doe")).andExpect(status().isCreated());
+        expire(key);
+
+        mockMvc.perform(signup(key, email, "John Doe"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errorCode").value("USER_ALREADY_EXISTS"));
+    }
+
+    @Test
+    @DisplayName("Purges expired keys only")
+    void purgesExpiredKeys() throws Exception {
+        String expired = key();
+        String live = key();
+        mockMvc.perform(signup(expired, email(), "John Doe")).andExpect(status().isCreated());
+        mockMvc.perform(signup(live, email(), "John Doe")).andExpect(status().isCreated());
+        expire(expired);
+
+        assertThat(idempotentRequests.purge()).isGreaterThanOrEqualTo(1);
+
+        assertThat(jdbcTemplate.queryForList("SELECT idempotency_key FROM idempotency_keys "
+                + "WHERE idempotency_key IN (?, ?)", String.class, expired, live)).containsExactly(live);
+    }
+
+    @Test
+    @DisplayName("Rejects keys longer than the column")
+    void rejectsLongKey() throws Exception {
+        mockMvc.perform(signup("k".repeat(IdempotentRequests.MAX_KEY_LENGTH + 1), email(), "John Doe"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("METHOD_ARGUMENT_NOT_VALID"));
+    }
+
+    private double replayedCount() {
+        return meterRegistry.get("shopflow.idempotency.requests").tag("outcome", "replayed").counter().count();
+    }
+
+    private MockHttpServletRequestBuilder signup(String key, String email, String fullName) {
+        return post("/api/users")
+                .header(IdempotentRequests.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"email": "%s", "fullName": "%s", "password": "secret123", "role": "USER"}
+                        """.formatted(email, fullName));
+    }
+
+    private void expire(String key) {
+        jdbcTemplate.update("UPDATE idempotency_keys SET expires_at = now() - interval '1 second' "
+                + "WHERE idempotency_key = ?", key);
+    }
+
+    private UserResponse body(MvcResult result) throws Exception {
+        return objectMapper.readValue(result.getResponse().getContentAsString(), UserResponse.class);
+    }
+
+    private String key() {
+        String key = UUID.randomUUID().toString();
+        keys.add(key);
+        return key;
+    }
+
+    private static String email() {
+        return "idem-" + UUID.randomUUID() + "@shopflow.com";
+    }
+}
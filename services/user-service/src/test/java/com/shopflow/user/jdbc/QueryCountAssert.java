@@ -0,0 +1,77 @@
+package com.shopflow.user.jdbc;
+
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs an action inside a {@link SqlStatementCounter} scope and asserts on the statements it issued:
+ * <pre>{@code
+ * QueryCountAssert.assertQueries(counter, () -> userService.getUserById(id))
+ *         .hasStatements(1)
+ *         .hasSelects(1);
+ * }</pre>
+ * An exception thrown by the action is kept and can be checked with {@link #failedWith(Class)}; it is not
+ * rethrown, since failing paths (404, 409) are exactly where extra round trips tend to hide.
+ */
+public final class QueryCountAssert {
+
+    private final SqlStats stats;
+    private final Throwable failure;
+
+    private QueryCountAssert(SqlStats stats, Throwable failure) {
+        this.stats = stats;
+        this.failure = failure;
+    }
+
+    public static QueryCountAssert assertQueries(SqlStatementCounter counter, ThrowingCallable action) {
+        SqlStats previous = counter.begin();
+        Throwable failure = null;
+        try {
+            action.call();
+        } catch (Throwable e) {
+            failure = e;
+        }
+        return new QueryCountAssert(counter.end(previous), failure);
+    }
+
+    public QueryCountAssert hasStatements(int expected) {
+        assertThat(stats.statements()).as("statements: %s", stats).isEqualTo(expected);
+        return this;
+    }
+
+    public QueryCountAssert hasSelects(int expected) {
+        assertThat(stats.selects()).as("selects: %s", stats).isEqualTo(expected);
+        return this;
+    }
+
+    public QueryCountAssert hasInserts(int expected) {
+        assertThat(stats.inserts()).as("inserts: %s", stats).isEqualTo(expected);
+        return this;
+    }
+
+    public QueryCountAssert hasUpdates(int expected) {
+        assertThat(stats.updates()).as("updates: %s", stats).isEqualTo(expected);
+        return this;
+    }
+
+    public QueryCountAssert hasDeletes(int expected) {
+        assertThat(stats.deletes()).as("deletes: %s", stats).isEqualTo(expected);
+        return this;
+    }
+
+    public QueryCountAssert hasRowsRead(long expected) {
+        assertThat(stats.rowsRead()).as("rows read: %s", stats).isEqualTo(expected);
+        return this;
+    }
+
+    public QueryCountAssert succeeded() {
+        assertThat(failure).as("action failure").isNull();
+        return this;
+    }
+
+    public QueryCountAssert failedWith(Class<? extends Throwable> type) {
+        assertThat(failure).as("action failure").isInstanceOf(type);
+        return this;
+    }
+}
@@ -0,0 +1,125 @@
+package com.shopflow.user.jfr;
+
+import com.shopflow.user.service.logging.LoggingProperties;
+import com.shopflow.user.service.logging.LoggingSanitizer;
+import com.shopflow.user.service.logging.ServiceCallLogger;
+import com.shopflow.user.service.logging.ServiceLoggingAspect;
+import com.shopflow.user.service.password.PasswordService;
+import com.shopflow.user.service.password.impl.BcryptPasswordService;
+import com.shopflow.user.tracing.Tracer;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JfrEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Recording recording;
+
+    @BeforeEach
+    void setUp() {
+        recording = new Recording();
+    }
+
+    @AfterEach
+    void tearDown() {
+        recording.close();
+    }
+
+    @Test
+    @DisplayName("Settings profile parses and configures every service event")
+    void settingsProfileCoversAllEvents() throws Exception {
+        Configuration configuration = JfrRecording.loadSettings();
+
+        assertThat(configuration.getSettings())
+                .containsEntry(ControllerRequestEvent.NAME + "#threshold", "20 ms")
+                .containsEntry(ServiceCallEvent.NAME + "#threshold", "10 ms")
+                .containsEntry(PasswordHashEvent.NAME + "#threshold", "100 ms")
+                .containsEntry(RepositoryQueryEvent.NAME + "#threshold", "10 ms")
+                .containsEntry(RepositoryQueryEvent.NAME + "#stackTrace", "true");
+    }
+
+    @Test
+    @DisplayName("Records password hashing with its operation and result")
+    void recordsPasswordHashing() throws Exception {
+        recording.enable(PasswordHashEvent.NAME).withThreshold(Duration.ZERO);
+        recording.start();
+
+        PasswordService passwordService = new BcryptPasswordService(new BCryptPasswordEncoder(4));
+        String hash = passwordService.encrypt("secret");
+        passwordService.verify("secret", hash);
+
+        List<RecordedEvent> events = stopAndRead(PasswordHashEvent.NAME);
+
+        assertThat(events).extracting(e -> e.getString("operation"))
+                .containsExactly(PasswordHashEvent.ENCODE, PasswordHashEvent.VERIFY);
+        assertThat(events.get(1).getBoolean("matched")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Skips events that finish under the threshold")
+    void skipsFastEvents() throws Exception {
+        recording.enable(PasswordHashEvent.NAME).withThreshold(Duration.ofHours(1));
+        recording.start();
+
+        new BcryptPasswordService(new BCryptPasswordEncoder(4)).encrypt("secret");
+
+        assertThat(stopAndRead(PasswordHashEvent.NAME)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Service aspect records failed calls with outcome and error type")
+    void recordsFailedServiceCall() throws Exception {
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(encoder.encode(anyString())).thenThrow(new IllegalArgumentException("bad input"));
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(new BcryptPasswordService(encoder));
+        factory.addAspect(new ServiceLoggingAspect(new ServiceCallLogger(new LoggingSanitizer(),
+                new Tracer(List.of(), false, 1.0), new LoggingProperties())));
+        PasswordService proxy = factory.getProxy();
+
+        recording.enable(ServiceCallEvent.NAME).withThreshold(Duration.ZERO);
+        recording.start();
+
+        assertThatThrownBy(() -> proxy.encrypt("secret")).isInstanceOf(IllegalArgumentException.class);
+
+        List<RecordedEvent> events = stopAndRead(ServiceCallEvent.NAME);
+
+        assertThat(events).hasSize(1);
+        RecordedEvent event = events.get(0);
+        assertThat(event.getString("method")).isEqualTo("PasswordService.encrypt(..)");
+        assertThat(event.getString("outcome")).isEqualTo("FAILED");
+        assertThat(event.getString("errorType")).isEqualTo(IllegalArgumentException.class.getName());
+        assertThat(event.getString("correlationId")).isEqualTo("no-cid");
+    }
+
+    private List<RecordedEvent> stopAndRead(String eventName) throws Exception {
+        recording.stop();
+        Path file = tempDir.resolve("test.jfr");
+        recording.dump(file);
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals(eventName))
+                .toList();
+    }
+}
@@ -0,0 +1,123 @@
+package com.shopflow.user.listing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopflow.user.coalescing.SingleFlight;
+import com.shopflow.user.dto.UserFilter;
+import com.shopflow.user.model.Role;
+import com.shopflow.user.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserCounterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final ListingProperties properties = new ListingProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UserCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new UserCounter(userRepository, jdbcTemplate, new ObjectMapper(), properties,
+                new SingleFlight<>("test-count", true, Duration.ofSeconds(5), meterRegistry), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("AUTO counts exactly below the large table threshold and estimates above it")
+    void autoByTableSize() {
+        properties.setLargeTableRows(1_000);
+        planRows(999);
+        assertThat(counter.resolve(CountStrategy.AUTO)).isEqualTo(CountStrategy.EXACT);
+
+        properties.setCacheRefresh(Duration.ZERO);
+        planRows(1_000);
+        assertThat(counter.resolve(null)).isEqualTo(CountStrategy.ESTIMATED);
+        assertThat(counter.resolve(CountStrategy.NONE)).isEqualTo(CountStrategy.NONE);
+    }
+
+    @Test
+    @DisplayName("AUTO reuses the table size until it is due for refresh")
+    void autoCachesTableSize() {
+        planRows(10);
+
+        counter.resolve(CountStrategy.AUTO);
+        counter.resolve(CountStrategy.AUTO);
+
+        verify(jdbcTemplate, times(1)).queryForObject(anyString(), eq(String.class), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("ESTIMATED reads the planner's row estimate for the filter")
+    void estimatedFromPlan() {
+        when(jdbcTemplate.queryForObject(
+                eq("EXPLAIN (FORMAT JSON) SELECT 1 FROM users WHERE role = ? AND created_at >= ?"),
+                eq(String.class), any(Object[].class)))
+                .thenReturn(plan(4_321));
+
+        long count = counter.count(new UserFilter(Role.ADMIN, OffsetDateTime.now(), null),
+                CountStrategy.ESTIMATED);
+
+        assertThat(count).isEqualTo(4_321);
+        verifyNoInteractions(userRepository);
+        assertThat(meterRegistry.get("shopflow.listing.count").tag("strategy", "estimated").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("CACHED counts once per filter until the count is due for refresh")
+    void cachedReusesCount() {
+        UserFilter admins = new UserFilter(Role.ADMIN, null, null);
+        when(userRepository.countMatching(admins)).thenReturn(7L, 8L);
+
+        assertThat(counter.count(admins, CountStrategy.CACHED)).isEqualTo(7);
+        assertThat(counter.count(admins, CountStrategy.CACHED)).isEqualTo(7);
+        verify(userRepository, times(1)).countMatching(admins);
+
+        properties.setCacheRefresh(Duration.ZERO);
+        assertThat(counter.count(admins, CountStrategy.CACHED)).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("Has no count for unresolved strategies")
+    void rejectsUnresolved() {
+        assertThatThrownBy(() -> counter.count(UserFilter.NONE, CountStrategy.AUTO))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> counter.count(UserFilter.NONE, CountStrategy.NONE))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void planRows(long rows) {
+        when(jdbcTemplate.queryForObject(eq("EXPLAIN (FORMAT JSON) SELECT 1 FROM users"), eq(String.class),
+                any(Object[].class))).thenReturn(plan(rows));
+    }
+
+    private static String plan(long rows) {
+        return """
+                [{"Plan": {"Node Type": "Seq Scan", "Relation Name": "users", "Plan Rows": %d}}]
+                """.formatted(rows);
+    }
+}
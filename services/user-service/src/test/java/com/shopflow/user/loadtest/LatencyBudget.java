@@ -0,0 +1,44 @@
+package com.shopflow.user.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Upper bounds (in milliseconds) a run has to stay under. A negative bound means "not checked".
+ */
+public record LatencyBudget(double p50Millis, double p99Millis, double p999Millis, double maxErrorRatio) {
+
+    public static LatencyBudget fromSystemProperties() {
+        return new LatencyBudget(
+                doubleProperty("loadtest.budget.p50", -1),
+                doubleProperty("loadtest.budget.p99", -1),
+                doubleProperty("loadtest.budget.p999", -1),
+                doubleProperty("loadtest.budget.errorRatio", -1)
+        );
+    }
+
+    public List<String> violations(LatencyReport.OperationStats stats) {
+        List<String> violations = new ArrayList<>();
+        check(violations, stats, "p50", p50Millis, stats.p50Millis());
+        check(violations, stats, "p99", p99Millis, stats.p99Millis());
+        check(violations, stats, "p99.9", p999Millis, stats.p999Millis());
+        if (maxErrorRatio >= 0 && stats.errorRatio() > maxErrorRatio) {
+            violations.add(String.format("%s error ratio %.4f exceeds budget %.4f",
+                    stats.operation(), stats.errorRatio(), maxErrorRatio));
+        }
+        return violations;
+    }
+
+    private static void check(List<String> violations, LatencyReport.OperationStats stats,
+                              String percentile, double budget, double actual) {
+        if (budget >= 0 && actual > budget) {
+            violations.add(String.format("%s %s %.2fms exceeds budget %.2fms",
+                    stats.operation(), percentile, actual, budget));
+        }
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        return value == null || value.isBlank() ? defaultValue : Double.parseDouble(value);
+    }
+}
@@ -0,0 +1,126 @@
+package com.shopflow.user.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latency percentiles and throughput of one workload run, overall and per {@link Operation}.
+ */
+public class LatencyReport {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    public record OperationStats(
+            String operation,
+            long count,
+            long errors,
+            double throughputPerSecond,
+            double p50Millis,
+            double p99Millis,
+            double p999Millis,
+            double maxMillis
+    ) {
+        public double errorRatio() {
+            return count == 0 ? 0 : (double) errors / count;
+        }
+    }
+
+    private final Workload workload;
+    private final Duration elapsed;
+    private final int targetRate;
+    private final Map<Operation, Histogram> histograms;
+    private final OperationStats overall;
+    private final List<OperationStats> perOperation = new ArrayList<>();
+
+    public LatencyReport(Workload workload, Duration elapsed, int targetRate,
+                         Map<Operation, Histogram> histograms, Map<Operation, Long> errors) {
+        this.workload = workload;
+        this.elapsed = elapsed;
+        this.targetRate = targetRate;
+        this.histograms = histograms;
+
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            long operationErrors = errors.getOrDefault(entry.getKey(), 0L);
+            total.add(histogram);
+            totalErrors += operationErrors;
+            perOperation.add(stats(entry.getKey().name(), histogram, operationErrors));
+        }
+        this.overall = stats("ALL", total, totalErrors);
+    }
+
+    public Workload workload() {
+        return workload;
+    }
+
+    public OperationStats overall() {
+        return overall;
+    }
+
+    public List<OperationStats> perOperation() {
+        return perOperation;
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%n=== %s: %d s at %d req/s target (latency corrected for coordinated omission) ===%n",
+                workload, elapsed.toSeconds(), targetRate);
+        out.printf("%-18s %9s %7s %10s %10s %10s %10s %10s%n",
+                "operation", "count", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (OperationStats stats : perOperation) {
+            printRow(out, stats);
+        }
+        printRow(out, overall);
+    }
+
+    /**
+     * Writes the summary plus one HdrHistogram percentile distribution ({@code .hgrm}) per operation,
+     * which can be plotted with the HdrHistogram plotter to compare runs.
+     */
+    public void writeTo(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(workload + "-summary.txt")))) {
+            print(out);
+        }
+        for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            if (entry.getValue().getTotalCount() == 0) {
+                continue;
+            }
+            Path file = directory.resolve(workload + "-" + entry.getKey() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                entry.getValue().outputPercentileDistribution(out, NANOS_PER_MILLI);
+            }
+        }
+    }
+
+    private OperationStats stats(String name, Histogram histogram, long errors) {
+        return new OperationStats(
+                name,
+                histogram.getTotalCount(),
+                errors,
+                histogram.getTotalCount() / Math.max(elapsed.toNanos() / 1e9, 1e-9),
+                histogram.getValueAtPercentile(50) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+                histogram.getMaxValue() / NANOS_PER_MILLI
+        );
+    }
+
+    private static void printRow(PrintStream out, OperationStats stats) {
+        out.printf("%-18s %9d %7d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                stats.operation(), stats.count(), stats.errors(), stats.throughputPerSecond(),
+                stats.p50Millis(), stats.p99Millis(), stats.p999Millis(), stats.maxMillis());
+    }
+}
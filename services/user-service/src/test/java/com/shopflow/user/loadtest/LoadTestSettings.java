@@ -0,0 +1,45 @@
+package com.shopflow.user.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Load test knobs, read from {@code -Dloadtest.*} system properties so that a run can be reproduced
+ * from the command line alone.
+ */
+public record LoadTestSettings(
+        int seedUsers,
+        int requestsPerSecond,
+        int maxInFlight,
+        Duration warmup,
+        Duration duration,
+        long randomSeed,
+        List<Workload> workloads,
+        LatencyBudget budget
+) {
+
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.users", 10_000),
+                Integer.getInteger("loadtest.rate", 200),
+                Integer.getInteger("loadtest.maxInFlight", 256),
+                Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 10)),
+                Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 30)),
+                Long.getLong("loadtest.seed", 42L),
+                parseWorkloads(System.getProperty("loadtest.workloads")),
+                LatencyBudget.fromSystemProperties()
+        );
+    }
+
+    private static List<Workload> parseWorkloads(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of(Workload.values());
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .map(Workload::valueOf)
+                .toList();
+    }
+}
@@ -0,0 +1,126 @@
+package com.shopflow.user.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a {@link Workload} at a constant arrival rate.
+ * <p>
+ * Each request has an intended start time on a fixed schedule, and its latency is measured from that
+ * instant rather than from when it was actually sent. When the service stalls, requests queued behind the
+ * stall are therefore charged for the time they waited, which avoids the coordinated-omission bias of a
+ * closed-loop client that simply stops sending while it waits for answers.
+ */
+public class OpenLoopDriver {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final HttpClient client;
+    private final UserApiCalls calls;
+    private final LoadTestSettings settings;
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    public OpenLoopDriver(HttpClient client, UserApiCalls calls, LoadTestSettings settings) {
+        this.client = client;
+        this.calls = calls;
+        this.settings = settings;
+
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(HIGHEST_TRACKABLE_NANOS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public LatencyReport run(Workload workload) throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(settings.randomSeed() ^ workload.ordinal());
+
+        drive(workload, random, settings.warmup());
+        resetInterval();
+
+        long start = System.nanoTime();
+        drive(workload, random, settings.duration());
+        long elapsed = System.nanoTime() - start;
+
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        Map<Operation, Long> errorCounts = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, recorders.get(operation).getIntervalHistogram());
+            errorCounts.put(operation, errors.get(operation).sumThenReset());
+        }
+
+        return new LatencyReport(workload, Duration.ofNanos(elapsed), settings.requestsPerSecond(), histograms, errorCounts);
+    }
+
+    private void drive(Workload workload, SplittableRandom random, Duration duration) throws InterruptedException {
+        if (duration.isZero() || duration.isNegative()) {
+            return;
+        }
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.requestsPerSecond();
+        long total = duration.toNanos() / intervalNanos;
+        Semaphore inFlight = new Semaphore(settings.maxInFlight());
+
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long intendedStart = start + i * intervalNanos;
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            inFlight.acquire();
+            Operation operation = workload.next(random);
+            UserApiCalls.Call call = calls.prepare(operation, random);
+
+            client.sendAsync(call.request(), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        try {
+                            record(operation, intendedStart, response, error);
+                            if (error == null && response.statusCode() < 400) {
+                                call.onSuccess().accept(response);
+                            }
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+        }
+
+        inFlight.acquire(settings.maxInFlight());
+        inFlight.release(settings.maxInFlight());
+    }
+
+    private void record(Operation operation, long intendedStart, HttpResponse<String> response, Throwable error) {
+        long latency = Math.min(System.nanoTime() - intendedStart, HIGHEST_TRACKABLE_NANOS);
+        recorders.get(operation).recordValue(latency);
+
+        if (error != null || response.statusCode() >= 500 || isUnexpectedClientError(operation, response)) {
+            errors.get(operation).increment();
+        }
+    }
+
+    private static boolean isUnexpectedClientError(Operation operation, HttpResponse<String> response) {
+        // a user may be deleted by churn between being picked and being read, so 404 on reads is expected noise
+        if (response.statusCode() == 404) {
+            return operation != Operation.GET_BY_ID && operation != Operation.GET_BY_EMAIL;
+        }
+        return response.statusCode() >= 400;
+    }
+
+    private void resetInterval() {
+        recorders.values().forEach(Recorder::reset);
+        errors.values().forEach(LongAdder::reset);
+    }
+}
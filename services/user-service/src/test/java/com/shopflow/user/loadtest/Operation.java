@@ -0,0 +1,13 @@
+package com.shopflow.user.loadtest;
+
+/**
+ * Single calls against {@code /api/users}; latencies are reported per operation.
+ */
+public enum Operation {
+    GET_BY_ID,
+    GET_BY_EMAIL,
+    LIST_FIRST_PAGES,
+    LIST_DEEP_PAGE,
+    CREATE,
+    DELETE
+}
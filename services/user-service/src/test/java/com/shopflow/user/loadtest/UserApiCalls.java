@@ -0,0 +1,101 @@
+package com.shopflow.user.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Turns an {@link Operation} into an HTTP request against a running user-service and keeps the
+ * {@link UserPool} in sync with what the service reports back.
+ */
+public class UserApiCalls {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int PAGE_SIZE = 20;
+    private static final int FIRST_PAGES = 5;
+
+    public record Call(HttpRequest request, Consumer<HttpResponse<String>> onSuccess) {}
+
+    private final URI baseUri;
+    private final UserPool pool;
+    private final String runId;
+    private final AtomicLong signupCounter = new AtomicLong();
+
+    public UserApiCalls(URI baseUri, UserPool pool, String runId) {
+        this.baseUri = baseUri;
+        this.pool = pool;
+        this.runId = runId;
+    }
+
+    public Call prepare(Operation operation, SplittableRandom random) {
+        return switch (operation) {
+            case GET_BY_ID -> pool.pick(random)
+                    .map(user -> read("/api/users/" + user.id()))
+                    .orElseGet(() -> create(random));
+            case GET_BY_EMAIL -> pool.pick(random)
+                    .map(user -> read("/api/users/by-email?email=" + URLEncoder.encode(user.email(), StandardCharsets.UTF_8)))
+                    .orElseGet(() -> create(random));
+            case LIST_FIRST_PAGES -> read(page(random.nextInt(FIRST_PAGES)));
+            case LIST_DEEP_PAGE -> read(page(deepPage(random)));
+            case CREATE -> create(random);
+            case DELETE -> pool.take(random)
+                    .map(user -> new Call(builder("/api/users/" + user.id()).DELETE().build(), response -> {}))
+                    .orElseGet(() -> create(random));
+        };
+    }
+
+    private Call read(String path) {
+        return new Call(builder(path).GET().build(), response -> {});
+    }
+
+    private Call create(SplittableRandom random) {
+        String email = "lt-" + runId + "-" + signupCounter.incrementAndGet() + "@shopflow.test";
+        String body = """
+                {"email":"%s","fullName":"Load Test %d","password":"Passw0rd-%d","role":"USER"}"""
+                .formatted(email, random.nextInt(1_000_000), random.nextInt(1_000_000));
+
+        HttpRequest request = builder("/api/users")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        return new Call(request, response -> pool.add(new UserPool.PooledUser(readId(response.body()), email)));
+    }
+
+    private String page(int page) {
+        return "/api/users?page=" + page + "&size=" + PAGE_SIZE + "&sort=createdAt,asc";
+    }
+
+    private int deepPage(SplittableRandom random) {
+        int lastPage = Math.max(1, pool.size() / PAGE_SIZE);
+        int from = Math.max(FIRST_PAGES, lastPage - lastPage / 10);
+        return from >= lastPage ? lastPage : from + random.nextInt(lastPage - from);
+    }
+
+    private HttpRequest.Builder builder(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .header("X-Correlation-Id", "lt-" + runId + "-" + UUID.randomUUID());
+    }
+
+    private static UUID readId(String body) {
+        try {
+            JsonNode node = MAPPER.readTree(body);
+            return UUID.fromString(node.get("id").asText());
+        } catch (Exception e) {
+            throw new IllegalStateException("Unexpected createUser response: " + body, e);
+        }
+    }
+}
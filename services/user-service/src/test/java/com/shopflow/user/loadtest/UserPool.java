@@ -0,0 +1,49 @@
+package com.shopflow.user.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Users known to exist in the database under test. Workloads draw lookup keys from here, signups add to it
+ * and delete churn takes users out, so that reads keep hitting live rows as the table changes.
+ */
+public class UserPool {
+
+    public record PooledUser(UUID id, String email) {}
+
+    private final List<PooledUser> users = new ArrayList<>();
+
+    public synchronized void add(PooledUser user) {
+        users.add(user);
+    }
+
+    public synchronized int size() {
+        return users.size();
+    }
+
+    public synchronized Optional<PooledUser> pick(SplittableRandom random) {
+        if (users.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(users.get(random.nextInt(users.size())));
+    }
+
+    /**
+     * Removes a random user in O(1) by swapping the last element into its slot.
+     */
+    public synchronized Optional<PooledUser> take(SplittableRandom random) {
+        if (users.isEmpty()) {
+            return Optional.empty();
+        }
+        int index = random.nextInt(users.size());
+        PooledUser taken = users.get(index);
+        PooledUser last = users.remove(users.size() - 1);
+        if (index < users.size()) {
+            users.set(index, last);
+        }
+        return Optional.of(taken);
+    }
+}
@@ -0,0 +1,62 @@
+package com.shopflow.user.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Bulk-inserts users straight through JDBC so that seeding a large table does not pay for one bcrypt hash
+ * and one HTTP round trip per row.
+ */
+public class UserSeeder {
+
+    private static final int BATCH_SIZE = 1_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+
+    public UserSeeder(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    public void seed(int count, String runId, long randomSeed, UserPool pool) {
+        SplittableRandom random = new SplittableRandom(randomSeed);
+        String passwordHash = passwordEncoder.encode("seeded-password");
+        Instant createdFrom = Instant.now().minusSeconds(count);
+
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            UUID id = new UUID(random.nextLong(), random.nextLong());
+            String email = "seed-" + runId + "-" + i + "@shopflow.test";
+            Timestamp createdAt = Timestamp.from(createdFrom.plusSeconds(i));
+
+            batch.add(new Object[]{id, email, passwordHash, "Seeded User " + i, i % 50 == 0 ? "ADMIN" : "USER", createdAt, createdAt});
+            pool.add(new UserPool.PooledUser(id, email));
+
+            if (batch.size() == BATCH_SIZE) {
+                flush(batch);
+            }
+        }
+        flush(batch);
+
+        jdbcTemplate.execute("ANALYZE users");
+    }
+
+    private void flush(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (id, email, password_hash, full_name, role, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                batch
+        );
+        batch.clear();
+    }
+}
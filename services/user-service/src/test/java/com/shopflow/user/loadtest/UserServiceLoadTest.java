@@ -0,0 +1,94 @@
+package com.shopflow.user.loadtest;
+
+import com.shopflow.user.config.TestSecurityConfig;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load test: user-service on a random port, Postgres from Testcontainers (the {@code test} profile
+ * uses the {@code jdbc:tc:} driver). Excluded from the default build, run it with
+ * <pre>
+ * mvn -Ploadtest test -Dloadtest.users=50000 -Dloadtest.rate=500 -Dloadtest.budget.p99=50
+ * </pre>
+ * Reports are written to {@code target/loadtest}. See {@link LoadTestSettings} for all knobs.
+ */
+@Tag("loadtest")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.jpa.show-sql=false",
+                "spring.datasource.hikari.maximum-pool-size=20",
+                // every virtual user comes from the same address and would share one token bucket
+                "shopflow.admission.rate.enabled=false"
+        }
+)
+@ActiveProfiles("test")
+@Import(TestSecurityConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UserServiceLoadTest {
+
+    private static final Path REPORT_DIRECTORY = Path.of("target", "loadtest");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final UserPool pool = new UserPool();
+
+    @BeforeAll
+    void seed() {
+        new UserSeeder(jdbcTemplate, passwordEncoder).seed(settings.seedUsers(), runId, settings.randomSeed(), pool);
+    }
+
+    @Test
+    @DisplayName("Mixed workloads stay within the configured latency budget")
+    void workloadsStayWithinBudget() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+
+        UserApiCalls calls = new UserApiCalls(URI.create("http://localhost:" + port), pool, runId);
+        OpenLoopDriver driver = new OpenLoopDriver(client, calls, settings);
+
+        List<String> violations = new ArrayList<>();
+        for (Workload workload : settings.workloads()) {
+            LatencyReport report = driver.run(workload);
+            report.print(System.out);
+            report.writeTo(REPORT_DIRECTORY);
+
+            violations.addAll(settings.budget().violations(report.overall()));
+            report.perOperation().forEach(stats -> violations.addAll(settings.budget().violations(stats)));
+        }
+
+        assertThat(violations)
+                .as("latency budget violations")
+                .isEmpty();
+    }
+}
@@ -0,0 +1,54 @@
+package com.shopflow.user.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Weighted mixes of {@link Operation}s. Every {@code UserController} endpoint is covered by at least one mix.
+ */
+public enum Workload {
+
+    READ_HEAVY(Map.of(
+            Operation.GET_BY_ID, 60,
+            Operation.GET_BY_EMAIL, 25,
+            Operation.LIST_FIRST_PAGES, 15)),
+
+    SIGNUP_BURST(Map.of(
+            Operation.CREATE, 85,
+            Operation.GET_BY_EMAIL, 15)),
+
+    DEEP_PAGINATION(Map.of(
+            Operation.LIST_DEEP_PAGE, 80,
+            Operation.LIST_FIRST_PAGES, 20)),
+
+    DELETE_CHURN(Map.of(
+            Operation.DELETE, 45,
+            Operation.CREATE, 45,
+            Operation.GET_BY_ID, 10));
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    Workload(Map<Operation, Integer> weights) {
+        Map<Operation, Integer> ordered = new EnumMap<>(weights);
+        this.operations = ordered.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += ordered.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public Operation next(SplittableRandom random) {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+}
@@ -0,0 +1,156 @@
+package com.shopflow.user.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.shopflow.user.changefeed.ChangeFeed;
+import com.shopflow.user.config.TestSecurityConfig;
+import com.shopflow.user.service.UserService;
+import com.shopflow.user.service.logging.ControllerLoggingAspect;
+import com.shopflow.user.service.logging.ServiceLoggingAspect;
+import com.shopflow.user.service.logging.decorator.LoggingUserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "shopflow.logging.instrumentation=explicit")
+@AutoConfigureMockMvc
+@Import(TestSecurityConfig.class)
+class ExplicitLoggingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        logger(ControllerLoggingAspect.class).addAppender(appender);
+        logger(ServiceLoggingAspect.class).addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger(ControllerLoggingAspect.class).detachAppender(appender);
+        logger(ServiceLoggingAspect.class).detachAppender(appender);
+        appender.stop();
+    }
+
+    @Test
+    @DisplayName("Replaces the logging aspects with decorators")
+    void replacesAspects() {
+        assertThat(context.getBeanNamesForType(ServiceLoggingAspect.class)).isEmpty();
+        assertThat(context.getBeanNamesForType(ControllerLoggingAspect.class)).isEmpty();
+        assertThat(userService).isInstanceOf(LoggingUserService.class);
+    }
+
+    @Test
+    @DisplayName("Logs the request with its resolved arguments and the status sent, nested calls folded into the service line")
+    void logsRequestAndNestedCalls() throws Exception {
+        String email = "explicit-" + UUID.randomUUID() + "@shopflow.com";
+        mockMvc.perform(post("/api/users")
+                        .header("X-Correlation-Id", "cid-explicit")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"email": "%s", "fullName": "John Doe", "password": "secret123", "role": "USER"}
+                                """.formatted(email)))
+                .andExpect(status().isCreated());
+
+        List<ILoggingEvent> logs = appender.list;
+        assertThat(logs).extracting(ILoggingEvent::getFormattedMessage).noneMatch(m -> m.contains("secret123"));
+
+        ILoggingEvent createUser = find("UserServiceImpl.createUser(..)");
+        assertThat(createUser.getLevel()).isEqualTo(Level.INFO);
+        assertThat(createUser.getFormattedMessage())
+                .contains("correlationId=cid-explicit")
+                .contains(email)
+                .containsPattern("calls=\\[BcryptPasswordService\\.encrypt\\(\\.\\.\\) \\d+\\.\\dms]");
+        assertThat(logs).filteredOn(event -> event.getFormattedMessage().startsWith("[Service]")).hasSize(1);
+
+        ILoggingEvent request = find("handler=UserController.createUser(..)");
+        assertThat(request.getLevel()).isEqualTo(Level.INFO);
+        assertThat(request.getFormattedMessage())
+                .contains("POST /api/users")
+                .contains("status=201")
+                .contains("correlationId=cid-explicit")
+                .contains(email)
+                .contains("***");
+    }
+
+    @Test
+    @DisplayName("Logs exceptions turned into responses as errors with the status sent")
+    void logsHandledErrors() throws Exception {
+        UUID id = UUID.randomUUID();
+        mockMvc.perform(get("/api/users/" + id))
+                .andExpect(status().isNotFound());
+
+        ILoggingEvent request = find("handler=UserController.getUser(..)");
+        assertThat(request.getLevel()).isEqualTo(Level.ERROR);
+        assertThat(request.getFormattedMessage())
+                .contains("[Controller][ERROR] GET /api/users/" + id)
+                .contains("status=404")
+                .contains("args={\"arg0\":\"" + id + "\",\"arg1\":\"<null>\"}");
+    }
+
+    @Test
+    @DisplayName("Logs a request handled asynchronously once, when the handler returns")
+    void logsAsyncRequestOnce() throws Exception {
+        long after = changeFeed.lastSeq();
+        MvcResult started = mockMvc.perform(get("/api/users/changes")
+                        .param("after", String.valueOf(after)).param("limit", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk());
+
+        assertThat(appender.list)
+                .filteredOn(event -> event.getFormattedMessage().contains("handler=UserChangeFeedController.changes(..)"))
+                .singleElement()
+                .satisfies(event -> assertThat(event.getFormattedMessage())
+                        .contains("GET /api/users/changes")
+                        .contains("status=200")
+                        .contains("args={\"arg0\":" + after + ",\"arg1\":1,\"arg2\":0}"));
+    }
+
+    private ILoggingEvent find(String text) {
+        return appender.list.stream()
+                .filter(event -> event.getFormattedMessage().contains(text))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No log line containing " + text + " in " + appender.list));
+    }
+
+    private static Logger logger(Class<?> type) {
+        return (Logger) LoggerFactory.getLogger(type);
+    }
+}
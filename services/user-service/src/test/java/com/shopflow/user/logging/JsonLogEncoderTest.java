@@ -0,0 +1,133 @@
+package com.shopflow.user.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopflow.user.service.logging.RawJson;
+import com.shopflow.user.service.logging.encoder.JsonLogEncoder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.event.KeyValuePair;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonLogEncoderTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final LoggerContext context = new LoggerContext();
+    private final Logger logger = context.getLogger("com.shopflow.user.service.logging.ControllerLoggingAspect");
+    private JsonLogEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        encoder = new JsonLogEncoder();
+        encoder.setContext(context);
+        encoder.start();
+    }
+
+    @Test
+    @DisplayName("Writes key/value pairs as typed top-level fields")
+    void writesKeyValuePairsAsFields() throws Exception {
+        LoggingEvent event = event(Level.INFO, "[Controller] request handled");
+        event.addKeyValuePair(new KeyValuePair("status", 200));
+        event.addKeyValuePair(new KeyValuePair("durationMs", 12L));
+        event.addKeyValuePair(new KeyValuePair("handler", "UserController.getAll(..)"));
+        event.addKeyValuePair(new KeyValuePair("args", new RawJson("{\"arg0\":\"x\"}")));
+
+        JsonNode json = encode(event);
+
+        assertThat(json.get("level").asText()).isEqualTo("INFO");
+        assertThat(json.get("message").asText()).isEqualTo("[Controller] request handled");
+        assertThat(json.get("status").isInt()).isTrue();
+        assertThat(json.get("status").asInt()).isEqualTo(200);
+        assertThat(json.get("durationMs").asLong()).isEqualTo(12L);
+        assertThat(json.get("handler").asText()).isEqualTo("UserController.getAll(..)");
+        assertThat(json.get("args").get("arg0").asText()).isEqualTo("x");
+    }
+
+    @Test
+    @DisplayName("Copies MDC entries such as the correlation id")
+    void includesMdc() throws Exception {
+        LoggingEvent event = event(Level.INFO, "hello");
+        event.setMDCPropertyMap(Map.of("correlationId", "abc-123"));
+
+        JsonNode json = encode(event);
+
+        assertThat(json.get("correlationId").asText()).isEqualTo("abc-123");
+    }
+
+    @Test
+    @DisplayName("Writes a key given both in the MDC and as a key/value pair once")
+    void writesEachKeyOnce() {
+        LoggingEvent event = event(Level.INFO, "[Controller] request handled");
+        event.setMDCPropertyMap(Map.of("correlationId", "abc-123", "traceId", "t-1"));
+        event.addKeyValuePair(new KeyValuePair("correlationId", "abc-123"));
+
+        String line = new String(encoder.encode(event), StandardCharsets.UTF_8);
+
+        assertThat(line.split("\"correlationId\"", -1)).hasSize(2);
+        assertThat(line).contains("\"correlationId\":\"abc-123\"").contains("\"traceId\":\"t-1\"");
+    }
+
+    @Test
+    @DisplayName("Escapes quotes, control characters and non-ASCII text")
+    void escapesStrings() throws Exception {
+        String message = "quote \" backslash \\ newline \n tab \t bell \u0007 \u043a\u0438\u0440\u0438\u043b\u043b\u0438\u0446\u0430 \ud83d\ude00";
+
+        JsonNode json = encode(event(Level.WARN, message));
+
+        assertThat(json.get("message").asText()).isEqualTo(message);
+    }
+
+    @Test
+    @DisplayName("Formats the timestamp as ISO-8601 UTC with milliseconds")
+    void formatsTimestamp() throws Exception {
+        LoggingEvent event = event(Level.INFO, "hello");
+        event.setTimeStamp(1_700_000_000_007L);
+
+        JsonNode json = encode(event);
+
+        assertThat(json.get("@timestamp").asText()).isEqualTo("2023-11-14T22:13:20.007Z");
+    }
+
+    @Test
+    @DisplayName("Adds the stack trace of logged exceptions")
+    void includesStackTrace() throws Exception {
+        LoggingEvent event = new LoggingEvent(Logger.class.getName(), logger, Level.ERROR, "failed",
+                new IllegalStateException("boom"), null);
+
+        JsonNode json = encode(event);
+
+        assertThat(json.get("stack_trace").asText()).contains("IllegalStateException: boom");
+    }
+
+    @Test
+    @DisplayName("Emits exactly one line per event")
+    void emitsOneLinePerEvent() {
+        byte[] bytes = encoder.encode(event(Level.INFO, "multi\nline"));
+        String line = new String(bytes, StandardCharsets.UTF_8);
+
+        assertThat(line).endsWith("}\n");
+        assertThat(line.indexOf('\n')).isEqualTo(line.length() - 1);
+    }
+
+    private LoggingEvent event(Level level, String message) {
+        LoggingEvent event = new LoggingEvent(Logger.class.getName(), logger, level, message, null, null);
+        event.setThreadName("http-nio-8081-exec-1");
+        return event;
+    }
+
+    private JsonNode encode(LoggingEvent event) throws Exception {
+        return MAPPER.readTree(encoder.encode(event));
+    }
+}
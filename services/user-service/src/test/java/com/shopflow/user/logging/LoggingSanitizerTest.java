@@ -1,14 +1,23 @@
 package com.shopflow.user.logging;
 
+import com.shopflow.user.dto.UserFilter;
+import com.shopflow.user.dto.UserResponse;
+import com.shopflow.user.model.Role;
 import com.shopflow.user.service.logging.LoggingSanitizer;
 import com.shopflow.user.service.logging.annotation.Sensitive;
+import com.shopflow.user.service.logging.summary.ResultSummarizer;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -42,6 +51,15 @@ class LoggingSanitizerTest {
         assertThat(json).contains("\"email\":\"john@example.com\"");
     }
 
+    @Test
+    @DisplayName("Skips static fields such as constants")
+    void skipsStaticFields() {
+        String json = sanitizer.sanitize(new Object[]{new UserFilter(Role.USER, null, null)});
+
+        assertThat(json).contains("\"role\":\"USER\"");
+        assertThat(json).doesNotContain("NONE");
+    }
+
     @Test
     @DisplayName("Cuts Long strings")
     void truncatesLongStrings() {
@@ -153,4 +171,77 @@ class LoggingSanitizerTest {
 
         assertThat(json).contains("\"a\"").contains("\"b\"").contains("\"c\"");
     }
+
+    @Test
+    @DisplayName("Summarizes a page result as its position, size and first ids")
+    void summarizesPageResults() {
+        List<UserResponse> users = IntStream.range(0, 20)
+                .mapToObj(i -> new UserResponse(UUID.randomUUID(), "user" + i + "@example.com", "User " + i,
+                        Role.USER, null, null, 0))
+                .toList();
+        var page = new PageImpl<>(users, PageRequest.of(2, 20), 1_000);
+
+        String json = sanitizer.sanitizeResult(page);
+
+        assertThat(json).contains("\"page\":2", "\"size\":20", "\"elements\":20", "\"totalElements\":1000");
+        assertThat(json).contains(users.get(0).id().toString(), users.get(4).id().toString());
+        assertThat(json).doesNotContain(users.get(5).id().toString());
+        assertThat(json).doesNotContain("@example.com");
+    }
+
+    @Test
+    @DisplayName("Summarizes a slice result without a total")
+    void summarizesSliceResults() {
+        List<UserResponse> users = IntStream.range(0, 3)
+                .mapToObj(i -> new UserResponse(UUID.randomUUID(), "user" + i + "@example.com", "User " + i,
+                        Role.USER, null, null, 0))
+                .toList();
+        var slice = new SliceImpl<>(users, PageRequest.of(0, 3), true);
+
+        String json = sanitizer.sanitizeResult(slice);
+
+        assertThat(json).contains("\"page\":0", "\"size\":3", "\"elements\":3", "\"hasNext\":true");
+        assertThat(json).contains(users.get(0).id().toString());
+        assertThat(json).doesNotContain("totalElements", "@example.com");
+    }
+
+    @Test
+    @DisplayName("Summarizes collections in results, including nested ones, as their count")
+    void summarizesCollectionResults() {
+        record Result(List<String> deleted, String note) {}
+
+        String json = sanitizer.sanitizeResult(new Result(List.of("a", "b", "c"), "done"));
+
+        assertThat(json).isEqualTo("{\"deleted\":{\"count\":3},\"note\":\"done\"}");
+        assertThat(sanitizer.sanitizeResult(Set.of("x", "y"))).isEqualTo("{\"count\":2}");
+    }
+
+    @Test
+    @DisplayName("Keeps arguments unsummarized")
+    void argumentsAreNotSummarized() {
+        String json = sanitizer.sanitize(new Object[]{List.of("one", "two")});
+
+        assertThat(json).isEqualTo("{\"arg0\":[\"one\",\"two\"]}");
+    }
+
+    @Test
+    @DisplayName("Registered summarizers take precedence over the built-in ones")
+    void registeredSummarizersTakePrecedence() {
+        ResultSummarizer<List<?>> listSummarizer = new ResultSummarizer<>() {
+            @Override
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            public Class<List<?>> type() {
+                return (Class) List.class;
+            }
+
+            @Override
+            public Object summarize(List<?> value) {
+                return "list of " + value.size();
+            }
+        };
+        LoggingSanitizer custom = new LoggingSanitizer(List.of(listSummarizer));
+
+        assertThat(custom.sanitizeResult(List.of(1, 2))).isEqualTo("\"list of 2\"");
+        assertThat(custom.sanitizeResult(Set.of(1, 2))).isEqualTo("{\"count\":2}");
+    }
 }
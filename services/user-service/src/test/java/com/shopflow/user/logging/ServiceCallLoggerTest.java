@@ -0,0 +1,113 @@
+package com.shopflow.user.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.shopflow.user.service.logging.LoggingProperties;
+import com.shopflow.user.service.logging.LoggingSanitizer;
+import com.shopflow.user.service.logging.ServiceCallLogger;
+import com.shopflow.user.service.logging.ServiceLoggingAspect;
+import com.shopflow.user.tracing.Tracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.KeyValuePair;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ServiceCallLoggerTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(ServiceLoggingAspect.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final LoggingProperties properties = new LoggingProperties();
+    private final ServiceCallLogger callLogger = new ServiceCallLogger(new LoggingSanitizer(),
+            new Tracer(List.of(), false, 1.0), properties);
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+        appender.stop();
+    }
+
+    @Test
+    @DisplayName("Logs one line per outermost call with the nested calls as a tree")
+    void foldsNestedCalls() {
+        callLogger.call("Outer.run(..)", new Object[]{"x"}, () -> {
+            callLogger.call("Child.first(..)", new Object[]{"secret"}, () ->
+                    callLogger.call("Grandchild.run(..)", null, () -> 1));
+            callLogger.call("Child.second(..)", new Object[]{"secret"}, () -> 2);
+            return "done";
+        });
+
+        assertThat(appender.list).hasSize(1);
+        assertThat(appender.list.get(0).getFormattedMessage())
+                .startsWith("[Service] Outer.run(..) |")
+                .doesNotContain("secret")
+                .containsPattern("calls=\\[Child\\.first\\(\\.\\.\\) \\d+\\.\\dms \\[Grandchild\\.run\\(\\.\\.\\) \\d+\\.\\dms], "
+                        + "Child\\.second\\(\\.\\.\\) \\d+\\.\\dms]$");
+    }
+
+    @Test
+    @DisplayName("Folds repeated leaf calls into one entry and marks failed ones")
+    void foldsRepeatedCallsAndFailures() {
+        assertThatThrownBy(() -> callLogger.call("Outer.run(..)", new Object[0], () -> {
+            for (int i = 0; i < 3; i++) {
+                callLogger.call("Child.loop(..)", null, () -> null);
+            }
+            try {
+                callLogger.call("Child.fail(..)", null, () -> {
+                    throw new IllegalStateException("child");
+                });
+            } catch (IllegalStateException ignored) {
+                // handled by the outer call
+            }
+            throw new IllegalArgumentException("outer");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(appender.list).hasSize(1);
+        assertThat(appender.list.get(0).getFormattedMessage())
+                .startsWith("[Service][ERROR] Outer.run(..) |")
+                .contains("error=outer")
+                .containsPattern("calls=\\[Child\\.loop\\(\\.\\.\\) x3 \\d+\\.\\dms, Child\\.fail\\(\\.\\.\\) \\d+\\.\\dms FAILED]$");
+    }
+
+    @Test
+    @DisplayName("Passes the call tree as a JSON key/value when structured")
+    void structuredCallTree() {
+        properties.setStructured(true);
+        callLogger.call("Outer.run(..)", new Object[0], () ->
+                callLogger.call("Child.run(..)", null, () -> 1));
+
+        assertThat(appender.list).hasSize(1);
+        assertThat(appender.list.get(0).getKeyValuePairs())
+                .filteredOn(pair -> pair.key.equals("calls"))
+                .singleElement()
+                .extracting(pair -> pair.value.toString())
+                .asString()
+                .matches("\\[\\{\"method\":\"Child\\.run\\(\\.\\.\\)\",\"count\":1,\"durationMs\":\\d+\\.\\d,\"status\":\"SUCCESS\"}]");
+    }
+
+    @Test
+    @DisplayName("Starts a new tree after the outermost call returns")
+    void startsOverAfterOutermostCall() {
+        callLogger.call("First.run(..)", new Object[0], () -> callLogger.call("Child.run(..)", null, () -> 1));
+        callLogger.call("Second.run(..)", new Object[0], () -> 2);
+
+        assertThat(appender.list).hasSize(2);
+        assertThat(appender.list.get(1).getFormattedMessage())
+                .startsWith("[Service] Second.run(..) |")
+                .doesNotContain("calls=");
+        assertThat(appender.list.get(1).getKeyValuePairs()).isNull();
+    }
+}
@@ -4,11 +4,14 @@ import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.read.ListAppender;
+import com.shopflow.user.changefeed.ChangeFeedWriter;
 import com.shopflow.user.dto.UserRequest;
 import com.shopflow.user.dto.UserResponse;
 import com.shopflow.user.model.Role;
+import com.shopflow.user.listing.CountStrategy;
 import com.shopflow.user.mapper.UserMapper;
 import com.shopflow.user.model.User;
+import com.shopflow.user.outbox.OutboxWriter;
 import com.shopflow.user.repository.UserRepository;
 import com.shopflow.user.service.password.PasswordService;
 import com.shopflow.user.service.UserService;
@@ -47,6 +50,12 @@ class ServiceLoggingAspectTest {
     @MockBean
     private UserMapper userMapper;
 
+    @MockBean
+    private OutboxWriter outboxWriter;
+
+    @MockBean
+    private ChangeFeedWriter changeFeedWriter;
+
     @Autowired
     private UserService userService;
 
@@ -71,14 +80,14 @@ class ServiceLoggingAspectTest {
     void logsSuccessfulServiceCall() {
         Page<UserResponse> page = new PageImpl<>(List.of(
                 new UserResponse(UUID.randomUUID(), "john@shopflow.com", "John Doe", Role.USER,
-                        OffsetDateTime.now(), OffsetDateTime.now())
+                        OffsetDateTime.now(), OffsetDateTime.now(), 0)
         ));
-        when(userRepository.findAll(any(PageRequest.class))).thenReturn(Page.empty());
+        when(userRepository.findAllBy(any(PageRequest.class))).thenReturn(Page.empty());
         when(userMapper.toResponse(any())).thenReturn(page.getContent().get(0));
 
         MDC.put("correlationId", "cid-ok");
 
-        userService.getAllUsers(PageRequest.of(0, 10));
+        userService.getAllUsers(PageRequest.of(0, 10), CountStrategy.EXACT);
 
         assertThat(appender.list).isNotEmpty();
         ILoggingEvent log = appender.list.get(0);
@@ -121,14 +130,14 @@ class ServiceLoggingAspectTest {
     @Test
     @DisplayName("Logs service method duration field")
     void logsServiceDuration() {
-        when(userRepository.findAll(any(PageRequest.class))).thenAnswer(inv -> {
+        when(userRepository.findAllBy(any(PageRequest.class))).thenAnswer(inv -> {
             Thread.sleep(120);
             return Page.empty();
         });
 
         MDC.put("correlationId", "cid-dur");
 
-        userService.getAllUsers(PageRequest.of(1, 5));
+        userService.getAllUsers(PageRequest.of(1, 5), CountStrategy.EXACT);
 
         assertThat(appender.list).isNotEmpty();
         String msg = appender.list.get(0).getFormattedMessage();
@@ -142,7 +151,7 @@ class ServiceLoggingAspectTest {
     @DisplayName("Sanitizes sensitive args correctly")
     void sanitizesSensitiveArgs() {
         when(passwordService.encrypt(anyString())).thenReturn("hashed");
-        when(userRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        when(userRepository.saveAndFlush(any())).thenAnswer(inv -> inv.getArgument(0));
         when(userMapper.toEntity(any(UserRequest.class))).thenAnswer(inv -> {
             UserRequest req = inv.getArgument(0);
             User u = new User();
@@ -153,7 +162,7 @@ class ServiceLoggingAspectTest {
         });
         when(userMapper.toResponse(any(User.class))).thenReturn(
                 new UserResponse(UUID.randomUUID(), "mail@shopflow.com", "John Doe", Role.USER,
-                        OffsetDateTime.now(), OffsetDateTime.now())
+                        OffsetDateTime.now(), OffsetDateTime.now(), 0)
         );
 
         MDC.put("correlationId", "cid-sensitive");
@@ -172,9 +181,9 @@ class ServiceLoggingAspectTest {
     @Test
     @DisplayName("Uses fallback correlationId when missing")
     void usesFallbackCorrelationIdWhenMissing() {
-        when(userRepository.findAll(any(PageRequest.class))).thenReturn(Page.empty());
+        when(userRepository.findAllBy(any(PageRequest.class))).thenReturn(Page.empty());
 
-        userService.getAllUsers(PageRequest.of(0, 5));
+        userService.getAllUsers(PageRequest.of(0, 5), CountStrategy.EXACT);
 
         assertThat(appender.list).isNotEmpty();
         String msg = appender.list.get(0).getFormattedMessage();
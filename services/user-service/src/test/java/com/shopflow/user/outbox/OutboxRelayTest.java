@@ -0,0 +1,110 @@
+package com.shopflow.user.outbox;
+
+import com.shopflow.user.dto.UserRequest;
+import com.shopflow.user.dto.UserResponse;
+import com.shopflow.user.model.Role;
+import com.shopflow.user.service.UserService;
+import com.shopflow.user.service.exception.UserAlreadyExistsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "shopflow.outbox.publisher=in-memory")
+class OutboxRelayTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private InMemoryOutboxPublisher publisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        publisher.clear();
+    }
+
+    @Test
+    @DisplayName("Publishes a user's events in commit order and removes them from the outbox")
+    void publishesInOrder() {
+        UserResponse user = userService.createUser(request());
+        userService.deleteUser(user.id());
+
+        awaitTrue(() -> eventsFor(user.id()).size() == 2);
+
+        List<OutboxEvent> events = eventsFor(user.id());
+        assertThat(events).extracting(OutboxEvent::type)
+                .containsExactly(OutboxEvent.USER_CREATED, OutboxEvent.USER_DELETED);
+        assertThat(events.get(0).id()).isLessThan(events.get(1).id());
+        assertThat(events.get(0).payload()).contains(user.email());
+        // the publisher sees the batch just before the relay's delete commits
+        awaitTrue(() -> pendingRows(user.id()) == 0);
+    }
+
+    @Test
+    @DisplayName("Publishes one event per user of a bulk delete")
+    void publishesBulkDeletes() {
+        UserResponse first = userService.createUser(request());
+        UserResponse second = userService.createUser(request());
+
+        userService.deleteUsers(List.of(first.id(), second.id()));
+
+        awaitTrue(() -> eventsFor(first.id()).size() == 2 && eventsFor(second.id()).size() == 2);
+        assertThat(eventsFor(second.id())).extracting(OutboxEvent::type)
+                .containsExactly(OutboxEvent.USER_CREATED, OutboxEvent.USER_DELETED);
+    }
+
+    @Test
+    @DisplayName("Writes no event when the user change rolls back")
+    void rolledBackChangeWritesNothing() {
+        UserResponse user = userService.createUser(request());
+        UserRequest duplicate = new UserRequest(user.email(), "Dup", "secret", Role.USER);
+
+        assertThatThrownBy(() -> userService.createUser(duplicate)).isInstanceOf(UserAlreadyExistsException.class);
+        userService.deleteUser(user.id());
+
+        awaitTrue(() -> eventsFor(user.id()).size() == 2);
+        assertThat(publisher.events()).filteredOn(event -> event.payload().contains(user.email())).hasSize(2);
+    }
+
+    private List<OutboxEvent> eventsFor(UUID userId) {
+        return publisher.events().stream()
+                .filter(event -> event.aggregateId().equals(userId))
+                .toList();
+    }
+
+    private int pendingRows(UUID userId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM outbox_events WHERE aggregate_id = ?", Integer.class, userId);
+        return count != null ? count : 0;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 10s").isLessThan(deadline);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static UserRequest request() {
+        return new UserRequest("outbox-" + UUID.randomUUID() + "@shopflow.com", "Outbox", "secret", Role.USER);
+    }
+}
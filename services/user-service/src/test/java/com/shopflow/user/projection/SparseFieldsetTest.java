@@ -0,0 +1,249 @@
+package com.shopflow.user.projection;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopflow.user.config.TestSecurityConfig;
+import com.shopflow.user.dto.UserRequest;
+import com.shopflow.user.dto.UserResponse;
+import com.shopflow.user.jdbc.StatementExecution;
+import com.shopflow.user.jdbc.StatementListener;
+import com.shopflow.user.model.Role;
+import com.shopflow.user.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import({TestSecurityConfig.class, SparseFieldsetTest.Config.class})
+class SparseFieldsetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CapturingListener captured;
+
+    private final List<UserResponse> created = new ArrayList<>();
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        CapturingListener capturingListener() {
+            return new CapturingListener();
+        }
+    }
+
+    /**
+     * Keeps the SELECTs run on the test thread while capturing; MockMvc serves requests on that thread too.
+     */
+    static class CapturingListener implements StatementListener {
+        private volatile Thread thread;
+        private final List<String> selects = new ArrayList<>();
+
+        List<String> capture(ThrowingRunnable action) throws Exception {
+            selects.clear();
+            thread = Thread.currentThread();
+            try {
+                action.run();
+            } finally {
+                thread = null;
+            }
+            return List.copyOf(selects);
+        }
+
+        @Override
+        public void afterExecute(StatementExecution execution) {
+            if (Thread.currentThread() == thread && "SELECT".equals(execution.operation())) {
+                selects.add(execution.sql());
+            }
+        }
+    }
+
+    interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 3; i++) {
+            created.add(userService.createUser(new UserRequest("sparse-" + UUID.randomUUID() + "@shopflow.com",
+                    "Sparse User " + i, "secret123", Role.USER)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        created.forEach(user -> userService.deleteUser(user.id()));
+    }
+
+    @Test
+    @DisplayName("Lists users with the requested fields only, reading only their columns")
+    void listSelectsRequestedColumns() throws Exception {
+        List<String> selects = captured.capture(() -> mockMvc.perform(
+                        get("/api/users").param("fields", "email").param("count", "NONE").param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(3))
+                .andExpect(onlyFields("$.content[0]", "id", "email"))
+                .andExpect(onlyFields("$.content[2]", "id", "email")));
+
+        assertThat(selects).singleElement().satisfies(sql -> {
+            String columns = columns(sql);
+            assertThat(columns).contains("id", "email");
+            assertThat(columns).doesNotContain("full_name", "role", "password_hash", "created_at", "updated_at",
+                    "version");
+        });
+    }
+
+    @Test
+    @DisplayName("Lists ids only for an empty fieldset, and sorts by any field without a filter")
+    void listIdsSortedByField() throws Exception {
+        mockMvc.perform(get("/api/users").param("fields", "").param("count", "NONE").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(onlyFields("$.content[0]", "id"));
+
+        mockMvc.perform(get("/api/users").param("fields", "fullName").param("sort", "fullName,asc")
+                        .param("count", "NONE"))
+                .andExpect(status().isOk())
+                .andExpect(onlyFields("$.content[0]", "id", "fullName"));
+
+        mockMvc.perform(get("/api/users").param("fields", "fullName").param("role", "USER")
+                        .param("sort", "fullName,asc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("METHOD_ARGUMENT_NOT_VALID"));
+    }
+
+    @Test
+    @DisplayName("Filters a trimmed listing and still counts it")
+    void filteredListing() throws Exception {
+        mockMvc.perform(get("/api/users").param("fields", "role,createdAt").param("role", "USER")
+                        .param("count", "EXACT").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].role").value("USER"))
+                .andExpect(onlyFields("$.content[0]", "id", "role", "createdAt"))
+                .andExpect(jsonPath("$.totalElements").isNumber());
+    }
+
+    @Test
+    @DisplayName("Returns a batch in request order, with the requested fields only and the missing ids apart")
+    void batchInRequestOrder() throws Exception {
+        UUID missing = UUID.randomUUID();
+        List<UUID> ids = List.of(created.get(2).id(), missing, created.get(0).id(), created.get(2).id());
+
+        List<String> selects = captured.capture(() -> mockMvc.perform(post("/api/users/bulk-get")
+                        .param("fields", "fullName,role")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Ids(ids))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users.length()").value(2))
+                .andExpect(jsonPath("$.users[0].id").value(created.get(2).id().toString()))
+                .andExpect(jsonPath("$.users[0].fullName").value("Sparse User 2"))
+                .andExpect(jsonPath("$.users[1].id").value(created.get(0).id().toString()))
+                .andExpect(onlyFields("$.users[1]", "id", "fullName", "role"))
+                .andExpect(jsonPath("$.notFound[0]").value(missing.toString())));
+
+        assertThat(selects).singleElement()
+                .satisfies(sql -> assertThat(columns(sql)).doesNotContain("email", "password_hash"));
+    }
+
+    @Test
+    @DisplayName("Returns all fields of a batch without a fieldset")
+    void batchWithAllFields() throws Exception {
+        mockMvc.perform(post("/api/users/bulk-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Ids(List.of(created.get(1).id())))))
+                .andExpect(status().isOk())
+                .andExpect(onlyFields("$.users[0]", "id", "email", "fullName", "role", "createdAt", "updatedAt",
+                        "version"))
+                .andExpect(jsonPath("$.users[0].email").value(created.get(1).email()));
+    }
+
+    @Test
+    @DisplayName("Trims a single user, by id or by email")
+    void singleUser() throws Exception {
+        UserResponse user = created.get(0);
+
+        mockMvc.perform(get("/api/users/" + user.id()).param("fields", "email,version"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + user.version() + "\""))
+                .andExpect(onlyFields("$", "id", "email", "version"))
+                .andExpect(jsonPath("$.version").value(user.version()));
+        mockMvc.perform(get("/api/users/by-email").param("email", user.email()).param("fields", "fullName"))
+                .andExpect(status().isOk())
+                .andExpect(onlyFields("$", "id", "fullName"));
+        mockMvc.perform(get("/api/users/" + user.id()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fullName").value(user.fullName()))
+                .andExpect(jsonPath("$.email").value(user.email()));
+    }
+
+    @Test
+    @DisplayName("Rejects fields the response does not have")
+    void rejectsUnknownField() throws Exception {
+        mockMvc.perform(get("/api/users").param("fields", "email,passwordHash"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("METHOD_ARGUMENT_NOT_VALID"))
+                .andExpect(jsonPath("$.message").value(containsString("passwordHash")));
+    }
+
+    @Test
+    @DisplayName("Builds each combination of fields once, whatever the order they are named in")
+    void reusesFieldsets() {
+        UserFields fields = UserFields.parse("fullName, email");
+
+        assertThat(UserFields.parse("email,fullName,id")).isSameAs(fields);
+        assertThat(UserFields.of(UserField.EMAIL, UserField.FULL_NAME)).isSameAs(fields);
+        assertThat(fields.fields()).containsExactly(UserField.ID, UserField.EMAIL, UserField.FULL_NAME);
+        assertThat(fields.select()).isEqualTo("select u.id, u.email, u.fullName from User u");
+        assertThat(UserFields.all().fields()).containsExactly(UserField.values());
+    }
+
+    private record Ids(List<UUID> ids) {
+    }
+
+    private ResultMatcher onlyFields(String path, String... names) {
+        return result -> {
+            JsonNode root = objectMapper.readTree(result.getResponse().getContentAsString());
+            JsonNode node = root.at(path.equals("$") ? "" : path.substring(1)
+                    .replaceAll("\\[(\\d+)]", ".$1").replace('.', '/'));
+            List<String> actual = new ArrayList<>();
+            node.fieldNames().forEachRemaining(actual::add);
+            assertThat(actual).as("fields of %s", path).containsExactly(names);
+        };
+    }
+
+    /**
+     * The select list of a statement, up to its first {@code from}.
+     */
+    private static String columns(String sql) {
+        return sql.toLowerCase().split("\\bfrom\\b", 2)[0];
+    }
+}
@@ -0,0 +1,231 @@
+package com.shopflow.user.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopflow.user.dto.UserFilter;
+import com.shopflow.user.jdbc.StatementExecution;
+import com.shopflow.user.jdbc.StatementListener;
+import com.shopflow.user.model.Role;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seeds {@value #SEEDED} users, runs the filtered listing and checks the plans Postgres chooses for the exact
+ * statements Hibernate sent: no sequential scans, and index-only scans on the listing indexes for the cases they
+ * were made for.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UserSearchRepositoryPlanTest {
+
+    private static final int SEEDED = 100_000;
+    private static final String SEED_DOMAIN = "@plan.seed.shopflow.com";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CapturingListener captured;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        CapturingListener capturingListener() {
+            return new CapturingListener();
+        }
+    }
+
+    /**
+     * Keeps the SELECTs run on the test thread while capturing.
+     */
+    static class CapturingListener implements StatementListener {
+        private volatile Thread thread;
+        private final List<String> selects = new ArrayList<>();
+
+        List<String> capture(Runnable action) {
+            selects.clear();
+            thread = Thread.currentThread();
+            try {
+                action.run();
+            } finally {
+                thread = null;
+            }
+            return List.copyOf(selects);
+        }
+
+        @Override
+        public void afterExecute(StatementExecution execution) {
+            if (Thread.currentThread() == thread && "SELECT".equals(execution.operation())) {
+                selects.add(execution.sql());
+            }
+        }
+    }
+
+    @BeforeAll
+    void seed() {
+        // 2% admins, one user every five minutes going back about a year
+        jdbcTemplate.update("""
+                INSERT INTO users (id, email, password_hash, full_name, role, created_at, updated_at)
+                SELECT gen_random_uuid(), 'plan-' || g || ?, 'not-a-hash', 'Seed ' || g,
+                       CASE WHEN g % 50 = 0 THEN 'ADMIN' ELSE 'USER' END,
+                       now() - g * interval '5 minutes', now()
+                FROM generate_series(1, ?) g
+                """, SEED_DOMAIN, SEEDED);
+        // statistics, and the visibility map the planner weighs index-only scans by
+        jdbcTemplate.execute("VACUUM ANALYZE users");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE ?", "%" + SEED_DOMAIN);
+        jdbcTemplate.execute("VACUUM ANALYZE users");
+    }
+
+    @Test
+    @DisplayName("Admins, newest first: index-only page and count on the role index")
+    void admins() {
+        Plans plans = search(new UserFilter(Role.ADMIN, null, null), PageRequest.of(0, 20));
+
+        assertIndexOnly(plans.page(), "users_role_created_at_idx");
+        assertIndexOnly(plans.count(), "users_role_created_at_idx");
+    }
+
+    @Test
+    @DisplayName("Created in the last 24 hours: index-only page and count on the created_at index")
+    void createdInLastDay() {
+        Plans plans = search(new UserFilter(null, OffsetDateTime.now().minusDays(1), null), PageRequest.of(0, 20));
+
+        assertIndexOnly(plans.page(), "users_created_at_idx");
+        assertIndexOnly(plans.count(), "users_created_at_idx");
+    }
+
+    @Test
+    @DisplayName("Admins created in a window, oldest first: index-only on the role index")
+    void adminsInWindow() {
+        OffsetDateTime now = OffsetDateTime.now();
+        Plans plans = search(new UserFilter(Role.ADMIN, now.minusDays(90), now.minusDays(30)),
+                PageRequest.of(1, 20, Sort.by(Sort.Direction.ASC, "createdAt")));
+
+        assertIndexOnly(plans.page(), "users_role_created_at_idx");
+        assertIndexOnly(plans.count(), "users_role_created_at_idx");
+    }
+
+    @Test
+    @DisplayName("Admins sorted by email: no sequential scan")
+    void adminsByEmail() {
+        Plans plans = search(new UserFilter(Role.ADMIN, null, null),
+                PageRequest.of(0, 20, Sort.by(Sort.Direction.ASC, "email")));
+
+        assertThat(nodes(plans.page())).extracting(node -> node.path("Node Type").asText())
+                .doesNotContain("Seq Scan");
+        assertThat(nodes(plans.count())).extracting(node -> node.path("Node Type").asText())
+                .doesNotContain("Seq Scan");
+    }
+
+    private record Plans(JsonNode page, JsonNode count) {
+    }
+
+    /**
+     * Runs the listing and explains its page query and its count query.
+     */
+    private Plans search(UserFilter filter, PageRequest pageable) {
+        List<String> selects = captured.capture(() -> {
+            userRepository.search(filter, pageable);
+            userRepository.countMatching(filter);
+        });
+        assertThat(selects).as("page and count queries").hasSize(2);
+        return new Plans(explain(selects.get(0), filter, pageable), explain(selects.get(1), filter, pageable));
+    }
+
+    /**
+     * Binds the filter's role and timestamps in the order the statement takes them, and the paging values
+     * to the remaining integer parameters.
+     */
+    private JsonNode explain(String sql, UserFilter filter, PageRequest pageable) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + sql)) {
+                Deque<OffsetDateTime> timestamps = new ArrayDeque<>();
+                if (filter.createdAfter() != null) {
+                    timestamps.add(filter.createdAfter());
+                }
+                if (filter.createdBefore() != null) {
+                    timestamps.add(filter.createdBefore());
+                }
+                Deque<Long> paging = new ArrayDeque<>();
+                if (sql.contains(" offset ")) {
+                    paging.add(pageable.getOffset());
+                }
+                // one row more than the page, to tell whether there is a next one
+                paging.add(pageable.getPageSize() + 1L);
+
+                ParameterMetaData parameters = statement.getParameterMetaData();
+                for (int i = 1; i <= parameters.getParameterCount(); i++) {
+                    String type = parameters.getParameterTypeName(i);
+                    if (type.startsWith("timestamp")) {
+                        statement.setObject(i, timestamps.removeFirst());
+                    } else if (type.startsWith("int")) {
+                        statement.setLong(i, paging.removeFirst());
+                    } else {
+                        statement.setString(i, filter.role().name());
+                    }
+                }
+                try (ResultSet result = statement.executeQuery()) {
+                    result.next();
+                    return objectMapper.readTree(result.getString(1)).get(0).get("Plan");
+                } catch (JsonProcessingException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+    }
+
+    private void assertIndexOnly(JsonNode plan, String index) {
+        List<JsonNode> nodes = nodes(plan);
+        assertThat(nodes).extracting(node -> node.path("Node Type").asText())
+                .as("plan %s", plan)
+                .doesNotContain("Seq Scan", "Index Scan", "Bitmap Heap Scan");
+        assertThat(nodes).filteredOn(node -> node.path("Node Type").asText().equals("Index Only Scan"))
+                .as("plan %s", plan)
+                .isNotEmpty()
+                .allSatisfy(node -> assertThat(node.path("Index Name").asText()).isEqualTo(index));
+    }
+
+    private static List<JsonNode> nodes(JsonNode plan) {
+        List<JsonNode> nodes = new ArrayList<>();
+        Deque<JsonNode> pending = new ArrayDeque<>(List.of(plan));
+        while (!pending.isEmpty()) {
+            JsonNode node = pending.removeFirst();
+            nodes.add(node);
+            node.path("Plans").forEach(pending::add);
+        }
+        return nodes;
+    }
+}
@@ -1,29 +1,55 @@
 package com.shopflow.user.service;
 
+import com.shopflow.user.bloom.EmailBloomFilter;
+import com.shopflow.user.coalescing.SingleFlight;
+import com.shopflow.user.directory.UserDirectory;
+import com.shopflow.user.dto.BulkDeleteResponse;
+import com.shopflow.user.dto.UserFilter;
+import com.shopflow.user.dto.UserPatchRequest;
 import com.shopflow.user.dto.UserRequest;
 import com.shopflow.user.dto.UserResponse;
+import com.shopflow.user.listing.CountStrategy;
+import com.shopflow.user.listing.UserCounter;
 import com.shopflow.user.mapper.UserMapper;
 import com.shopflow.user.model.Role;
 import com.shopflow.user.model.User;
 import com.shopflow.user.repository.UserRepository;
+import com.shopflow.user.repository.UserPatchRepository.UserChanges;
+import com.shopflow.user.repository.UserRepository.DeletedUser;
+import com.shopflow.user.service.exception.UnsupportedSortException;
 import com.shopflow.user.service.exception.UserAlreadyExistsException;
 import com.shopflow.user.service.exception.UserNotFoundException;
+import com.shopflow.user.service.exception.UserVersionMismatchException;
+import com.shopflow.user.service.event.UserCreatedEvent;
+import com.shopflow.user.service.event.UserDeletedEvent;
+import com.shopflow.user.service.event.UserUpdatedEvent;
+import com.shopflow.user.service.event.UsersDeletedEvent;
 import com.shopflow.user.service.impl.UserServiceImpl;
 import com.shopflow.user.service.password.PasswordService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -40,7 +66,18 @@ class UserServiceImplTest {
     @Mock
     private PasswordService passwordService;
 
-    @InjectMocks
+    @Mock
+    private EmailBloomFilter emailFilter;
+
+    @Mock
+    private UserDirectory directory;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private UserCounter userCounter;
+
     private UserServiceImpl userService;
 
     private static final UUID USER_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
@@ -51,6 +88,13 @@ class UserServiceImplTest {
 
     @BeforeEach
     void setup() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        userService = new UserServiceImpl(userRepository, userMapper, passwordService,
+                new SingleFlight<>("user-by-id", true, Duration.ofSeconds(1), meterRegistry),
+                new SingleFlight<>("user-by-email", true, Duration.ofSeconds(1), meterRegistry),
+                emailFilter, directory, eventPublisher, TransactionOperations.withoutTransaction(), userCounter);
+        lenient().when(emailFilter.mightContain(any())).thenReturn(true);
+
         user = new User();
         user.setId(USER_ID);
         user.setEmail("test@example.com");
@@ -68,7 +112,8 @@ class UserServiceImplTest {
                 "John Doe",
                 Role.USER,
                 user.getCreatedAt(),
-                user.getUpdatedAt()
+                user.getUpdatedAt(),
+                0
         );
     }
 
@@ -78,16 +123,47 @@ class UserServiceImplTest {
         when(userRepository.findByEmail(request.email())).thenReturn(Optional.empty());
         when(userMapper.toEntity(request)).thenReturn(user);
         when(passwordService.encrypt("plain")).thenReturn("hashed123");
-        when(userRepository.save(user)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenReturn(user);
         when(userMapper.toResponse(user)).thenReturn(response);
 
         UserResponse result = userService.createUser(request);
 
         assertThat(result).isEqualTo(response);
         verify(passwordService).encrypt("plain");
-        verify(userRepository).save(user);
+        verify(userRepository).saveAndFlush(user);
         verify(userMapper).toEntity(request);
         verify(userMapper).toResponse(user);
+        verify(eventPublisher).publishEvent(new UserCreatedEvent(USER_ID, "test@example.com", "John Doe", Role.USER,
+                user.getCreatedAt(), user.getUpdatedAt()));
+    }
+
+    @Test
+    @DisplayName("createUser skips the duplicate lookup when the email filter rules the email out")
+    void createUserSkipsLookupForUnknownEmail() {
+        when(emailFilter.mightContain(request.email())).thenReturn(false);
+        when(userMapper.toEntity(request)).thenReturn(user);
+        when(passwordService.encrypt("plain")).thenReturn("hashed123");
+        when(userRepository.saveAndFlush(user)).thenReturn(user);
+        when(userMapper.toResponse(user)).thenReturn(response);
+
+        userService.createUser(request);
+
+        verify(userRepository, never()).findByEmail(any());
+    }
+
+    @Test
+    @DisplayName("createUser maps a unique-constraint violation to UserAlreadyExistsException")
+    void createUserMapsConcurrentDuplicate() {
+        when(emailFilter.mightContain(request.email())).thenReturn(false);
+        when(userMapper.toEntity(request)).thenReturn(user);
+        when(passwordService.encrypt("plain")).thenReturn("hashed123");
+        when(userRepository.saveAndFlush(user)).thenThrow(new DataIntegrityViolationException("users_email_key"));
+
+        assertThatThrownBy(() -> userService.createUser(request))
+                .isInstanceOf(UserAlreadyExistsException.class)
+                .hasMessageContaining(request.email());
+
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -99,7 +175,7 @@ class UserServiceImplTest {
                 .isInstanceOf(UserAlreadyExistsException.class)
                 .hasMessageContaining(request.email());
 
-        verify(userRepository, never()).save(any());
+        verify(userRepository, never()).saveAndFlush(any());
         verify(passwordService, never()).encrypt(any());
     }
 
@@ -116,6 +192,17 @@ class UserServiceImplTest {
         verify(userMapper).toResponse(user);
     }
 
+    @Test
+    @DisplayName("getUserById answers from the directory without a query")
+    void getUserByIdServedFromDirectory() {
+        when(directory.findById(USER_ID)).thenReturn(Optional.of(response));
+
+        UserResponse result = userService.getUserById(USER_ID);
+
+        assertThat(result).isEqualTo(response);
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     @DisplayName("getUserById throws UserNotFoundException if not found")
     void getUserByIdShouldReturnExceptionIfNotFound() {
@@ -138,6 +225,17 @@ class UserServiceImplTest {
         verify(userRepository).findByEmail("test@example.com");
     }
 
+    @Test
+    @DisplayName("getUserByEmail answers from the directory without a query")
+    void getUserByEmailServedFromDirectory() {
+        when(directory.findByEmail("test@example.com")).thenReturn(Optional.of(response));
+
+        UserResponse result = userService.getUserByEmail("test@example.com");
+
+        assertThat(result).isEqualTo(response);
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     @DisplayName("getUserByEmail throws UserNotFoundException if not found")
     void getUserByEmailShouldThrowExceptionIfNotFound() {
@@ -148,41 +246,236 @@ class UserServiceImplTest {
                 .hasMessageContaining("test@example.com");
     }
 
+    @Test
+    @DisplayName("getUserByEmail answers from the email filter without a query")
+    void getUserByEmailSkipsQueryForUnknownEmail() {
+        when(emailFilter.mightContain("nobody@example.com")).thenReturn(false);
+
+        assertThatThrownBy(() -> userService.getUserByEmail("nobody@example.com"))
+                .isInstanceOf(UserNotFoundException.class);
+
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     @DisplayName("getAllUsers returns users Page")
     void getAllUsersShouldreturnUsersPage() {
-        var pageable = PageRequest.of(0, 10);
-        var users = List.of(user);
-        var page = new PageImpl<>(users, pageable, 1);
+        var pageable = PageRequest.of(0, 1);
+        when(userRepository.findAllBy(pageable)).thenReturn(new SliceImpl<>(List.of(user), pageable, true));
+        when(userMapper.toResponse(user)).thenReturn(response);
+        when(userCounter.resolve(null)).thenReturn(CountStrategy.EXACT);
+        when(userCounter.count(UserFilter.NONE, CountStrategy.EXACT)).thenReturn(7L);
+
+        Slice<UserResponse> result = userService.getAllUsers(pageable, null);
+
+        assertThat(result).isInstanceOf(Page.class);
+        assertThat(result.getContent()).containsExactly(response);
+        assertThat(((Page<UserResponse>) result).getTotalElements()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("getAllUsers returns a slice without counting for NONE")
+    void getAllUsersWithoutCount() {
+        var pageable = PageRequest.of(0, 1);
+        var slice = new SliceImpl<>(List.of(user), pageable, true);
+        when(userRepository.findAllBy(pageable)).thenReturn(slice);
+        when(userMapper.toResponse(user)).thenReturn(response);
+        when(userCounter.resolve(CountStrategy.NONE)).thenReturn(CountStrategy.NONE);
+
+        Slice<UserResponse> result = userService.getAllUsers(pageable, CountStrategy.NONE);
+
+        assertThat(result).isNotInstanceOf(Page.class);
+        assertThat(result.hasNext()).isTrue();
+        verify(userCounter, never()).count(any(), any());
+    }
 
-        when(userRepository.findAll(pageable)).thenReturn(page);
+    @Test
+    @DisplayName("getAllUsers never reports fewer users than the page has seen")
+    void getAllUsersKeepsStaleTotalAboveSeen() {
+        var pageable = PageRequest.of(3, 1);
+        when(userRepository.findAllBy(pageable)).thenReturn(new SliceImpl<>(List.of(user), pageable, true));
         when(userMapper.toResponse(user)).thenReturn(response);
+        when(userCounter.resolve(CountStrategy.ESTIMATED)).thenReturn(CountStrategy.ESTIMATED);
+        when(userCounter.count(UserFilter.NONE, CountStrategy.ESTIMATED)).thenReturn(2L);
+
+        Page<UserResponse> result = (Page<UserResponse>) userService.getAllUsers(pageable, CountStrategy.ESTIMATED);
+
+        assertThat(result.getTotalElements()).isEqualTo(5);
+        assertThat(result.hasNext()).isTrue();
+    }
 
-        Page<UserResponse> result = userService.getAllUsers(pageable);
+    @Test
+    @DisplayName("searchUsers passes the filter and page to the listing query")
+    void searchUsersQueriesRepository() {
+        var filter = new UserFilter(Role.ADMIN, OffsetDateTime.now().minusDays(1), null);
+        var pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "email"));
+        when(userRepository.search(filter, pageable)).thenReturn(new SliceImpl<>(List.of(response), pageable, false));
+        when(userCounter.resolve(CountStrategy.CACHED)).thenReturn(CountStrategy.CACHED);
+
+        Slice<UserResponse> result = userService.searchUsers(filter, pageable, CountStrategy.CACHED);
 
         assertThat(result.getContent()).containsExactly(response);
-        verify(userRepository).findAll(pageable);
+        assertThat(((Page<UserResponse>) result).getTotalElements()).isEqualTo(1);
+        verify(userCounter, never()).count(any(), any());
+        verifyNoInteractions(userMapper);
+    }
+
+    @Test
+    @DisplayName("searchUsers rejects sorts no listing index can serve")
+    void searchUsersRejectsUnsupportedSort() {
+        var filter = new UserFilter(Role.ADMIN, null, null);
+        var pageable = PageRequest.of(0, 10, Sort.by("fullName"));
+
+        assertThatThrownBy(() -> userService.searchUsers(filter, pageable, CountStrategy.EXACT))
+                .isInstanceOf(UnsupportedSortException.class)
+                .hasMessage("Cannot sort by fullName, supported: createdAt, email");
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("updateUser sends only the changed fields and publishes them")
+    void updateUserPatchesChangedFields() {
+        user.setFullName("Jane Doe");
+        user.setVersion(3L);
+        UserPatchRequest patch = new UserPatchRequest(null, "Jane Doe", null, null);
+        when(userRepository.patch(USER_ID, new UserChanges(null, "Jane Doe", null, null), 2L))
+                .thenReturn(Optional.of(user));
+        when(userMapper.toResponse(user)).thenReturn(response);
+
+        UserResponse result = userService.updateUser(USER_ID, patch, 2L);
+
+        assertThat(result).isEqualTo(response);
+        verifyNoInteractions(passwordService);
+        verify(eventPublisher).publishEvent(new UserUpdatedEvent(USER_ID, "test@example.com", "Jane Doe", Role.USER,
+                user.getCreatedAt(), user.getUpdatedAt(), 3L, Set.of("fullName")));
+    }
+
+    @Test
+    @DisplayName("updateUser hashes the password only when it changes")
+    void updateUserHashesNewPassword() {
+        user.setVersion(1L);
+        when(passwordService.encrypt("new-secret")).thenReturn("new-hash");
+        when(userRepository.patch(USER_ID, new UserChanges(null, null, "new-hash", null), null))
+                .thenReturn(Optional.of(user));
+
+        userService.updateUser(USER_ID, new UserPatchRequest(null, null, "new-secret", null), null);
+
+        verify(passwordService).encrypt("new-secret");
+    }
+
+    @Test
+    @DisplayName("updateUser with an empty patch returns the user without writing")
+    void updateUserWithEmptyPatch() {
+        user.setVersion(0L);
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+        when(userMapper.toResponse(user)).thenReturn(response);
+
+        UserResponse result = userService.updateUser(USER_ID, new UserPatchRequest(null, null, null, null), 0L);
+
+        assertThat(result).isEqualTo(response);
+        verify(userRepository, never()).patch(any(), any(), any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("updateUser throws UserVersionMismatchException if the user has moved on")
+    void updateUserRejectsStaleVersion() {
+        when(userRepository.patch(eq(USER_ID), any(), eq(2L))).thenReturn(Optional.empty());
+        when(userRepository.existsById(USER_ID)).thenReturn(true);
+
+        assertThatThrownBy(() -> userService.updateUser(USER_ID, new UserPatchRequest(null, "X", null, null), 2L))
+                .isInstanceOf(UserVersionMismatchException.class)
+                .hasMessageContaining(USER_ID.toString());
+
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("updateUser throws UserNotFoundException if not found")
+    void updateUserThrowsIfNotFound() {
+        when(userRepository.patch(eq(USER_ID), any(), isNull())).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> userService.updateUser(USER_ID, new UserPatchRequest(null, "X", null, null), null))
+                .isInstanceOf(UserNotFoundException.class);
+
+        verify(userRepository, never()).existsById(any());
+    }
+
+    @Test
+    @DisplayName("updateUser maps a unique-constraint violation to UserAlreadyExistsException")
+    void updateUserMapsDuplicateEmail() {
+        when(userRepository.patch(eq(USER_ID), any(), isNull()))
+                .thenThrow(new DataIntegrityViolationException("users_email_key"));
+
+        assertThatThrownBy(() -> userService.updateUser(USER_ID,
+                new UserPatchRequest("taken@example.com", null, null, null), null))
+                .isInstanceOf(UserAlreadyExistsException.class)
+                .hasMessageContaining("taken@example.com");
     }
 
     @Test
     @DisplayName("deleteUser deletes user if found")
     void deleteUserShouldDeleteUserIfFound() {
-        when(userRepository.existsById(USER_ID)).thenReturn(true);
+        when(userRepository.deleteReturningEmail(USER_ID)).thenReturn(Optional.of("test@example.com"));
 
         userService.deleteUser(USER_ID);
 
-        verify(userRepository).deleteById(USER_ID);
+        verify(userRepository, never()).findById(any());
+        verify(eventPublisher).publishEvent(new UserDeletedEvent(USER_ID, "test@example.com"));
     }
 
     @Test
     @DisplayName("deleteUser throws UserNotFoundException user if not found")
     void deleteUserShouldThrowExceptionIfNotFound() {
-        when(userRepository.existsById(USER_ID)).thenReturn(false);
+        when(userRepository.deleteReturningEmail(USER_ID)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> userService.deleteUser(USER_ID))
                 .isInstanceOf(UserNotFoundException.class)
                 .hasMessageContaining(USER_ID.toString());
 
-        verify(userRepository, never()).deleteById(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("deleteUsers reports deleted and missing ids and publishes one event per batch")
+    void deleteUsersReportsDeletedAndMissing() {
+        UUID missing = UUID.randomUUID();
+        when(userRepository.deleteAllReturning(List.of(USER_ID, missing)))
+                .thenReturn(List.of(deletedUser(USER_ID, "test@example.com")));
+
+        BulkDeleteResponse result = userService.deleteUsers(List.of(USER_ID, missing, USER_ID));
+
+        assertThat(result.deleted()).containsExactly(USER_ID);
+        assertThat(result.notFound()).containsExactly(missing);
+        verify(eventPublisher).publishEvent(
+                new UsersDeletedEvent(List.of(new UserDeletedEvent(USER_ID, "test@example.com"))));
+    }
+
+    @Test
+    @DisplayName("deleteUsers splits large requests into set-based batches")
+    void deleteUsersBatches() {
+        List<UUID> ids = Stream.generate(UUID::randomUUID).limit(1200).toList();
+        when(userRepository.deleteAllReturning(anyCollection())).thenReturn(List.of());
+
+        BulkDeleteResponse result = userService.deleteUsers(ids);
+
+        verify(userRepository, times(3)).deleteAllReturning(anyCollection());
+        verify(eventPublisher, never()).publishEvent(any());
+        assertThat(result.deleted()).isEmpty();
+        assertThat(result.notFound()).hasSize(1200);
+    }
+
+    private static DeletedUser deletedUser(UUID id, String email) {
+        return new DeletedUser() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,263 @@
+package com.shopflow.user.service;
+
+import com.shopflow.user.bloom.EmailBloomFilter;
+import com.shopflow.user.dto.UserFilter;
+import com.shopflow.user.dto.UserPatchRequest;
+import com.shopflow.user.dto.UserRequest;
+import com.shopflow.user.dto.UserResponse;
+import com.shopflow.user.jdbc.SqlStatementCounter;
+import com.shopflow.user.listing.CountStrategy;
+import com.shopflow.user.model.Role;
+import com.shopflow.user.repository.UserRepository;
+import com.shopflow.user.service.exception.UserAlreadyExistsException;
+import com.shopflow.user.service.exception.UserNotFoundException;
+import com.shopflow.user.service.exception.UserVersionMismatchException;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.shopflow.user.jdbc.QueryCountAssert.assertQueries;
+
+/**
+ * Pins the number of SQL round trips of every {@link UserService} operation, so that a change which adds a
+ * query (or removes one) shows up here.
+ */
+@SpringBootTest
+class UserServiceQueryCountTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SqlStatementCounter counter;
+
+    @Autowired
+    private EmailBloomFilter emailFilter;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<UUID> created = new ArrayList<>();
+    private UserResponse existing;
+
+    @BeforeEach
+    void setUp() {
+        existing = create();
+        create();
+        create();
+        emailFilter.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        created.forEach(id -> userRepository.findById(id).ifPresent(userRepository::delete));
+    }
+
+    @Test
+    @DisplayName("createUser with a new email: user, outbox and change feed writes; no duplicate check")
+    void createUser() {
+        UserRequest request = request();
+
+        assertQueries(counter, () -> created.add(userService.createUser(request).id()))
+                .succeeded()
+                .hasStatements(3)
+                .hasInserts(2);
+    }
+
+    @Test
+    @DisplayName("createUser with a taken email: duplicate check answered by the entity cache")
+    void createUserDuplicate() {
+        UserRequest request = new UserRequest(existing.email(), "Dup", "secret", Role.USER);
+
+        assertQueries(counter, () -> userService.createUser(request))
+                .failedWith(UserAlreadyExistsException.class)
+                .hasStatements(0);
+    }
+
+    @Test
+    @DisplayName("createUser with a taken email, cold cache: duplicate check only")
+    void createUserDuplicateCold() {
+        UserRequest request = new UserRequest(existing.email(), "Dup", "secret", Role.USER);
+        entityManagerFactory.getCache().evictAll();
+
+        assertQueries(counter, () -> userService.createUser(request))
+                .failedWith(UserAlreadyExistsException.class)
+                .hasStatements(1)
+                .hasSelects(1);
+    }
+
+    @Test
+    @DisplayName("getUserById: answered by the entity cache")
+    void getUserById() {
+        assertQueries(counter, () -> userService.getUserById(existing.id()))
+                .succeeded()
+                .hasStatements(0);
+    }
+
+    @Test
+    @DisplayName("getUserById, cold cache: one select")
+    void getUserByIdCold() {
+        entityManagerFactory.getCache().evictAll();
+
+        assertQueries(counter, () -> userService.getUserById(existing.id()))
+                .succeeded()
+                .hasStatements(1)
+                .hasRowsRead(1);
+    }
+
+    @Test
+    @DisplayName("getUserByEmail: natural id and entity answered by the entity cache")
+    void getUserByEmail() {
+        assertQueries(counter, () -> userService.getUserByEmail(existing.email()))
+                .succeeded()
+                .hasStatements(0);
+    }
+
+    @Test
+    @DisplayName("getUserByEmail, cold cache: one select")
+    void getUserByEmailCold() {
+        entityManagerFactory.getCache().evictAll();
+
+        assertQueries(counter, () -> userService.getUserByEmail(existing.email()))
+                .succeeded()
+                .hasStatements(1)
+                .hasRowsRead(1);
+    }
+
+    @Test
+    @DisplayName("getUserByEmail with an unknown email: answered by the email filter")
+    void getUserByUnknownEmail() {
+        assertQueries(counter, () -> userService.getUserByEmail(request().email()))
+                .failedWith(UserNotFoundException.class)
+                .hasStatements(0);
+    }
+
+    @Test
+    @DisplayName("getAllUsers with an exact count: page select plus count query")
+    void getAllUsers() {
+        assertQueries(counter, () -> userService.getAllUsers(PageRequest.of(0, 2), CountStrategy.EXACT))
+                .succeeded()
+                .hasStatements(2)
+                .hasSelects(2);
+    }
+
+    @Test
+    @DisplayName("searchUsers with a short first page: page select only, no count query")
+    void searchUsersShortPage() {
+        UserFilter filter = new UserFilter(Role.USER, existing.createdAt(), null);
+
+        assertQueries(counter, () -> userService.searchUsers(filter, PageRequest.of(0, 20), CountStrategy.EXACT))
+                .succeeded()
+                .hasStatements(1)
+                .hasRowsRead(3);
+    }
+
+    @Test
+    @DisplayName("searchUsers with a full page and an exact count: page select plus count query")
+    void searchUsers() {
+        UserFilter filter = new UserFilter(Role.USER, existing.createdAt(), null);
+
+        assertQueries(counter, () -> userService.searchUsers(filter, PageRequest.of(0, 2), CountStrategy.EXACT))
+                .succeeded()
+                .hasStatements(2)
+                .hasSelects(2);
+    }
+
+    @Test
+    @DisplayName("getAllUsers without a count: page select only")
+    void getAllUsersWithoutCount() {
+        assertQueries(counter, () -> userService.getAllUsers(PageRequest.of(0, 2), CountStrategy.NONE))
+                .succeeded()
+                .hasStatements(1)
+                .hasRowsRead(3);
+    }
+
+    @Test
+    @DisplayName("getAllUsers with an estimated count: page select plus one planner estimate")
+    void getAllUsersEstimated() {
+        assertQueries(counter, () -> userService.getAllUsers(PageRequest.of(0, 2), CountStrategy.ESTIMATED))
+                .succeeded()
+                .hasStatements(2)
+                .hasRowsRead(4);
+    }
+
+    @Test
+    @DisplayName("updateUser: one update ... returning plus outbox and change feed writes; no load")
+    void updateUser() {
+        UserPatchRequest patch = new UserPatchRequest(null, "Renamed", null, null);
+
+        assertQueries(counter, () -> userService.updateUser(existing.id(), patch, existing.version()))
+                .succeeded()
+                .hasStatements(3)
+                .hasUpdates(1)
+                .hasInserts(1)
+                .hasRowsRead(1);
+    }
+
+    @Test
+    @DisplayName("updateUser at a stale version: one update matching nothing plus an existence check")
+    void updateUserStale() {
+        UserPatchRequest patch = new UserPatchRequest(null, "Renamed", null, null);
+
+        assertQueries(counter, () -> userService.updateUser(existing.id(), patch, existing.version() + 1))
+                .failedWith(UserVersionMismatchException.class)
+                .hasStatements(2)
+                .hasUpdates(1)
+                .hasSelects(1);
+    }
+
+    @Test
+    @DisplayName("deleteUser: one delete ... returning plus outbox and change feed writes")
+    void deleteUser() {
+        assertQueries(counter, () -> userService.deleteUser(existing.id()))
+                .succeeded()
+                .hasStatements(3)
+                .hasDeletes(1)
+                .hasInserts(1)
+                .hasRowsRead(1);
+    }
+
+    @Test
+    @DisplayName("deleteUser with an unknown id: one delete matching nothing")
+    void deleteUnknownUser() {
+        assertQueries(counter, () -> userService.deleteUser(UUID.randomUUID()))
+                .failedWith(UserNotFoundException.class)
+                .hasStatements(1)
+                .hasDeletes(1);
+    }
+
+    @Test
+    @DisplayName("deleteUsers: one delete, one batched outbox insert and one change feed write per batch")
+    void deleteUsers() {
+        List<UUID> ids = List.of(created.get(0), created.get(1), UUID.randomUUID());
+
+        assertQueries(counter, () -> userService.deleteUsers(ids))
+                .succeeded()
+                .hasStatements(3)
+                .hasDeletes(1)
+                .hasInserts(1)
+                .hasRowsRead(2);
+    }
+
+    private UserResponse create() {
+        UserResponse response = userService.createUser(request());
+        created.add(response.id());
+        return response;
+    }
+
+    private static UserRequest request() {
+        return new UserRequest("qc-" + UUID.randomUUID() + "@shopflow.com", "Query Count", "secret", Role.USER);
+    }
+}
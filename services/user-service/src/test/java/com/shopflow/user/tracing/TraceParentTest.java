@@ -0,0 +1,73 @@
+package com.shopflow.user.tracing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TraceParentTest {
+
+    private static final String VALID = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+    @Test
+    @DisplayName("Parses a valid traceparent header")
+    void parsesValidHeader() {
+        TraceContext context = TraceParent.parse(VALID);
+
+        assertThat(context).isNotNull();
+        assertThat(context.traceIdHex()).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+        assertThat(context.spanIdHex()).isEqualTo("00f067aa0ba902b7");
+        assertThat(context.sampled()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Reads the sampled flag")
+    void readsNotSampledFlag() {
+        TraceContext context = TraceParent.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-00");
+
+        assertThat(context).isNotNull();
+        assertThat(context.sampled()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Format is the inverse of parse")
+    void formatRoundTrips() {
+        assertThat(TraceParent.format(TraceParent.parse(VALID))).isEqualTo(VALID);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "garbage",
+            "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01-extra",
+            "00-4BF92F3577B34DA6A3CE929D0E0E4736-00f067aa0ba902b7-01",
+            "00-00000000000000000000000000000000-00f067aa0ba902b7-01",
+            "00-4bf92f3577b34da6a3ce929d0e0e4736-0000000000000000-01",
+            "ff-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01",
+            "00_4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01"
+    })
+    @DisplayName("Rejects malformed headers")
+    void rejectsMalformedHeaders(String header) {
+        assertThat(TraceParent.parse(header)).isNull();
+    }
+
+    @Test
+    @DisplayName("Returns null for missing header")
+    void returnsNullForMissingHeader() {
+        assertThat(TraceParent.parse(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("Generated correlation ids are valid version 4 UUIDs")
+    void generatesVersion4Uuids() {
+        UUID uuid = TraceIds.randomUuid();
+
+        assertThat(uuid.version()).isEqualTo(4);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(UUID.fromString(uuid.toString())).isEqualTo(uuid);
+    }
+}
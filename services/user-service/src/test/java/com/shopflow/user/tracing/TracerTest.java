@@ -0,0 +1,87 @@
+package com.shopflow.user.tracing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TracerTest {
+
+    private InMemorySpanExporter exporter;
+    private Tracer tracer;
+
+    @BeforeEach
+    void setUp() {
+        exporter = new InMemorySpanExporter(16);
+        tracer = new Tracer(List.of(exporter), true, 1.0);
+    }
+
+    @Test
+    @DisplayName("Child spans share the trace id and point to their parent")
+    void childSpansFormATree() {
+        Span server = tracer.startServerSpan("GET /api/users", null);
+        Span controller = tracer.startSpan("UserController.getAll(..)", Span.Kind.INTERNAL);
+        Span sql = tracer.startDetachedSpan("SQL SELECT", Span.Kind.CLIENT, System.nanoTime());
+        tracer.endDetached(sql, 1_000);
+        tracer.end(controller);
+        tracer.end(server);
+
+        List<Span> spans = exporter.trace(server.context().traceIdHex());
+
+        assertThat(spans).hasSize(3);
+        assertThat(controller.parentSpanId()).isEqualTo(server.context().spanId());
+        assertThat(sql.parentSpanId()).isEqualTo(controller.context().spanId());
+        assertThat(tracer.currentSpan()).isNull();
+    }
+
+    @Test
+    @DisplayName("Continues the remote trace from traceparent")
+    void continuesRemoteTrace() {
+        TraceContext remote = TraceParent.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01");
+
+        Span server = tracer.startServerSpan("GET /api/users", remote);
+        tracer.end(server);
+
+        assertThat(server.context().traceIdHex()).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+        assertThat(server.parentSpanId()).isEqualTo(remote.spanId());
+        assertThat(server.context().spanId()).isNotEqualTo(remote.spanId());
+    }
+
+    @Test
+    @DisplayName("Does not record spans of unsampled requests")
+    void skipsUnsampledRequests() {
+        TraceContext remote = TraceParent.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-00");
+
+        Span server = tracer.startServerSpan("GET /api/users", remote);
+        Span child = tracer.startSpan("UserServiceImpl.getAllUsers(..)", Span.Kind.INTERNAL);
+        tracer.end(child);
+        tracer.end(server);
+
+        assertThat(child.isRecording()).isFalse();
+        assertThat(exporter.snapshot()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Spans outside of a request are no-ops")
+    void spansOutsideRequestAreNoops() {
+        Span span = tracer.startSpan("UserServiceImpl.getAllUsers(..)", Span.Kind.INTERNAL);
+        tracer.end(span);
+
+        assertThat(span.isRecording()).isFalse();
+        assertThat(exporter.snapshot()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Records errors on the span")
+    void recordsErrors() {
+        Span server = tracer.startServerSpan("GET /api/users", null);
+        server.recordError(new IllegalStateException("boom"));
+        tracer.end(server);
+
+        assertThat(server.status()).isEqualTo(Span.Status.ERROR);
+        assertThat(server.statusMessage()).contains("boom");
+    }
+}
@@ -0,0 +1,40 @@
+package com.shopflow.user.warmup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class WarmupTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private WarmupProperties properties;
+
+    @Autowired
+    private ApplicationAvailability availability;
+
+    @Test
+    @DisplayName("Runs every stage during startup and reports it")
+    void runsEveryStage() {
+        for (String stage : new String[]{"mapper", "sanitizer", "serialization", "hashing", "repository"}) {
+            assertThat(meterRegistry.get("shopflow.warmup.duration").tag("stage", stage).timer().count())
+                    .as(stage).isEqualTo(1);
+        }
+        assertThat(meterRegistry.get("shopflow.warmup.calls").tag("stage", "mapper").gauge().value())
+                .isEqualTo(properties.getIterations());
+        assertThat(meterRegistry.get("shopflow.warmup.speedup").tag("stage", "mapper").gauge().value())
+                .isPositive();
+        assertThat(meterRegistry.get("shopflow.warmup.calls").tag("stage", "pool").gauge().value())
+                .isPositive();
+        assertThat(availability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+    }
+}